@@ -25,6 +25,7 @@ import com.braintreepayments.api.interfaces.BraintreeListener;
 import com.braintreepayments.api.interfaces.BraintreeResponseListener;
 import com.braintreepayments.api.interfaces.ConfigurationListener;
 import com.braintreepayments.api.interfaces.PaymentMethodNonceCreatedListener;
+import com.braintreepayments.api.interfaces.PaymentMethodNoncesChangedListener;
 import com.braintreepayments.api.interfaces.PaymentMethodNoncesUpdatedListener;
 import com.braintreepayments.api.interfaces.QueuedCallback;
 import com.braintreepayments.api.interfaces.UnionPayListener;
@@ -75,6 +76,8 @@ public class BraintreeFragment extends BrowserSwitchFragment {
     static final String EXTRA_CACHED_PAYMENT_METHOD_NONCES = "com.braintreepayments.api.EXTRA_CACHED_PAYMENT_METHOD_NONCES";
     @VisibleForTesting
     static final String EXTRA_FETCHED_PAYMENT_METHOD_NONCES = "com.braintreepayments.api.EXTRA_FETCHED_PAYMENT_METHOD_NONCES";
+    @VisibleForTesting
+    static final String EXTRA_SAVED_STATE_KEY = "com.braintreepayments.api.EXTRA_SAVED_STATE_KEY";
 
     @VisibleForTesting
     protected BraintreeHttpClient mHttpClient;
@@ -87,6 +90,8 @@ public class BraintreeFragment extends BrowserSwitchFragment {
     private final Queue<QueuedCallback> mCallbackQueue = new ArrayDeque<>();
     private final List<PaymentMethodNonce> mCachedPaymentMethodNonces = new ArrayList<>();
     private boolean mHasFetchedPaymentMethodNonces = false;
+    private boolean mExternalizeSavedState = false;
+    private boolean mRestoringSavedState = false;
     private boolean mNewActivityNeedsConfiguration;
     private int mConfigurationRequestAttempts = 0;
     private String mIntegrationType;
@@ -97,6 +102,7 @@ public class BraintreeFragment extends BrowserSwitchFragment {
     private BraintreeResponseListener<Exception> mConfigurationErrorListener;
     private BraintreeCancelListener mCancelListener;
     private PaymentMethodNoncesUpdatedListener mPaymentMethodNoncesUpdatedListener;
+    private PaymentMethodNoncesChangedListener mPaymentMethodNoncesChangedListener;
     private PaymentMethodNonceCreatedListener mPaymentMethodNonceCreatedListener;
     private BraintreeErrorListener mErrorListener;
     private UnionPayListener mUnionPayListener;
@@ -183,16 +189,21 @@ public class BraintreeFragment extends BrowserSwitchFragment {
         }
 
         if (savedInstanceState != null) {
-            List<PaymentMethodNonce> paymentMethodNonces =
-                    savedInstanceState.getParcelableArrayList(EXTRA_CACHED_PAYMENT_METHOD_NONCES);
-            if (paymentMethodNonces != null) {
-                mCachedPaymentMethodNonces.addAll(paymentMethodNonces);
-            }
-
             mHasFetchedPaymentMethodNonces = savedInstanceState.getBoolean(EXTRA_FETCHED_PAYMENT_METHOD_NONCES);
-            try {
-                setConfiguration(Configuration.fromJson(savedInstanceState.getString(EXTRA_CONFIGURATION)));
-            } catch (JSONException ignored) {}
+
+            String savedStateKey = savedInstanceState.getString(EXTRA_SAVED_STATE_KEY);
+            if (savedStateKey != null) {
+                mExternalizeSavedState = true;
+                restoreExternalizedState(savedStateKey);
+            } else {
+                List<PaymentMethodNonce> paymentMethodNonces =
+                        savedInstanceState.getParcelableArrayList(EXTRA_CACHED_PAYMENT_METHOD_NONCES);
+                if (paymentMethodNonces != null) {
+                    mCachedPaymentMethodNonces.addAll(paymentMethodNonces);
+                }
+
+                restoreConfiguration(savedInstanceState.getString(EXTRA_CONFIGURATION));
+            }
         } else {
             if (mAuthorization instanceof TokenizationKey) {
                 sendAnalyticsEvent("started.client-key");
@@ -250,9 +261,17 @@ public class BraintreeFragment extends BrowserSwitchFragment {
     @Override
     public void onSaveInstanceState(Bundle outState) {
         super.onSaveInstanceState(outState);
+        outState.putBoolean(EXTRA_FETCHED_PAYMENT_METHOD_NONCES, mHasFetchedPaymentMethodNonces);
+
+        if (mExternalizeSavedState) {
+            SavedStateStore.put(getApplicationContext(), mSessionId,
+                    mConfiguration != null ? mConfiguration.toJson() : null);
+            outState.putString(EXTRA_SAVED_STATE_KEY, mSessionId);
+            return;
+        }
+
         outState.putParcelableArrayList(EXTRA_CACHED_PAYMENT_METHOD_NONCES,
                 (ArrayList<? extends Parcelable>) mCachedPaymentMethodNonces);
-        outState.putBoolean(EXTRA_FETCHED_PAYMENT_METHOD_NONCES, mHasFetchedPaymentMethodNonces);
 
         if (mConfiguration != null) {
             outState.putString(EXTRA_CONFIGURATION, mConfiguration.toJson());
@@ -284,6 +303,10 @@ public class BraintreeFragment extends BrowserSwitchFragment {
     public void onDestroy() {
         super.onDestroy();
 
+        if (mExternalizeSavedState && getActivity() != null && getActivity().isFinishing()) {
+            SavedStateStore.discard(getApplicationContext(), mSessionId);
+        }
+
         mCrashReporter.tearDown();
     }
 
@@ -357,6 +380,10 @@ public class BraintreeFragment extends BrowserSwitchFragment {
             mPaymentMethodNoncesUpdatedListener = (PaymentMethodNoncesUpdatedListener) listener;
         }
 
+        if (listener instanceof PaymentMethodNoncesChangedListener) {
+            mPaymentMethodNoncesChangedListener = (PaymentMethodNoncesChangedListener) listener;
+        }
+
         if (listener instanceof PaymentMethodNonceCreatedListener) {
             mPaymentMethodNonceCreatedListener = (PaymentMethodNonceCreatedListener) listener;
         }
@@ -390,6 +417,10 @@ public class BraintreeFragment extends BrowserSwitchFragment {
             mPaymentMethodNoncesUpdatedListener = null;
         }
 
+        if (listener instanceof PaymentMethodNoncesChangedListener) {
+            mPaymentMethodNoncesChangedListener = null;
+        }
+
         if (listener instanceof PaymentMethodNonceCreatedListener) {
             mPaymentMethodNonceCreatedListener = null;
         }
@@ -421,6 +452,10 @@ public class BraintreeFragment extends BrowserSwitchFragment {
             listeners.add(mPaymentMethodNoncesUpdatedListener);
         }
 
+        if (mPaymentMethodNoncesChangedListener != null) {
+            listeners.add(mPaymentMethodNoncesChangedListener);
+        }
+
         if (mPaymentMethodNonceCreatedListener != null) {
             listeners.add(mPaymentMethodNonceCreatedListener);
         }
@@ -436,6 +471,22 @@ public class BraintreeFragment extends BrowserSwitchFragment {
         return listeners;
     }
 
+    /**
+     * Controls how state is saved in {@link #onSaveInstanceState(Bundle)}. By default the {@link Configuration} and
+     * the cached {@link PaymentMethodNonce}s are written to the instance state {@link Bundle}. Large merchant
+     * configurations and wallets can make that {@link Bundle} approach the binder transaction size limit.
+     * <p/>
+     * When enabled, the {@link Configuration} is instead kept in memory and in the app's cache directory, and only a
+     * key for it is saved in the {@link Bundle}. It is restored from memory when available, and read from disk in the
+     * background when the process was killed while in the background. Cached {@link PaymentMethodNonce}s are not
+     * saved, as nonces can be used to create transactions, so they need to be fetched again after a restore.
+     *
+     * @param externalizeSavedState {@code true} to keep large state out of the instance state {@link Bundle}.
+     */
+    public void setExternalizeSavedState(boolean externalizeSavedState) {
+        mExternalizeSavedState = externalizeSavedState;
+    }
+
     /**
      * A boolean indicating whether the current customer's payment methods have been fetched with
      * {@link PaymentMethod#getPaymentMethodNonces(BraintreeFragment)} yet.
@@ -524,6 +575,7 @@ public class BraintreeFragment extends BrowserSwitchFragment {
         }
 
         mCachedPaymentMethodNonces.add(0, paymentMethodNonce);
+        PaymentMethodNonceCache.invalidate(mAuthorization);
 
         postOrQueueCallback(new QueuedCallback() {
             @Override
@@ -567,6 +619,11 @@ public class BraintreeFragment extends BrowserSwitchFragment {
     }
 
     protected void postCallback(final List<PaymentMethodNonce> paymentMethodNonceList) {
+        List<PaymentMethodNonce> previousPaymentMethodNonces = mHasFetchedPaymentMethodNonces ?
+                mCachedPaymentMethodNonces : Collections.<PaymentMethodNonce>emptyList();
+        final PaymentMethodNonceCache.Changes changes =
+                PaymentMethodNonceCache.diff(previousPaymentMethodNonces, paymentMethodNonceList);
+
         mCachedPaymentMethodNonces.clear();
         mCachedPaymentMethodNonces.addAll(paymentMethodNonceList);
         mHasFetchedPaymentMethodNonces = true;
@@ -581,6 +638,21 @@ public class BraintreeFragment extends BrowserSwitchFragment {
                 mPaymentMethodNoncesUpdatedListener.onPaymentMethodNoncesUpdated(paymentMethodNonceList);
             }
         });
+
+        if (!changes.isEmpty()) {
+            postOrQueueCallback(new QueuedCallback() {
+                @Override
+                public boolean shouldRun() {
+                    return mPaymentMethodNoncesChangedListener != null;
+                }
+
+                @Override
+                public void run() {
+                    mPaymentMethodNoncesChangedListener.onPaymentMethodNoncesChanged(changes.mAdded,
+                            changes.mRemoved, changes.mUpdated);
+                }
+            });
+        }
     }
 
     protected void postCallback(final Exception error) {
@@ -620,8 +692,8 @@ public class BraintreeFragment extends BrowserSwitchFragment {
 
     @VisibleForTesting
     protected void fetchConfiguration() {
-        if (getConfiguration() != null || ConfigurationManager.isFetchingConfiguration() || mAuthorization == null ||
-                mHttpClient == null) {
+        if (getConfiguration() != null || mRestoringSavedState || ConfigurationManager.isFetchingConfiguration() ||
+                mAuthorization == null || mHttpClient == null) {
             return;
         }
 
@@ -663,6 +735,33 @@ public class BraintreeFragment extends BrowserSwitchFragment {
         });
     }
 
+    /**
+     * Restores the configuration saved by {@link SavedStateStore}. Configuration is not fetched while the store reads
+     * it from disk, and is fetched as usual if there was none saved.
+     */
+    private void restoreExternalizedState(String savedStateKey) {
+        mHasFetchedPaymentMethodNonces = false;
+        mRestoringSavedState = true;
+        SavedStateStore.remove(getApplicationContext(), savedStateKey, new BraintreeResponseListener<String>() {
+            @Override
+            public void onResponse(String configuration) {
+                mRestoringSavedState = false;
+                if (getConfiguration() == null) {
+                    restoreConfiguration(configuration);
+                    flushCallbacks();
+                }
+
+                fetchConfiguration();
+            }
+        });
+    }
+
+    private void restoreConfiguration(@Nullable String configuration) {
+        try {
+            setConfiguration(Configuration.fromJson(configuration));
+        } catch (JSONException ignored) {}
+    }
+
     protected void setConfigurationErrorListener(BraintreeResponseListener<Exception> listener) {
         mConfigurationErrorListener = listener;
     }
@@ -1,9 +1,12 @@
 package com.braintreepayments.api;
 
+import com.braintreepayments.api.interfaces.BatchTokenizationCallback;
 import com.braintreepayments.api.interfaces.PaymentMethodNonceCallback;
 import com.braintreepayments.api.models.CardBuilder;
 import com.braintreepayments.api.models.PaymentMethodNonce;
 
+import java.util.List;
+
 /**
  * Used to tokenize credit or debit cards using a {@link CardBuilder}. For more information see the
  * <a href="https://developers.braintreepayments.com/guides/credit-cards/overview">documentation</a>
@@ -22,6 +25,10 @@ public class Card {
      * If an error not due to validation (server error, network issue, etc.) occurs, {@link
      * com.braintreepayments.api.interfaces.BraintreeErrorListener#onError(Exception)}
      * will be called with the {@link Exception} that occurred.
+     * <p/>
+     * If {@link CardBuilder#validateLocally(boolean)} is set and the card fails
+     * {@link CardBuilder#getValidationErrors(com.braintreepayments.api.models.Configuration)}, the
+     * {@link com.braintreepayments.api.exceptions.ErrorWithResponse} is returned without a request to Braintree.
      *
      * @param fragment {@link BraintreeFragment}
      * @param cardBuilder {@link CardBuilder}
@@ -41,4 +48,36 @@ public class Card {
             }
         });
     }
+
+    /**
+     * Create a {@link com.braintreepayments.api.models.CardNonce} for each {@link CardBuilder} in a list, for
+     * example when importing several stored cards at once.
+     * <p/>
+     * Requests are sent concurrently with a bounded number in flight at a time. A failure for one card does not
+     * stop the rest of the batch. On completion, the {@link PaymentMethodNonce} or {@link Exception} for every
+     * {@link CardBuilder} is returned to {@link BatchTokenizationCallback} in the same order as the builders were
+     * given. Results are not sent to {@link com.braintreepayments.api.interfaces.PaymentMethodNonceCreatedListener}
+     * or {@link com.braintreepayments.api.interfaces.BraintreeErrorListener}.
+     *
+     * @param fragment {@link BraintreeFragment}
+     * @param cardBuilders {@link CardBuilder}s for the cards to tokenize.
+     * @param callback {@link BatchTokenizationCallback} to receive the results.
+     */
+    public static void tokenize(final BraintreeFragment fragment, List<CardBuilder> cardBuilders,
+            final BatchTokenizationCallback callback) {
+        TokenizationClient.tokenize(fragment, cardBuilders, new BatchTokenizationCallback() {
+            @Override
+            public void onComplete(List<PaymentMethodNonce> paymentMethodNonces, List<Exception> exceptions) {
+                for (PaymentMethodNonce paymentMethodNonce : paymentMethodNonces) {
+                    if (paymentMethodNonce != null) {
+                        fragment.sendAnalyticsEvent("card.nonce-received");
+                    } else {
+                        fragment.sendAnalyticsEvent("card.nonce-failed");
+                    }
+                }
+
+                callback.onComplete(paymentMethodNonces, exceptions);
+            }
+        });
+    }
 }
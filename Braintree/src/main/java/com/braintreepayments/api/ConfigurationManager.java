@@ -1,17 +1,15 @@
 package com.braintreepayments.api;
 
 import android.content.Context;
-import android.content.SharedPreferences;
 import android.net.Uri;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.VisibleForTesting;
-import android.util.Base64;
 
 import com.braintreepayments.api.interfaces.BraintreeResponseListener;
 import com.braintreepayments.api.interfaces.ConfigurationListener;
 import com.braintreepayments.api.interfaces.HttpResponseCallback;
-import com.braintreepayments.api.internal.BraintreeSharedPreferences;
+import com.braintreepayments.api.internal.BraintreeFileCache;
 import com.braintreepayments.api.models.ClientToken;
 import com.braintreepayments.api.models.Configuration;
 import com.braintreepayments.api.models.TokenizationKey;
@@ -83,28 +81,19 @@ class ConfigurationManager {
 
     @Nullable
     private static Configuration getCachedConfiguration(Context context, String configUrl) {
-        SharedPreferences prefs = BraintreeSharedPreferences.getSharedPreferences(context);
-        configUrl = Base64.encodeToString(configUrl.getBytes(), 0);
-
-        String timestampKey = configUrl + "_timestamp";
-        if ((System.currentTimeMillis() - prefs.getLong(timestampKey, 0)) > TTL) {
+        BraintreeFileCache.Entry entry = BraintreeFileCache.get(context, configUrl);
+        if (entry == null || (System.currentTimeMillis() - entry.getTimestamp()) > TTL) {
             return null;
         }
 
         try {
-            return Configuration.fromJson(prefs.getString(configUrl, ""));
+            return Configuration.fromJson(entry.getValue());
         } catch (JSONException e) {
             return null;
         }
     }
 
     private static void cacheConfiguration(Context context, String configUrl, Configuration configuration) {
-        configUrl = Base64.encodeToString(configUrl.getBytes(), 0);
-
-        String timestampKey = configUrl + "_timestamp";
-        BraintreeSharedPreferences.getSharedPreferences(context).edit()
-                .putString(configUrl, configuration.toJson())
-                .putLong(timestampKey, System.currentTimeMillis())
-                .apply();
+        BraintreeFileCache.put(context, configUrl, configuration.toJson());
     }
 }
@@ -15,6 +15,11 @@ import com.paypal.android.sdk.onetouch.core.PayPalOneTouchCore;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 /**
  * DataCollector is used to collect device information to aid in fraud detection and prevention.
  */
@@ -26,6 +31,11 @@ public class DataCollector {
 
     private static final String BRAINTREE_MERCHANT_ID = "600000";
 
+    /**
+     * Waits for PayPal Client Metadata IDs that are generated in the background.
+     */
+    @VisibleForTesting
+    static ExecutorService sExecutor = Executors.newSingleThreadExecutor();
 
     /**
      * Collect device information for fraud identification purposes.
@@ -47,47 +57,123 @@ public class DataCollector {
      */
     public static void collectDeviceData(final BraintreeFragment fragment, final String merchantId,
             final BraintreeResponseListener<String> listener) {
+        collectDeviceData(fragment, merchantId, 0, listener, null);
+    }
+
+    /**
+     * Collect device information for fraud identification purposes, waiting at most {@code timeoutMillis} for the
+     * PayPal and Kount collectors, which run concurrently. If a collector has not completed by then the device data
+     * is returned without its values.
+     *
+     * @param fragment {@link BraintreeFragment}
+     * @param merchantId The fraud merchant id from Braintree, or {@code null} to use the one from the configuration.
+     * @param timeoutMillis The maximum time to wait for the collectors after the configuration is available, or
+     *        {@code 0} to wait until they complete.
+     * @param listener listener to be called with the device data String to send to Braintree.
+     * @param lateListener optional listener to be called with the complete device data String if the collectors
+     *        complete after {@code listener} has been called with partial device data.
+     */
+    public static void collectDeviceData(final BraintreeFragment fragment, @Nullable final String merchantId,
+            final long timeoutMillis, final BraintreeResponseListener<String> listener,
+            @Nullable final BraintreeResponseListener<String> lateListener) {
         fragment.waitForConfiguration(new ConfigurationListener() {
             @Override
-            public void onConfigurationFetched(Configuration configuration) {
-                final JSONObject deviceData = new JSONObject();
+            public void onConfigurationFetched(final Configuration configuration) {
+                final DeviceDataCollection collection = new DeviceDataCollection(fragment, listener, lateListener);
+                if (timeoutMillis > 0) {
+                    collection.timeOutAfter(timeoutMillis);
+                }
 
-                try {
-                    String clientMetadataId = getPayPalClientMetadataId(fragment.getApplicationContext());
-                    if (!TextUtils.isEmpty(clientMetadataId)) {
-                        deviceData.put(CORRELATION_ID_KEY, clientMetadataId);
-                    }
-                } catch (JSONException ignored) {}
-
-                if (configuration.getKount().isEnabled()) {
-                    final String id;
-                    if (merchantId != null) {
-                        id = merchantId;
-                    } else {
-                        id = configuration.getKount().getKountMerchantId();
+                String sessionKey = DeviceDataSessions.getKey(merchantId, configuration.getKount().getKountMerchantId(),
+                        configuration.getEnvironment());
+                Runnable collectors = new Runnable() {
+                    @Override
+                    public void run() {
+                        startCollectors(fragment, configuration, merchantId, collection);
                     }
+                };
+                if (DeviceDataSessions.attach(sessionKey, collection, collectors)) {
+                    return;
+                }
+
+                collectors.run();
+            }
+        });
+    }
+
+    private static void startCollectors(BraintreeFragment fragment, Configuration configuration,
+            @Nullable String merchantId, final DeviceDataCollection collection) {
+        // every collector is expected before any is started, so that one that completes immediately does not
+        // complete the collection
+        boolean isKountEnabled = configuration.getKount().isEnabled();
+        collection.expect(DeviceDataCollection.PAYPAL);
+        if (isKountEnabled) {
+            collection.expect(DeviceDataCollection.KOUNT);
+        }
+
+        collectPayPalClientMetadataId(fragment.getApplicationContext(), collection);
+
+        if (isKountEnabled) {
+            final String id;
+            if (merchantId != null) {
+                id = merchantId;
+            } else {
+                id = configuration.getKount().getKountMerchantId();
+            }
 
-                    try {
-                        final String deviceSessionId = UUIDHelper.getFormattedUUID();
-                        startDeviceCollector(fragment, id, deviceSessionId, new BraintreeResponseListener<String>() {
+            try {
+                final String deviceSessionId = UUIDHelper.getFormattedUUID();
+                startDeviceCollector(fragment, configuration, id, deviceSessionId,
+                        new BraintreeResponseListener<String>() {
                             @Override
                             public void onResponse(String sessionId) {
-                                try {
-                                    deviceData.put(DEVICE_SESSION_ID_KEY, deviceSessionId);
-                                    deviceData.put(FRAUD_MERCHANT_ID_KEY, id);
-                                } catch (JSONException ignored) {}
-
-                                listener.onResponse(deviceData.toString());
+                                collection.complete(DeviceDataCollection.KOUNT, DEVICE_SESSION_ID_KEY,
+                                        deviceSessionId, FRAUD_MERCHANT_ID_KEY, id);
                             }
                         });
-                    } catch (ClassNotFoundException | NoClassDefFoundError | NumberFormatException ignored) {
-                        listener.onResponse(deviceData.toString());
-                    }
-                } else {
-                    listener.onResponse(deviceData.toString());
-                }
+            } catch (ClassNotFoundException | NoClassDefFoundError | NumberFormatException ignored) {
+                collection.complete(DeviceDataCollection.KOUNT);
             }
-        });
+        }
+    }
+
+    /**
+     * Starts collecting device data in the background, for example when the cart is shown, so that a following
+     * call to {@link #collectDeviceData(BraintreeFragment, String, BraintreeResponseListener)} with the same merchant
+     * id can reuse it. Has no effect unless a reuse window has been set with
+     * {@link #setDeviceDataReuseWindow(long)}.
+     *
+     * @param fragment {@link BraintreeFragment}
+     * @param merchantId The fraud merchant id from Braintree, or {@code null} to use the one from the configuration.
+     */
+    public static void precollectDeviceData(BraintreeFragment fragment, @Nullable String merchantId) {
+        if (!DeviceDataSessions.isReusingSessions()) {
+            return;
+        }
+
+        collectDeviceData(fragment, merchantId, 0, new BraintreeResponseListener<String>() {
+            @Override
+            public void onResponse(String deviceData) {}
+        }, null);
+    }
+
+    /**
+     * Sets how long collected device data is reused. Within the window, calls to collect device data for the same
+     * merchant id, Kount merchant id and environment return the device data of the first collection instead of
+     * starting a new device session. Defaults to {@code 0}, which collects device data for every call.
+     *
+     * @param reuseWindowMillis the time in milliseconds collected device data is reused for.
+     */
+    public static void setDeviceDataReuseWindow(long reuseWindowMillis) {
+        DeviceDataSessions.setReuseWindow(reuseWindowMillis);
+    }
+
+    /**
+     * Forgets collected device data, so the next call to collect device data starts a new device session. Call this
+     * when the user or the checkout changes.
+     */
+    public static void invalidateDeviceData() {
+        DeviceDataSessions.invalidate();
     }
 
     /**
@@ -156,6 +242,27 @@ public class DataCollector {
         return "";
     }
 
+    private static void collectPayPalClientMetadataId(Context context, final DeviceDataCollection collection) {
+        final Future<String> clientMetadataId;
+        try {
+            clientMetadataId = PayPalDataCollector.getClientMetadataIdAsync(context);
+        } catch (NoClassDefFoundError e) {
+            collection.complete(DeviceDataCollection.PAYPAL);
+            return;
+        }
+
+        sExecutor.submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    collection.complete(DeviceDataCollection.PAYPAL, CORRELATION_ID_KEY, clientMetadataId.get());
+                } catch (InterruptedException | ExecutionException e) {
+                    collection.complete(DeviceDataCollection.PAYPAL);
+                }
+            }
+        });
+    }
+
     private static void startDeviceCollector(final BraintreeFragment fragment, final String merchantId,
             final String deviceSessionId, @Nullable final BraintreeResponseListener<String> listener)
             throws ClassNotFoundException, NumberFormatException {
@@ -166,31 +273,46 @@ public class DataCollector {
         fragment.waitForConfiguration(new ConfigurationListener() {
             @Override
             public void onConfigurationFetched(Configuration configuration) {
-                final com.kount.api.DataCollector dataCollector = com.kount.api.DataCollector.getInstance();
-                dataCollector.setContext(fragment.getApplicationContext());
-                dataCollector.setMerchantID(Integer.parseInt(merchantId));
-                dataCollector.setLocationCollectorConfig(com.kount.api.DataCollector.LocationConfig.COLLECT);
-                dataCollector.setEnvironment(getDeviceCollectorEnvironment(configuration.getEnvironment()));
+                collectForSession(fragment, configuration, merchantId, deviceSessionId, listener);
+            }
+        });
+    }
 
-                dataCollector.collectForSession(deviceSessionId, new com.kount.api.DataCollector.CompletionHandler() {
-                    @Override
-                    public void completed(String sessionID) {
-                        fragment.sendAnalyticsEvent("data-collector.kount.succeeded");
+    private static void startDeviceCollector(BraintreeFragment fragment, Configuration configuration,
+            String merchantId, String deviceSessionId, @Nullable BraintreeResponseListener<String> listener)
+            throws ClassNotFoundException, NumberFormatException {
+        fragment.sendAnalyticsEvent("data-collector.kount.started");
 
-                        if (listener != null) {
-                            listener.onResponse(sessionID);
-                        }
-                    }
+        Class.forName(com.kount.api.DataCollector.class.getName());
 
-                    @Override
-                    public void failed(String sessionID, final com.kount.api.DataCollector.Error error) {
-                        fragment.sendAnalyticsEvent("data-collector.kount.failed");
+        collectForSession(fragment, configuration, merchantId, deviceSessionId, listener);
+    }
 
-                        if (listener != null) {
-                            listener.onResponse(sessionID);
-                        }
-                    }
-                });
+    private static void collectForSession(final BraintreeFragment fragment, Configuration configuration,
+            String merchantId, String deviceSessionId, @Nullable final BraintreeResponseListener<String> listener) {
+        final com.kount.api.DataCollector dataCollector = com.kount.api.DataCollector.getInstance();
+        dataCollector.setContext(fragment.getApplicationContext());
+        dataCollector.setMerchantID(Integer.parseInt(merchantId));
+        dataCollector.setLocationCollectorConfig(com.kount.api.DataCollector.LocationConfig.COLLECT);
+        dataCollector.setEnvironment(getDeviceCollectorEnvironment(configuration.getEnvironment()));
+
+        dataCollector.collectForSession(deviceSessionId, new com.kount.api.DataCollector.CompletionHandler() {
+            @Override
+            public void completed(String sessionID) {
+                fragment.sendAnalyticsEvent("data-collector.kount.succeeded");
+
+                if (listener != null) {
+                    listener.onResponse(sessionID);
+                }
+            }
+
+            @Override
+            public void failed(String sessionID, final com.kount.api.DataCollector.Error error) {
+                fragment.sendAnalyticsEvent("data-collector.kount.failed");
+
+                if (listener != null) {
+                    listener.onResponse(sessionID);
+                }
             }
         });
     }
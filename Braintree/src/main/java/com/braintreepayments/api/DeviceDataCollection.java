@@ -0,0 +1,154 @@
+package com.braintreepayments.api;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.Nullable;
+import android.text.TextUtils;
+
+import com.braintreepayments.api.interfaces.BraintreeResponseListener;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Combines the values of device data collectors that run concurrently. The listener is called on the main thread
+ * once every expected collector has completed, or with the values collected so far once the timeout has passed. In
+ * that case the late listener is called with the complete device data once the remaining collectors complete.
+ */
+class DeviceDataCollection {
+
+    static final String PAYPAL = "paypal";
+    static final String KOUNT = "kount";
+    static final String SESSION = "session";
+
+    private final BraintreeFragment mFragment;
+    private final BraintreeResponseListener<String> mListener;
+    @Nullable
+    private final BraintreeResponseListener<String> mLateListener;
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final JSONObject mDeviceData = new JSONObject();
+    private final Set<String> mPendingCollectors = new LinkedHashSet<>();
+    private final List<BraintreeResponseListener<String>> mCompletionListeners = new ArrayList<>();
+    private boolean mResponded;
+
+    private final Runnable mTimeout = new Runnable() {
+        @Override
+        public void run() {
+            timeOut();
+        }
+    };
+
+    DeviceDataCollection(BraintreeFragment fragment, BraintreeResponseListener<String> listener,
+            @Nullable BraintreeResponseListener<String> lateListener) {
+        mFragment = fragment;
+        mListener = listener;
+        mLateListener = lateListener;
+    }
+
+    synchronized void expect(String collector) {
+        mPendingCollectors.add(collector);
+    }
+
+    /**
+     * Adds a listener that is called with the complete device data on the thread that completes the last collector,
+     * whether or not the timeout has passed.
+     */
+    synchronized void addCompletionListener(BraintreeResponseListener<String> listener) {
+        mCompletionListeners.add(listener);
+    }
+
+    void timeOutAfter(long timeoutMillis) {
+        mHandler.postDelayed(mTimeout, timeoutMillis);
+    }
+
+    /**
+     * Completes the collector with values given as alternating keys and values. Empty values are left out.
+     */
+    synchronized void complete(String collector, String... keysAndValues) {
+        if (!mPendingCollectors.contains(collector)) {
+            return;
+        }
+
+        for (int i = 0; i + 1 < keysAndValues.length; i += 2) {
+            put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+
+        onCollectorCompleted(collector);
+    }
+
+    /**
+     * Completes the collector with every value of previously collected device data.
+     */
+    synchronized void completeWithDeviceData(String collector, String deviceData) {
+        if (!mPendingCollectors.contains(collector)) {
+            return;
+        }
+
+        try {
+            JSONObject json = new JSONObject(deviceData);
+            Iterator<String> keys = json.keys();
+            while (keys.hasNext()) {
+                String key = keys.next();
+                put(key, json.optString(key));
+            }
+        } catch (JSONException ignored) {}
+
+        onCollectorCompleted(collector);
+    }
+
+    private void put(String key, String value) {
+        if (!TextUtils.isEmpty(value)) {
+            try {
+                mDeviceData.put(key, value);
+            } catch (JSONException ignored) {}
+        }
+    }
+
+    private void onCollectorCompleted(String collector) {
+        mPendingCollectors.remove(collector);
+        if (!mPendingCollectors.isEmpty()) {
+            return;
+        }
+
+        mHandler.removeCallbacks(mTimeout);
+        if (!mResponded) {
+            respond(mListener);
+        } else if (mLateListener != null) {
+            respond(mLateListener);
+        }
+
+        String deviceData = mDeviceData.toString();
+        for (BraintreeResponseListener<String> listener : mCompletionListeners) {
+            listener.onResponse(deviceData);
+        }
+    }
+
+    private synchronized void timeOut() {
+        if (mResponded) {
+            return;
+        }
+
+        for (String collector : mPendingCollectors) {
+            mFragment.sendAnalyticsEvent("data-collector." + collector + ".timed-out");
+        }
+
+        respond(mListener);
+    }
+
+    private void respond(final BraintreeResponseListener<String> listener) {
+        mResponded = true;
+        final String deviceData = mDeviceData.toString();
+        mHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                listener.onResponse(deviceData);
+            }
+        });
+    }
+}
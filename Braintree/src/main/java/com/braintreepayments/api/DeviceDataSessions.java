@@ -0,0 +1,187 @@
+package com.braintreepayments.api;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.support.annotation.VisibleForTesting;
+
+import com.braintreepayments.api.interfaces.BraintreeResponseListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers device data for a reuse window, so that one device session is collected for repeated calls to
+ * {@link DataCollector#collectDeviceData(BraintreeFragment, String, BraintreeResponseListener)} with the same merchant
+ * ids and environment instead of a full collection for each. Calls made while a session is still being collected
+ * wait for it, for at most the reuse window. Sessions are only reused when a reuse window has been set.
+ */
+class DeviceDataSessions {
+
+    private static final Map<String, Session> sSessions = new HashMap<>();
+    private static final Handler sHandler = new Handler(Looper.getMainLooper());
+    private static long sReuseWindowMillis = 0;
+
+    private DeviceDataSessions() {}
+
+    static synchronized void setReuseWindow(long reuseWindowMillis) {
+        sReuseWindowMillis = reuseWindowMillis;
+        if (reuseWindowMillis <= 0) {
+            sSessions.clear();
+        }
+    }
+
+    /**
+     * @return {@code true} if a reuse window has been set, so collected device data is reused.
+     */
+    static synchronized boolean isReusingSessions() {
+        return sReuseWindowMillis > 0;
+    }
+
+    /**
+     * Forgets every session. Collections still in progress complete, but are not reused.
+     */
+    static synchronized void invalidate() {
+        sSessions.clear();
+    }
+
+    static String getKey(String merchantId, String kountMerchantId, String environment) {
+        return merchantId + "|" + kountMerchantId + "|" + environment;
+    }
+
+    /**
+     * Completes the collection with the device data of a recent session, or once the session that is being
+     * collected completes.
+     *
+     * @param collectors starts the collectors for the collection. It is run later if the collection waited for a
+     * session that did not complete within the reuse window, in which case the collection becomes the session.
+     * @return {@code true} if the collection will be completed from a session, {@code false} if the collectors need
+     * to be started. In that case the collection becomes the session for the key, if sessions are reused.
+     */
+    static boolean attach(String key, DeviceDataCollection collection, Runnable collectors) {
+        String deviceData;
+        synchronized (DeviceDataSessions.class) {
+            if (sReuseWindowMillis <= 0) {
+                return false;
+            }
+
+            Session session = sSessions.get(key);
+            if (session == null || session.isExpired(sReuseWindowMillis)) {
+                Session newSession = startSession(key, collection);
+                if (session != null && session.mDeviceData == null) {
+                    // the collection takes over the pending session, so its waiters do not wait forever
+                    newSession.mWaitingCollections.addAll(session.mWaitingCollections);
+                    session.mWaitingCollections.clear();
+                }
+                return false;
+            }
+
+            collection.expect(DeviceDataCollection.SESSION);
+            if (session.mDeviceData == null) {
+                session.mWaitingCollections.add(new WaitingCollection(collection, collectors));
+                return true;
+            }
+
+            deviceData = session.mDeviceData;
+        }
+
+        collection.completeWithDeviceData(DeviceDataCollection.SESSION, deviceData);
+        return true;
+    }
+
+    @VisibleForTesting
+    static synchronized void reset() {
+        sSessions.clear();
+        sReuseWindowMillis = 0;
+    }
+
+    private static Session startSession(final String key, DeviceDataCollection collection) {
+        final Session session = new Session();
+        sSessions.put(key, session);
+
+        collection.addCompletionListener(new BraintreeResponseListener<String>() {
+            @Override
+            public void onResponse(String deviceData) {
+                List<WaitingCollection> waitingCollections;
+                synchronized (DeviceDataSessions.class) {
+                    session.mDeviceData = deviceData;
+                    session.mCollectedAt = SystemClock.elapsedRealtime();
+                    waitingCollections = new ArrayList<>(session.mWaitingCollections);
+                    session.mWaitingCollections.clear();
+                }
+
+                for (WaitingCollection waitingCollection : waitingCollections) {
+                    waitingCollection.mCollection.completeWithDeviceData(DeviceDataCollection.SESSION, deviceData);
+                }
+            }
+        });
+
+        sHandler.postDelayed(new Runnable() {
+            @Override
+            public void run() {
+                expire(key, session);
+            }
+        }, sReuseWindowMillis);
+
+        return session;
+    }
+
+    /**
+     * Hands a session that did not complete within the reuse window over to the first collection waiting for it,
+     * which starts its own collectors. The other waiting collections then wait for that collection instead.
+     */
+    private static void expire(String key, Session session) {
+        WaitingCollection next;
+        synchronized (DeviceDataSessions.class) {
+            if (session.mDeviceData != null) {
+                return;
+            }
+
+            if (sSessions.get(key) == session) {
+                sSessions.remove(key);
+            }
+
+            if (session.mWaitingCollections.isEmpty()) {
+                return;
+            }
+
+            next = session.mWaitingCollections.remove(0);
+            Session newSession = startSession(key, next.mCollection);
+            newSession.mWaitingCollections.addAll(session.mWaitingCollections);
+            session.mWaitingCollections.clear();
+        }
+
+        next.mCollectors.run();
+        next.mCollection.complete(DeviceDataCollection.SESSION);
+    }
+
+    private static class Session {
+
+        final long mStartedAt = SystemClock.elapsedRealtime();
+        String mDeviceData;
+        long mCollectedAt;
+        final List<WaitingCollection> mWaitingCollections = new ArrayList<>();
+
+        /**
+         * A session expires once the reuse window has passed since it was collected, or since it was started if it
+         * has not been collected yet.
+         */
+        boolean isExpired(long reuseWindowMillis) {
+            long since = mDeviceData != null ? mCollectedAt : mStartedAt;
+            return SystemClock.elapsedRealtime() - since >= reuseWindowMillis;
+        }
+    }
+
+    private static class WaitingCollection {
+
+        final DeviceDataCollection mCollection;
+        final Runnable mCollectors;
+
+        WaitingCollection(DeviceDataCollection collection, Runnable collectors) {
+            mCollection = collection;
+            mCollectors = collectors;
+        }
+    }
+}
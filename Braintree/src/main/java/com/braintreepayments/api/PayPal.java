@@ -3,15 +3,16 @@ package com.braintreepayments.api;
 import android.app.Activity;
 import android.content.Context;
 import android.content.Intent;
-import android.content.SharedPreferences;
 import android.content.pm.ActivityInfo;
 import android.net.Uri;
-import android.os.Parcel;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.support.annotation.Nullable;
 import android.support.annotation.VisibleForTesting;
 import android.text.TextUtils;
-import android.util.Base64;
 
+import com.braintreepayments.api.PayPalRequestStore.PersistedRequest;
 import com.braintreepayments.api.exceptions.BraintreeException;
 import com.braintreepayments.api.exceptions.BrowserSwitchException;
 import com.braintreepayments.api.exceptions.ErrorWithResponse;
@@ -21,7 +22,7 @@ import com.braintreepayments.api.interfaces.PayPalApprovalCallback;
 import com.braintreepayments.api.interfaces.PayPalApprovalHandler;
 import com.braintreepayments.api.interfaces.PaymentMethodNonceCallback;
 import com.braintreepayments.api.internal.AppHelper;
-import com.braintreepayments.api.internal.BraintreeSharedPreferences;
+import com.braintreepayments.api.internal.JsonObjectRequestBody;
 import com.braintreepayments.api.internal.ManifestValidator;
 import com.braintreepayments.api.models.BraintreeRequestCodes;
 import com.braintreepayments.api.models.ClientToken;
@@ -33,6 +34,7 @@ import com.braintreepayments.api.models.PayPalPaymentResource;
 import com.braintreepayments.api.models.PayPalRequest;
 import com.braintreepayments.api.models.PaymentMethodNonce;
 import com.braintreepayments.api.models.PostalAddress;
+import com.paypal.android.sdk.data.collector.PayPalDataCollector;
 import com.paypal.android.sdk.onetouch.core.AuthorizationRequest;
 import com.paypal.android.sdk.onetouch.core.BillingAgreementRequest;
 import com.paypal.android.sdk.onetouch.core.CheckoutRequest;
@@ -48,6 +50,12 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Used to create and tokenize PayPal accounts. For more information see the
@@ -71,12 +79,21 @@ public class PayPal {
      */
     public static final String SCOPE_ADDRESS = PayPalScope.ADDRESS.getScopeUri();
 
-    private static final String REQUEST_KEY = "com.braintreepayments.api.PayPal.REQUEST_KEY";
-    private static final String REQUEST_TYPE_KEY = "com.braintreepayments.api.PayPal.REQUEST_TYPE_KEY";
-    private static final String PAYPAL_REQUEST_KEY = "com.braintreepayments.api.PayPal.PAYPAL_REQUEST_KEY";
-
     protected static boolean sFuturePaymentsOverride = false;
 
+    /**
+     * Runs the steps of a checkout that do not depend on the payment resource while it is being created.
+     */
+    @VisibleForTesting
+    static ExecutorService sExecutor = Executors.newCachedThreadPool();
+
+    /**
+     * How long the checkout waits, on {@link #sExecutor}, for the background steps once the payment resource has been
+     * created.
+     */
+    @VisibleForTesting
+    static final long PREPARATION_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
     private static final String SETUP_BILLING_AGREEMENT_ENDPOINT = "paypal_hermes/setup_billing_agreement";
     private static final String CREATE_SINGLE_PAYMENT_ENDPOINT = "paypal_hermes/create_payment_resource";
     private static final String NO_SHIPPING_KEY = "no_shipping";
@@ -127,12 +144,7 @@ public class PayPal {
                 }
 
                 if (!isManifestValid(fragment)) {
-                    fragment.sendAnalyticsEvent("paypal.invalid-manifest");
-                    fragment.postCallback(new BraintreeException("BraintreeBrowserSwitchActivity missing, " +
-                            "incorrectly configured in AndroidManifest.xml or another app defines the same browser " +
-                            "switch url as this app. See " +
-                            "https://developers.braintreepayments.com/guides/client-sdk/android/v2#browser-switch " +
-                            "for the correct configuration"));
+                    postInvalidManifestError(fragment);
                     return;
                 }
 
@@ -151,7 +163,7 @@ public class PayPal {
                     }
                 }
 
-                startPayPal(fragment, request, null);
+                startPayPal(fragment, null, request, null, new PayPalTimeline());
             }
         });
     }
@@ -223,38 +235,6 @@ public class PayPal {
 
     private static void requestOneTimePayment(final BraintreeFragment fragment, final PayPalRequest paypalRequest,
             final boolean isBillingAgreement, final PayPalApprovalHandler handler) {
-        final HttpResponseCallback callback = new HttpResponseCallback() {
-            @Override
-            public void success(String responseBody) {
-                final PayPalPaymentResource paypalPaymentResource;
-                try {
-                    paypalPaymentResource = PayPalPaymentResource.fromJson(responseBody);
-                } catch (JSONException e) {
-                    fragment.postCallback(e);
-                    return;
-                }
-
-                String redirectUrl = Uri.parse(paypalPaymentResource.getRedirectUrl())
-                        .buildUpon()
-                        .appendQueryParameter(USER_ACTION_KEY, paypalRequest.getUserAction())
-                        .toString();
-
-                Request request;
-                if (isBillingAgreement) {
-                    request = getBillingAgreementRequest(fragment, redirectUrl);
-                } else {
-                    request = getCheckoutRequest(fragment, redirectUrl);
-                }
-
-                startPayPal(fragment, request, handler);
-            }
-
-            @Override
-            public void failure(Exception e) {
-                fragment.postCallback(e);
-            }
-        };
-
         fragment.waitForConfiguration(new ConfigurationListener() {
             @Override
             public void onConfigurationFetched(Configuration configuration) {
@@ -263,18 +243,67 @@ public class PayPal {
                     return;
                 }
 
-                if (!isManifestValid(fragment)) {
-                    fragment.sendAnalyticsEvent("paypal.invalid-manifest");
-                    fragment.postCallback(new BraintreeException("BraintreeBrowserSwitchActivity missing, " +
-                            "incorrectly configured in AndroidManifest.xml or another app defines the same browser " +
-                            "switch url as this app. See " +
-                            "https://developers.braintreepayments.com/guides/client-sdk/android/v2#browser-switch " +
-                            "for the correct configuration"));
+                final PayPalTimeline timeline = new PayPalTimeline();
+                final Preparation preparation = prepare(fragment, timeline);
+
+                timeline.begin(PayPalTimeline.VALIDATE_MANIFEST);
+                boolean isManifestValid = isManifestValid(fragment);
+                timeline.end(PayPalTimeline.VALIDATE_MANIFEST);
+                if (!isManifestValid) {
+                    postInvalidManifestError(fragment);
                     return;
                 }
 
+                final HttpResponseCallback callback = new HttpResponseCallback() {
+                    @Override
+                    public void success(final String responseBody) {
+                        timeline.end(PayPalTimeline.CREATE_PAYMENT_RESOURCE);
+                        sExecutor.submit(new Runnable() {
+                            @Override
+                            public void run() {
+                                awaitPreparation(preparation, timeline);
+
+                                final PayPalPaymentResource paypalPaymentResource;
+                                try {
+                                    paypalPaymentResource = PayPalPaymentResource.fromJson(responseBody);
+                                } catch (JSONException e) {
+                                    postCallbackOnMainThread(fragment, e);
+                                    return;
+                                }
+
+                                timeline.begin(PayPalTimeline.BUILD_REQUEST);
+                                String redirectUrl = Uri.parse(paypalPaymentResource.getRedirectUrl())
+                                        .buildUpon()
+                                        .appendQueryParameter(USER_ACTION_KEY, paypalRequest.getUserAction())
+                                        .toString();
+
+                                final Request request;
+                                if (isBillingAgreement) {
+                                    request = getBillingAgreementRequest(fragment, redirectUrl);
+                                } else {
+                                    request = getCheckoutRequest(fragment, redirectUrl);
+                                }
+                                timeline.end(PayPalTimeline.BUILD_REQUEST);
+
+                                postOnMainThread(new Runnable() {
+                                    @Override
+                                    public void run() {
+                                        startPayPal(fragment, paypalRequest, request, handler, timeline);
+                                    }
+                                });
+                            }
+                        });
+                    }
+
+                    @Override
+                    public void failure(Exception e) {
+                        timeline.end(PayPalTimeline.CREATE_PAYMENT_RESOURCE);
+                        fragment.postCallback(e);
+                    }
+                };
+
+                timeline.begin(PayPalTimeline.CREATE_PAYMENT_RESOURCE);
                 try {
-                    persistPayPalRequest(fragment.getApplicationContext(), paypalRequest);
                     createPaymentResource(fragment, paypalRequest, isBillingAgreement, callback);
                 } catch (JSONException | ErrorWithResponse | BraintreeException ex) {
                     fragment.postCallback(ex);
@@ -283,6 +312,59 @@ public class PayPal {
         });
     }
 
+    /**
+     * Starts the steps that do not depend on the payment resource so they run while the manifest is validated and the
+     * payment resource is created: resolving the One Touch recipes and initializing the data collector. The client
+     * metadata id itself depends on the token in the response and is generated when the request is built.
+     */
+    private static Preparation prepare(BraintreeFragment fragment, final PayPalTimeline timeline) {
+        final Context context = fragment.getApplicationContext();
+        Preparation preparation = new Preparation();
+
+        preparation.mOneTouchWarmUp = sExecutor.submit(new Runnable() {
+            @Override
+            public void run() {
+                timeline.begin(PayPalTimeline.WARM_UP_ONE_TOUCH);
+                try {
+                    PayPalOneTouchCore.warmUp(context);
+                } finally {
+                    timeline.end(PayPalTimeline.WARM_UP_ONE_TOUCH);
+                }
+            }
+        });
+
+        timeline.begin(PayPalTimeline.INIT_DATA_COLLECTOR);
+        preparation.mDataCollectorInitialization = PayPalDataCollector.initialize(context);
+
+        return preparation;
+    }
+
+    /**
+     * Waits on a background thread up to {@link #PREPARATION_TIMEOUT_MILLIS} for the steps of the
+     * {@link Preparation}. They are usually complete by the time the payment resource has been created. Steps that
+     * failed or did not complete in time are repeated when the request is built and started.
+     */
+    private static void awaitPreparation(Preparation preparation, PayPalTimeline timeline) {
+        timeline.begin(PayPalTimeline.WAIT_FOR_PREPARATION);
+
+        long deadline = SystemClock.elapsedRealtime() + PREPARATION_TIMEOUT_MILLIS;
+        try {
+            await(preparation.mDataCollectorInitialization, deadline);
+            timeline.end(PayPalTimeline.INIT_DATA_COLLECTOR);
+            await(preparation.mOneTouchWarmUp, deadline);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        timeline.end(PayPalTimeline.WAIT_FOR_PREPARATION);
+    }
+
+    private static void await(Future<?> step, long deadline) throws InterruptedException {
+        try {
+            step.get(Math.max(0, deadline - SystemClock.elapsedRealtime()), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException ignored) {}
+    }
+
     /**
      * Create a PayPalPaymentResource on behalf of the merchant. To be used in the PayPal Checkout
      * flows for Single Payment and Billing Agreement.
@@ -355,11 +437,15 @@ public class PayPal {
 
         String apiUrl = isBillingAgreement ? SETUP_BILLING_AGREEMENT_ENDPOINT : CREATE_SINGLE_PAYMENT_ENDPOINT;
         String versionedPath = "/v1/" + apiUrl;
-        fragment.getHttpClient().post(versionedPath, parameters.toString(), callback);
+        fragment.getHttpClient().post(versionedPath, new JsonObjectRequestBody(parameters), callback);
     }
 
-    private static void startPayPal(final BraintreeFragment fragment, Request request, PayPalApprovalHandler handler) {
-        persistRequest(fragment.getApplicationContext(), request);
+    private static void startPayPal(final BraintreeFragment fragment, @Nullable PayPalRequest paypalRequest,
+            Request request, PayPalApprovalHandler handler, PayPalTimeline timeline) {
+        timeline.begin(PayPalTimeline.PERSIST_REQUEST);
+        PayPalRequestStore.put(fragment.getApplicationContext(), paypalRequest, request);
+        timeline.end(PayPalTimeline.PERSIST_REQUEST);
+
         PayPalApprovalCallback callback = null;
 
         if (handler == null) {
@@ -377,7 +463,11 @@ public class PayPal {
                 }
             };
         }
+
+        timeline.begin(PayPalTimeline.HANDLE_APPROVAL);
         handler.handleApproval(request, callback);
+        timeline.end(PayPalTimeline.HANDLE_APPROVAL);
+        timeline.finish();
     }
 
     private static PayPalApprovalHandler getDefaultApprovalHandler(final BraintreeFragment fragment) {
@@ -432,7 +522,8 @@ public class PayPal {
      * @param data Data associated with the result.
      */
     protected static void onActivityResult(final BraintreeFragment fragment, int resultCode, Intent data) {
-        Request request = getPersistedRequest(fragment.getApplicationContext());
+        PersistedRequest persistedRequest = PayPalRequestStore.remove(fragment.getApplicationContext());
+        Request request = persistedRequest != null ? persistedRequest.mRequest : null;
         if (resultCode == Activity.RESULT_OK && data != null && request != null) {
             boolean isAppSwitch = isAppSwitch(data);
             Result result = PayPalOneTouchCore.parseResponse(fragment.getApplicationContext(), request, data);
@@ -446,7 +537,7 @@ public class PayPal {
                     fragment.postCancelCallback(BraintreeRequestCodes.PAYPAL);
                     break;
                 case Success:
-                    onSuccess(fragment, data, request, result);
+                    onSuccess(fragment, data, persistedRequest.mPayPalRequest, request, result);
                     sendAnalyticsEventForSwitchResult(fragment, request, isAppSwitch, "succeeded");
                     break;
             }
@@ -465,8 +556,8 @@ public class PayPal {
         }
     }
 
-    private static void onSuccess(final BraintreeFragment fragment, Intent data, Request request, Result result) {
-        PayPalRequest paypalRequest = getPersistedPayPalRequest(fragment.getApplicationContext());
+    private static void onSuccess(final BraintreeFragment fragment, Intent data, @Nullable PayPalRequest paypalRequest,
+            Request request, Result result) {
         TokenizationClient.tokenize(fragment, parseResponse(paypalRequest, request, result, data), new PaymentMethodNonceCallback() {
             @Override
             public void success(PaymentMethodNonce paymentMethodNonce) {
@@ -602,74 +693,29 @@ public class PayPal {
         return request;
     }
 
-    private static boolean isAppSwitch(Intent data) {
-        return data.getData() == null;
-    }
-
-    private static void persistPayPalRequest(Context context, PayPalRequest paypalRequest) {
-        Parcel parcel = Parcel.obtain();
-        paypalRequest.writeToParcel(parcel, 0);
-        BraintreeSharedPreferences.getSharedPreferences(context).edit()
-                .putString(PAYPAL_REQUEST_KEY, Base64.encodeToString(parcel.marshall(), 0))
-                .apply();
+    private static void postCallbackOnMainThread(final BraintreeFragment fragment, final Exception exception) {
+        postOnMainThread(new Runnable() {
+            @Override
+            public void run() {
+                fragment.postCallback(exception);
+            }
+        });
     }
 
-    private static void persistRequest(Context context, Request request) {
-        Parcel parcel = Parcel.obtain();
-        request.writeToParcel(parcel, 0);
-        BraintreeSharedPreferences.getSharedPreferences(context).edit()
-                .putString(REQUEST_KEY, Base64.encodeToString(parcel.marshall(), 0))
-                .putString(REQUEST_TYPE_KEY, request.getClass().getSimpleName())
-                .apply();
+    private static void postOnMainThread(Runnable runnable) {
+        new Handler(Looper.getMainLooper()).post(runnable);
     }
 
-    @Nullable
-    private static PayPalRequest getPersistedPayPalRequest(Context context) {
-        SharedPreferences prefs = BraintreeSharedPreferences.getSharedPreferences(context);
-
-        try {
-            byte[] requestBytes = Base64.decode(prefs.getString(PAYPAL_REQUEST_KEY, ""), 0);
-            Parcel parcel = Parcel.obtain();
-            parcel.unmarshall(requestBytes, 0, requestBytes.length);
-            parcel.setDataPosition(0);
-            return PayPalRequest.CREATOR.createFromParcel(parcel);
-        } catch (Exception ignored) {
-        } finally {
-            prefs.edit()
-                    .remove(PAYPAL_REQUEST_KEY)
-                    .apply();
-        }
-
-        return null;
+    private static boolean isAppSwitch(Intent data) {
+        return data.getData() == null;
     }
 
-    @Nullable
-    private static Request getPersistedRequest(Context context) {
-        SharedPreferences prefs = BraintreeSharedPreferences.getSharedPreferences(context);
-
-        try {
-            byte[] requestBytes = Base64.decode(prefs.getString(REQUEST_KEY, ""), 0);
-            Parcel parcel = Parcel.obtain();
-            parcel.unmarshall(requestBytes, 0, requestBytes.length);
-            parcel.setDataPosition(0);
-
-            String type = prefs.getString(REQUEST_TYPE_KEY, "");
-            if (AuthorizationRequest.class.getSimpleName().equals(type)) {
-                return AuthorizationRequest.CREATOR.createFromParcel(parcel);
-            } else if (BillingAgreementRequest.class.getSimpleName().equals(type)) {
-                return BillingAgreementRequest.CREATOR.createFromParcel(parcel);
-            } else if (CheckoutRequest.class.getSimpleName().equals(type)) {
-                return CheckoutRequest.CREATOR.createFromParcel(parcel);
-            }
-        } catch (Exception ignored) {
-        } finally {
-            prefs.edit()
-                    .remove(REQUEST_KEY)
-                    .remove(REQUEST_TYPE_KEY)
-                    .apply();
-        }
-
-        return null;
+    private static void postInvalidManifestError(BraintreeFragment fragment) {
+        fragment.sendAnalyticsEvent("paypal.invalid-manifest");
+        fragment.postCallback(new BraintreeException("BraintreeBrowserSwitchActivity missing, incorrectly " +
+                "configured in AndroidManifest.xml or another app defines the same browser switch url as this app. " +
+                "See https://developers.braintreepayments.com/guides/client-sdk/android/v2#browser-switch for the " +
+                "correct configuration"));
     }
 
     private static boolean isManifestValid(BraintreeFragment fragment) {
@@ -683,4 +729,10 @@ public class PayPal {
         return (activityInfo != null && activityInfo.launchMode == ActivityInfo.LAUNCH_SINGLE_TASK &&
                 AppHelper.isIntentAvailable(fragment.getApplicationContext(), intent));
     }
+
+    private static class Preparation {
+
+        Future<?> mOneTouchWarmUp;
+        Future<?> mDataCollectorInitialization;
+    }
 }
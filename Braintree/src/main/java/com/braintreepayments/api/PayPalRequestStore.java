@@ -0,0 +1,262 @@
+package com.braintreepayments.api;
+
+import android.content.Context;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+
+import com.braintreepayments.api.models.PayPalRequest;
+import com.braintreepayments.api.models.PostalAddress;
+import com.paypal.android.sdk.onetouch.core.Request;
+import com.paypal.android.sdk.onetouch.core.RequestSerializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Holds the {@link Request} and {@link PayPalRequest} of the PayPal flow that is in progress, so that the result of
+ * a browser or app switch can be handled even if the process was killed in the meantime.
+ * <p/>
+ * The record is kept in memory and written to its own file in the background, through a temporary file so that a
+ * partially written record is never read. If a record can not be written, the file of the previous record is
+ * deleted so that it is never read in its place. Once the record has been read it is only cleared in memory, the
+ * file is deleted later in the background.
+ */
+class PayPalRequestStore {
+
+    private static final String FILE_NAME = "braintree_paypal_request";
+    private static final int VERSION = 1;
+
+    private static PersistedRequest sPersistedRequest;
+    private static boolean sConsumed;
+
+    @VisibleForTesting
+    static ExecutorService sExecutor = Executors.newSingleThreadExecutor();
+
+    private PayPalRequestStore() {}
+
+    static void put(Context context, @Nullable PayPalRequest paypalRequest, Request request) {
+        byte[] bytes;
+        try {
+            bytes = serialize(paypalRequest, request);
+        } catch (IOException e) {
+            bytes = null;
+        }
+
+        synchronized (PayPalRequestStore.class) {
+            sPersistedRequest = new PersistedRequest(paypalRequest, request);
+            sConsumed = false;
+        }
+
+        final byte[] serializedRequest = bytes;
+        final File file = getFile(context);
+        sExecutor.submit(new Runnable() {
+            @Override
+            public void run() {
+                if (serializedRequest == null || !write(file, serializedRequest)) {
+                    file.delete();
+                }
+            }
+        });
+    }
+
+    /**
+     * @return the {@link PersistedRequest} from memory if it is still present, otherwise from disk, or {@code null}
+     * if there is no request in progress. The request is removed from the store.
+     */
+    @Nullable
+    static PersistedRequest remove(Context context) {
+        PersistedRequest persistedRequest;
+        synchronized (PayPalRequestStore.class) {
+            persistedRequest = sPersistedRequest;
+            if (persistedRequest == null && !sConsumed) {
+                persistedRequest = read(getFile(context));
+            }
+
+            sPersistedRequest = null;
+            sConsumed = true;
+        }
+
+        final File file = getFile(context);
+        sExecutor.submit(new Runnable() {
+            @Override
+            public void run() {
+                file.delete();
+            }
+        });
+
+        return persistedRequest;
+    }
+
+    /**
+     * Forgets the in memory state, as if the process had been restarted.
+     */
+    @VisibleForTesting
+    static synchronized void clearMemory() {
+        sPersistedRequest = null;
+        sConsumed = false;
+    }
+
+    private static File getFile(Context context) {
+        return new File(context.getFilesDir(), FILE_NAME);
+    }
+
+    private static byte[] serialize(@Nullable PayPalRequest paypalRequest, Request request) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(VERSION);
+        out.writeBoolean(paypalRequest != null);
+        if (paypalRequest != null) {
+            writePayPalRequest(out, paypalRequest);
+        }
+        RequestSerializer.write(out, request);
+        out.flush();
+
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @return {@code true} if the file was replaced, {@code false} if it was left as it was.
+     */
+    private static boolean write(File file, byte[] bytes) {
+        File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        OutputStream out = null;
+        try {
+            out = new FileOutputStream(tempFile);
+            out.write(bytes);
+            out.close();
+            out = null;
+
+            if (!tempFile.renameTo(file)) {
+                tempFile.delete();
+                return false;
+            }
+
+            return true;
+        } catch (IOException e) {
+            tempFile.delete();
+            return false;
+        } finally {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException ignored) {}
+            }
+        }
+    }
+
+    @Nullable
+    private static PersistedRequest read(File file) {
+        if (!file.exists()) {
+            return null;
+        }
+
+        InputStream in = null;
+        try {
+            in = new FileInputStream(file);
+            DataInputStream dataIn = new DataInputStream(in);
+            if (dataIn.readInt() != VERSION) {
+                return null;
+            }
+
+            PayPalRequest paypalRequest = dataIn.readBoolean() ? readPayPalRequest(dataIn) : null;
+            Request request = RequestSerializer.read(dataIn);
+
+            return new PersistedRequest(paypalRequest, request);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException ignored) {}
+            }
+        }
+    }
+
+    private static void writePayPalRequest(DataOutput out, PayPalRequest paypalRequest) throws IOException {
+        writeString(out, paypalRequest.getAmount());
+        writeString(out, paypalRequest.getCurrencyCode());
+        writeString(out, paypalRequest.getLocaleCode());
+        writeString(out, paypalRequest.getBillingAgreementDescription());
+        out.writeBoolean(paypalRequest.isShippingAddressRequired());
+        writeString(out, paypalRequest.getIntent());
+        writeString(out, paypalRequest.getLandingPageType());
+        writeString(out, paypalRequest.getUserAction());
+        writeString(out, paypalRequest.getDisplayName());
+        out.writeBoolean(paypalRequest.shouldOfferCredit());
+
+        PostalAddress address = paypalRequest.getShippingAddressOverride();
+        out.writeBoolean(address != null);
+        if (address != null) {
+            writeString(out, address.getRecipientName());
+            writeString(out, address.getStreetAddress());
+            writeString(out, address.getExtendedAddress());
+            writeString(out, address.getLocality());
+            writeString(out, address.getRegion());
+            writeString(out, address.getPostalCode());
+            writeString(out, address.getCountryCodeAlpha2());
+        }
+    }
+
+    @SuppressWarnings("WrongConstant")
+    private static PayPalRequest readPayPalRequest(DataInput in) throws IOException {
+        PayPalRequest paypalRequest = new PayPalRequest(readString(in))
+                .currencyCode(readString(in))
+                .localeCode(readString(in))
+                .billingAgreementDescription(readString(in))
+                .shippingAddressRequired(in.readBoolean())
+                .intent(readString(in))
+                .landingPageType(readString(in))
+                .userAction(readString(in))
+                .displayName(readString(in))
+                .offerCredit(in.readBoolean());
+
+        if (in.readBoolean()) {
+            paypalRequest.shippingAddressOverride(new PostalAddress()
+                    .recipientName(readString(in))
+                    .streetAddress(readString(in))
+                    .extendedAddress(readString(in))
+                    .locality(readString(in))
+                    .region(readString(in))
+                    .postalCode(readString(in))
+                    .countryCodeAlpha2(readString(in)));
+        }
+
+        return paypalRequest;
+    }
+
+    private static void writeString(DataOutput out, @Nullable String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    @Nullable
+    private static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    static class PersistedRequest {
+
+        @Nullable
+        final PayPalRequest mPayPalRequest;
+        final Request mRequest;
+
+        PersistedRequest(@Nullable PayPalRequest paypalRequest, Request request) {
+            mPayPalRequest = paypalRequest;
+            mRequest = request;
+        }
+    }
+}
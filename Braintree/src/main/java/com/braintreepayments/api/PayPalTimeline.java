@@ -0,0 +1,102 @@
+package com.braintreepayments.api;
+
+import android.os.SystemClock;
+import android.support.annotation.VisibleForTesting;
+import android.util.Log;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Records when each step of starting a PayPal flow begins and ends, relative to the time the configuration was
+ * available. Steps that run in the background overlap the steps on the main thread, the end of the last step is the
+ * length of the critical path.
+ * <p/>
+ * Finished timelines are logged when debug logging is enabled for the tag, e.g. with
+ * {@code adb shell setprop log.tag.PayPalTimeline DEBUG}.
+ */
+class PayPalTimeline {
+
+    static final String CREATE_PAYMENT_RESOURCE = "create-payment-resource";
+    static final String VALIDATE_MANIFEST = "validate-manifest";
+    static final String WARM_UP_ONE_TOUCH = "warm-up-one-touch";
+    static final String INIT_DATA_COLLECTOR = "init-data-collector";
+    static final String WAIT_FOR_PREPARATION = "wait-for-preparation";
+    static final String BUILD_REQUEST = "build-request";
+    static final String PERSIST_REQUEST = "persist-request";
+    static final String HANDLE_APPROVAL = "handle-approval";
+
+    private static final String TAG = "PayPalTimeline";
+
+    @VisibleForTesting
+    static PayPalTimeline sLastTimeline;
+
+    private final long mStart;
+    private final Map<String, long[]> mSteps = new LinkedHashMap<>();
+
+    PayPalTimeline() {
+        mStart = SystemClock.elapsedRealtime();
+    }
+
+    synchronized void begin(String step) {
+        mSteps.put(step, new long[] { now(), -1 });
+    }
+
+    synchronized void end(String step) {
+        long[] times = mSteps.get(step);
+        if (times != null) {
+            times[1] = now();
+        }
+    }
+
+    /**
+     * @return the time in milliseconds between the start of the timeline and the beginning of the step, or
+     * {@code -1} if the step has not begun.
+     */
+    synchronized long getBegin(String step) {
+        long[] times = mSteps.get(step);
+        return times != null ? times[0] : -1;
+    }
+
+    /**
+     * @return the time in milliseconds between the start of the timeline and the end of the step, or {@code -1} if
+     * the step has not ended.
+     */
+    synchronized long getEnd(String step) {
+        long[] times = mSteps.get(step);
+        return times != null ? times[1] : -1;
+    }
+
+    /**
+     * Marks the timeline as complete and logs it.
+     */
+    void finish() {
+        sLastTimeline = this;
+        if (Log.isLoggable(TAG, Log.DEBUG)) {
+            Log.d(TAG, toString());
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, long[]> step : mSteps.entrySet()) {
+            if (builder.length() > 0) {
+                builder.append(", ");
+            }
+
+            builder.append(step.getKey())
+                    .append(": ")
+                    .append(step.getValue()[0])
+                    .append("-")
+                    .append(step.getValue()[1])
+                    .append("ms");
+        }
+
+        return builder.toString();
+    }
+
+    private long now() {
+        return SystemClock.elapsedRealtime() - mStart;
+    }
+}
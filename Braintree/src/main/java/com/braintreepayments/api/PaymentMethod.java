@@ -10,6 +10,7 @@ import com.braintreepayments.api.models.PaymentMethodNonce;
 
 import org.json.JSONException;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -22,12 +23,33 @@ public class PaymentMethod {
      * <p/>
      * When finished, the {@link java.util.List} of {@link PaymentMethodNonce}s will be sent to {@link
      * PaymentMethodNoncesUpdatedListener#onPaymentMethodNoncesUpdated(List)}.
+     * <p/>
+     * When useCache is {@code true} and the customer's {@link PaymentMethodNonce}s were fetched within the last
+     * minute in this process with the same ordering, the cached
+     * {@link PaymentMethodNonce}s are sent without making a network request. The cache is cleared for the customer
+     * whenever a new {@link PaymentMethodNonce} is created.
+     * <p/>
+     * Nonces can only be used once. Cached {@link PaymentMethodNonce}s are the same nonces that were sent for the
+     * earlier fetch, so they may already have been used. Only use the cache to display the customer's payment
+     * methods, and fetch them without the cache before sending a nonce to your server.
      *
      * @param fragment {@link BraintreeFragment}
      * @param defaultFirst when {@code true} the customer's default payment method will be first in the list, otherwise
      *        payment methods will be ordered my most recently used.
+     * @param useCache when {@code true} recently fetched {@link PaymentMethodNonce}s, whose nonces may already have
+     *        been used, may be returned instead of fetching them again.
      */
-    public static void getPaymentMethodNonces(final BraintreeFragment fragment, boolean defaultFirst) {
+    public static void getPaymentMethodNonces(final BraintreeFragment fragment, final boolean defaultFirst,
+            boolean useCache) {
+        if (useCache) {
+            List<PaymentMethodNonce> cachedPaymentMethodNonces =
+                    PaymentMethodNonceCache.get(fragment.getAuthorization(), defaultFirst);
+            if (cachedPaymentMethodNonces != null) {
+                fragment.postCallback(new ArrayList<>(cachedPaymentMethodNonces));
+                return;
+            }
+        }
+
         final Uri uri = Uri.parse(TokenizationClient.versionedPath(TokenizationClient.PAYMENT_METHOD_ENDPOINT))
                 .buildUpon()
                 .appendQueryParameter("default_first", String.valueOf(defaultFirst))
@@ -41,7 +63,11 @@ public class PaymentMethod {
                     @Override
                     public void success(String responseBody) {
                         try {
-                            fragment.postCallback(PaymentMethodNonce.parsePaymentMethodNonces(responseBody));
+                            List<PaymentMethodNonce> paymentMethodNonces =
+                                    PaymentMethodNonce.parsePaymentMethodNonces(responseBody);
+                            PaymentMethodNonceCache.put(fragment.getAuthorization(), defaultFirst,
+                                    paymentMethodNonces);
+                            fragment.postCallback(paymentMethodNonces);
                             fragment.sendAnalyticsEvent("get-payment-methods.succeeded");
                         } catch (JSONException e) {
                             fragment.postCallback(e);
@@ -59,6 +85,20 @@ public class PaymentMethod {
         });
     }
 
+    /**
+     * Retrieves the current list of {@link PaymentMethodNonce}s for the current customer.
+     * <p/>
+     * When finished, the {@link java.util.List} of {@link PaymentMethodNonce}s will be sent to {@link
+     * PaymentMethodNoncesUpdatedListener#onPaymentMethodNoncesUpdated(List)}.
+     *
+     * @param fragment {@link BraintreeFragment}
+     * @param defaultFirst when {@code true} the customer's default payment method will be first in the list, otherwise
+     *        payment methods will be ordered my most recently used.
+     */
+    public static void getPaymentMethodNonces(BraintreeFragment fragment, boolean defaultFirst) {
+        getPaymentMethodNonces(fragment, defaultFirst, false);
+    }
+
     /**
      * Retrieves the current list of {@link PaymentMethodNonce}s for the current customer.
      * <p/>
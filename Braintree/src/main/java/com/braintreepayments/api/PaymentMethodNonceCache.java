@@ -0,0 +1,176 @@
+package com.braintreepayments.api;
+
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+import android.text.TextUtils;
+
+import com.braintreepayments.api.models.Authorization;
+import com.braintreepayments.api.models.ClientToken;
+import com.braintreepayments.api.models.PaymentMethodNonce;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Manages the in-memory cache of a customer's vaulted {@link PaymentMethodNonce}s, keyed by authorization
+ * fingerprint, and computes the changes between two fetches of the same customer's payment methods.
+ * <p/>
+ * Entries live for the lifetime of the process rather than on disk because {@link PaymentMethodNonce}s can be used
+ * to create transactions. Nonces are single use and the cache cannot tell whether one has been used, so entries
+ * expire after a short {@link #TTL}.
+ */
+class PaymentMethodNonceCache {
+
+    static final long TTL = TimeUnit.MINUTES.toMillis(1);
+    static final int MAX_CUSTOMERS = 3;
+    static final int MAX_PAYMENT_METHOD_NONCES = 50;
+
+    private static final Map<String, CacheEntry> sCache = new LinkedHashMap<String, CacheEntry>(MAX_CUSTOMERS, 0.75f,
+            true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+            return size() > MAX_CUSTOMERS;
+        }
+    };
+
+    private PaymentMethodNonceCache() {}
+
+    /**
+     * @return the cached {@link PaymentMethodNonce}s for the customer the authorization belongs to, or {@code null}
+     * if there is no entry, it has expired or it was fetched with a different ordering.
+     */
+    @Nullable
+    static synchronized List<PaymentMethodNonce> get(Authorization authorization, boolean defaultFirst) {
+        String key = getKey(authorization);
+        if (key == null) {
+            return null;
+        }
+
+        CacheEntry entry = sCache.get(key);
+        if (entry == null || entry.mDefaultFirst != defaultFirst) {
+            return null;
+        }
+
+        if ((System.currentTimeMillis() - entry.mTimestamp) > TTL) {
+            sCache.remove(key);
+            return null;
+        }
+
+        return entry.mPaymentMethodNonces;
+    }
+
+    /**
+     * Caches the {@link PaymentMethodNonce}s for the customer the authorization belongs to. Lists larger than
+     * {@link #MAX_PAYMENT_METHOD_NONCES} are not cached.
+     */
+    static synchronized void put(Authorization authorization, boolean defaultFirst,
+            List<PaymentMethodNonce> paymentMethodNonces) {
+        String key = getKey(authorization);
+        if (key == null) {
+            return;
+        }
+
+        if (paymentMethodNonces.size() > MAX_PAYMENT_METHOD_NONCES) {
+            sCache.remove(key);
+            return;
+        }
+
+        sCache.put(key, new CacheEntry(defaultFirst, paymentMethodNonces));
+    }
+
+    /**
+     * Removes the cached {@link PaymentMethodNonce}s for the customer the authorization belongs to, for example
+     * after a new payment method has been created.
+     */
+    static synchronized void invalidate(Authorization authorization) {
+        String key = getKey(authorization);
+        if (key != null) {
+            sCache.remove(key);
+        }
+    }
+
+    @VisibleForTesting
+    static synchronized void clear() {
+        sCache.clear();
+    }
+
+    /**
+     * Compares two lists of the same customer's {@link PaymentMethodNonce}s.
+     * <p/>
+     * Nonces are regenerated on every fetch, so payment methods are matched on their type, type label and
+     * description. A matched payment method is updated when its default flag changed.
+     */
+    static Changes diff(List<PaymentMethodNonce> previous, List<PaymentMethodNonce> current) {
+        List<PaymentMethodNonce> unmatched = new ArrayList<>(previous);
+        Changes changes = new Changes();
+
+        for (PaymentMethodNonce paymentMethodNonce : current) {
+            PaymentMethodNonce match = null;
+            for (PaymentMethodNonce candidate : unmatched) {
+                if (isSamePaymentMethod(candidate, paymentMethodNonce)) {
+                    match = candidate;
+                    break;
+                }
+            }
+
+            if (match == null) {
+                changes.mAdded.add(paymentMethodNonce);
+            } else {
+                unmatched.remove(match);
+                if (match.isDefault() != paymentMethodNonce.isDefault()) {
+                    changes.mUpdated.add(paymentMethodNonce);
+                }
+            }
+        }
+
+        changes.mRemoved.addAll(unmatched);
+
+        return changes;
+    }
+
+    private static boolean isSamePaymentMethod(PaymentMethodNonce first, PaymentMethodNonce second) {
+        return first.getClass() == second.getClass() &&
+                TextUtils.equals(first.getTypeLabel(), second.getTypeLabel()) &&
+                TextUtils.equals(first.getDescription(), second.getDescription());
+    }
+
+    @Nullable
+    private static String getKey(Authorization authorization) {
+        if (authorization instanceof ClientToken) {
+            return ((ClientToken) authorization).getAuthorizationFingerprint();
+        }
+
+        return null;
+    }
+
+    private static class CacheEntry {
+
+        private final boolean mDefaultFirst;
+        private final List<PaymentMethodNonce> mPaymentMethodNonces;
+        private final long mTimestamp;
+
+        CacheEntry(boolean defaultFirst, List<PaymentMethodNonce> paymentMethodNonces) {
+            mDefaultFirst = defaultFirst;
+            mPaymentMethodNonces = Collections.unmodifiableList(new ArrayList<>(paymentMethodNonces));
+            mTimestamp = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * The {@link PaymentMethodNonce}s that were added, removed or updated between two fetches.
+     */
+    static class Changes {
+
+        final List<PaymentMethodNonce> mAdded = new ArrayList<>();
+        final List<PaymentMethodNonce> mRemoved = new ArrayList<>();
+        final List<PaymentMethodNonce> mUpdated = new ArrayList<>();
+
+        boolean isEmpty() {
+            return mAdded.isEmpty() && mRemoved.isEmpty() && mUpdated.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.braintreepayments.api;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+
+import com.braintreepayments.api.interfaces.BraintreeResponseListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds {@link BraintreeFragment} state that is too large to be saved in the instance state {@link android.os.Bundle}.
+ * State is kept in memory and written to the app's cache directory in the background so that it is still available
+ * if the process is killed while the app is in the background. Only the key needs to be saved in the
+ * {@link android.os.Bundle}.
+ * <p/>
+ * Only the configuration is stored. Payment method nonces can be used to create transactions, so they are never
+ * written to disk. Files are written in a versioned format, only read by the same installation of the app, and
+ * deleted once restored. Files left behind by tasks that were never resumed are swept the first time the store is
+ * used in a process.
+ */
+class SavedStateStore {
+
+    static final int MAX_ENTRIES = 5;
+    static final long MAX_FILE_AGE_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private static final String DIRECTORY = "braintree_saved_state";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final int VERSION = 2;
+
+    private static final Map<String, String> sSavedStates = new LinkedHashMap<String, String>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private static boolean sSwept;
+
+    @VisibleForTesting
+    static ExecutorService sExecutor = Executors.newSingleThreadExecutor();
+
+    private SavedStateStore() {}
+
+    static void put(Context context, final String key, @Nullable final String configuration) {
+        synchronized (sSavedStates) {
+            sSavedStates.put(key, configuration);
+        }
+
+        sweepOnce(context);
+
+        final File file = getFile(context, key);
+        sExecutor.submit(new Runnable() {
+            @Override
+            public void run() {
+                write(file, configuration);
+            }
+        });
+    }
+
+    /**
+     * Removes the configuration for the key from the store and returns it to the listener, or {@code null} if there
+     * is none. The listener is called immediately if the state is still in memory. Otherwise the file is read in the
+     * background and the listener is called on the main thread.
+     */
+    static void remove(Context context, String key, final BraintreeResponseListener<String> listener) {
+        boolean inMemory;
+        String configuration;
+        synchronized (sSavedStates) {
+            inMemory = sSavedStates.containsKey(key);
+            configuration = sSavedStates.remove(key);
+        }
+
+        sweepOnce(context);
+
+        final File file = getFile(context, key);
+        if (inMemory) {
+            delete(file);
+            listener.onResponse(configuration);
+            return;
+        }
+
+        sExecutor.submit(new Runnable() {
+            @Override
+            public void run() {
+                final String configuration = read(file);
+                file.delete();
+
+                new Handler(Looper.getMainLooper()).post(new Runnable() {
+                    @Override
+                    public void run() {
+                        listener.onResponse(configuration);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Removes the state for the key without reading it.
+     */
+    static void discard(Context context, String key) {
+        synchronized (sSavedStates) {
+            sSavedStates.remove(key);
+        }
+
+        delete(getFile(context, key));
+    }
+
+    @VisibleForTesting
+    static void clearMemory() {
+        synchronized (sSavedStates) {
+            sSavedStates.clear();
+            sSwept = false;
+        }
+    }
+
+    private static File getDirectory(Context context) {
+        return new File(context.getCacheDir(), DIRECTORY);
+    }
+
+    private static File getFile(Context context, String key) {
+        return new File(getDirectory(context), key);
+    }
+
+    /**
+     * Deletes files older than {@link #MAX_FILE_AGE_MILLIS} and all but the newest {@link #MAX_ENTRIES} files, once
+     * per process.
+     */
+    private static void sweepOnce(Context context) {
+        synchronized (sSavedStates) {
+            if (sSwept) {
+                return;
+            }
+            sSwept = true;
+        }
+
+        final File directory = getDirectory(context);
+        sExecutor.submit(new Runnable() {
+            @Override
+            public void run() {
+                sweep(directory, System.currentTimeMillis());
+            }
+        });
+    }
+
+    @VisibleForTesting
+    static void sweep(File directory, long now) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File lhs, File rhs) {
+                long lhsModified = lhs.lastModified();
+                long rhsModified = rhs.lastModified();
+                return lhsModified < rhsModified ? 1 : (lhsModified == rhsModified ? 0 : -1);
+            }
+        });
+
+        int kept = 0;
+        for (File file : files) {
+            if (file.getName().endsWith(TEMP_FILE_SUFFIX) || now - file.lastModified() > MAX_FILE_AGE_MILLIS ||
+                    kept >= MAX_ENTRIES) {
+                file.delete();
+            } else {
+                kept++;
+            }
+        }
+    }
+
+    private static void write(File file, @Nullable String configuration) {
+        OutputStream out = null;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream dataOut = new DataOutputStream(bytes);
+            dataOut.writeInt(VERSION);
+            dataOut.writeBoolean(configuration != null);
+            if (configuration != null) {
+                // writeUTF is limited to 64KB, which large configurations can exceed
+                byte[] configurationBytes = configuration.getBytes("UTF-8");
+                dataOut.writeInt(configurationBytes.length);
+                dataOut.write(configurationBytes);
+            }
+            dataOut.flush();
+
+            File directory = file.getParentFile();
+            if (!directory.exists() && !directory.mkdirs()) {
+                return;
+            }
+
+            File tempFile = new File(directory, file.getName() + TEMP_FILE_SUFFIX);
+            out = new FileOutputStream(tempFile);
+            out.write(bytes.toByteArray());
+            out.close();
+            out = null;
+
+            if (!tempFile.renameTo(file)) {
+                tempFile.delete();
+            }
+        } catch (IOException ignored) {
+        } finally {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException ignored) {}
+            }
+        }
+    }
+
+    @Nullable
+    private static String read(File file) {
+        if (!file.exists()) {
+            return null;
+        }
+
+        InputStream in = null;
+        try {
+            in = new FileInputStream(file);
+            DataInputStream dataIn = new DataInputStream(in);
+            if (dataIn.readInt() != VERSION || !dataIn.readBoolean()) {
+                return null;
+            }
+
+            byte[] configurationBytes = new byte[dataIn.readInt()];
+            dataIn.readFully(configurationBytes);
+
+            return new String(configurationBytes, "UTF-8");
+        } catch (IOException | RuntimeException e) {
+            return null;
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException ignored) {}
+            }
+        }
+    }
+
+    private static void delete(final File file) {
+        sExecutor.submit(new Runnable() {
+            @Override
+            public void run() {
+                file.delete();
+            }
+        });
+    }
+}
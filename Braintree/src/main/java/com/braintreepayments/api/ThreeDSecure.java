@@ -1,13 +1,17 @@
 package com.braintreepayments.api;
 
 import android.app.Activity;
+import android.content.Context;
 import android.content.Intent;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.VisibleForTesting;
 
 import com.braintreepayments.api.exceptions.BraintreeException;
 import com.braintreepayments.api.exceptions.ErrorWithResponse;
 import com.braintreepayments.api.interfaces.ConfigurationListener;
 import com.braintreepayments.api.interfaces.HttpResponseCallback;
-import com.braintreepayments.api.interfaces.PaymentMethodNonceCallback;
+import com.braintreepayments.api.internal.JsonObjectRequestBody;
 import com.braintreepayments.api.internal.ManifestValidator;
 import com.braintreepayments.api.models.BraintreeRequestCodes;
 import com.braintreepayments.api.models.CardBuilder;
@@ -16,10 +20,17 @@ import com.braintreepayments.api.models.PaymentMethodNonce;
 import com.braintreepayments.api.models.ThreeDSecureAuthenticationResponse;
 import com.braintreepayments.api.models.ThreeDSecureLookup;
 import com.braintreepayments.api.threedsecure.ThreeDSecureWebViewActivity;
+import com.braintreepayments.api.threedsecure.ThreeDSecureWebViewPool;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 /**
  * 3D Secure is a protocol that enables cardholders and issuers to add a layer of security
  * to e-commerce transactions via password entry at checkout.
@@ -31,6 +42,14 @@ import org.json.JSONObject;
  */
 public class ThreeDSecure {
 
+    private static final String THREE_D_SECURE_NOT_ENABLED_MESSAGE =
+            "Three D Secure is not enabled in the control panel";
+    private static final String MANIFEST_ERROR_MESSAGE = "ThreeDSecureWebViewActivity in declared in " +
+            "AndroidManifest.xml";
+
+    @VisibleForTesting
+    static ExecutorService sExecutor = Executors.newCachedThreadPool();
+
     /**
      * Verification is associated with a transaction amount and your merchant account. To specify a
      * different merchant account (or, in turn, currency), you will need to specify the merchant
@@ -42,6 +61,9 @@ public class ThreeDSecure {
      * Transactions created with this nonce will be 3D Secure, and benefit from the appropriate
      * liability shift if authentication is successful or fail with a 3D Secure failure.
      *
+     * The card is tokenized while the manifest is validated, and the lookup is made as soon as
+     * the card has been tokenized.
+     *
      * @param fragment the {@link BraintreeFragment} backing the http request. This fragment will
      *                  also be responsible for handling callbacks to it's listeners
      * @param cardBuilder The cardBuilder created from raw details. Will be tokenized before
@@ -50,15 +72,29 @@ public class ThreeDSecure {
      */
     public static void performVerification(final BraintreeFragment fragment, final CardBuilder cardBuilder,
             final String amount) {
-        TokenizationClient.tokenize(fragment, cardBuilder, new PaymentMethodNonceCallback() {
+        fragment.waitForConfiguration(new ConfigurationListener() {
             @Override
-            public void success(PaymentMethodNonce paymentMethodNonce) {
-                performVerification(fragment, paymentMethodNonce.getNonce(), amount);
-            }
+            public void onConfigurationFetched(final Configuration configuration) {
+                if (!configuration.isThreeDSecureEnabled()) {
+                    fragment.postCallback(new BraintreeException(THREE_D_SECURE_NOT_ENABLED_MESSAGE));
+                    return;
+                }
 
-            @Override
-            public void failure(Exception exception) {
-                fragment.postCallback(exception);
+                ThreeDSecureWebViewPool.prime();
+
+                final Future<Boolean> manifestValidation = sExecutor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() {
+                        return isManifestValid(fragment.getApplicationContext());
+                    }
+                });
+
+                sExecutor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        tokenizeAndLookup(fragment, configuration, cardBuilder, amount, manifestValidation);
+                    }
+                });
             }
         });
     }
@@ -84,49 +120,34 @@ public class ThreeDSecure {
             @Override
             public void onConfigurationFetched(Configuration configuration) {
                 if (!configuration.isThreeDSecureEnabled()) {
-                    fragment.postCallback(new BraintreeException("Three D Secure is not enabled in the control panel"));
+                    fragment.postCallback(new BraintreeException(THREE_D_SECURE_NOT_ENABLED_MESSAGE));
                     return;
                 }
 
-                if (!ManifestValidator.isActivityDeclaredInAndroidManifest(fragment.getApplicationContext(),
-                        ThreeDSecureWebViewActivity.class)) {
-                    fragment.postCallback(new BraintreeException("ThreeDSecureWebViewActivity in declared in " +
-                            "AndroidManifest.xml"));
+                ThreeDSecureWebViewPool.prime();
+
+                if (!isManifestValid(fragment.getApplicationContext())) {
+                    fragment.postCallback(new BraintreeException(MANIFEST_ERROR_MESSAGE));
                     return;
                 }
 
                 try {
-                    JSONObject params = new JSONObject()
-                            .put("merchantAccountId", configuration.getMerchantAccountId())
-                            .put("amount", amount);
-
-                    fragment.getHttpClient().post(TokenizationClient.versionedPath(
-                            TokenizationClient.PAYMENT_METHOD_ENDPOINT + "/" + nonce +
-                                    "/three_d_secure/lookup"), params.toString(), new HttpResponseCallback() {
-                        @Override
-                        public void success(String responseBody) {
-                            try {
-                                ThreeDSecureLookup threeDSecureLookup =
-                                        ThreeDSecureLookup.fromJson(responseBody);
-                                if (threeDSecureLookup.getAcsUrl() != null) {
-                                    Intent intent = new Intent(fragment.getApplicationContext(),
-                                            ThreeDSecureWebViewActivity.class)
-                                            .putExtra(ThreeDSecureWebViewActivity.EXTRA_THREE_D_SECURE_LOOKUP,
-                                                    threeDSecureLookup);
-                                    fragment.startActivityForResult(intent, BraintreeRequestCodes.THREE_D_SECURE);
-                                } else {
-                                    fragment.postCallback(threeDSecureLookup.getCardNonce());
+                    fragment.getHttpClient().post(getLookupPath(nonce), getLookupParams(configuration, amount),
+                            new HttpResponseCallback() {
+                                @Override
+                                public void success(String responseBody) {
+                                    try {
+                                        onLookupComplete(fragment, ThreeDSecureLookup.fromJson(responseBody));
+                                    } catch (JSONException e) {
+                                        fragment.postCallback(e);
+                                    }
+                                }
+
+                                @Override
+                                public void failure(Exception exception) {
+                                    fragment.postCallback(exception);
                                 }
-                            } catch (JSONException e) {
-                                fragment.postCallback(e);
-                            }
-                        }
-
-                        @Override
-                        public void failure(Exception exception) {
-                            fragment.postCallback(exception);
-                        }
-                    });
+                            });
                 } catch (JSONException e) {
                     fragment.postCallback(e);
                 }
@@ -134,6 +155,81 @@ public class ThreeDSecure {
         });
     }
 
+    /**
+     * Tokenizes the card and, once the manifest has been validated, looks up the resulting nonce. Both requests are
+     * made synchronously on the calling background thread, only the result is posted to the main thread.
+     */
+    private static void tokenizeAndLookup(final BraintreeFragment fragment, Configuration configuration,
+            CardBuilder cardBuilder, String amount, Future<Boolean> manifestValidation) {
+        try {
+            PaymentMethodNonce paymentMethodNonce = TokenizationClient.tokenize(fragment, cardBuilder);
+
+            if (!awaitManifestValidation(fragment, manifestValidation)) {
+                postCallbackOnMainThread(fragment, new BraintreeException(MANIFEST_ERROR_MESSAGE));
+                return;
+            }
+
+            String responseBody = fragment.getHttpClient().post(getLookupPath(paymentMethodNonce.getNonce()),
+                    getLookupParams(configuration, amount));
+            final ThreeDSecureLookup threeDSecureLookup = ThreeDSecureLookup.fromJson(responseBody);
+            postOnMainThread(new Runnable() {
+                @Override
+                public void run() {
+                    onLookupComplete(fragment, threeDSecureLookup);
+                }
+            });
+        } catch (Exception e) {
+            postCallbackOnMainThread(fragment, e);
+        }
+    }
+
+    private static boolean awaitManifestValidation(BraintreeFragment fragment, Future<Boolean> manifestValidation) {
+        try {
+            return manifestValidation.get();
+        } catch (InterruptedException | ExecutionException e) {
+            return isManifestValid(fragment.getApplicationContext());
+        }
+    }
+
+    private static boolean isManifestValid(Context context) {
+        return ManifestValidator.isActivityDeclaredInAndroidManifest(context, ThreeDSecureWebViewActivity.class);
+    }
+
+    private static String getLookupPath(String nonce) {
+        return TokenizationClient.versionedPath(TokenizationClient.PAYMENT_METHOD_ENDPOINT + "/" + nonce +
+                "/three_d_secure/lookup");
+    }
+
+    private static JsonObjectRequestBody getLookupParams(Configuration configuration, String amount)
+            throws JSONException {
+        return new JsonObjectRequestBody(new JSONObject()
+                .put("merchantAccountId", configuration.getMerchantAccountId())
+                .put("amount", amount));
+    }
+
+    private static void onLookupComplete(BraintreeFragment fragment, ThreeDSecureLookup threeDSecureLookup) {
+        if (threeDSecureLookup.getAcsUrl() != null) {
+            Intent intent = new Intent(fragment.getApplicationContext(), ThreeDSecureWebViewActivity.class)
+                    .putExtra(ThreeDSecureWebViewActivity.EXTRA_THREE_D_SECURE_LOOKUP, threeDSecureLookup);
+            fragment.startActivityForResult(intent, BraintreeRequestCodes.THREE_D_SECURE);
+        } else {
+            fragment.postCallback(threeDSecureLookup.getCardNonce());
+        }
+    }
+
+    private static void postCallbackOnMainThread(final BraintreeFragment fragment, final Exception exception) {
+        postOnMainThread(new Runnable() {
+            @Override
+            public void run() {
+                fragment.postCallback(exception);
+            }
+        });
+    }
+
+    private static void postOnMainThread(Runnable runnable) {
+        new Handler(Looper.getMainLooper()).post(runnable);
+    }
+
     protected static void onActivityResult(BraintreeFragment fragment, int resultCode, Intent data) {
         if (resultCode == Activity.RESULT_OK) {
             ThreeDSecureAuthenticationResponse authenticationResponse =
@@ -1,20 +1,29 @@
 package com.braintreepayments.api;
 
+import android.support.annotation.Nullable;
+
 import com.braintreepayments.api.exceptions.ErrorWithResponse;
+import com.braintreepayments.api.interfaces.BatchTokenizationCallback;
 import com.braintreepayments.api.interfaces.ConfigurationListener;
 import com.braintreepayments.api.interfaces.HttpResponseCallback;
 import com.braintreepayments.api.interfaces.PaymentMethodNonceCallback;
+import com.braintreepayments.api.models.BaseCardBuilder;
 import com.braintreepayments.api.models.Configuration;
 import com.braintreepayments.api.models.PaymentMethodBuilder;
 import com.braintreepayments.api.models.PaymentMethodNonce;
 
 import org.json.JSONException;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import static com.braintreepayments.api.models.PaymentMethodNonce.parsePaymentMethodNonces;
 
 class TokenizationClient {
 
     static final String PAYMENT_METHOD_ENDPOINT = "payment_methods";
+    static final int MAX_CONCURRENT_BATCH_REQUESTS = 4;
 
     /**
      * Create a {@link PaymentMethodNonce} in the Braintree Gateway.
@@ -27,6 +36,9 @@ class TokenizationClient {
      * If an error not due to validation (server error, network issue, etc.) occurs, {@link
      * com.braintreepayments.api.interfaces.BraintreeErrorListener#onError(Exception)} (Throwable)}
      * will be called with the {@link Exception} that occurred.
+     * <p/>
+     * A {@link BaseCardBuilder} that is {@link BaseCardBuilder#validateLocally(boolean) validated locally} and fails
+     * validation is not sent to the Braintree Gateway.
      *
      * @param paymentMethodBuilder {@link PaymentMethodBuilder} for the {@link PaymentMethodNonce}
      *        to be created.
@@ -38,30 +50,188 @@ class TokenizationClient {
         fragment.waitForConfiguration(new ConfigurationListener() {
             @Override
             public void onConfigurationFetched(Configuration configuration) {
-                fragment.getHttpClient().post(TokenizationClient.versionedPath(
-                        TokenizationClient.PAYMENT_METHOD_ENDPOINT + "/" + paymentMethodBuilder.getApiPath()),
-                        paymentMethodBuilder.build(), new HttpResponseCallback() {
-                            @Override
-                            public void success(String responseBody) {
-                                try {
-                                   PaymentMethodNonce paymentMethodNonce = parsePaymentMethodNonces(responseBody,
-                                            paymentMethodBuilder.getResponsePaymentMethodType());
-                                    callback.success(paymentMethodNonce);
-                                } catch (JSONException e) {
-                                    callback.failure(e);
-                                }
-                            }
-
-                            @Override
-                            public void failure(Exception exception) {
-                                callback.failure(exception);
-                            }
-                        });
+                post(fragment, paymentMethodBuilder, callback);
             }
         });
     }
 
+    /**
+     * Create a {@link PaymentMethodNonce} in the Braintree Gateway, blocking until the response is received.
+     * <p/>
+     * Configuration must already have been fetched. This makes a synchronous request and must not be called on
+     * the main thread.
+     *
+     * @param paymentMethodBuilder {@link PaymentMethodBuilder} for the {@link PaymentMethodNonce}
+     *        to be created.
+     * @return the {@link PaymentMethodNonce} that was created.
+     * @throws Exception the {@link ErrorWithResponse} if creation fails validation, or the {@link Exception} that
+     *         occurred.
+     */
+    static PaymentMethodNonce tokenize(BraintreeFragment fragment, PaymentMethodBuilder paymentMethodBuilder)
+            throws Exception {
+        paymentMethodBuilder.setSessionId(fragment.getSessionId());
+
+        ErrorWithResponse validationErrors = getValidationErrors(fragment, paymentMethodBuilder);
+        if (validationErrors != null) {
+            throw validationErrors;
+        }
+
+        String responseBody = fragment.getHttpClient().post(TokenizationClient.versionedPath(
+                TokenizationClient.PAYMENT_METHOD_ENDPOINT + "/" + paymentMethodBuilder.getApiPath()),
+                paymentMethodBuilder);
+        return parsePaymentMethodNonces(responseBody, paymentMethodBuilder.getResponsePaymentMethodType());
+    }
+
+    /**
+     * Create a {@link PaymentMethodNonce} in the Braintree Gateway for each {@link PaymentMethodBuilder} in a list.
+     * <p/>
+     * Configuration is only waited for once for the whole batch. At most {@link #MAX_CONCURRENT_BATCH_REQUESTS}
+     * requests are in flight at a time, each new request being started as soon as a previous one completes.
+     * <p/>
+     * A failure for one {@link PaymentMethodBuilder} does not stop the rest of the batch. On completion, the
+     * {@link PaymentMethodNonce} or {@link Exception} for every {@link PaymentMethodBuilder} is returned to
+     * {@link BatchTokenizationCallback} in the same order as the builders were given.
+     *
+     * @param paymentMethodBuilders {@link PaymentMethodBuilder}s for the {@link PaymentMethodNonce}s to be created.
+     */
+    static void tokenize(final BraintreeFragment fragment,
+            final List<? extends PaymentMethodBuilder> paymentMethodBuilders, final BatchTokenizationCallback callback) {
+        if (paymentMethodBuilders.isEmpty()) {
+            callback.onComplete(new ArrayList<PaymentMethodNonce>(), new ArrayList<Exception>());
+            return;
+        }
+
+        for (PaymentMethodBuilder paymentMethodBuilder : paymentMethodBuilders) {
+            paymentMethodBuilder.setSessionId(fragment.getSessionId());
+        }
+
+        fragment.waitForConfiguration(new ConfigurationListener() {
+            @Override
+            public void onConfigurationFetched(Configuration configuration) {
+                new BatchTokenization(fragment, paymentMethodBuilders, callback).start();
+            }
+        });
+    }
+
+    private static void post(BraintreeFragment fragment, final PaymentMethodBuilder paymentMethodBuilder,
+            final PaymentMethodNonceCallback callback) {
+        ErrorWithResponse validationErrors = getValidationErrors(fragment, paymentMethodBuilder);
+        if (validationErrors != null) {
+            callback.failure(validationErrors);
+            return;
+        }
+
+        fragment.getHttpClient().post(TokenizationClient.versionedPath(
+                TokenizationClient.PAYMENT_METHOD_ENDPOINT + "/" + paymentMethodBuilder.getApiPath()),
+                paymentMethodBuilder, new HttpResponseCallback() {
+                    @Override
+                    public void success(String responseBody) {
+                        try {
+                            PaymentMethodNonce paymentMethodNonce = parsePaymentMethodNonces(responseBody,
+                                    paymentMethodBuilder.getResponsePaymentMethodType());
+                            callback.success(paymentMethodNonce);
+                        } catch (JSONException e) {
+                            callback.failure(e);
+                        }
+                    }
+
+                    @Override
+                    public void failure(Exception exception) {
+                        callback.failure(exception);
+                    }
+                });
+    }
+
+    @Nullable
+    private static ErrorWithResponse getValidationErrors(BraintreeFragment fragment,
+            PaymentMethodBuilder paymentMethodBuilder) {
+        if (paymentMethodBuilder instanceof BaseCardBuilder &&
+                ((BaseCardBuilder) paymentMethodBuilder).isValidatedLocally()) {
+            return ((BaseCardBuilder) paymentMethodBuilder).getValidationErrors(fragment.getConfiguration());
+        }
+
+        return null;
+    }
+
     static String versionedPath(String path) {
         return "/v1/" + path;
     }
+
+    /**
+     * Tracks the state of a single batch tokenization. Http callbacks are always delivered on the main thread, so
+     * no synchronization is required. Callbacks can also be delivered synchronously from within
+     * {@link #post(BraintreeFragment, PaymentMethodBuilder, PaymentMethodNonceCallback)}, so requests are only ever
+     * started from the loop in {@link #postPending()}, which is never re-entered.
+     */
+    private static class BatchTokenization {
+
+        private final BraintreeFragment mFragment;
+        private final List<? extends PaymentMethodBuilder> mPaymentMethodBuilders;
+        private final BatchTokenizationCallback mCallback;
+        private final List<PaymentMethodNonce> mPaymentMethodNonces;
+        private final List<Exception> mExceptions;
+        private int mNextIndex;
+        private int mInFlightCount;
+        private int mCompletedCount;
+        private boolean mPosting;
+        private boolean mCompleted;
+
+        BatchTokenization(BraintreeFragment fragment, List<? extends PaymentMethodBuilder> paymentMethodBuilders,
+                BatchTokenizationCallback callback) {
+            mFragment = fragment;
+            mPaymentMethodBuilders = paymentMethodBuilders;
+            mCallback = callback;
+            mPaymentMethodNonces = new ArrayList<>(
+                    Collections.nCopies(paymentMethodBuilders.size(), (PaymentMethodNonce) null));
+            mExceptions = new ArrayList<>(Collections.nCopies(paymentMethodBuilders.size(), (Exception) null));
+        }
+
+        void start() {
+            postPending();
+        }
+
+        private void postPending() {
+            if (mPosting) {
+                // a request completed synchronously, the loop that is running posts the next one
+                return;
+            }
+
+            mPosting = true;
+            while (mInFlightCount < MAX_CONCURRENT_BATCH_REQUESTS && mNextIndex < mPaymentMethodBuilders.size()) {
+                postNext();
+            }
+            mPosting = false;
+        }
+
+        private void postNext() {
+            final int index = mNextIndex++;
+            mInFlightCount++;
+            post(mFragment, mPaymentMethodBuilders.get(index), new PaymentMethodNonceCallback() {
+                @Override
+                public void success(PaymentMethodNonce paymentMethodNonce) {
+                    mPaymentMethodNonces.set(index, paymentMethodNonce);
+                    onRequestCompleted();
+                }
+
+                @Override
+                public void failure(Exception exception) {
+                    mExceptions.set(index, exception);
+                    onRequestCompleted();
+                }
+            });
+        }
+
+        private void onRequestCompleted() {
+            mInFlightCount--;
+            mCompletedCount++;
+            if (mCompletedCount == mPaymentMethodBuilders.size()) {
+                if (!mCompleted) {
+                    mCompleted = true;
+                    mCallback.onComplete(mPaymentMethodNonces, mExceptions);
+                }
+            } else {
+                postPending();
+            }
+        }
+    }
 }
@@ -1,11 +1,14 @@
 package com.braintreepayments.api;
 
 import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
 
 import com.braintreepayments.api.exceptions.ConfigurationException;
 import com.braintreepayments.api.interfaces.ConfigurationListener;
 import com.braintreepayments.api.interfaces.HttpResponseCallback;
 import com.braintreepayments.api.interfaces.PaymentMethodNonceCallback;
+import com.braintreepayments.api.internal.JsonObjectRequestBody;
 import com.braintreepayments.api.models.Configuration;
 import com.braintreepayments.api.models.PaymentMethodNonce;
 import com.braintreepayments.api.models.UnionPayCapabilities;
@@ -15,6 +18,9 @@ import com.braintreepayments.api.models.UnionPayConfiguration;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.util.Map;
+import java.util.WeakHashMap;
+
 /**
  * Used to check, enroll, and tokenize UnionPay cards. For more information see the
  * <a href="https://developers.braintreepayments.com/guides/unionpay/overview">documentation</a>
@@ -27,10 +33,17 @@ public class UnionPay {
             "payment_methods/credit_cards/capabilities");
     private static final String UNIONPAY_ENROLLMENT_PATH = TokenizationClient.versionedPath("union_pay_enrollments");
 
+    private static final Map<BraintreeFragment, Object> sDebounceTokens = new WeakHashMap<>();
+    private static volatile long sCapabilitiesDebounceMillis = 0;
+
     /**
      * Fetches the capabilities of a card. If the card needs to be enrolled use {@link
      * UnionPay#enroll(BraintreeFragment, UnionPayCardBuilder)}.
      * <p/>
+     * Capabilities are cached per merchant and environment, by BIN for incomplete card numbers and by card number for
+     * complete ones, and concurrent fetches for the same BIN or card number share one request. A debounce can be set with
+     * {@link #setCapabilitiesDebounce(long)} to only fetch once the card number stops changing.
+     * <p/>
      * On completion, returns the {@link UnionPayCapabilities} to
      * {@link com.braintreepayments.api.interfaces.UnionPayListener#onCapabilitiesFetched(UnionPayCapabilities)}
      * <p/>
@@ -41,6 +54,36 @@ public class UnionPay {
      * @param cardNumber The card number to check for Union Pay capabilities.
      */
     public static void fetchCapabilities(final BraintreeFragment fragment, final String cardNumber) {
+        if (sCapabilitiesDebounceMillis <= 0) {
+            fetchCapabilitiesWithoutDebounce(fragment, cardNumber);
+            return;
+        }
+
+        final Object debounceToken = new Object();
+        sDebounceTokens.put(fragment, debounceToken);
+        new Handler(Looper.getMainLooper()).postDelayed(new Runnable() {
+            @Override
+            public void run() {
+                if (sDebounceTokens.get(fragment) == debounceToken) {
+                    sDebounceTokens.remove(fragment);
+                    fetchCapabilitiesWithoutDebounce(fragment, cardNumber);
+                }
+            }
+        }, sCapabilitiesDebounceMillis);
+    }
+
+    /**
+     * Sets how long {@link #fetchCapabilities(BraintreeFragment, String)} waits for another call for the same
+     * {@link BraintreeFragment} before fetching. Only the card number of the last call is fetched. The debounce
+     * applies to every {@link BraintreeFragment} in the app. Defaults to {@code 0}, which fetches on every call.
+     *
+     * @param debounceMillis the time to wait in milliseconds.
+     */
+    public static void setCapabilitiesDebounce(long debounceMillis) {
+        sCapabilitiesDebounceMillis = debounceMillis;
+    }
+
+    private static void fetchCapabilitiesWithoutDebounce(final BraintreeFragment fragment, final String cardNumber) {
         fragment.waitForConfiguration(new ConfigurationListener() {
             @Override
             public void onConfigurationFetched(Configuration configuration) {
@@ -49,6 +92,18 @@ public class UnionPay {
                     return;
                 }
 
+                String scope = UnionPayCapabilitiesCache.getScope(configuration);
+                UnionPayCapabilities cachedCapabilities = UnionPayCapabilitiesCache.get(scope, cardNumber);
+                if (cachedCapabilities != null) {
+                    onCapabilitiesFetched(fragment, cachedCapabilities);
+                    return;
+                }
+
+                final String key = UnionPayCapabilitiesCache.getKey(scope, cardNumber);
+                if (key != null && UnionPayCapabilitiesCache.addWaitingFragment(key, fragment)) {
+                    return;
+                }
+
                 String fetchCapabilitiesUrl = Uri.parse(UNIONPAY_CAPABILITIES_PATH)
                         .buildUpon()
                         .appendQueryParameter("creditCard[number]", cardNumber)
@@ -58,20 +113,43 @@ public class UnionPay {
                 fragment.getHttpClient().get(fetchCapabilitiesUrl, new HttpResponseCallback() {
                     @Override
                     public void success(String responseBody) {
-                        fragment.postCallback(UnionPayCapabilities.fromJson(responseBody));
-                        fragment.sendAnalyticsEvent("union-pay.capabilities-received");
+                        UnionPayCapabilities capabilities = UnionPayCapabilities.fromJson(responseBody);
+                        if (key == null) {
+                            onCapabilitiesFetched(fragment, capabilities);
+                            return;
+                        }
+
+                        for (BraintreeFragment waitingFragment : UnionPayCapabilitiesCache.put(key, capabilities)) {
+                            onCapabilitiesFetched(waitingFragment, capabilities);
+                        }
                     }
 
                     @Override
                     public void failure(Exception exception) {
-                        fragment.postCallback(exception);
-                        fragment.sendAnalyticsEvent("union-pay.capabilities-failed");
+                        if (key == null) {
+                            onCapabilitiesFailed(fragment, exception);
+                            return;
+                        }
+
+                        for (BraintreeFragment waitingFragment : UnionPayCapabilitiesCache.remove(key)) {
+                            onCapabilitiesFailed(waitingFragment, exception);
+                        }
                     }
                 });
             }
         });
     }
 
+    private static void onCapabilitiesFetched(BraintreeFragment fragment, UnionPayCapabilities capabilities) {
+        fragment.postCallback(capabilities);
+        fragment.sendAnalyticsEvent("union-pay.capabilities-received");
+    }
+
+    private static void onCapabilitiesFailed(BraintreeFragment fragment, Exception exception) {
+        fragment.postCallback(exception);
+        fragment.sendAnalyticsEvent("union-pay.capabilities-failed");
+    }
+
     /**
      * Enrolls a Union Pay card. Only call this method if the card needs to be enrolled. Check {@link
      * UnionPay#fetchCapabilities(BraintreeFragment, String)} if your card needs to be enrolled.
@@ -100,7 +178,8 @@ public class UnionPay {
                     try {
                         JSONObject enrollmentPayloadJson =
                                 unionPayCardBuilder.buildEnrollment();
-                        fragment.getHttpClient().post(UNIONPAY_ENROLLMENT_PATH, enrollmentPayloadJson.toString(),
+                        fragment.getHttpClient().post(UNIONPAY_ENROLLMENT_PATH,
+                                new JsonObjectRequestBody(enrollmentPayloadJson),
                                 new HttpResponseCallback() {
                                     @Override
                                     public void success(String responseBody) {
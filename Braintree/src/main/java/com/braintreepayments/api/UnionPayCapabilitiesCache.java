@@ -0,0 +1,195 @@
+package com.braintreepayments.api;
+
+import android.os.SystemClock;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+import android.util.Base64;
+
+import com.braintreepayments.api.models.Configuration;
+import com.braintreepayments.api.models.UnionPayCapabilities;
+
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers recently fetched {@link UnionPayCapabilities} and the requests that are in flight, so that a card form
+ * that fetches capabilities on every keystroke makes one request per BIN.
+ * <p/>
+ * Capabilities of an incomplete card number are cached by its BIN, the first {@link #MAX_BIN_LENGTH} digits, or
+ * the first {@link #MIN_BIN_LENGTH} digits while fewer have been entered. Capabilities of a complete card number
+ * may depend on the whole number, so they are cached by a hash of the number and are only answered from the BIN
+ * when the BIN is known not to be UnionPay. Capabilities can differ between merchants and environments, so every
+ * key is scoped to the merchant id and environment of the {@link Configuration}. Entries expire after
+ * {@link #TTL_MILLIS}, and the least recently used entries are evicted beyond {@link #MAX_ENTRIES}.
+ */
+class UnionPayCapabilitiesCache {
+
+    static final int MIN_BIN_LENGTH = 6;
+    static final int MAX_BIN_LENGTH = 8;
+    static final int MIN_COMPLETE_CARD_NUMBER_LENGTH = 16;
+    static final int MAX_ENTRIES = 32;
+    static final long TTL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private static final Map<String, Entry> sEntries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private static final Map<String, List<BraintreeFragment>> sInFlightRequests = new HashMap<>();
+
+    private UnionPayCapabilitiesCache() {}
+
+    /**
+     * @return the scope of the merchant and environment the configuration belongs to.
+     */
+    static String getScope(Configuration configuration) {
+        return configuration.getEnvironment() + "/" + configuration.getMerchantId();
+    }
+
+    /**
+     * @return the key the capabilities of the card number are cached under for the scope, or {@code null} if they
+     * can not be cached because the number is too short or contains anything but digits.
+     */
+    @Nullable
+    static String getKey(String scope, String cardNumber) {
+        if (cardNumber == null || cardNumber.length() < MIN_BIN_LENGTH || !isDigits(cardNumber)) {
+            return null;
+        }
+
+        if (cardNumber.length() >= MIN_COMPLETE_CARD_NUMBER_LENGTH) {
+            return scope + "|number:" + hash(cardNumber);
+        }
+
+        return getBinKey(scope, cardNumber);
+    }
+
+    /**
+     * @return the cached capabilities for the card number in the scope, or {@code null} if they need to be fetched.
+     */
+    @Nullable
+    static synchronized UnionPayCapabilities get(String scope, String cardNumber) {
+        String key = getKey(scope, cardNumber);
+        if (key == null) {
+            return null;
+        }
+
+        UnionPayCapabilities capabilities = get(key, false);
+        if (capabilities == null && cardNumber.length() >= MIN_COMPLETE_CARD_NUMBER_LENGTH) {
+            capabilities = get(getBinKey(scope, cardNumber), true);
+        }
+
+        return capabilities;
+    }
+
+    /**
+     * Registers the fragment to be called back with the result of the request for the key.
+     *
+     * @return {@code true} if a request for the key is already in flight, {@code false} if the caller needs to make
+     * the request.
+     */
+    static synchronized boolean addWaitingFragment(String key, BraintreeFragment fragment) {
+        List<BraintreeFragment> waitingFragments = sInFlightRequests.get(key);
+        boolean inFlight = waitingFragments != null;
+        if (!inFlight) {
+            waitingFragments = new ArrayList<>();
+            sInFlightRequests.put(key, waitingFragments);
+        }
+
+        waitingFragments.add(fragment);
+        return inFlight;
+    }
+
+    /**
+     * Caches the capabilities fetched for the key.
+     *
+     * @return the fragments waiting for the request.
+     */
+    static synchronized List<BraintreeFragment> put(String key, UnionPayCapabilities capabilities) {
+        sEntries.put(key, new Entry(capabilities));
+        return remove(key);
+    }
+
+    /**
+     * Forgets the request for the key after it failed, without caching anything.
+     *
+     * @return the fragments waiting for the request.
+     */
+    static synchronized List<BraintreeFragment> remove(String key) {
+        List<BraintreeFragment> waitingFragments = sInFlightRequests.remove(key);
+        return waitingFragments != null ? waitingFragments : new ArrayList<BraintreeFragment>();
+    }
+
+    @VisibleForTesting
+    static synchronized void reset() {
+        sEntries.clear();
+        sInFlightRequests.clear();
+    }
+
+    @Nullable
+    private static UnionPayCapabilities get(String key, boolean onlyIfNotUnionPay) {
+        Entry entry = sEntries.get(key);
+        if (entry == null) {
+            return null;
+        }
+
+        if (entry.isExpired()) {
+            sEntries.remove(key);
+            return null;
+        }
+
+        if (onlyIfNotUnionPay && entry.mCapabilities.isUnionPay()) {
+            return null;
+        }
+
+        return entry.mCapabilities;
+    }
+
+    private static String getBinKey(String scope, String cardNumber) {
+        int binLength = cardNumber.length() >= MAX_BIN_LENGTH ? MAX_BIN_LENGTH : MIN_BIN_LENGTH;
+        return scope + "|bin:" + cardNumber.substring(0, binLength);
+    }
+
+    private static boolean isDigits(String cardNumber) {
+        for (int i = 0; i < cardNumber.length(); i++) {
+            if (cardNumber.charAt(i) < '0' || cardNumber.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Complete card numbers are hashed so they are not kept in memory.
+     */
+    private static String hash(String cardNumber) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(cardNumber.getBytes("UTF-8"));
+            return Base64.encodeToString(digest, Base64.NO_WRAP);
+        } catch (NoSuchAlgorithmException | UnsupportedEncodingException e) {
+            return cardNumber;
+        }
+    }
+
+    private static class Entry {
+
+        final UnionPayCapabilities mCapabilities;
+        final long mFetchedAt;
+
+        Entry(UnionPayCapabilities capabilities) {
+            mCapabilities = capabilities;
+            mFetchedAt = SystemClock.elapsedRealtime();
+        }
+
+        boolean isExpired() {
+            return SystemClock.elapsedRealtime() - mFetchedAt >= TTL_MILLIS;
+        }
+    }
+}
@@ -100,6 +100,41 @@ public class BraintreeError implements Parcelable {
 
     public BraintreeError() {}
 
+    /**
+     * @param field Field name the error is for, expected to be in camelCase.
+     * @param message Human readable summary of the error for the field. May be {@code null}.
+     * @param fieldErrors {@link BraintreeError} objects for errors nested under the field.
+     */
+    public BraintreeError(String field, @Nullable String message, List<BraintreeError> fieldErrors) {
+        mField = field;
+        mMessage = message;
+        mFieldErrors = fieldErrors;
+    }
+
+    /**
+     * @return the error in the format of the Braintree gateway's error responses.
+     */
+    JSONObject toJson() throws JSONException {
+        JSONObject json = new JSONObject()
+                .put(FIELD_KEY, mField)
+                .put(MESSAGE_KEY, mMessage);
+
+        if (mFieldErrors != null && !mFieldErrors.isEmpty()) {
+            json.put(FIELD_ERRORS_KEY, toJsonArray(mFieldErrors));
+        }
+
+        return json;
+    }
+
+    static JSONArray toJsonArray(List<BraintreeError> errors) throws JSONException {
+        JSONArray json = new JSONArray();
+        for (BraintreeError error : errors) {
+            json.put(error.toJson());
+        }
+
+        return json;
+    }
+
     @Override
     public int describeContents() {
         return 0;
@@ -40,6 +40,27 @@ public class ErrorWithResponse extends Exception implements Parcelable {
         }
     }
 
+    /**
+     * Creates an error from field errors found without a request to the Braintree gateway, in the same format as
+     * the errors parsed from the gateway's responses.
+     *
+     * @param statusCode HTTP status code the Braintree gateway would respond with.
+     * @param message Human readable top level summary of the error.
+     * @param fieldErrors The field errors.
+     */
+    public ErrorWithResponse(int statusCode, String message, List<BraintreeError> fieldErrors) {
+        mStatusCode = statusCode;
+        mMessage = message;
+        mFieldErrors = fieldErrors;
+
+        try {
+            mOriginalResponse = new JSONObject()
+                    .put(ERROR_KEY, new JSONObject().put(MESSAGE_KEY, message))
+                    .put(FIELD_ERRORS_KEY, BraintreeError.toJsonArray(fieldErrors))
+                    .toString();
+        } catch (JSONException ignored) {}
+    }
+
     private ErrorWithResponse() {}
 
     public static ErrorWithResponse fromJson(String json) throws JSONException {
@@ -0,0 +1,24 @@
+package com.braintreepayments.api.interfaces;
+
+import com.braintreepayments.api.models.PaymentMethodNonce;
+
+import java.util.List;
+
+/**
+ * Communicates the results of tokenizing a list of payment methods on the main thread.
+ */
+public interface BatchTokenizationCallback {
+
+    /**
+     * Called once every request in the batch has completed. Both lists are the same size as the list of
+     * builders that was tokenized and are in the same order. For each index exactly one of the two lists
+     * contains a non-null value.
+     *
+     * @param paymentMethodNonces the {@link PaymentMethodNonce} created for each builder, or {@code null} if
+     *        tokenization failed for that builder.
+     * @param exceptions the {@link Exception} that caused tokenization to fail for each builder, or {@code null} if
+     *        tokenization succeeded for that builder. Validation failures are
+     *        {@link com.braintreepayments.api.exceptions.ErrorWithResponse}s.
+     */
+    void onComplete(List<PaymentMethodNonce> paymentMethodNonces, List<Exception> exceptions);
+}
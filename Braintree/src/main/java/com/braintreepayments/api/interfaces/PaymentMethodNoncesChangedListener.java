@@ -0,0 +1,28 @@
+package com.braintreepayments.api.interfaces;
+
+import com.braintreepayments.api.BraintreeFragment;
+import com.braintreepayments.api.models.PaymentMethodNonce;
+
+import java.util.List;
+
+/**
+ * Interface that defines callbacks to be called when the current customer's {@link PaymentMethodNonce}s have
+ * changed since they were last fetched.
+ */
+public interface PaymentMethodNoncesChangedListener extends BraintreeListener {
+
+    /**
+     * {@link #onPaymentMethodNoncesChanged(List, List, List)} will be called after
+     * {@link com.braintreepayments.api.PaymentMethod#getPaymentMethodNonces(BraintreeFragment)} completes if the
+     * customer's payment methods differ from the previously fetched ones. It is called in addition to
+     * {@link PaymentMethodNoncesUpdatedListener#onPaymentMethodNoncesUpdated(List)}, which always receives the
+     * full list.
+     *
+     * @param added the {@link PaymentMethodNonce}s that were not present in the previous fetch.
+     * @param removed the previously fetched {@link PaymentMethodNonce}s that are no longer present.
+     * @param updated the {@link PaymentMethodNonce}s that were present in the previous fetch but have changed, e.g.
+     *        they became or stopped being the default payment method.
+     */
+    void onPaymentMethodNoncesChanged(List<PaymentMethodNonce> added, List<PaymentMethodNonce> removed,
+            List<PaymentMethodNonce> updated);
+}
@@ -55,18 +55,19 @@ public class AnalyticsSender {
                 analyticsRequest = serializeEvents(context, authorization, innerEvents);
                 try {
                     if (synchronous) {
-                        httpClient.post(analyticsUrl, analyticsRequest.toString());
+                        httpClient.post(analyticsUrl, new JsonObjectRequestBody(analyticsRequest));
                         db.removeEvents(innerEvents);
                     } else {
-                        httpClient.post(analyticsUrl, analyticsRequest.toString(), new HttpResponseCallback() {
-                            @Override
-                            public void success(String responseBody) {
-                                db.removeEvents(innerEvents);
-                            }
-
-                            @Override
-                            public void failure(Exception exception) {}
-                        });
+                        httpClient.post(analyticsUrl, new JsonObjectRequestBody(analyticsRequest),
+                                new HttpResponseCallback() {
+                                    @Override
+                                    public void success(String responseBody) {
+                                        db.removeEvents(innerEvents);
+                                    }
+
+                                    @Override
+                                    public void failure(Exception exception) {}
+                                });
                     }
                 } catch (Exception ignored) {}
             }
@@ -0,0 +1,250 @@
+package com.braintreepayments.api.internal;
+
+import android.support.annotation.Nullable;
+
+import com.braintreepayments.api.models.CardType;
+
+import java.util.Arrays;
+
+/**
+ * Detects the {@link CardType} of a card number from its first digits, and checks card numbers, without a network
+ * request.
+ * <p/>
+ * The BIN ranges of each {@link CardType} are compiled once into an immutable prefix trie of decimal digits, stored as
+ * a flat array of child indexes. A lookup walks one node per digit and the most specific prefix wins. Lookups take
+ * time linear in the number of digits and allocate nothing, so they can run on every keystroke.
+ * <p/>
+ * Discover cards issued in the UnionPay range {@code 622126} to {@code 622925} are detected as UnionPay, as they are
+ * tokenized as UnionPay cards.
+ * <p/>
+ * Spaces and dashes in card numbers are ignored. Any other character that is not a digit makes the number invalid.
+ */
+public class BinRangeIndex {
+
+    private static final int RADIX = 10;
+    private static final int NO_CARD_TYPE = -1;
+    private static final CardType[] CARD_TYPES = CardType.values();
+
+    /**
+     * BIN ranges as the card type followed by the lowest and highest prefix of each range. Both prefixes of a range
+     * have the same number of digits.
+     */
+    private static final Object[][] BIN_RANGES = {
+            { CardType.VISA, "4", "4" },
+            { CardType.MASTERCARD, "51", "55" },
+            { CardType.MASTERCARD, "2221", "2720" },
+            { CardType.AMEX, "34", "34" },
+            { CardType.AMEX, "37", "37" },
+            { CardType.DISCOVER, "6011", "6011" },
+            { CardType.DISCOVER, "644", "649" },
+            { CardType.DISCOVER, "65", "65" },
+            { CardType.JCB, "3528", "3589" },
+            { CardType.DINERS_CLUB, "300", "305" },
+            { CardType.DINERS_CLUB, "309", "309" },
+            { CardType.DINERS_CLUB, "36", "36" },
+            { CardType.DINERS_CLUB, "38", "39" },
+            { CardType.MAESTRO, "5018", "5018" },
+            { CardType.MAESTRO, "5020", "5020" },
+            { CardType.MAESTRO, "5038", "5038" },
+            { CardType.MAESTRO, "56", "59" },
+            { CardType.MAESTRO, "6304", "6304" },
+            { CardType.MAESTRO, "6759", "6759" },
+            { CardType.MAESTRO, "6761", "6763" },
+            { CardType.UNIONPAY, "62", "62" },
+            { CardType.UNIONPAY, "81", "81" }
+    };
+
+    /**
+     * The child of node {@code n} for digit {@code d} is at {@code CHILDREN[n * RADIX + d]}, {@code 0} if there is none.
+     * Node {@code 0} is the root, which is never a child.
+     */
+    private static final int[] CHILDREN;
+
+    /**
+     * The ordinal of the {@link CardType} each node's prefix belongs to, or {@link #NO_CARD_TYPE}.
+     */
+    private static final byte[] NODE_CARD_TYPES;
+
+    static {
+        Builder builder = new Builder();
+        for (Object[] binRange : BIN_RANGES) {
+            String low = (String) binRange[1];
+            insert(builder, 0, low, (String) binRange[2], 0, low.length(), ((CardType) binRange[0]).ordinal());
+        }
+
+        CHILDREN = Arrays.copyOf(builder.mChildren, builder.mNodeCount * RADIX);
+        NODE_CARD_TYPES = Arrays.copyOf(builder.mCardTypes, builder.mNodeCount);
+    }
+
+    private BinRangeIndex() {}
+
+    /**
+     * @param cardNumber a complete or partial card number.
+     * @return the {@link CardType} of the card number, or {@link CardType#UNKNOWN} if not enough digits have been
+     * entered to tell, the digits do not belong to a known {@link CardType} or the card number is invalid.
+     */
+    public static CardType getCardType(@Nullable CharSequence cardNumber) {
+        if (cardNumber == null) {
+            return CardType.UNKNOWN;
+        }
+
+        int node = 0;
+        int cardType = NO_CARD_TYPE;
+        for (int i = 0; i < cardNumber.length(); i++) {
+            char c = cardNumber.charAt(i);
+            if (isSeparator(c)) {
+                continue;
+            } else if (c < '0' || c > '9') {
+                return CardType.UNKNOWN;
+            }
+
+            node = CHILDREN[node * RADIX + (c - '0')];
+            if (node == 0) {
+                break;
+            }
+
+            if (NODE_CARD_TYPES[node] != NO_CARD_TYPE) {
+                cardType = NODE_CARD_TYPES[node];
+            }
+        }
+
+        return cardType != NO_CARD_TYPE ? CARD_TYPES[cardType] : CardType.UNKNOWN;
+    }
+
+    /**
+     * @return the number of digits in the card number, or {@code -1} if it contains anything other than digits,
+     * spaces and dashes.
+     */
+    public static int getDigitCount(@Nullable CharSequence cardNumber) {
+        if (cardNumber == null) {
+            return 0;
+        }
+
+        int digits = 0;
+        for (int i = 0; i < cardNumber.length(); i++) {
+            char c = cardNumber.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+            } else if (!isSeparator(c)) {
+                return -1;
+            }
+        }
+
+        return digits;
+    }
+
+    /**
+     * @return {@code true} if the card number has at least one digit, only contains digits, spaces and dashes, and its
+     * digits pass the Luhn check.
+     */
+    public static boolean isLuhnValid(@Nullable CharSequence cardNumber) {
+        if (cardNumber == null) {
+            return false;
+        }
+
+        int sum = 0;
+        int digits = 0;
+        for (int i = cardNumber.length() - 1; i >= 0; i--) {
+            char c = cardNumber.charAt(i);
+            if (isSeparator(c)) {
+                continue;
+            } else if (c < '0' || c > '9') {
+                return false;
+            }
+
+            int digit = c - '0';
+            if (digits % 2 == 1) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+
+            sum += digit;
+            digits++;
+        }
+
+        return digits > 0 && sum % 10 == 0;
+    }
+
+    /**
+     * @return {@code true} if the card number has a valid number of digits for its {@link CardType} and passes the
+     * Luhn check where the {@link CardType} requires it.
+     */
+    public static boolean isValid(@Nullable CharSequence cardNumber) {
+        CardType cardType = getCardType(cardNumber);
+        return cardType.isValidCardNumberLength(getDigitCount(cardNumber)) &&
+                (!cardType.isLuhnRequired() || isLuhnValid(cardNumber));
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == ' ' || c == '-';
+    }
+
+    /**
+     * Marks every prefix between {@code low} and {@code high} below the node, using as few nodes as possible. A
+     * {@code null} bound has no effect on the remaining digits.
+     */
+    private static void insert(Builder builder, int node, @Nullable String low, @Nullable String high, int position,
+            int length, int cardType) {
+        if (position == length || (isLowest(low, position) && isHighest(high, position))) {
+            builder.mCardTypes[node] = (byte) cardType;
+            return;
+        }
+
+        int lowDigit = low == null ? 0 : low.charAt(position) - '0';
+        int highDigit = high == null ? RADIX - 1 : high.charAt(position) - '0';
+        for (int digit = lowDigit; digit <= highDigit; digit++) {
+            insert(builder, builder.getOrAddChild(node, digit), digit == lowDigit ? low : null,
+                    digit == highDigit ? high : null, position + 1, length, cardType);
+        }
+    }
+
+    private static boolean isLowest(@Nullable String low, int position) {
+        for (int i = position; low != null && i < low.length(); i++) {
+            if (low.charAt(i) != '0') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isHighest(@Nullable String high, int position) {
+        for (int i = position; high != null && i < high.length(); i++) {
+            if (high.charAt(i) != '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class Builder {
+
+        int[] mChildren = new int[64 * RADIX];
+        byte[] mCardTypes = new byte[64];
+        int mNodeCount;
+
+        Builder() {
+            addNode();
+        }
+
+        int getOrAddChild(int node, int digit) {
+            int child = mChildren[node * RADIX + digit];
+            if (child == 0) {
+                child = addNode();
+                mChildren[node * RADIX + digit] = child;
+            }
+            return child;
+        }
+
+        private int addNode() {
+            if (mNodeCount == mCardTypes.length) {
+                mChildren = Arrays.copyOf(mChildren, mChildren.length * 2);
+                mCardTypes = Arrays.copyOf(mCardTypes, mCardTypes.length * 2);
+            }
+
+            mCardTypes[mNodeCount] = NO_CARD_TYPE;
+            return mNodeCount++;
+        }
+    }
+}
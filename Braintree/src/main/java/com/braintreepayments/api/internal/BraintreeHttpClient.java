@@ -1,6 +1,7 @@
 package com.braintreepayments.api.internal;
 
 import android.net.Uri;
+import android.util.JsonWriter;
 
 import com.braintreepayments.api.core.BuildConfig;
 import com.braintreepayments.api.exceptions.AuthorizationException;
@@ -11,7 +12,6 @@ import com.braintreepayments.api.models.Authorization;
 import com.braintreepayments.api.models.ClientToken;
 import com.braintreepayments.api.models.TokenizationKey;
 
-import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.io.IOException;
@@ -80,33 +80,14 @@ public class BraintreeHttpClient extends HttpClient {
         super.get(uri.toString(), callback);
     }
 
-    /**
-     * Make a HTTP POST request to Braintree using the base url, path and authorization provided.
-     * If the path is a full url, it will be used instead of the previously provided url.
-     *
-     * @param path The path or url to request from the server via HTTP POST
-     * @param data The body of the POST request
-     * @param callback The {@link HttpResponseCallback} to receive the response or error.
-     */
-    @Override
-    public void post(String path, String data, HttpResponseCallback callback) {
-        try {
-            if (mAuthorization instanceof ClientToken) {
-                data = new JSONObject(data)
-                        .put(AUTHORIZATION_FINGERPRINT_KEY,
-                                ((ClientToken) mAuthorization).getAuthorizationFingerprint())
-                        .toString();
-            }
-
-            super.post(path, data, callback);
-        } catch (JSONException e) {
-            postCallbackOnMainThread(callback, e);
-        }
-    }
-
     /**
      * Makes a synchronous HTTP POST request to Braintree using the base url, path, and authorization provided.
-     * @see BraintreeHttpClient#post(String, String, HttpResponseCallback)
+     * This is also used by {@link #post(String, String, HttpResponseCallback)}, so the authorization fingerprint is
+     * added once, on the background thread.
+     * <p/>
+     * When authorizing with a client token, the body has to be parsed to add the authorization fingerprint. Post a
+     * {@link com.braintreepayments.api.interfaces.JsonRequestBody} instead to have it added while the body is
+     * written.
      *
      * @param path the path or url to request from the server via HTTP POST
      * @param data the body of the post request
@@ -121,6 +102,19 @@ public class BraintreeHttpClient extends HttpClient {
         return super.post(path, data);
     }
 
+    /**
+     * Adds the authorization fingerprint to request bodies written with
+     * {@link #post(String, com.braintreepayments.api.interfaces.JsonRequestBody, HttpResponseCallback)} while
+     * they are written, when authorizing with a client token.
+     */
+    @Override
+    protected void writeAdditionalMembers(JsonWriter writer) throws IOException {
+        if (mAuthorization instanceof ClientToken) {
+            writer.name(AUTHORIZATION_FINGERPRINT_KEY)
+                    .value(((ClientToken) mAuthorization).getAuthorizationFingerprint());
+        }
+    }
+
     @Override
     protected HttpURLConnection init(String url) throws IOException {
         HttpURLConnection connection = super.init(url);
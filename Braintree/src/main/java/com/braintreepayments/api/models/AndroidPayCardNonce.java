@@ -77,6 +77,20 @@ public class AndroidPayCardNonce extends PaymentMethodNonce implements Parcelabl
         return androidPayCardNonce;
     }
 
+    /**
+     * Convert an already parsed API response, or a single payment method from one, to an {@link AndroidPayCardNonce}
+     * without parsing it again.
+     *
+     * @param json {@link JSONObject} of an API response from Braintree or of a {@link AndroidPayCardNonce}.
+     * @return {@link AndroidPayCardNonce}.
+     * @throws JSONException when parsing the response fails.
+     */
+    public static AndroidPayCardNonce fromJsonObject(JSONObject json) throws JSONException {
+        AndroidPayCardNonce androidPayCardNonce = new AndroidPayCardNonce();
+        androidPayCardNonce.fromJson(AndroidPayCardNonce.getJsonObjectForType(API_RESOURCE_KEY, json));
+        return androidPayCardNonce;
+    }
+
     protected void fromJson(JSONObject json) throws JSONException {
         super.fromJson(json);
 
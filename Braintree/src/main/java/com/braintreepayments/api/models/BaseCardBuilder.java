@@ -2,11 +2,24 @@ package com.braintreepayments.api.models;
 
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
 import android.text.TextUtils;
+import android.util.JsonWriter;
+
+import com.braintreepayments.api.exceptions.BraintreeError;
+import com.braintreepayments.api.exceptions.ErrorWithResponse;
+import com.braintreepayments.api.internal.BinRangeIndex;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Base builder class used to build various types of cards
  */
@@ -28,6 +41,8 @@ public abstract class BaseCardBuilder<T> extends PaymentMethodBuilder<T> impleme
     protected static final String REGION_KEY = "region";
     protected static final String STREET_ADDRESS_KEY = "streetAddress";
 
+    private static final int VALIDATION_ERROR_STATUS_CODE = 422;
+
     protected String mCardnumber;
     protected String mCvv;
     protected String mExpirationMonth;
@@ -42,6 +57,7 @@ public abstract class BaseCardBuilder<T> extends PaymentMethodBuilder<T> impleme
     protected String mPostalCode;
     protected String mRegion;
     protected String mStreetAddress;
+    private boolean mValidateLocally;
 
     public BaseCardBuilder() {}
 
@@ -227,6 +243,184 @@ public abstract class BaseCardBuilder<T> extends PaymentMethodBuilder<T> impleme
         return (T) this;
     }
 
+    /**
+     * @return the {@link CardType} detected from the first digits of the card number without a network request, or
+     * {@link CardType#UNKNOWN}.
+     */
+    public CardType getCardType() {
+        return BinRangeIndex.getCardType(mCardnumber);
+    }
+
+    /**
+     * Checks the card number locally, so that a card number that can not be valid does not need to be sent to
+     * Braintree to be rejected.
+     *
+     * @return {@code true} if the card number has a valid length for its {@link CardType} and passes the Luhn check.
+     */
+    public boolean isCardNumberValid() {
+        return BinRangeIndex.isValid(mCardnumber);
+    }
+
+    /**
+     * @param validateLocally {@code true} to check the card with {@link #getValidationErrors(Configuration)} when it
+     * is tokenized, failing with the resulting {@link ErrorWithResponse} instead of sending an invalid card to
+     * Braintree. Defaults to {@code false}.
+     * @return {@link com.braintreepayments.api.models.BaseCardBuilder}
+     */
+    @SuppressWarnings("unchecked")
+    public T validateLocally(boolean validateLocally) {
+        mValidateLocally = validateLocally;
+        return (T) this;
+    }
+
+    /**
+     * @return {@code true} if the card is checked with {@link #getValidationErrors(Configuration)} when it is
+     * tokenized.
+     */
+    public boolean isValidatedLocally() {
+        return mValidateLocally;
+    }
+
+    /**
+     * Checks the card without a network request: the card number's length and Luhn check, that the expiration date
+     * is valid and has not passed, the CVV's length for the {@link CardType}, and that the CVV and postal code are
+     * present when the {@link Configuration} requires them.
+     *
+     * @param configuration the current {@link Configuration}, or {@code null} to skip the checks it controls.
+     * @return an {@link ErrorWithResponse} in the same format as the 422 Braintree responds with for an invalid card,
+     * or {@code null} if no errors were found. Braintree may still reject a card that passes these checks.
+     */
+    @Nullable
+    public ErrorWithResponse getValidationErrors(@Nullable Configuration configuration) {
+        return getValidationErrors(configuration, Calendar.getInstance());
+    }
+
+    @VisibleForTesting
+    @Nullable
+    ErrorWithResponse getValidationErrors(@Nullable Configuration configuration, Calendar now) {
+        List<BraintreeError> errors = new ArrayList<>();
+        CardType cardType = getCardType();
+
+        if (mCardnumber == null) {
+            errors.add(fieldError(NUMBER_KEY, "Credit card number is required"));
+        } else if (!BinRangeIndex.isValid(mCardnumber)) {
+            errors.add(fieldError(NUMBER_KEY, "Credit card number is invalid"));
+        }
+
+        validateExpiration(errors, now);
+
+        if (mCvv == null) {
+            if (configuration != null && configuration.isCvvChallengePresent()) {
+                errors.add(fieldError(CVV_KEY, "CVV is required"));
+            }
+        } else if (!isValidCvv(cardType)) {
+            errors.add(fieldError(CVV_KEY,
+                    "CVV must be 4 digits for American Express and 3 digits for other card types"));
+        }
+
+        if (mPostalCode == null && configuration != null && configuration.isPostalCodeChallengePresent()) {
+            errors.add(new BraintreeError(BILLING_ADDRESS_KEY, null,
+                    Collections.singletonList(fieldError(POSTAL_CODE_KEY, "Postal code is required"))));
+        }
+
+        if (errors.isEmpty()) {
+            return null;
+        }
+
+        return new ErrorWithResponse(VALIDATION_ERROR_STATUS_CODE, "Credit card is invalid",
+                Collections.singletonList(new BraintreeError(CREDIT_CARD_KEY, null, errors)));
+    }
+
+    private void validateExpiration(List<BraintreeError> errors, Calendar now) {
+        int currentYear = now.get(Calendar.YEAR);
+        int currentMonth = now.get(Calendar.MONTH) + 1;
+
+        if (mExpirationDate != null) {
+            int separator = mExpirationDate.indexOf('/');
+            int month = separator < 0 ? -1 : parseMonth(mExpirationDate, 0, separator);
+            int year = separator < 0 ? -1 : parseYear(mExpirationDate, separator + 1, mExpirationDate.length());
+            if (month < 0 || year < 0 || isExpired(month, year, currentMonth, currentYear)) {
+                errors.add(fieldError(EXPIRATION_DATE_KEY, "Expiration date is invalid"));
+            }
+        } else if (mExpirationMonth == null && mExpirationYear == null) {
+            errors.add(fieldError(EXPIRATION_DATE_KEY, "Expiration date is required"));
+        } else {
+            int month = mExpirationMonth == null ? -1 : parseMonth(mExpirationMonth, 0, mExpirationMonth.length());
+            int year = mExpirationYear == null ? -1 : parseYear(mExpirationYear, 0, mExpirationYear.length());
+            if (month < 0) {
+                errors.add(fieldError(EXPIRATION_MONTH_KEY, "Expiration month is invalid"));
+            }
+
+            if (year < 0 || year < currentYear) {
+                errors.add(fieldError(EXPIRATION_YEAR_KEY, "Expiration year is invalid"));
+            } else if (month > 0 && isExpired(month, year, currentMonth, currentYear)) {
+                errors.add(fieldError(EXPIRATION_MONTH_KEY, "Expiration month is invalid"));
+            }
+        }
+    }
+
+    private boolean isValidCvv(CardType cardType) {
+        int length = mCvv.length();
+        if (parseDigits(mCvv, 0, length) < 0) {
+            return false;
+        } else if (cardType == CardType.UNKNOWN) {
+            return length == 3 || length == 4;
+        }
+
+        return length == cardType.getCvvLength();
+    }
+
+    private static boolean isExpired(int month, int year, int currentMonth, int currentYear) {
+        return year < currentYear || (year == currentYear && month < currentMonth);
+    }
+
+    /**
+     * @return the month between {@code start} and {@code end}, or {@code -1} if it is not a month.
+     */
+    private static int parseMonth(String value, int start, int end) {
+        int month = end - start <= 2 ? parseDigits(value, start, end) : -1;
+        return month >= 1 && month <= 12 ? month : -1;
+    }
+
+    /**
+     * @return the year between {@code start} and {@code end} as two or four digits, or {@code -1} if it is not a
+     * year.
+     */
+    private static int parseYear(String value, int start, int end) {
+        int year = parseDigits(value, start, end);
+        if (year < 0) {
+            return -1;
+        } else if (end - start == 2) {
+            return 2000 + year;
+        }
+
+        return end - start == 4 ? year : -1;
+    }
+
+    /**
+     * @return the number between {@code start} and {@code end}, or {@code -1} if it is empty or not only digits.
+     */
+    private static int parseDigits(String value, int start, int end) {
+        if (start >= end || end - start > 9) {
+            return -1;
+        }
+
+        int number = 0;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            number = number * 10 + (c - '0');
+        }
+
+        return number;
+    }
+
+    private static BraintreeError fieldError(String field, String message) {
+        return new BraintreeError(field, message, new ArrayList<BraintreeError>());
+    }
+
     @Override
     protected void build(JSONObject json, JSONObject paymentMethodNonceJson) throws JSONException {
         paymentMethodNonceJson.put(NUMBER_KEY, mCardnumber);
@@ -253,6 +447,36 @@ public abstract class BaseCardBuilder<T> extends PaymentMethodBuilder<T> impleme
         json.put(CREDIT_CARD_KEY, paymentMethodNonceJson);
     }
 
+    /**
+     * Writes the card directly, in the same format as {@link #build(JSONObject, JSONObject)}.
+     */
+    @Override
+    protected void build(JsonWriter writer) throws IOException {
+        writer.name(CREDIT_CARD_KEY).beginObject();
+        writeOptions(writer);
+        writeIfNotNull(writer, NUMBER_KEY, mCardnumber);
+        writeIfNotNull(writer, CVV_KEY, mCvv);
+        writeIfNotNull(writer, EXPIRATION_MONTH_KEY, mExpirationMonth);
+        writeIfNotNull(writer, EXPIRATION_YEAR_KEY, mExpirationYear);
+        writeIfNotNull(writer, EXPIRATION_DATE_KEY, mExpirationDate);
+        writeIfNotNull(writer, CARDHOLDER_NAME_KEY, mCardholderName);
+
+        if (mFirstName != null || mLastName != null || mCountryName != null || mLocality != null ||
+                mPostalCode != null || mRegion != null || mStreetAddress != null) {
+            writer.name(BILLING_ADDRESS_KEY).beginObject();
+            writeIfNotNull(writer, FIRST_NAME_KEY, mFirstName);
+            writeIfNotNull(writer, LAST_NAME_KEY, mLastName);
+            writeIfNotNull(writer, COUNTRY_NAME_KEY, mCountryName);
+            writeIfNotNull(writer, LOCALITY_KEY, mLocality);
+            writeIfNotNull(writer, POSTAL_CODE_KEY, mPostalCode);
+            writeIfNotNull(writer, REGION_KEY, mRegion);
+            writeIfNotNull(writer, STREET_ADDRESS_KEY, mStreetAddress);
+            writer.endObject();
+        }
+
+        writer.endObject();
+    }
+
     @Override
     public String getApiPath() {
         return "credit_cards";
@@ -284,6 +508,7 @@ public abstract class BaseCardBuilder<T> extends PaymentMethodBuilder<T> impleme
         mPostalCode = in.readString();
         mRegion = in.readString();
         mStreetAddress = in.readString();
+        mValidateLocally = in.readByte() > 0;
     }
 
     @Override
@@ -303,5 +528,6 @@ public abstract class BaseCardBuilder<T> extends PaymentMethodBuilder<T> impleme
         dest.writeString(mPostalCode);
         dest.writeString(mRegion);
         dest.writeString(mStreetAddress);
+        dest.writeByte(mValidateLocally ? (byte) 1 : 0);
     }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.braintreepayments.api.models;
 
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.support.annotation.Nullable;
 import android.support.annotation.StringDef;
 
 import com.braintreepayments.api.Json;
@@ -35,6 +36,11 @@ public class BinData implements Parcelable {
     private static final String COUNTRY_OF_ISSUANCE_KEY = "countryOfIssuance";
     private static final String PRODUCT_ID_KEY = "productId";
 
+    /**
+     * Read in place of missing BIN data, so no {@link JSONObject} is allocated for each card without any.
+     */
+    private static final JSONObject EMPTY_JSON = new JSONObject();
+
     private String mPrepaid;
     private String mHealthcare;
     private String mDebit;
@@ -45,9 +51,16 @@ public class BinData implements Parcelable {
     private String mCountryOfIssuance;
     private String mProductId;
 
-    protected static BinData fromJson(JSONObject json) {
+    /**
+     * Convert the BIN data of a card from an already parsed API response.
+     *
+     * @param json {@link JSONObject} of the BIN data of a card, or {@code null} if the response
+     *        did not include any.
+     * @return {@link BinData}.
+     */
+    public static BinData fromJson(@Nullable JSONObject json) {
         if (json == null) {
-            json = new JSONObject();
+            json = EMPTY_JSON;
         }
 
         BinData binData = new BinData();
@@ -39,6 +39,20 @@ public class CardNonce extends PaymentMethodNonce implements Parcelable {
         return cardNonce;
     }
 
+    /**
+     * Convert an already parsed API response, or a single payment method from one, to a {@link CardNonce} without
+     * parsing it again.
+     *
+     * @param json {@link JSONObject} of an API response from Braintree or of a {@link CardNonce}.
+     * @return {@link CardNonce}.
+     * @throws JSONException when parsing the response fails.
+     */
+    public static CardNonce fromJsonObject(JSONObject json) throws JSONException {
+        CardNonce cardNonce = new CardNonce();
+        cardNonce.fromJson(CardNonce.getJsonObjectForType(API_RESOURCE_KEY, json));
+        return cardNonce;
+    }
+
     /**
      * Populate properties with values from a {@link JSONObject} .
      *
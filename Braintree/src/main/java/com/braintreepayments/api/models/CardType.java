@@ -0,0 +1,76 @@
+package com.braintreepayments.api.models;
+
+/**
+ * Card brands that can be detected from the first digits of a card number, with the card number and CVV lengths
+ * they use. See {@link com.braintreepayments.api.internal.BinRangeIndex}.
+ */
+public enum CardType {
+
+    VISA("Visa", 3, true, 13, 16, 19),
+    MASTERCARD("MasterCard", 3, true, 16),
+    AMEX("American Express", 4, true, 15),
+    DISCOVER("Discover", 3, true, 16, 17, 18, 19),
+    JCB("JCB", 3, true, 16, 17, 18, 19),
+    DINERS_CLUB("Diners Club", 3, true, 14, 15, 16, 17, 18, 19),
+    MAESTRO("Maestro", 3, true, 12, 13, 14, 15, 16, 17, 18, 19),
+    UNIONPAY("UnionPay", 3, false, 16, 17, 18, 19),
+    UNKNOWN("Unknown", 3, true, 12, 13, 14, 15, 16, 17, 18, 19);
+
+    private final String mName;
+    private final int mCvvLength;
+    private final boolean mLuhnRequired;
+    private final int mCardNumberLengths;
+    private final int mMinCardNumberLength;
+    private final int mMaxCardNumberLength;
+
+    CardType(String name, int cvvLength, boolean luhnRequired, int... cardNumberLengths) {
+        mName = name;
+        mCvvLength = cvvLength;
+        mLuhnRequired = luhnRequired;
+
+        int lengths = 0;
+        for (int length : cardNumberLengths) {
+            lengths |= 1 << length;
+        }
+        mCardNumberLengths = lengths;
+        mMinCardNumberLength = cardNumberLengths[0];
+        mMaxCardNumberLength = cardNumberLengths[cardNumberLengths.length - 1];
+    }
+
+    /**
+     * @return the name of the card type, as returned by {@link CardNonce#getCardType()}.
+     */
+    public String getName() {
+        return mName;
+    }
+
+    /**
+     * @return the number of digits of the card's CVV.
+     */
+    public int getCvvLength() {
+        return mCvvLength;
+    }
+
+    /**
+     * @return {@code true} if card numbers of this type always pass the Luhn check.
+     */
+    public boolean isLuhnRequired() {
+        return mLuhnRequired;
+    }
+
+    public int getMinCardNumberLength() {
+        return mMinCardNumberLength;
+    }
+
+    public int getMaxCardNumberLength() {
+        return mMaxCardNumberLength;
+    }
+
+    /**
+     * @param length the number of digits of a card number.
+     * @return {@code true} if card numbers of this type can have the number of digits.
+     */
+    public boolean isValidCardNumberLength(int length) {
+        return length > 0 && length < Integer.SIZE && (mCardNumberLengths & (1 << length)) != 0;
+    }
+}
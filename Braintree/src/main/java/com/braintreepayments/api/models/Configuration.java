@@ -13,6 +13,9 @@ import java.util.Set;
 
 /**
  * Contains the remote configuration for the Braintree Android SDK.
+ * <p/>
+ * Only the top level fields are read when a {@link Configuration} is created. Each per-feature configuration is
+ * created from the retained json the first time it is requested.
  */
 public class Configuration {
 
@@ -32,22 +35,28 @@ public class Configuration {
     private static final String CARD_KEY = "creditCards";
     private static final String VISA_CHECKOUT_KEY = "visaCheckout";
 
-    private String mConfigurationString;
+    private final String mConfigurationString;
+    private final JSONObject mJson;
     private String mClientApiUrl;
     private final Set<String> mChallenges = new HashSet<>();
     private String mEnvironment;
     private String mMerchantId;
     private String mMerchantAccountId;
-    private AnalyticsConfiguration mAnalyticsConfiguration;
-    private CardConfiguration mCardConfiguration;
     private boolean mPaypalEnabled;
-    private PayPalConfiguration mPayPalConfiguration;
-    private AndroidPayConfiguration mAndroidPayConfiguration;
     private boolean mThreeDSecureEnabled;
-    private VenmoConfiguration mVenmoConfiguration;
-    private KountConfiguration mKountConfiguration;
-    private UnionPayConfiguration mUnionPayConfiguration;
-    private VisaCheckoutConfiguration mVisaCheckoutConfiguration;
+
+    /*
+     * Created on first access. The per-feature configurations are only read from mJson, which is never modified
+     * after construction, so concurrent first accesses at worst create equal instances and one of them is kept.
+     */
+    private volatile AnalyticsConfiguration mAnalyticsConfiguration;
+    private volatile CardConfiguration mCardConfiguration;
+    private volatile PayPalConfiguration mPayPalConfiguration;
+    private volatile AndroidPayConfiguration mAndroidPayConfiguration;
+    private volatile VenmoConfiguration mVenmoConfiguration;
+    private volatile KountConfiguration mKountConfiguration;
+    private volatile UnionPayConfiguration mUnionPayConfiguration;
+    private volatile VisaCheckoutConfiguration mVisaCheckoutConfiguration;
 
     /**
      * Creates a new {@link com.braintreepayments.api.models.Configuration} instance from a json string.
@@ -65,23 +74,15 @@ public class Configuration {
         }
 
         mConfigurationString = configurationString;
-        JSONObject json = new JSONObject(configurationString);
-
-        mClientApiUrl = json.getString(CLIENT_API_URL_KEY);
-        parseJsonChallenges(json.optJSONArray(CHALLENGES_KEY));
-        mEnvironment = json.getString(ENVIRONMENT_KEY);
-        mMerchantId = json.getString(MERCHANT_ID_KEY);
-        mMerchantAccountId = Json.optString(json, MERCHANT_ACCOUNT_ID_KEY, null);
-        mAnalyticsConfiguration = AnalyticsConfiguration.fromJson(json.optJSONObject(ANALYTICS_KEY));
-        mCardConfiguration = CardConfiguration.fromJson(json.optJSONObject(CARD_KEY));
-        mPaypalEnabled = json.optBoolean(PAYPAL_ENABLED_KEY, false);
-        mPayPalConfiguration = PayPalConfiguration.fromJson(json.optJSONObject(PAYPAL_KEY));
-        mAndroidPayConfiguration = AndroidPayConfiguration.fromJson(json.optJSONObject(ANDROID_PAY_KEY));
-        mThreeDSecureEnabled = json.optBoolean(THREE_D_SECURE_ENABLED_KEY, false);
-        mVenmoConfiguration = VenmoConfiguration.fromJson(json.optJSONObject(PAY_WITH_VENMO_KEY));
-        mKountConfiguration = KountConfiguration.fromJson(json.optJSONObject(KOUNT_KEY));
-        mUnionPayConfiguration = UnionPayConfiguration.fromJson(json.optJSONObject(UNIONPAY_KEY));
-        mVisaCheckoutConfiguration = VisaCheckoutConfiguration.fromJson(json.optJSONObject(VISA_CHECKOUT_KEY));
+        mJson = new JSONObject(configurationString);
+
+        mClientApiUrl = mJson.getString(CLIENT_API_URL_KEY);
+        parseJsonChallenges(mJson.optJSONArray(CHALLENGES_KEY));
+        mEnvironment = mJson.getString(ENVIRONMENT_KEY);
+        mMerchantId = mJson.getString(MERCHANT_ID_KEY);
+        mMerchantAccountId = Json.optString(mJson, MERCHANT_ACCOUNT_ID_KEY, null);
+        mPaypalEnabled = mJson.optBoolean(PAYPAL_ENABLED_KEY, false);
+        mThreeDSecureEnabled = mJson.optBoolean(THREE_D_SECURE_ENABLED_KEY, false);
     }
 
     public String toJson() {
@@ -120,6 +121,10 @@ public class Configuration {
      * @return instance of {@link CardConfiguration}.
      */
     public CardConfiguration getCardConfiguration() {
+        if (mCardConfiguration == null) {
+            mCardConfiguration = CardConfiguration.fromJson(mJson.optJSONObject(CARD_KEY));
+        }
+
         return mCardConfiguration;
     }
 
@@ -128,13 +133,17 @@ public class Configuration {
      *         {@code false} otherwise.
      */
     public boolean isPayPalEnabled() {
-        return (mPaypalEnabled && mPayPalConfiguration.isEnabled());
+        return (mPaypalEnabled && getPayPal().isEnabled());
     }
 
     /**
      * @return instance of {@link com.braintreepayments.api.models.PayPalConfiguration}.
      */
     public PayPalConfiguration getPayPal() {
+        if (mPayPalConfiguration == null) {
+            mPayPalConfiguration = PayPalConfiguration.fromJson(mJson.optJSONObject(PAYPAL_KEY));
+        }
+
         return mPayPalConfiguration;
     }
 
@@ -142,6 +151,10 @@ public class Configuration {
      * @return instance of {@link AndroidPayConfiguration}.
      */
     public AndroidPayConfiguration getAndroidPay() {
+        if (mAndroidPayConfiguration == null) {
+            mAndroidPayConfiguration = AndroidPayConfiguration.fromJson(mJson.optJSONObject(ANDROID_PAY_KEY));
+        }
+
         return mAndroidPayConfiguration;
     }
 
@@ -171,6 +184,10 @@ public class Configuration {
      * @return instance of {@link com.braintreepayments.api.models.AnalyticsConfiguration}.
      */
     public AnalyticsConfiguration getAnalytics() {
+        if (mAnalyticsConfiguration == null) {
+            mAnalyticsConfiguration = AnalyticsConfiguration.fromJson(mJson.optJSONObject(ANALYTICS_KEY));
+        }
+
         return mAnalyticsConfiguration;
     }
 
@@ -178,6 +195,10 @@ public class Configuration {
      * @return instance of {@link VenmoConfiguration}
      */
     public VenmoConfiguration getPayWithVenmo() {
+        if (mVenmoConfiguration == null) {
+            mVenmoConfiguration = VenmoConfiguration.fromJson(mJson.optJSONObject(PAY_WITH_VENMO_KEY));
+        }
+
         return mVenmoConfiguration;
     }
 
@@ -185,6 +206,10 @@ public class Configuration {
      * @return instance of {@link UnionPayConfiguration}
      */
     public UnionPayConfiguration getUnionPay() {
+        if (mUnionPayConfiguration == null) {
+            mUnionPayConfiguration = UnionPayConfiguration.fromJson(mJson.optJSONObject(UNIONPAY_KEY));
+        }
+
         return mUnionPayConfiguration;
     }
 
@@ -192,6 +217,10 @@ public class Configuration {
      * @return instance of {@link VisaCheckoutConfiguration}
      */
     public VisaCheckoutConfiguration getVisaCheckout() {
+        if (mVisaCheckoutConfiguration == null) {
+            mVisaCheckoutConfiguration = VisaCheckoutConfiguration.fromJson(mJson.optJSONObject(VISA_CHECKOUT_KEY));
+        }
+
         return mVisaCheckoutConfiguration;
     }
 
@@ -199,6 +228,10 @@ public class Configuration {
      * @return instance of {@link KountConfiguration}.
      */
     public KountConfiguration getKount() {
+        if (mKountConfiguration == null) {
+            mKountConfiguration = KountConfiguration.fromJson(mJson.optJSONObject(KOUNT_KEY));
+        }
+
         return mKountConfiguration;
     }
 
@@ -1,10 +1,14 @@
 package com.braintreepayments.api.models;
 
+import android.util.JsonWriter;
+
 import com.braintreepayments.api.BuildConfig;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
+
 
 public class MetadataBuilder {
 
@@ -57,6 +61,19 @@ public class MetadataBuilder {
         return this;
     }
 
+    /**
+     * Writes the metadata object with the platform and the values given, without building a {@link JSONObject}.
+     * {@code null} values are left out.
+     */
+    static void write(JsonWriter writer, String sessionId, String source, String integration) throws IOException {
+        writer.beginObject()
+                .name(PLATFORM_KEY).value("android");
+        PaymentMethodBuilder.writeIfNotNull(writer, SESSION_ID_KEY, sessionId);
+        PaymentMethodBuilder.writeIfNotNull(writer, SOURCE_KEY, source);
+        PaymentMethodBuilder.writeIfNotNull(writer, INTEGRATION_KEY, integration);
+        writer.endObject();
+    }
+
     public JSONObject build() {
         return mJson;
     }
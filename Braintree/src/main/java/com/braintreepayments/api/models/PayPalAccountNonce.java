@@ -56,6 +56,20 @@ public class PayPalAccountNonce extends PaymentMethodNonce implements Parcelable
         return payPalAccountNonce;
     }
 
+    /**
+     * Convert an already parsed API response, or a single payment method from one, to a {@link PayPalAccountNonce}
+     * without parsing it again.
+     *
+     * @param json {@link JSONObject} of an API response from Braintree or of a {@link PayPalAccountNonce}.
+     * @return {@link PayPalAccountNonce}.
+     * @throws JSONException when parsing the response fails.
+     */
+    public static PayPalAccountNonce fromJsonObject(JSONObject json) throws JSONException {
+        PayPalAccountNonce payPalAccountNonce = new PayPalAccountNonce();
+        payPalAccountNonce.fromJson(PayPalAccountNonce.getJsonObjectForType(API_RESOURCE_KEY, json));
+        return payPalAccountNonce;
+    }
+
     /**
      * Generates a {@link PayPalAccountNonce} from the {@link JSONObject}.
      *
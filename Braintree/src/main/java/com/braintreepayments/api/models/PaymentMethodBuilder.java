@@ -1,18 +1,27 @@
 package com.braintreepayments.api.models;
 
 import android.os.Parcel;
+import android.util.JsonWriter;
 
 import com.braintreepayments.api.BraintreeFragment;
+import com.braintreepayments.api.Json;
+import com.braintreepayments.api.interfaces.JsonRequestBody;
 import com.braintreepayments.api.interfaces.PaymentMethodNonceCallback;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
+import java.io.StringWriter;
+
 /**
  * An abstract class to extend when creating a builder for a payment method. Contains logic and
  * implementations shared by all payment methods.
+ * <p/>
+ * Builders are {@link JsonRequestBody}s, so that the tokenization request is written directly to the connection
+ * rather than being built as a {@link String} first.
  */
-public abstract class PaymentMethodBuilder<T> {
+public abstract class PaymentMethodBuilder<T> implements JsonRequestBody {
 
     protected static final String OPTIONS_KEY = "options";
     private static final String VALIDATE_KEY = "validate";
@@ -79,27 +88,78 @@ public abstract class PaymentMethodBuilder<T> {
      * @return String representation of {@link PaymentMethodNonce} for API use.
      */
     public String build() {
+        StringWriter stringWriter = new StringWriter();
+        try {
+            JsonWriter writer = new JsonWriter(stringWriter);
+            writer.beginObject();
+            writeMembers(writer);
+            writer.endObject();
+            writer.close();
+        } catch (IOException ignored) {}
+
+        return stringWriter.toString();
+    }
+
+    /**
+     * Writes the metadata and the payment method of the tokenization request.
+     */
+    @Override
+    public void writeMembers(JsonWriter writer) throws IOException {
+        writer.name(MetadataBuilder.META_KEY);
+        MetadataBuilder.write(writer, mSessionId, mSource, mIntegration);
+
+        build(writer);
+    }
+
+    /**
+     * Writes the payment method to the tokenization request. By default the payment method is built with
+     * {@link #build(JSONObject, JSONObject)} and then written out. Builders can override this to write the
+     * payment method directly, in which case they should write the options with {@link #writeOptions(JsonWriter)}.
+     *
+     * @param writer the {@link JsonWriter} for the request's top level object.
+     */
+    protected void build(JsonWriter writer) throws IOException {
         JSONObject json = new JSONObject();
-        JSONObject optionsJson = new JSONObject();
         JSONObject paymentMethodNonceJson = new JSONObject();
-        JSONObject metaJson = new MetadataBuilder()
-                .sessionId(mSessionId)
-                .source(mSource)
-                .integration(mIntegration)
-                .build();
 
         try {
-            json.put(MetadataBuilder.META_KEY, metaJson);
-
             if (mValidateSet) {
-                optionsJson.put(VALIDATE_KEY, mValidate);
-                paymentMethodNonceJson.put(OPTIONS_KEY, optionsJson);
+                paymentMethodNonceJson.put(OPTIONS_KEY, new JSONObject().put(VALIDATE_KEY, mValidate));
             }
 
             build(json, paymentMethodNonceJson);
         } catch (JSONException ignored) {}
 
-        return json.toString();
+        Json.writeMembers(writer, json);
+    }
+
+    /**
+     * Writes the payment method's options object, if there are any options.
+     */
+    protected void writeOptions(JsonWriter writer) throws IOException {
+        if (mValidateSet) {
+            writer.name(OPTIONS_KEY).beginObject();
+            writeValidateOption(writer);
+            writer.endObject();
+        }
+    }
+
+    /**
+     * Writes the validate option inside an options object, if it was set.
+     */
+    protected void writeValidateOption(JsonWriter writer) throws IOException {
+        if (mValidateSet) {
+            writer.name(VALIDATE_KEY).value(mValidate);
+        }
+    }
+
+    /**
+     * Writes a member with a {@link String} value, leaving it out if the value is {@code null}.
+     */
+    protected static void writeIfNotNull(JsonWriter writer, String name, String value) throws IOException {
+        if (value != null) {
+            writer.name(name).value(value);
+        }
     }
 
     protected PaymentMethodBuilder(Parcel in) {
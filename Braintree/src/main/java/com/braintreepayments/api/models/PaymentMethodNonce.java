@@ -4,11 +4,15 @@ import android.os.Parcel;
 import android.os.Parcelable;
 import android.support.annotation.CallSuper;
 import android.support.annotation.Nullable;
+import android.util.JsonReader;
+import android.util.JsonToken;
 
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -36,6 +40,18 @@ public abstract class PaymentMethodNonce implements Parcelable {
                 .getJSONObject(0);
     }
 
+    /**
+     * @return the first element of the array keyed by apiResourceKey if json is a full API response, otherwise json
+     * itself.
+     */
+    protected static JSONObject getJsonObjectForType(String apiResourceKey, JSONObject json) throws JSONException {
+        if (json.has(apiResourceKey)) {
+            return json.getJSONArray(apiResourceKey).getJSONObject(0);
+        }
+
+        return json;
+    }
+
     @CallSuper
     protected void fromJson(JSONObject json) throws JSONException {
         mNonce = json.getString(PAYMENT_METHOD_NONCE_KEY);
@@ -74,6 +90,9 @@ public abstract class PaymentMethodNonce implements Parcelable {
 
     /**
      * Parses a response from the Braintree gateway for a list of payment method nonces.
+     * <p/>
+     * The response is read in a single streaming pass, so only the payment method currently being parsed is held in
+     * memory as a {@link JSONObject} rather than the whole response.
      *
      * @param jsonBody Json-formatted String containing a list of {@link PaymentMethodNonce}s
      * @return List of {@link PaymentMethodNonce}s contained in jsonBody
@@ -81,28 +100,95 @@ public abstract class PaymentMethodNonce implements Parcelable {
      */
     public static List<PaymentMethodNonce> parsePaymentMethodNonces(String jsonBody)
             throws JSONException {
-        JSONArray paymentMethods = new JSONObject(jsonBody).getJSONArray(
-                PAYMENT_METHOD_NONCE_COLLECTION_KEY);
+        if (jsonBody == null) {
+            throw new JSONException("Payment methods response cannot be null");
+        }
 
-        if (paymentMethods == null) {
+        JsonReader reader = new JsonReader(new StringReader(jsonBody));
+        try {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (PAYMENT_METHOD_NONCE_COLLECTION_KEY.equals(reader.nextName())) {
+                    return readPaymentMethodNonces(reader);
+                }
+
+                reader.skipValue();
+            }
+        } catch (IOException | IllegalStateException e) {
+            throw new JSONException("Unable to parse payment methods: " + e.getMessage());
+        } finally {
+            try {
+                reader.close();
+            } catch (IOException ignored) {}
+        }
+
+        throw new JSONException("No value for " + PAYMENT_METHOD_NONCE_COLLECTION_KEY);
+    }
+
+    private static List<PaymentMethodNonce> readPaymentMethodNonces(JsonReader reader)
+            throws IOException, JSONException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
             return Collections.emptyList();
         }
 
         List<PaymentMethodNonce> paymentMethodsNonces = new ArrayList<>();
         JSONObject json;
         PaymentMethodNonce paymentMethodNonce;
-        for(int i = 0; i < paymentMethods.length(); i++) {
-            json = paymentMethods.getJSONObject(i);
+        reader.beginArray();
+        while (reader.hasNext()) {
+            json = readJsonObject(reader);
             paymentMethodNonce = parsePaymentMethodNonces(json,
                     json.getString(PAYMENT_METHOD_TYPE_KEY));
             if (paymentMethodNonce != null) {
                 paymentMethodsNonces.add(paymentMethodNonce);
             }
         }
+        reader.endArray();
 
         return paymentMethodsNonces;
     }
 
+    private static JSONObject readJsonObject(JsonReader reader) throws IOException, JSONException {
+        JSONObject json = new JSONObject();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            json.put(reader.nextName(), readJsonValue(reader));
+        }
+        reader.endObject();
+
+        return json;
+    }
+
+    private static Object readJsonValue(JsonReader reader) throws IOException, JSONException {
+        switch (reader.peek()) {
+            case BEGIN_OBJECT:
+                return readJsonObject(reader);
+            case BEGIN_ARRAY:
+                JSONArray array = new JSONArray();
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    array.put(readJsonValue(reader));
+                }
+                reader.endArray();
+                return array;
+            case BOOLEAN:
+                return reader.nextBoolean();
+            case NUMBER:
+                String number = reader.nextString();
+                try {
+                    return Long.parseLong(number);
+                } catch (NumberFormatException e) {
+                    return Double.parseDouble(number);
+                }
+            case NULL:
+                reader.nextNull();
+                return JSONObject.NULL;
+            default:
+                return reader.nextString();
+        }
+    }
+
     /**
      * Parses a {@link PaymentMethodNonce} from json.
      *
@@ -128,45 +214,15 @@ public abstract class PaymentMethodNonce implements Parcelable {
     public static PaymentMethodNonce parsePaymentMethodNonces(JSONObject json, String type) throws JSONException {
         switch (type) {
             case CardNonce.TYPE:
-                if (json.has(CardNonce.API_RESOURCE_KEY)) {
-                    return CardNonce.fromJson(json.toString());
-                } else {
-                    CardNonce cardNonce = new CardNonce();
-                    cardNonce.fromJson(json);
-                    return cardNonce;
-                }
+                return CardNonce.fromJsonObject(json);
             case PayPalAccountNonce.TYPE:
-                if (json.has(PayPalAccountNonce.API_RESOURCE_KEY)) {
-                    return PayPalAccountNonce.fromJson(json.toString());
-                } else {
-                    PayPalAccountNonce payPalAccountNonce = new PayPalAccountNonce();
-                    payPalAccountNonce.fromJson(json);
-                    return payPalAccountNonce;
-                }
+                return PayPalAccountNonce.fromJsonObject(json);
             case AndroidPayCardNonce.TYPE:
-                if (json.has(AndroidPayCardNonce.API_RESOURCE_KEY)) {
-                    return AndroidPayCardNonce.fromJson(json.toString());
-                } else {
-                    AndroidPayCardNonce androidPayCardNonce = new AndroidPayCardNonce();
-                    androidPayCardNonce.fromJson(json);
-                    return androidPayCardNonce;
-                }
+                return AndroidPayCardNonce.fromJsonObject(json);
             case VenmoAccountNonce.TYPE:
-                if (json.has(VenmoAccountNonce.API_RESOURCE_KEY)) {
-                    return VenmoAccountNonce.fromJson(json.toString());
-                } else {
-                    VenmoAccountNonce venmoAccountNonce = new VenmoAccountNonce();
-                    venmoAccountNonce.fromJson(json);
-                    return venmoAccountNonce;
-                }
+                return VenmoAccountNonce.fromJsonObject(json);
             case VisaCheckoutNonce.TYPE:
-                if (json.has(VisaCheckoutNonce.API_RESOURCE_KEY)) {
-                    return VisaCheckoutNonce.fromJson(json.toString());
-                } else {
-                    VisaCheckoutNonce visaCheckoutNonce = new VisaCheckoutNonce();
-                    visaCheckoutNonce.fromJson(json);
-                    return visaCheckoutNonce;
-                }
+                return VisaCheckoutNonce.fromJsonObject(json);
             default:
                 return null;
         }
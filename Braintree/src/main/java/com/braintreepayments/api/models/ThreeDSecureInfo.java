@@ -2,6 +2,7 @@ package com.braintreepayments.api.models;
 
 import android.os.Parcel;
 import android.os.Parcelable;
+import android.support.annotation.Nullable;
 
 import org.json.JSONObject;
 
@@ -14,12 +15,24 @@ public class ThreeDSecureInfo implements Parcelable {
     private static final String LIABILITY_SHIFTED_KEY = "liabilityShifted";
     private static final String LIABILITY_SHIFT_POSSIBLE_KEY = "liabilityShiftPossible";
 
+    /**
+     * Read in place of missing 3D Secure info, so no {@link JSONObject} is allocated for each card without any.
+     */
+    private static final JSONObject EMPTY_JSON = new JSONObject();
+
     private boolean mLiabilityShifted;
     private boolean mLiabilityShiftPossible;
 
-    protected static ThreeDSecureInfo fromJson(JSONObject json) {
+    /**
+     * Convert the 3D Secure info of a card from an already parsed API response.
+     *
+     * @param json {@link JSONObject} of the 3D Secure info of a card, or {@code null} if the response
+     *        did not include any.
+     * @return {@link ThreeDSecureInfo}.
+     */
+    public static ThreeDSecureInfo fromJson(@Nullable JSONObject json) {
         if (json == null) {
-            json = new JSONObject();
+            json = EMPTY_JSON;
         }
 
         ThreeDSecureInfo threeDSecureInfo = new ThreeDSecureInfo();
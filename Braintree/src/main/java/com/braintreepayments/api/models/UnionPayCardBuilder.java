@@ -3,10 +3,13 @@ package com.braintreepayments.api.models;
 import android.os.Parcel;
 import android.os.Parcelable;
 import android.text.TextUtils;
+import android.util.JsonWriter;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.IOException;
+
 /**
  * Builder used to construct a UnionPay card tokenization request.
  */
@@ -122,6 +125,17 @@ public class UnionPayCardBuilder extends BaseCardBuilder<UnionPayCardBuilder> im
         json.put(UNIONPAY_KEY, paymentMethodNonceJson);
     }
 
+    @Override
+    protected void writeOptions(JsonWriter writer) throws IOException {
+        writer.name(OPTIONS_KEY).beginObject();
+        writeValidateOption(writer);
+        writer.name(UNIONPAY_ENROLLMENT_KEY).beginObject();
+        writeIfNotNull(writer, SMS_CODE_KEY, mSmsCode);
+        writeIfNotNull(writer, ENROLLMENT_ID_KEY, mEnrollmentId);
+        writer.endObject();
+        writer.endObject();
+    }
+
     @Override
     public void writeToParcel(Parcel dest, int flags) {
         super.writeToParcel(dest, flags);
@@ -38,6 +38,20 @@ public class VenmoAccountNonce extends PaymentMethodNonce implements Parcelable
         return venmoAccountNonce;
     }
 
+    /**
+     * Convert an already parsed API response, or a single payment method from one, to a {@link VenmoAccountNonce}
+     * without parsing it again.
+     *
+     * @param json {@link JSONObject} of an API response from Braintree or of a {@link VenmoAccountNonce}.
+     * @return {@link VenmoAccountNonce}.
+     * @throws JSONException when parsing the response fails.
+     */
+    public static VenmoAccountNonce fromJsonObject(JSONObject json) throws JSONException {
+        VenmoAccountNonce venmoAccountNonce = new VenmoAccountNonce();
+        venmoAccountNonce.fromJson(VenmoAccountNonce.getJsonObjectForType(API_RESOURCE_KEY, json));
+        return venmoAccountNonce;
+    }
+
     protected void fromJson(JSONObject json) throws JSONException {
         super.fromJson(json);
 
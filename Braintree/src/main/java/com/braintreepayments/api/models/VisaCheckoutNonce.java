@@ -48,6 +48,20 @@ public class VisaCheckoutNonce extends PaymentMethodNonce implements Parcelable
         return visaCheckoutNonce;
     }
 
+    /**
+     * Convert an already parsed API response, or a single payment method from one, to a {@link VisaCheckoutNonce}
+     * without parsing it again.
+     *
+     * @param json {@link JSONObject} of an API response from Braintree or of a {@link VisaCheckoutNonce}.
+     * @return {@link VisaCheckoutNonce}.
+     * @throws JSONException when parsing the response fails.
+     */
+    public static VisaCheckoutNonce fromJsonObject(JSONObject json) throws JSONException {
+        VisaCheckoutNonce visaCheckoutNonce = new VisaCheckoutNonce();
+        visaCheckoutNonce.fromJson(PaymentMethodNonce.getJsonObjectForType(API_RESOURCE_KEY, json));
+        return visaCheckoutNonce;
+    }
+
     @Override
     protected void fromJson(JSONObject json) throws JSONException {
         super.fromJson(json);
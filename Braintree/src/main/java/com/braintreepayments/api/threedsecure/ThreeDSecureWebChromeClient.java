@@ -14,6 +14,7 @@ public class ThreeDSecureWebChromeClient extends WebChromeClient {
 
     @Override
     public boolean onCreateWindow(WebView view, boolean isDialog, boolean isUserGesture, Message resultMsg) {
+        // a popup must get a WebView that has never navigated, so pooled WebViews are not used
         ThreeDSecureWebView newWebView = new ThreeDSecureWebView(mActivity.getApplicationContext());
         newWebView.init(mActivity);
         mActivity.pushNewWebView(newWebView);
@@ -15,6 +15,8 @@ import com.braintreepayments.api.internal.BraintreeHttpClient;
 @SuppressLint("SetJavaScriptEnabled")
 public class ThreeDSecureWebView extends WebView {
 
+    private boolean mClearHistoryOnNextPageFinished;
+
     public ThreeDSecureWebView(Context context) {
         super(context);
     }
@@ -56,4 +58,19 @@ public class ThreeDSecureWebView extends WebView {
         setWebChromeClient(new ThreeDSecureWebChromeClient(activity));
         setWebViewClient(new ThreeDSecureWebViewClient(activity));
     }
+
+    /**
+     * Clears the history once the next page other than about:blank has finished loading. Clearing the history
+     * before that page commits would leave the previously loaded page in the back stack.
+     */
+    void clearHistoryOnNextPageFinished() {
+        mClearHistoryOnNextPageFinished = true;
+    }
+
+    void onPageFinished(String url) {
+        if (mClearHistoryOnNextPageFinished && !"about:blank".equals(url)) {
+            mClearHistoryOnNextPageFinished = false;
+            clearHistory();
+        }
+    }
 }
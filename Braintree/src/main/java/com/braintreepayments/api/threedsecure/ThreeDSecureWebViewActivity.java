@@ -53,7 +53,7 @@ public class ThreeDSecureWebViewActivity extends Activity {
             finish();
         }
 
-        ThreeDSecureWebView webView = new ThreeDSecureWebView(this);
+        ThreeDSecureWebView webView = ThreeDSecureWebViewPool.acquire(this);
         webView.init(this);
         webView.postUrl(threeDSecureLookup.getAcsUrl(), params.toString().getBytes());
         pushNewWebView(webView);
@@ -66,8 +66,9 @@ public class ThreeDSecureWebViewActivity extends Activity {
     }
 
     protected void popCurrentWebView() {
-        mThreeDSecureWebViews.pop();
+        ThreeDSecureWebView webView = mThreeDSecureWebViews.pop();
         pushNewWebView(mThreeDSecureWebViews.pop());
+        ThreeDSecureWebViewPool.release(webView);
     }
 
     protected void finishWithResult(ThreeDSecureAuthenticationResponse threeDSecureAuthenticationResponse) {
@@ -77,6 +78,18 @@ public class ThreeDSecureWebViewActivity extends Activity {
         finish();
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+
+        if (mThreeDSecureWebViews != null) {
+            mRootView.removeAllViews();
+            while (!mThreeDSecureWebViews.isEmpty()) {
+                ThreeDSecureWebViewPool.release(mThreeDSecureWebViews.pop());
+            }
+        }
+    }
+
     @Override
     public void onBackPressed() {
         if (mThreeDSecureWebViews.peek().canGoBack()) {
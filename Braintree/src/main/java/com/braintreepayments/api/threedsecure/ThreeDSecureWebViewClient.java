@@ -32,6 +32,10 @@ public class ThreeDSecureWebViewClient extends WebViewClient {
     @Override
     public void onPageFinished(WebView view, String url) {
         super.onPageFinished(view, url);
+        if (view instanceof ThreeDSecureWebView) {
+            ((ThreeDSecureWebView) view).onPageFinished(url);
+        }
+
         mActivity.setActionBarTitle(view.getTitle());
     }
 
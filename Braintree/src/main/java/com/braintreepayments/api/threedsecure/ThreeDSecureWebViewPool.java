@@ -0,0 +1,162 @@
+package com.braintreepayments.api.threedsecure;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.MutableContextWrapper;
+import android.content.res.Configuration;
+import android.support.annotation.MainThread;
+import android.support.annotation.VisibleForTesting;
+import android.view.ViewGroup;
+import android.webkit.WebView;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Keeps {@link ThreeDSecureWebView}s ready for {@link ThreeDSecureWebViewActivity}, so that a 3D Secure challenge
+ * does not have to wait for a {@link WebView} to be created. Creating the first {@link WebView} in a process loads
+ * the WebView implementation and starts its renderer, which is the largest part of the time before a challenge is
+ * shown.
+ * <p/>
+ * The pool is disabled by default. Once enabled, {@link ThreeDSecureWebView}s are created by
+ * {@link #prime()}, which {@link com.braintreepayments.api.ThreeDSecure} calls while the 3D Secure lookup is
+ * in progress, and returned to the pool when {@link ThreeDSecureWebViewActivity} finishes. Idle
+ * {@link ThreeDSecureWebView}s are destroyed when the system asks the app to trim its memory.
+ * <p/>
+ * Pooled {@link ThreeDSecureWebView}s are created with a {@link MutableContextWrapper} around the application
+ * context, which is swapped for the {@link ThreeDSecureWebViewActivity} while they are in use.
+ * <p/>
+ * All methods must be called on the main thread.
+ */
+public class ThreeDSecureWebViewPool {
+
+    /**
+     * The most idle {@link ThreeDSecureWebView}s kept, enough for a challenge and one popup window.
+     */
+    static final int MAX_IDLE_WEB_VIEWS = 2;
+
+    private static final Deque<ThreeDSecureWebView> sIdleWebViews = new ArrayDeque<>();
+    private static Context sApplicationContext;
+
+    private static final ComponentCallbacks2 sComponentCallbacks = new ComponentCallbacks2() {
+        @Override
+        public void onTrimMemory(int level) {
+            ThreeDSecureWebViewPool.onTrimMemory(level);
+        }
+
+        @Override
+        public void onConfigurationChanged(Configuration newConfig) {}
+
+        @Override
+        public void onLowMemory() {
+            releaseIdleWebViews();
+        }
+    };
+
+    private ThreeDSecureWebViewPool() {}
+
+    /**
+     * Enables or disables the pool. Disabling the pool destroys every idle {@link ThreeDSecureWebView}.
+     *
+     * @param context any {@link Context}, the application context is kept while the pool is enabled.
+     * @param enabled {@code true} to keep {@link ThreeDSecureWebView}s ready for challenges.
+     */
+    @MainThread
+    public static void setEnabled(Context context, boolean enabled) {
+        if (enabled == isEnabled()) {
+            return;
+        }
+
+        if (enabled) {
+            sApplicationContext = context.getApplicationContext();
+            sApplicationContext.registerComponentCallbacks(sComponentCallbacks);
+        } else {
+            releaseIdleWebViews();
+            sApplicationContext.unregisterComponentCallbacks(sComponentCallbacks);
+            sApplicationContext = null;
+        }
+    }
+
+    /**
+     * @return {@code true} if the pool has been enabled with {@link #setEnabled(Context, boolean)}.
+     */
+    @MainThread
+    public static boolean isEnabled() {
+        return sApplicationContext != null;
+    }
+
+    /**
+     * Creates a {@link ThreeDSecureWebView} for the next challenge if the pool is enabled and none is idle. Call this
+     * when a challenge is likely, for example when a card that requires 3D Secure is entered.
+     */
+    @MainThread
+    public static void prime() {
+        if (isEnabled() && sIdleWebViews.isEmpty()) {
+            sIdleWebViews.push(new ThreeDSecureWebView(new MutableContextWrapper(sApplicationContext)));
+        }
+    }
+
+    /**
+     * @return an idle {@link ThreeDSecureWebView} now attached to the {@link Context}, or a new
+     * {@link ThreeDSecureWebView} for the {@link Context} if there is none. The history of an idle
+     * {@link ThreeDSecureWebView} is cleared once the first page of the next challenge has finished loading.
+     */
+    @MainThread
+    static ThreeDSecureWebView acquire(Context context) {
+        ThreeDSecureWebView webView = sIdleWebViews.poll();
+        if (webView == null) {
+            return new ThreeDSecureWebView(context);
+        }
+
+        ((MutableContextWrapper) webView.getContext()).setBaseContext(context);
+        webView.clearHistoryOnNextPageFinished();
+        return webView;
+    }
+
+    /**
+     * Detaches the {@link ThreeDSecureWebView} from its window and returns it to the pool if it came from the pool and
+     * there is room for it, otherwise destroys it.
+     */
+    @MainThread
+    static void release(ThreeDSecureWebView webView) {
+        if (webView.getParent() instanceof ViewGroup) {
+            ((ViewGroup) webView.getParent()).removeView(webView);
+        }
+
+        webView.stopLoading();
+        webView.setWebChromeClient(null);
+        webView.setWebViewClient(null);
+
+        if (isEnabled() && webView.getContext() instanceof MutableContextWrapper &&
+                sIdleWebViews.size() < MAX_IDLE_WEB_VIEWS) {
+            ((MutableContextWrapper) webView.getContext()).setBaseContext(sApplicationContext);
+            webView.loadUrl("about:blank");
+            sIdleWebViews.push(webView);
+        } else {
+            webView.destroy();
+        }
+    }
+
+    /**
+     * Destroys every idle {@link ThreeDSecureWebView} when the app is asked to trim its memory.
+     *
+     * @param level the level passed to {@link ComponentCallbacks2#onTrimMemory(int)}.
+     */
+    @MainThread
+    static void onTrimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            releaseIdleWebViews();
+        }
+    }
+
+    @VisibleForTesting
+    static int getIdleWebViewCount() {
+        return sIdleWebViews.size();
+    }
+
+    private static void releaseIdleWebViews() {
+        for (ThreeDSecureWebView webView = sIdleWebViews.poll(); webView != null; webView = sIdleWebViews.poll()) {
+            webView.destroy();
+        }
+    }
+}
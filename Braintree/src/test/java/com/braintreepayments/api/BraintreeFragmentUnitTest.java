@@ -5,6 +5,7 @@ import android.content.Context;
 import android.content.Intent;
 import android.net.Uri;
 import android.os.Bundle;
+import android.os.Parcel;
 
 import com.braintreepayments.api.exceptions.ErrorWithResponse;
 import com.braintreepayments.api.exceptions.InvalidArgumentException;
@@ -13,6 +14,7 @@ import com.braintreepayments.api.interfaces.BraintreeErrorListener;
 import com.braintreepayments.api.interfaces.BraintreeResponseListener;
 import com.braintreepayments.api.interfaces.ConfigurationListener;
 import com.braintreepayments.api.interfaces.PaymentMethodNonceCreatedListener;
+import com.braintreepayments.api.interfaces.PaymentMethodNoncesChangedListener;
 import com.braintreepayments.api.interfaces.PaymentMethodNoncesUpdatedListener;
 import com.braintreepayments.api.interfaces.QueuedCallback;
 import com.braintreepayments.api.interfaces.UnionPayListener;
@@ -64,6 +66,7 @@ import static com.braintreepayments.testutils.TestTokenizationKey.TOKENIZATION_K
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertNull;
 import static junit.framework.Assert.assertTrue;
 import static junit.framework.Assert.fail;
 import static org.mockito.Matchers.any;
@@ -272,6 +275,139 @@ public class BraintreeFragmentUnitTest {
         assertFalse(bundle.containsKey(BraintreeFragment.EXTRA_CONFIGURATION));
     }
 
+    @Test
+    public void onSaveInstanceState_whenExternalized_onlySavesKey() throws InvalidArgumentException {
+        Configuration configuration = new TestConfigurationBuilder().buildConfiguration();
+        mockConfigurationManager(configuration);
+        BraintreeFragment fragment = BraintreeFragment.newInstance(mActivity, TOKENIZATION_KEY);
+        fragment.setExternalizeSavedState(true);
+        fragment.postCallback(new CardNonce());
+        Bundle bundle = new Bundle();
+
+        fragment.onSaveInstanceState(bundle);
+
+        assertEquals(fragment.getSessionId(), bundle.getString(BraintreeFragment.EXTRA_SAVED_STATE_KEY));
+        assertFalse(bundle.containsKey(BraintreeFragment.EXTRA_CACHED_PAYMENT_METHOD_NONCES));
+        assertFalse(bundle.containsKey(BraintreeFragment.EXTRA_CONFIGURATION));
+        assertTrue(bundle.containsKey(BraintreeFragment.EXTRA_FETCHED_PAYMENT_METHOD_NONCES));
+    }
+
+    @Test
+    public void onCreate_whenExternalized_restoresStateFromMemory() throws InvalidArgumentException,
+            NoSuchFieldException, IllegalAccessException {
+        Configuration configuration = new TestConfigurationBuilder().buildConfiguration();
+        mockConfigurationManager(configuration);
+        BraintreeFragment fragment = BraintreeFragment.newInstance(mActivity, TOKENIZATION_KEY);
+        fragment.setExternalizeSavedState(true);
+        fragment.postCallback(new CardNonce());
+        Bundle bundle = new Bundle();
+        fragment.onSaveInstanceState(bundle);
+        setField(BraintreeFragment.class, "mConfiguration", fragment, null);
+        ((List) getField(BraintreeFragment.class, "mCachedPaymentMethodNonces", fragment)).clear();
+
+        fragment.onCreate(bundle);
+
+        assertEquals(configuration.toJson(), fragment.getConfiguration().toJson());
+    }
+
+    @Test
+    public void onCreate_whenExternalized_doesNotRestorePaymentMethodNonces() throws Exception {
+        Configuration configuration = new TestConfigurationBuilder().buildConfiguration();
+        mockConfigurationManager(configuration);
+        BraintreeFragment fragment = BraintreeFragment.newInstance(mActivity, TOKENIZATION_KEY);
+        fragment.setExternalizeSavedState(true);
+        fragment.postCallback(new CardNonce());
+        setField(BraintreeFragment.class, "mHasFetchedPaymentMethodNonces", fragment, true);
+        Bundle bundle = new Bundle();
+        fragment.onSaveInstanceState(bundle);
+        ((List) getField(BraintreeFragment.class, "mCachedPaymentMethodNonces", fragment)).clear();
+
+        fragment.onCreate(bundle);
+
+        assertEquals(0, fragment.getCachedPaymentMethodNonces().size());
+        assertFalse(fragment.hasFetchedPaymentMethodNonces());
+    }
+
+    @Test
+    public void onCreate_whenExternalized_restoresStateFromDiskAfterProcessDeath() throws Exception {
+        Configuration configuration = new TestConfigurationBuilder().buildConfiguration();
+        mockConfigurationManager(configuration);
+        BraintreeFragment fragment = BraintreeFragment.newInstance(mActivity, TOKENIZATION_KEY);
+        fragment.setExternalizeSavedState(true);
+        fragment.postCallback(new CardNonce());
+        Bundle bundle = new Bundle();
+        fragment.onSaveInstanceState(bundle);
+        SavedStateStore.sExecutor.submit(new Runnable() {
+            @Override
+            public void run() {}
+        }).get();
+        SavedStateStore.clearMemory();
+        setField(BraintreeFragment.class, "mConfiguration", fragment, null);
+        Robolectric.getForegroundThreadScheduler().pause();
+
+        fragment.onCreate(bundle);
+
+        assertNull(fragment.getConfiguration());
+        SavedStateStore.sExecutor.submit(new Runnable() {
+            @Override
+            public void run() {}
+        }).get();
+        Robolectric.getForegroundThreadScheduler().unPause();
+        Robolectric.getForegroundThreadScheduler().advanceToLastPostedRunnable();
+        assertEquals(configuration.toJson(), fragment.getConfiguration().toJson());
+    }
+
+    @Test
+    public void onCreate_whenExternalizedStateIsMissing_requiresPaymentMethodNoncesToBeFetchedAgain()
+            throws InvalidArgumentException, NoSuchFieldException, IllegalAccessException {
+        BraintreeFragment fragment = BraintreeFragment.newInstance(mActivity, TOKENIZATION_KEY);
+        setField(BraintreeFragment.class, "mHasFetchedPaymentMethodNonces", fragment, true);
+        Bundle bundle = new Bundle();
+        bundle.putBoolean(BraintreeFragment.EXTRA_FETCHED_PAYMENT_METHOD_NONCES, true);
+        bundle.putString(BraintreeFragment.EXTRA_SAVED_STATE_KEY, "missing-key");
+
+        fragment.onCreate(bundle);
+
+        assertFalse(fragment.hasFetchedPaymentMethodNonces());
+    }
+
+    @Test
+    public void onSaveInstanceState_whenExternalized_bundleSizeDoesNotGrowWithConfiguration()
+            throws InvalidArgumentException {
+        int[] configurationSizes = new int[] { 1024, 10 * 1024, 100 * 1024 };
+        int externalizedSize = -1;
+
+        for (int configurationSize : configurationSizes) {
+            StringBuilder merchantAccountId = new StringBuilder();
+            for (int i = 0; i < configurationSize; i++) {
+                merchantAccountId.append('a');
+            }
+            Configuration configuration = new TestConfigurationBuilder()
+                    .merchantAccountId(merchantAccountId.toString())
+                    .buildConfiguration();
+            mockConfigurationManager(configuration);
+            BraintreeFragment fragment = BraintreeFragment.newInstance(mActivity, TOKENIZATION_KEY);
+            fragment.setConfiguration(configuration);
+
+            Bundle bundle = new Bundle();
+            fragment.setExternalizeSavedState(false);
+            fragment.onSaveInstanceState(bundle);
+            int bundleSize = getParceledSize(bundle);
+
+            Bundle externalizedBundle = new Bundle();
+            fragment.setExternalizeSavedState(true);
+            fragment.onSaveInstanceState(externalizedBundle);
+            int currentExternalizedSize = getParceledSize(externalizedBundle);
+
+            assertTrue(bundleSize > configurationSize);
+            assertTrue(currentExternalizedSize < 1024);
+            if (externalizedSize != -1) {
+                assertEquals(externalizedSize, currentExternalizedSize);
+            }
+            externalizedSize = currentExternalizedSize;
+        }
+    }
+
     @Test
     public void getContext_returnsContext() throws InvalidArgumentException {
         BraintreeFragment fragment = BraintreeFragment.newInstance(mActivity, TOKENIZATION_KEY);
@@ -419,6 +555,51 @@ public class BraintreeFragmentUnitTest {
         assertTrue(mCalled.get());
     }
 
+    @Test
+    public void postCallback_paymentMethodNonces_postsChangesSincePreviousFetch() throws Exception {
+        BraintreeFragment fragment = BraintreeFragment.newInstance(mActivity, TOKENIZATION_KEY);
+        List<PaymentMethodNonce> paymentMethodNonces = PaymentMethodNonce.parsePaymentMethodNonces(
+                stringFromFixture("payment_methods/get_payment_methods_response.json"));
+        fragment.postCallback(new ArrayList<>(paymentMethodNonces));
+        final List<List<PaymentMethodNonce>> changes = new ArrayList<>();
+        fragment.addListener(new PaymentMethodNoncesChangedListener() {
+            @Override
+            public void onPaymentMethodNoncesChanged(List<PaymentMethodNonce> added, List<PaymentMethodNonce> removed,
+                    List<PaymentMethodNonce> updated) {
+                changes.add(added);
+                changes.add(removed);
+                changes.add(updated);
+            }
+        });
+        changes.clear();
+
+        fragment.postCallback(new ArrayList<>(paymentMethodNonces.subList(1, paymentMethodNonces.size())));
+
+        assertEquals(0, changes.get(0).size());
+        assertEquals(1, changes.get(1).size());
+        assertEquals(paymentMethodNonces.get(0), changes.get(1).get(0));
+        assertEquals(0, changes.get(2).size());
+    }
+
+    @Test
+    public void postCallback_paymentMethodNonces_doesNotPostChangesWhenNothingChanged() throws Exception {
+        BraintreeFragment fragment = BraintreeFragment.newInstance(mActivity, TOKENIZATION_KEY);
+        String response = stringFromFixture("payment_methods/get_payment_methods_response.json");
+        fragment.postCallback(PaymentMethodNonce.parsePaymentMethodNonces(response));
+        fragment.addListener(new PaymentMethodNoncesChangedListener() {
+            @Override
+            public void onPaymentMethodNoncesChanged(List<PaymentMethodNonce> added, List<PaymentMethodNonce> removed,
+                    List<PaymentMethodNonce> updated) {
+                mCalled.set(true);
+            }
+        });
+        mCalled.set(false);
+
+        fragment.postCallback(PaymentMethodNonce.parsePaymentMethodNonces(response));
+
+        assertFalse(mCalled.get());
+    }
+
     @Test
     public void addListener_flushesCancelCallback() throws InvalidArgumentException {
         BraintreeFragment fragment = BraintreeFragment.newInstance(mActivity, TOKENIZATION_KEY);
@@ -515,6 +696,11 @@ public class BraintreeFragmentUnitTest {
             @Override
             public void onPaymentMethodNoncesUpdated(List<PaymentMethodNonce> paymentMethodNonces) {}
         };
+        PaymentMethodNoncesChangedListener paymentMethodNoncesChangedListener = new PaymentMethodNoncesChangedListener() {
+            @Override
+            public void onPaymentMethodNoncesChanged(List<PaymentMethodNonce> added, List<PaymentMethodNonce> removed,
+                    List<PaymentMethodNonce> updated) {}
+        };
         PaymentMethodNonceCreatedListener paymentMethodNonceCreatedListener = new PaymentMethodNonceCreatedListener() {
             @Override
             public void onPaymentMethodNonceCreated(PaymentMethodNonce paymentMethodNonce) {}
@@ -534,15 +720,17 @@ public class BraintreeFragmentUnitTest {
         fragment.addListener(configurationListener);
         fragment.addListener(braintreeErrorListener);
         fragment.addListener(paymentMethodNoncesUpdatedListener);
+        fragment.addListener(paymentMethodNoncesChangedListener);
         fragment.addListener(paymentMethodNonceCreatedListener);
         fragment.addListener(braintreeCancelListener);
         fragment.addListener(unionPayListener);
 
-        assertEquals(6, fragment.getListeners().size());
+        assertEquals(7, fragment.getListeners().size());
 
         fragment.removeListener(configurationListener);
         fragment.removeListener(braintreeErrorListener);
         fragment.removeListener(paymentMethodNoncesUpdatedListener);
+        fragment.removeListener(paymentMethodNoncesChangedListener);
         fragment.removeListener(paymentMethodNonceCreatedListener);
         fragment.removeListener(braintreeCancelListener);
         fragment.removeListener(unionPayListener);
@@ -1020,4 +1208,14 @@ public class BraintreeFragmentUnitTest {
         ConfigurationManager.getConfiguration(any(BraintreeFragment.class), any(ConfigurationListener.class),
                 any(BraintreeResponseListener.class));
     }
+
+    private int getParceledSize(Bundle bundle) {
+        Parcel parcel = Parcel.obtain();
+        try {
+            bundle.writeToParcel(parcel, 0);
+            return parcel.dataSize();
+        } finally {
+            parcel.recycle();
+        }
+    }
 }
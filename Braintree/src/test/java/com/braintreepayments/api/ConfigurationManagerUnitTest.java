@@ -9,6 +9,8 @@ import com.braintreepayments.api.exceptions.UnexpectedException;
 import com.braintreepayments.api.interfaces.BraintreeResponseListener;
 import com.braintreepayments.api.interfaces.ConfigurationListener;
 import com.braintreepayments.api.interfaces.HttpResponseCallback;
+import com.braintreepayments.api.internal.BraintreeFileCache;
+import com.braintreepayments.api.internal.BraintreeFileCacheTestUtils;
 import com.braintreepayments.api.internal.BraintreeHttpClient;
 import com.braintreepayments.api.models.Authorization;
 import com.braintreepayments.api.models.ClientToken;
@@ -254,20 +256,17 @@ public class ConfigurationManagerUnitTest {
         ConfigurationManager.getConfiguration(mBraintreeFragment, new ConfigurationListener() {
             @Override
             public void onConfigurationFetched(Configuration configuration) {
-                String key = Base64.encodeToString(
-                        Uri.parse(mTokenizationKey.getConfigUrl())
-                                .buildUpon()
-                                .appendQueryParameter("configVersion", "3")
-                                .build()
-                                .toString()
-                                .concat(mTokenizationKey.toString())
-                                .getBytes(),
-                        0);
-
-                assertEquals(stringFromFixture("configuration.json"),
-                        getSharedPreferences(RuntimeEnvironment.application).getString(key, ""));
-                assertTrue(System.currentTimeMillis() -
-                        getSharedPreferences(RuntimeEnvironment.application).getLong(key + "_timestamp", 0) < 1000);
+                String key = Uri.parse(mTokenizationKey.getConfigUrl())
+                        .buildUpon()
+                        .appendQueryParameter("configVersion", "3")
+                        .build()
+                        .toString()
+                        .concat(mTokenizationKey.toString());
+                BraintreeFileCacheTestUtils.waitForWrites();
+
+                BraintreeFileCache.Entry entry = BraintreeFileCache.get(RuntimeEnvironment.application, key);
+                assertEquals(stringFromFixture("configuration.json"), entry.getValue());
+                assertTrue(System.currentTimeMillis() - entry.getTimestamp() < 1000);
                 mCountDownLatch.countDown();
             }
         }, new BraintreeResponseListener<Exception>() {
@@ -309,6 +308,64 @@ public class ConfigurationManagerUnitTest {
         mCountDownLatch.await();
     }
 
+    @Test(timeout = 1000)
+    public void getConfiguration_doesNotWriteConfigToSharedPreferences() throws InterruptedException {
+        stubConfigurationFromGateway(stringFromFixture("configuration.json"));
+
+        ConfigurationManager.getConfiguration(mBraintreeFragment, new ConfigurationListener() {
+            @Override
+            public void onConfigurationFetched(Configuration configuration) {
+                BraintreeFileCacheTestUtils.waitForWrites();
+
+                for (Object value : getSharedPreferences(RuntimeEnvironment.application).getAll().values()) {
+                    assertFalse(value.toString().contains("clientApiUrl"));
+                }
+                mCountDownLatch.countDown();
+            }
+        }, new BraintreeResponseListener<Exception>() {
+            @Override
+            public void onResponse(Exception e) {
+                fail(e.getMessage());
+            }
+        });
+
+        mCountDownLatch.await();
+    }
+
+    @Test(timeout = 1000)
+    public void getConfiguration_getsConfigMigratedFromSharedPreferences() throws InterruptedException {
+        final String key = Base64.encodeToString(Uri.parse(mTokenizationKey.getConfigUrl())
+                .buildUpon()
+                .appendQueryParameter("configVersion", "3")
+                .build()
+                .toString()
+                .concat(mTokenizationKey.toString())
+                .getBytes(), 0);
+        getSharedPreferences(RuntimeEnvironment.application).edit()
+                .putString(key, stringFromFixture("configuration.json"))
+                .putLong(key + "_timestamp", System.currentTimeMillis())
+                .commit();
+        BraintreeFileCache.get(RuntimeEnvironment.application, "migrate");
+        BraintreeFileCacheTestUtils.waitForWrites();
+
+        ConfigurationManager.getConfiguration(mBraintreeFragment, new ConfigurationListener() {
+            @Override
+            public void onConfigurationFetched(Configuration configuration) {
+                assertEquals(stringFromFixture("configuration.json"), configuration.toJson());
+                assertFalse(getSharedPreferences(RuntimeEnvironment.application).contains(key));
+                assertFalse(getSharedPreferences(RuntimeEnvironment.application).contains(key + "_timestamp"));
+                mCountDownLatch.countDown();
+            }
+        }, new BraintreeResponseListener<Exception>() {
+            @Override
+            public void onResponse(Exception e) {
+                fail(e.getMessage());
+            }
+        });
+
+        mCountDownLatch.await();
+    }
+
     private void stubConfigurationFromGateway(final String responseString) {
         BraintreeHttpClient fakeClient = new BraintreeHttpClient(mBraintreeFragment.getAuthorization()) {
             @Override
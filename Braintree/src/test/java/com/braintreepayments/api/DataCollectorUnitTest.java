@@ -9,6 +9,7 @@ import com.kount.api.DataCollector.CompletionHandler;
 
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -17,16 +18,22 @@ import org.mockito.stubbing.Answer;
 import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.rule.PowerMockRule;
+import org.robolectric.Robolectric;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.RuntimeEnvironment;
+import org.skyscreamer.jsonassert.JSONAssert;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.powermock.api.mockito.PowerMockito.doAnswer;
 import static org.powermock.api.mockito.PowerMockito.mock;
@@ -40,6 +47,11 @@ public class DataCollectorUnitTest {
     @Rule
     public PowerMockRule mPowerMockRule = new PowerMockRule();
 
+    @Before
+    public void setup() {
+        DeviceDataSessions.reset();
+    }
+
     @Test
     public void getDeviceCollectorEnvironment_returnsCorrectEnvironment() {
         assertEquals(com.kount.api.DataCollector.ENVIRONMENT_PRODUCTION,
@@ -153,9 +165,296 @@ public class DataCollectorUnitTest {
         latch.await();
     }
 
+    @Test
+    public void collectDeviceData_withTimeout_returnsPartialDeviceDataWhenKountDoesNotComplete() throws Exception {
+        BraintreeFragment fragment = getKountFragment();
+        mockKount(new ArrayList<CompletionHandler>(), false);
+        final List<String> deviceData = new ArrayList<>();
+
+        DataCollector.collectDeviceData(fragment, null, 1000, new BraintreeResponseListener<String>() {
+            @Override
+            public void onResponse(String s) {
+                deviceData.add(s);
+            }
+        }, null);
+        waitForPayPalClientMetadataId();
+
+        assertTrue(deviceData.isEmpty());
+
+        Robolectric.getForegroundThreadScheduler().advanceBy(1000);
+
+        assertEquals(1, deviceData.size());
+        JSONObject json = new JSONObject(deviceData.get(0));
+        assertFalse(TextUtils.isEmpty(json.getString("correlation_id")));
+        assertFalse(json.has("device_session_id"));
+        assertFalse(json.has("fraud_merchant_id"));
+        verify(fragment).sendAnalyticsEvent("data-collector.kount.timed-out");
+    }
+
+    @Test
+    public void collectDeviceData_withTimeout_reportsLateKountCompletion() throws Exception {
+        BraintreeFragment fragment = getKountFragment();
+        List<CompletionHandler> completionHandlers = new ArrayList<>();
+        mockKount(completionHandlers, false);
+        final List<String> deviceData = new ArrayList<>();
+        final List<String> lateDeviceData = new ArrayList<>();
+
+        DataCollector.collectDeviceData(fragment, null, 1000, new BraintreeResponseListener<String>() {
+            @Override
+            public void onResponse(String s) {
+                deviceData.add(s);
+            }
+        }, new BraintreeResponseListener<String>() {
+            @Override
+            public void onResponse(String s) {
+                lateDeviceData.add(s);
+            }
+        });
+        waitForPayPalClientMetadataId();
+        Robolectric.getForegroundThreadScheduler().advanceBy(1000);
+        completionHandlers.get(0).completed("session-id");
+
+        assertEquals(1, deviceData.size());
+        assertEquals(1, lateDeviceData.size());
+        JSONObject json = new JSONObject(lateDeviceData.get(0));
+        assertFalse(TextUtils.isEmpty(json.getString("correlation_id")));
+        assertFalse(TextUtils.isEmpty(json.getString("device_session_id")));
+        assertEquals("600000", json.getString("fraud_merchant_id"));
+        verify(fragment).sendAnalyticsEvent("data-collector.kount.succeeded");
+    }
+
+    @Test
+    public void collectDeviceData_withTimeout_returnsCompleteDeviceDataBeforeTimeout() throws Exception {
+        BraintreeFragment fragment = getKountFragment();
+        List<CompletionHandler> completionHandlers = new ArrayList<>();
+        mockKount(completionHandlers, false);
+        final List<String> deviceData = new ArrayList<>();
+        BraintreeResponseListener<String> lateListener = mock(BraintreeResponseListener.class);
+
+        DataCollector.collectDeviceData(fragment, null, 1000, new BraintreeResponseListener<String>() {
+            @Override
+            public void onResponse(String s) {
+                deviceData.add(s);
+            }
+        }, lateListener);
+        waitForPayPalClientMetadataId();
+        completionHandlers.get(0).completed("session-id");
+        Robolectric.getForegroundThreadScheduler().advanceBy(1000);
+
+        assertEquals(1, deviceData.size());
+        assertTrue(new JSONObject(deviceData.get(0)).has("device_session_id"));
+        verify(fragment, never()).sendAnalyticsEvent("data-collector.kount.timed-out");
+        verify(lateListener, never()).onResponse(anyString());
+    }
+
+    @Test
+    public void collectDeviceData_startsKountBeforePayPalClientMetadataIdIsAvailable() throws Exception {
+        BraintreeFragment fragment = getKountFragment();
+        List<CompletionHandler> completionHandlers = new ArrayList<>();
+        mockKount(completionHandlers, false);
+        final CountDownLatch blockExecutor = new CountDownLatch(1);
+        DataCollector.sExecutor.submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    blockExecutor.await();
+                } catch (InterruptedException ignored) {}
+            }
+        });
+
+        DataCollector.collectDeviceData(fragment, null, 0, mock(BraintreeResponseListener.class), null);
+
+        assertEquals(1, completionHandlers.size());
+        blockExecutor.countDown();
+        waitForPayPalClientMetadataId();
+    }
+
+    @Test
+    public void collectDeviceData_collectsNewDeviceSessionForEveryCallByDefault() throws Exception {
+        BraintreeFragment fragment = getKountFragment();
+        List<CompletionHandler> completionHandlers = new ArrayList<>();
+        mockKount(completionHandlers, true);
+        List<String> deviceData = new ArrayList<>();
+
+        collectDeviceData(fragment, deviceData);
+        collectDeviceData(fragment, deviceData);
+
+        assertEquals(2, completionHandlers.size());
+        assertFalse(new JSONObject(deviceData.get(0)).getString("device_session_id")
+                .equals(new JSONObject(deviceData.get(1)).getString("device_session_id")));
+    }
+
+    @Test
+    public void collectDeviceData_reusesDeviceDataWithinReuseWindow() throws Exception {
+        DataCollector.setDeviceDataReuseWindow(60000);
+        BraintreeFragment fragment = getKountFragment();
+        List<CompletionHandler> completionHandlers = new ArrayList<>();
+        mockKount(completionHandlers, true);
+        List<String> deviceData = new ArrayList<>();
+
+        collectDeviceData(fragment, deviceData);
+        collectDeviceData(fragment, deviceData);
+
+        assertEquals(1, completionHandlers.size());
+        assertEquals(2, deviceData.size());
+        JSONAssert.assertEquals(deviceData.get(0), deviceData.get(1), true);
+        assertFalse(TextUtils.isEmpty(new JSONObject(deviceData.get(1)).getString("device_session_id")));
+    }
+
+    @Test
+    public void collectDeviceData_collectsAgainAfterReuseWindow() throws Exception {
+        DataCollector.setDeviceDataReuseWindow(60000);
+        BraintreeFragment fragment = getKountFragment();
+        List<CompletionHandler> completionHandlers = new ArrayList<>();
+        mockKount(completionHandlers, true);
+        List<String> deviceData = new ArrayList<>();
+
+        collectDeviceData(fragment, deviceData);
+        Robolectric.getForegroundThreadScheduler().advanceBy(60000);
+        collectDeviceData(fragment, deviceData);
+
+        assertEquals(2, completionHandlers.size());
+    }
+
+    @Test
+    public void collectDeviceData_doesNotReuseDeviceDataForDifferentMerchantId() throws Exception {
+        DataCollector.setDeviceDataReuseWindow(60000);
+        BraintreeFragment fragment = getKountFragment();
+        List<CompletionHandler> completionHandlers = new ArrayList<>();
+        mockKount(completionHandlers, true);
+
+        DataCollector.collectDeviceData(fragment, "100", mock(BraintreeResponseListener.class));
+        waitForPayPalClientMetadataId();
+        DataCollector.collectDeviceData(fragment, "200", mock(BraintreeResponseListener.class));
+        waitForPayPalClientMetadataId();
+
+        assertEquals(2, completionHandlers.size());
+    }
+
+    @Test
+    public void invalidateDeviceData_startsNewDeviceSession() throws Exception {
+        DataCollector.setDeviceDataReuseWindow(60000);
+        BraintreeFragment fragment = getKountFragment();
+        List<CompletionHandler> completionHandlers = new ArrayList<>();
+        mockKount(completionHandlers, true);
+        List<String> deviceData = new ArrayList<>();
+
+        collectDeviceData(fragment, deviceData);
+        DataCollector.invalidateDeviceData();
+        collectDeviceData(fragment, deviceData);
+
+        assertEquals(2, completionHandlers.size());
+    }
+
+    @Test
+    public void precollectDeviceData_doesNothingWithoutReuseWindow() throws Exception {
+        BraintreeFragment fragment = getKountFragment();
+        List<CompletionHandler> completionHandlers = new ArrayList<>();
+        mockKount(completionHandlers, false);
+
+        DataCollector.precollectDeviceData(fragment, null);
+
+        assertTrue(completionHandlers.isEmpty());
+    }
+
+    @Test
+    public void collectDeviceData_waitsForPrecollectedDeviceData() throws Exception {
+        DataCollector.setDeviceDataReuseWindow(60000);
+        BraintreeFragment fragment = getKountFragment();
+        List<CompletionHandler> completionHandlers = new ArrayList<>();
+        mockKount(completionHandlers, false);
+        List<String> deviceData = new ArrayList<>();
+
+        DataCollector.precollectDeviceData(fragment, null);
+        collectDeviceData(fragment, deviceData);
+
+        assertTrue(deviceData.isEmpty());
+
+        completionHandlers.get(0).completed("session-id");
+
+        assertEquals(1, completionHandlers.size());
+        assertEquals(1, deviceData.size());
+        JSONObject json = new JSONObject(deviceData.get(0));
+        assertFalse(TextUtils.isEmpty(json.getString("device_session_id")));
+        assertFalse(TextUtils.isEmpty(json.getString("correlation_id")));
+    }
+
+    @Test
+    public void collectDeviceData_collectsItselfWhenSessionIsNotCollectedWithinReuseWindow() throws Exception {
+        DataCollector.setDeviceDataReuseWindow(60000);
+        BraintreeFragment fragment = getKountFragment();
+        List<CompletionHandler> completionHandlers = new ArrayList<>();
+        mockKount(completionHandlers, false);
+        List<String> deviceData = new ArrayList<>();
+
+        DataCollector.precollectDeviceData(fragment, null);
+        collectDeviceData(fragment, deviceData);
+        Robolectric.getForegroundThreadScheduler().advanceBy(60000);
+        waitForPayPalClientMetadataId();
+
+        assertEquals(2, completionHandlers.size());
+        assertTrue(deviceData.isEmpty());
+
+        completionHandlers.get(1).completed("session-id");
+
+        assertEquals(1, deviceData.size());
+        assertFalse(TextUtils.isEmpty(new JSONObject(deviceData.get(0)).getString("device_session_id")));
+    }
+
     @Test
     public void getPayPalClientMetadataId_returnsClientMetadataId() {
         String clientMetadataId = DataCollector.getPayPalClientMetadataId(RuntimeEnvironment.application);
         assertFalse(TextUtils.isEmpty(clientMetadataId));
     }
+
+    private static void collectDeviceData(BraintreeFragment fragment, final List<String> deviceData)
+            throws Exception {
+        DataCollector.collectDeviceData(fragment, new BraintreeResponseListener<String>() {
+            @Override
+            public void onResponse(String s) {
+                deviceData.add(s);
+            }
+        });
+        waitForPayPalClientMetadataId();
+    }
+
+    private static BraintreeFragment getKountFragment() {
+        return new MockFragmentBuilder()
+                .configuration(new TestConfigurationBuilder()
+                        .kount(new TestKountConfigurationBuilder()
+                                .kountMerchantId("600000"))
+                        .build())
+                .build();
+    }
+
+    private static void mockKount(final List<CompletionHandler> completionHandlers, final boolean complete) {
+        final com.kount.api.DataCollector mockDataCollector = mock(com.kount.api.DataCollector.class);
+        doAnswer(new Answer() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                CompletionHandler completionHandler = (CompletionHandler) invocation.getArguments()[1];
+                completionHandlers.add(completionHandler);
+                if (complete) {
+                    completionHandler.completed((String) invocation.getArguments()[0]);
+                }
+                return null;
+            }
+        }).when(mockDataCollector).collectForSession(anyString(), any(CompletionHandler.class));
+
+        mockStatic(com.kount.api.DataCollector.class);
+        doAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                return mockDataCollector;
+            }
+        }).when(com.kount.api.DataCollector.class);
+        com.kount.api.DataCollector.getInstance();
+    }
+
+    private static void waitForPayPalClientMetadataId() throws Exception {
+        DataCollector.sExecutor.submit(new Runnable() {
+            @Override
+            public void run() {}
+        }).get();
+    }
 }
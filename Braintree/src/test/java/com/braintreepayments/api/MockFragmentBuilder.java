@@ -4,6 +4,7 @@ import android.content.Context;
 
 import com.braintreepayments.api.interfaces.ConfigurationListener;
 import com.braintreepayments.api.interfaces.HttpResponseCallback;
+import com.braintreepayments.api.interfaces.JsonRequestBody;
 import com.braintreepayments.api.internal.BraintreeHttpClient;
 import com.braintreepayments.api.models.Authorization;
 import com.braintreepayments.api.models.Configuration;
@@ -114,6 +115,13 @@ public class MockFragmentBuilder {
                 return null;
             }
         }).when(httpClient).post(anyString(), anyString(), any(HttpResponseCallback.class));
+        doAnswer(new Answer() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                ((HttpResponseCallback) invocation.getArguments()[2]).success(mSuccessResponse);
+                return null;
+            }
+        }).when(httpClient).post(anyString(), any(JsonRequestBody.class), any(HttpResponseCallback.class));
     }
 
     private void setupErrorResponses(BraintreeHttpClient httpClient) {
@@ -131,5 +139,12 @@ public class MockFragmentBuilder {
                 return null;
             }
         }).when(httpClient).post(anyString(), anyString(), any(HttpResponseCallback.class));
+        doAnswer(new Answer() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                ((HttpResponseCallback) invocation.getArguments()[2]).failure(mErrorResponse);
+                return null;
+            }
+        }).when(httpClient).post(anyString(), any(JsonRequestBody.class), any(HttpResponseCallback.class));
     }
 }
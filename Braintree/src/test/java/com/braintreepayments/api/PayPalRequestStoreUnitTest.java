@@ -0,0 +1,159 @@
+package com.braintreepayments.api;
+
+import com.braintreepayments.api.PayPalRequestStore.PersistedRequest;
+import com.braintreepayments.api.models.PayPalRequest;
+import com.braintreepayments.api.models.PostalAddress;
+import com.paypal.android.sdk.onetouch.core.CheckoutRequest;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.io.File;
+import java.io.FileOutputStream;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class PayPalRequestStoreUnitTest {
+
+    @Before
+    public void setup() {
+        PayPalRequestStore.clearMemory();
+    }
+
+    @Test
+    public void remove_returnsRequestFromMemory() {
+        PayPalRequest paypalRequest = new PayPalRequest("1");
+        CheckoutRequest request = new CheckoutRequest();
+        PayPalRequestStore.put(RuntimeEnvironment.application, paypalRequest, request);
+
+        PersistedRequest persistedRequest = PayPalRequestStore.remove(RuntimeEnvironment.application);
+
+        assertSame(paypalRequest, persistedRequest.mPayPalRequest);
+        assertSame(request, persistedRequest.mRequest);
+    }
+
+    @Test
+    public void remove_returnsRequestFromDiskAfterProcessDeath() throws Exception {
+        PayPalRequest paypalRequest = new PayPalRequest("1.00")
+                .currencyCode("USD")
+                .localeCode("en_US")
+                .billingAgreementDescription("description")
+                .shippingAddressRequired(true)
+                .shippingAddressOverride(new PostalAddress()
+                        .recipientName("recipient")
+                        .streetAddress("123 Fake St")
+                        .locality("Chicago")
+                        .region("IL")
+                        .postalCode("60606")
+                        .countryCodeAlpha2("US"))
+                .intent(PayPalRequest.INTENT_SALE)
+                .landingPageType(PayPalRequest.LANDING_PAGE_TYPE_LOGIN)
+                .userAction(PayPalRequest.USER_ACTION_COMMIT)
+                .displayName("display-name")
+                .offerCredit(true);
+        CheckoutRequest request = new CheckoutRequest()
+                .environment("test")
+                .approvalURL("https://paypal.com/?token=EC-TOKEN");
+        PayPalRequestStore.put(RuntimeEnvironment.application, paypalRequest, request);
+        waitForDiskWrites();
+        PayPalRequestStore.clearMemory();
+
+        PersistedRequest persistedRequest = PayPalRequestStore.remove(RuntimeEnvironment.application);
+
+        PayPalRequest restored = persistedRequest.mPayPalRequest;
+        assertEquals("1.00", restored.getAmount());
+        assertEquals("USD", restored.getCurrencyCode());
+        assertEquals("en_US", restored.getLocaleCode());
+        assertEquals("description", restored.getBillingAgreementDescription());
+        assertTrue(restored.isShippingAddressRequired());
+        assertEquals("recipient", restored.getShippingAddressOverride().getRecipientName());
+        assertEquals("123 Fake St", restored.getShippingAddressOverride().getStreetAddress());
+        assertNull(restored.getShippingAddressOverride().getExtendedAddress());
+        assertEquals("Chicago", restored.getShippingAddressOverride().getLocality());
+        assertEquals("IL", restored.getShippingAddressOverride().getRegion());
+        assertEquals("60606", restored.getShippingAddressOverride().getPostalCode());
+        assertEquals("US", restored.getShippingAddressOverride().getCountryCodeAlpha2());
+        assertEquals(PayPalRequest.INTENT_SALE, restored.getIntent());
+        assertEquals(PayPalRequest.LANDING_PAGE_TYPE_LOGIN, restored.getLandingPageType());
+        assertEquals(PayPalRequest.USER_ACTION_COMMIT, restored.getUserAction());
+        assertEquals("display-name", restored.getDisplayName());
+        assertTrue(restored.shouldOfferCredit());
+        assertEquals("test", persistedRequest.mRequest.getEnvironment());
+        assertEquals("https://paypal.com/?token=EC-TOKEN",
+                ((CheckoutRequest) persistedRequest.mRequest).getBrowserSwitchUrl(null, null));
+    }
+
+    @Test
+    public void remove_returnsNullOnceRequestHasBeenRemoved() {
+        PayPalRequestStore.put(RuntimeEnvironment.application, null, new CheckoutRequest());
+        PayPalRequestStore.remove(RuntimeEnvironment.application);
+
+        assertNull(PayPalRequestStore.remove(RuntimeEnvironment.application));
+    }
+
+    @Test
+    public void remove_deletesFileInBackground() throws Exception {
+        PayPalRequestStore.put(RuntimeEnvironment.application, null, new CheckoutRequest());
+        waitForDiskWrites();
+        assertTrue(getFile().exists());
+
+        PayPalRequestStore.remove(RuntimeEnvironment.application);
+        waitForDiskWrites();
+
+        assertFalse(getFile().exists());
+    }
+
+    @Test
+    public void remove_returnsNullForUnknownVersion() throws Exception {
+        FileOutputStream out = new FileOutputStream(getFile());
+        out.write(new byte[] { 0, 0, 0, 99 });
+        out.close();
+
+        assertNull(PayPalRequestStore.remove(RuntimeEnvironment.application));
+    }
+
+    @Test
+    public void put_deletesPreviousRequestWhenWriteFails() throws Exception {
+        PayPalRequestStore.put(RuntimeEnvironment.application, new PayPalRequest("1"), new CheckoutRequest());
+        waitForDiskWrites();
+        assertTrue(getFile().exists());
+
+        // a directory in place of the temporary file makes the write fail
+        File tempFile = new File(getFile().getParentFile(), getFile().getName() + ".tmp");
+        assertTrue(tempFile.mkdir());
+        try {
+            PayPalRequestStore.put(RuntimeEnvironment.application, new PayPalRequest("2"), new CheckoutRequest());
+            waitForDiskWrites();
+        } finally {
+            tempFile.delete();
+        }
+        PayPalRequestStore.clearMemory();
+
+        assertFalse(getFile().exists());
+        assertNull(PayPalRequestStore.remove(RuntimeEnvironment.application));
+    }
+
+    @Test
+    public void remove_returnsNullWhenNothingWasPersisted() {
+        assertNull(PayPalRequestStore.remove(RuntimeEnvironment.application));
+    }
+
+    private static File getFile() {
+        return new File(RuntimeEnvironment.application.getFilesDir(), "braintree_paypal_request");
+    }
+
+    private static void waitForDiskWrites() throws Exception {
+        PayPalRequestStore.sExecutor.submit(new Runnable() {
+            @Override
+            public void run() {}
+        }).get();
+    }
+}
@@ -3,16 +3,16 @@ package com.braintreepayments.api;
 import android.app.Activity;
 import android.content.Context;
 import android.content.Intent;
-import android.content.SharedPreferences;
 import android.net.Uri;
 
+import com.braintreepayments.api.PayPalRequestStore.PersistedRequest;
 import com.braintreepayments.api.exceptions.BraintreeException;
 import com.braintreepayments.api.exceptions.InvalidArgumentException;
 import com.braintreepayments.api.interfaces.HttpResponseCallback;
+import com.braintreepayments.api.interfaces.JsonRequestBody;
 import com.braintreepayments.api.interfaces.PayPalApprovalCallback;
 import com.braintreepayments.api.interfaces.PayPalApprovalHandler;
 import com.braintreepayments.api.interfaces.PaymentMethodNonceCallback;
-import com.braintreepayments.api.internal.BraintreeSharedPreferences;
 import com.braintreepayments.api.models.Authorization;
 import com.braintreepayments.api.models.BraintreeRequestCodes;
 import com.braintreepayments.api.models.Configuration;
@@ -22,15 +22,19 @@ import com.braintreepayments.api.models.PayPalRequest;
 import com.braintreepayments.api.models.PaymentMethodBuilder;
 import com.braintreepayments.api.models.PaymentMethodNonce;
 import com.braintreepayments.api.models.PostalAddress;
+import com.braintreepayments.api.test.DirectExecutorService;
 import com.braintreepayments.testutils.TestConfigurationBuilder;
 import com.braintreepayments.testutils.TestConfigurationBuilder.TestPayPalConfigurationBuilder;
 import com.paypal.android.sdk.onetouch.core.AuthorizationRequest;
+import com.paypal.android.sdk.onetouch.core.BillingAgreementRequest;
+import com.paypal.android.sdk.onetouch.core.CheckoutRequest;
 import com.paypal.android.sdk.onetouch.core.Request;
 import com.paypal.android.sdk.onetouch.core.config.Recipe;
 import com.paypal.android.sdk.onetouch.core.encryption.EncryptionUtils;
 
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -45,7 +49,10 @@ import org.robolectric.RobolectricTestRunner;
 import org.robolectric.RuntimeEnvironment;
 import org.skyscreamer.jsonassert.JSONAssert;
 
+import java.io.IOException;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static com.braintreepayments.testutils.FixturesHelper.stringFromFixture;
 import static com.braintreepayments.testutils.ReflectionHelper.setField;
@@ -61,6 +68,7 @@ import static org.mockito.Matchers.contains;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.powermock.api.mockito.PowerMockito.doAnswer;
 import static org.powermock.api.mockito.PowerMockito.doReturn;
@@ -77,9 +85,15 @@ public class PayPalUnitTest {
     public PowerMockRule mPowerMockRule = new PowerMockRule();
 
     private MockFragmentBuilder mMockFragmentBuilder;
+    private ExecutorService mExecutor;
 
     @Before
     public void setup() throws Exception {
+        PayPalRequestStore.clearMemory();
+        PayPalTimeline.sLastTimeline = null;
+        mExecutor = PayPal.sExecutor;
+        PayPal.sExecutor = new DirectExecutorService();
+
         spy(PayPal.class);
         doReturn(true).when(PayPal.class, "isManifestValid", any(Context.class));
 
@@ -101,6 +115,11 @@ public class PayPalUnitTest {
                 .configuration(configuration);
     }
 
+    @After
+    public void tearDown() {
+        PayPal.sExecutor = mExecutor;
+    }
+
     @Test
     public void authorizeAccount_sendsAnalyticsEvent() {
         BraintreeFragment fragment = mMockFragmentBuilder.build();
@@ -316,7 +335,7 @@ public class PayPalUnitTest {
 
         PayPal.requestBillingAgreement(fragment, new PayPalRequest());
 
-        ArgumentCaptor<String> dataCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<JsonRequestBody> dataCaptor = ArgumentCaptor.forClass(JsonRequestBody.class);
         verify(fragment.getHttpClient()).post(contains("/paypal_hermes/setup_billing_agreement"), dataCaptor.capture(),
                 any(HttpResponseCallback.class));
 
@@ -329,7 +348,7 @@ public class PayPalUnitTest {
                         .put("brand_name", "displayName")
                         .put("no_shipping", true))
                 .put("offer_paypal_credit", false);
-        JSONObject actual = new JSONObject(dataCaptor.getValue());
+        JSONObject actual = new JSONObject(dataCaptor.getValue().toString());
         JSONAssert.assertEquals(expected, actual, true);
     }
 
@@ -348,11 +367,11 @@ public class PayPalUnitTest {
 
         PayPal.requestBillingAgreement(fragment, new PayPalRequest().offerCredit(true));
 
-        ArgumentCaptor<String> dataCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<JsonRequestBody> dataCaptor = ArgumentCaptor.forClass(JsonRequestBody.class);
         verify(fragment.getHttpClient()).post(contains("/paypal_hermes/setup_billing_agreement"), dataCaptor.capture(),
                 any(HttpResponseCallback.class));
 
-        JSONObject json = new JSONObject(dataCaptor.getValue());
+        JSONObject json = new JSONObject(dataCaptor.getValue().toString());
         assertTrue(json.getBoolean("offer_paypal_credit"));
     }
 
@@ -477,12 +496,15 @@ public class PayPalUnitTest {
 
     @Test
     public void requestBillingAgreement_persistsPayPalRequest() {
-        BraintreeFragment braintreeFragment = mMockFragmentBuilder.build();
-        SharedPreferences prefs = BraintreeSharedPreferences.getSharedPreferences(RuntimeEnvironment.application);
+        BraintreeFragment braintreeFragment = mMockFragmentBuilder
+                .successResponse(stringFromFixture("paypal_hermes_billing_agreement_response.json"))
+                .build();
 
-        PayPal.requestOneTimePayment(braintreeFragment, new PayPalRequest("1").intent(PayPalRequest.INTENT_SALE));
+        PayPal.requestBillingAgreement(braintreeFragment, new PayPalRequest().billingAgreementDescription("description"));
 
-        assertNotNull(prefs.getString("com.braintreepayments.api.PayPal.PAYPAL_REQUEST_KEY", null));
+        PersistedRequest persistedRequest = PayPalRequestStore.remove(RuntimeEnvironment.application);
+        assertEquals("description", persistedRequest.mPayPalRequest.getBillingAgreementDescription());
+        assertTrue(persistedRequest.mRequest instanceof BillingAgreementRequest);
     }
 
     @Test
@@ -615,12 +637,12 @@ public class PayPalUnitTest {
         PayPal.requestOneTimePayment(fragment, new PayPalRequest("1"));
 
         ArgumentCaptor<String> pathCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> dataCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<JsonRequestBody> dataCaptor = ArgumentCaptor.forClass(JsonRequestBody.class);
         verify(fragment.getHttpClient()).post(pathCaptor.capture(), dataCaptor.capture(),
                 any(HttpResponseCallback.class));
         assertTrue(pathCaptor.getValue().contains("/paypal_hermes/create_payment_resource"));
 
-        JSONObject actual = new JSONObject(dataCaptor.getValue());
+        JSONObject actual = new JSONObject(dataCaptor.getValue().toString());
         JSONObject expected = new JSONObject()
                 .put("client_key", "authorization")
                 .put("return_url", "com.braintreepayments.api.braintree://onetouch/v1/success")
@@ -642,11 +664,11 @@ public class PayPalUnitTest {
 
         PayPal.requestOneTimePayment(fragment, new PayPalRequest("1").offerCredit(true));
 
-        ArgumentCaptor<String> dataCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<JsonRequestBody> dataCaptor = ArgumentCaptor.forClass(JsonRequestBody.class);
         verify(fragment.getHttpClient()).post(contains("/paypal_hermes/create_payment_resource"), dataCaptor.capture(),
                 any(HttpResponseCallback.class));
 
-        JSONObject json = new JSONObject(dataCaptor.getValue());
+        JSONObject json = new JSONObject(dataCaptor.getValue().toString());
         assertTrue(json.getBoolean("offer_paypal_credit"));
     }
 
@@ -656,11 +678,11 @@ public class PayPalUnitTest {
 
         PayPal.requestOneTimePayment(fragment, new PayPalRequest("1").displayName("Test Name"));
 
-        ArgumentCaptor<String> dataCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<JsonRequestBody> dataCaptor = ArgumentCaptor.forClass(JsonRequestBody.class);
         verify(fragment.getHttpClient()).post(contains("/paypal_hermes/create_payment_resource"), dataCaptor.capture(),
                 any(HttpResponseCallback.class));
 
-        JSONObject json = new JSONObject(dataCaptor.getValue());
+        JSONObject json = new JSONObject(dataCaptor.getValue().toString());
         assertEquals("Test Name", json.getJSONObject("experience_profile").get("brand_name"));
     }
 
@@ -670,11 +692,11 @@ public class PayPalUnitTest {
 
         PayPal.requestOneTimePayment(fragment, new PayPalRequest("1").intent(PayPalRequest.INTENT_SALE));
 
-        ArgumentCaptor<String> dataCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<JsonRequestBody> dataCaptor = ArgumentCaptor.forClass(JsonRequestBody.class);
         verify(fragment.getHttpClient()).post(contains("/paypal_hermes/create_payment_resource"), dataCaptor.capture(),
                 any(HttpResponseCallback.class));
 
-        JSONObject json = new JSONObject(dataCaptor.getValue());
+        JSONObject json = new JSONObject(dataCaptor.getValue().toString());
         assertEquals("1", json.get("amount"));
         assertEquals(true, json.getJSONObject("experience_profile").get("no_shipping"));
         assertEquals(false, json.getJSONObject("experience_profile").get("address_override"));
@@ -687,11 +709,11 @@ public class PayPalUnitTest {
 
         PayPal.requestOneTimePayment(fragment, new PayPalRequest("1").intent(PayPalRequest.INTENT_ORDER));
 
-        ArgumentCaptor<String> dataCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<JsonRequestBody> dataCaptor = ArgumentCaptor.forClass(JsonRequestBody.class);
         verify(fragment.getHttpClient()).post(contains("/paypal_hermes/create_payment_resource"), dataCaptor.capture(),
                 any(HttpResponseCallback.class));
 
-        JSONObject json = new JSONObject(dataCaptor.getValue());
+        JSONObject json = new JSONObject(dataCaptor.getValue().toString());
         assertEquals("1", json.get("amount"));
         assertEquals(true, json.getJSONObject("experience_profile").get("no_shipping"));
         assertEquals(false, json.getJSONObject("experience_profile").get("address_override"));
@@ -704,11 +726,11 @@ public class PayPalUnitTest {
 
         PayPal.requestOneTimePayment(fragment, new PayPalRequest("1").landingPageType(PayPalRequest.LANDING_PAGE_TYPE_BILLING));
 
-        ArgumentCaptor<String> dataCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<JsonRequestBody> dataCaptor = ArgumentCaptor.forClass(JsonRequestBody.class);
         verify(fragment.getHttpClient()).post(contains("/paypal_hermes/create_payment_resource"), dataCaptor.capture(),
                 any(HttpResponseCallback.class));
 
-        JSONObject json = new JSONObject(dataCaptor.getValue());
+        JSONObject json = new JSONObject(dataCaptor.getValue().toString());
         assertEquals("1", json.get("amount"));
         assertEquals(true, json.getJSONObject("experience_profile").get("no_shipping"));
         assertEquals(false, json.getJSONObject("experience_profile").get("address_override"));
@@ -721,11 +743,11 @@ public class PayPalUnitTest {
 
         PayPal.requestOneTimePayment(fragment, new PayPalRequest("1").landingPageType(PayPalRequest.LANDING_PAGE_TYPE_LOGIN));
 
-        ArgumentCaptor<String> dataCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<JsonRequestBody> dataCaptor = ArgumentCaptor.forClass(JsonRequestBody.class);
         verify(fragment.getHttpClient()).post(contains("/paypal_hermes/create_payment_resource"), dataCaptor.capture(),
                 any(HttpResponseCallback.class));
 
-        JSONObject json = new JSONObject(dataCaptor.getValue());
+        JSONObject json = new JSONObject(dataCaptor.getValue().toString());
         assertEquals("1", json.get("amount"));
         assertEquals(true, json.getJSONObject("experience_profile").get("no_shipping"));
         assertEquals(false, json.getJSONObject("experience_profile").get("address_override"));
@@ -769,12 +791,12 @@ public class PayPalUnitTest {
         PayPal.requestOneTimePayment(fragment, new PayPalRequest("1").shippingAddressRequired(false));
 
         ArgumentCaptor<String> pathCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> dataCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<JsonRequestBody> dataCaptor = ArgumentCaptor.forClass(JsonRequestBody.class);
         verify(fragment.getHttpClient()).post(pathCaptor.capture(), dataCaptor.capture(),
                 any(HttpResponseCallback.class));
         assertTrue(pathCaptor.getValue().contains("/paypal_hermes/create_payment_resource"));
 
-        JSONObject json = new JSONObject(dataCaptor.getValue());
+        JSONObject json = new JSONObject(dataCaptor.getValue().toString());
         assertEquals("1", json.get("amount"));
         assertEquals(true, json.getJSONObject("experience_profile").get("no_shipping"));
         assertEquals(false, json.getJSONObject("experience_profile").get("address_override"));
@@ -798,12 +820,12 @@ public class PayPalUnitTest {
         PayPal.requestOneTimePayment(fragment, request);
 
         ArgumentCaptor<String> pathCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> dataCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<JsonRequestBody> dataCaptor = ArgumentCaptor.forClass(JsonRequestBody.class);
         verify(fragment.getHttpClient()).post(pathCaptor.capture(), dataCaptor.capture(),
                 any(HttpResponseCallback.class));
         assertTrue(pathCaptor.getValue().contains("/paypal_hermes/create_payment_resource"));
 
-        JSONObject json = new JSONObject(dataCaptor.getValue());
+        JSONObject json = new JSONObject(dataCaptor.getValue().toString());
         assertEquals("3.43", json.get("amount"));
         assertEquals("123 Fake St.", json.get("line1"));
         assertEquals("Apt. v.0", json.get("line2"));
@@ -833,12 +855,12 @@ public class PayPalUnitTest {
         PayPal.requestOneTimePayment(fragment, request);
 
         ArgumentCaptor<String> pathCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<String> dataCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<JsonRequestBody> dataCaptor = ArgumentCaptor.forClass(JsonRequestBody.class);
         verify(fragment.getHttpClient()).post(pathCaptor.capture(), dataCaptor.capture(),
                 any(HttpResponseCallback.class));
         assertTrue(pathCaptor.getValue().contains("/paypal_hermes/create_payment_resource"));
 
-        JSONObject json = new JSONObject(dataCaptor.getValue());
+        JSONObject json = new JSONObject(dataCaptor.getValue().toString());
         assertEquals("3.43", json.get("amount"));
         assertEquals("123 Fake St.", json.get("line1"));
         assertEquals("Apt. v.0", json.get("line2"));
@@ -932,10 +954,7 @@ public class PayPalUnitTest {
         PayPal.requestOneTimePayment(fragment, new PayPalRequest("1"));
 
         verify(fragment).postCallback(any(PayPalAccountNonce.class));
-
-        SharedPreferences prefs = BraintreeSharedPreferences.getSharedPreferences(RuntimeEnvironment.application);
-        assertNull(prefs.getString("com.braintreepayments.api.PayPal.REQUEST_KEY", null));
-        assertNull(prefs.getString("com.braintreepayments.api.PayPal.REQUEST_TYPE_KEY", null));
+        assertNull(PayPalRequestStore.remove(RuntimeEnvironment.application));
     }
 
     @Test
@@ -970,8 +989,7 @@ public class PayPalUnitTest {
                 any(PaymentMethodNonceCallback.class));
         PayPal.requestOneTimePayment(fragment, new PayPalRequest("1").intent(PayPalRequest.INTENT_SALE));
 
-        SharedPreferences prefs = BraintreeSharedPreferences.getSharedPreferences(RuntimeEnvironment.application);
-        assertNull(prefs.getString("com.braintreepayments.api.PayPal.PAYPAL_REQUEST_KEY", null));
+        assertNull(PayPalRequestStore.remove(RuntimeEnvironment.application));
         latch.await();
     }
 
@@ -1008,12 +1026,140 @@ public class PayPalUnitTest {
 
     @Test
     public void requestOneTimePayment_persistsPayPalRequest() {
-        BraintreeFragment braintreeFragment = mMockFragmentBuilder.build();
-        SharedPreferences prefs = BraintreeSharedPreferences.getSharedPreferences(RuntimeEnvironment.application);
+        BraintreeFragment braintreeFragment = mMockFragmentBuilder
+                .successResponse(stringFromFixture("paypal_hermes_response.json"))
+                .build();
 
         PayPal.requestOneTimePayment(braintreeFragment, new PayPalRequest("1").intent(PayPalRequest.INTENT_SALE));
 
-        assertNotNull(prefs.getString("com.braintreepayments.api.PayPal.PAYPAL_REQUEST_KEY", null));
+        PersistedRequest persistedRequest = PayPalRequestStore.remove(RuntimeEnvironment.application);
+        assertEquals("1", persistedRequest.mPayPalRequest.getAmount());
+        assertEquals(PayPalRequest.INTENT_SALE, persistedRequest.mPayPalRequest.getIntent());
+        assertTrue(persistedRequest.mRequest instanceof CheckoutRequest);
+    }
+
+    @Test
+    public void requestOneTimePayment_postsExceptionWhenManifestIsInvalid() throws Exception {
+        doReturn(false).when(PayPal.class, "isManifestValid", any(Context.class));
+        BraintreeFragment fragment = mMockFragmentBuilder
+                .successResponse(stringFromFixture("paypal_hermes_response.json"))
+                .build();
+        PayPalApprovalHandler handler = mock(PayPalApprovalHandler.class);
+
+        PayPal.requestOneTimePayment(fragment, new PayPalRequest("1"), handler);
+
+        verify(fragment).sendAnalyticsEvent("paypal.invalid-manifest");
+        ArgumentCaptor<Exception> captor = ArgumentCaptor.forClass(Exception.class);
+        verify(fragment).postCallback(captor.capture());
+        assertTrue(captor.getValue() instanceof BraintreeException);
+        assertTrue(captor.getValue().getMessage().startsWith("BraintreeBrowserSwitchActivity missing"));
+        verify(handler, never()).handleApproval(any(Request.class), any(PayPalApprovalCallback.class));
+    }
+
+    @Test
+    public void requestOneTimePayment_postsManifestExceptionInsteadOfNetworkException() throws Exception {
+        doReturn(false).when(PayPal.class, "isManifestValid", any(Context.class));
+        BraintreeFragment fragment = mMockFragmentBuilder
+                .errorResponse(new IOException("network error"))
+                .build();
+
+        PayPal.requestOneTimePayment(fragment, new PayPalRequest("1"));
+
+        ArgumentCaptor<Exception> captor = ArgumentCaptor.forClass(Exception.class);
+        verify(fragment).postCallback(captor.capture());
+        assertTrue(captor.getValue() instanceof BraintreeException);
+    }
+
+    @Test
+    public void requestOneTimePayment_doesNotCreatePaymentResourceWhenManifestIsInvalid() throws Exception {
+        doReturn(false).when(PayPal.class, "isManifestValid", any(Context.class));
+        BraintreeFragment fragment = mMockFragmentBuilder
+                .successResponse(stringFromFixture("paypal_hermes_response.json"))
+                .build();
+
+        PayPal.requestOneTimePayment(fragment, new PayPalRequest("1"));
+
+        verify(fragment.getHttpClient(), never()).post(anyString(), any(JsonRequestBody.class),
+                any(HttpResponseCallback.class));
+        verify(fragment).sendAnalyticsEvent("paypal.invalid-manifest");
+    }
+
+    @Test
+    public void requestOneTimePayment_recordsTimeline() {
+        BraintreeFragment fragment = mMockFragmentBuilder
+                .successResponse(stringFromFixture("paypal_hermes_response.json"))
+                .build();
+
+        PayPal.requestOneTimePayment(fragment, new PayPalRequest("1"), mock(PayPalApprovalHandler.class));
+
+        PayPalTimeline timeline = PayPalTimeline.sLastTimeline;
+        assertNotNull(timeline);
+        for (String step : new String[] { PayPalTimeline.CREATE_PAYMENT_RESOURCE, PayPalTimeline.VALIDATE_MANIFEST,
+                PayPalTimeline.WARM_UP_ONE_TOUCH, PayPalTimeline.INIT_DATA_COLLECTOR,
+                PayPalTimeline.WAIT_FOR_PREPARATION, PayPalTimeline.BUILD_REQUEST, PayPalTimeline.PERSIST_REQUEST,
+                PayPalTimeline.HANDLE_APPROVAL }) {
+            assertTrue(step, timeline.getBegin(step) >= 0);
+            assertTrue(step, timeline.getEnd(step) >= timeline.getBegin(step));
+        }
+        assertTrue(timeline.getBegin(PayPalTimeline.WAIT_FOR_PREPARATION) >=
+                timeline.getEnd(PayPalTimeline.CREATE_PAYMENT_RESOURCE));
+        assertTrue(timeline.getBegin(PayPalTimeline.HANDLE_APPROVAL) >=
+                timeline.getEnd(PayPalTimeline.WAIT_FOR_PREPARATION));
+    }
+
+    @Test
+    public void requestOneTimePayment_buildsRequestOnExecutor() throws Exception {
+        PayPal.sExecutor = Executors.newSingleThreadExecutor();
+        final CountDownLatch latch = new CountDownLatch(1);
+        PayPal.sExecutor.submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    latch.await();
+                } catch (InterruptedException ignored) {}
+            }
+        });
+        BraintreeFragment fragment = mMockFragmentBuilder
+                .successResponse(stringFromFixture("paypal_hermes_response.json"))
+                .build();
+        PayPalApprovalHandler handler = mock(PayPalApprovalHandler.class);
+
+        PayPal.requestOneTimePayment(fragment, new PayPalRequest("1"), handler);
+
+        verify(handler, never()).handleApproval(any(Request.class), any(PayPalApprovalCallback.class));
+        latch.countDown();
+        verify(handler, timeout(5000)).handleApproval(any(CheckoutRequest.class), any(PayPalApprovalCallback.class));
+        PayPal.sExecutor.shutdown();
+    }
+
+    @Test
+    public void authorizeAccount_persistsRequestWithoutPayPalRequest() {
+        BraintreeFragment fragment = mMockFragmentBuilder.build();
+
+        PayPal.authorizeAccount(fragment);
+
+        PersistedRequest persistedRequest = PayPalRequestStore.remove(RuntimeEnvironment.application);
+        assertNull(persistedRequest.mPayPalRequest);
+        assertTrue(persistedRequest.mRequest instanceof AuthorizationRequest);
+    }
+
+    @Test
+    public void onActivityResult_readsPersistedRequestAfterProcessDeath() throws Exception {
+        final BraintreeFragment fragment = mMockFragmentBuilder
+                .successResponse(stringFromFixture("paypal_hermes_response.json"))
+                .build();
+        PayPal.requestOneTimePayment(fragment, new PayPalRequest("1"));
+        PayPalRequestStore.sExecutor.submit(new Runnable() {
+            @Override
+            public void run() {}
+        }).get();
+        PayPalRequestStore.clearMemory();
+
+        Intent intent = new Intent()
+                .setData(Uri.parse("com.braintreepayments.api.test.braintree://onetouch/v1/cancel"));
+        PayPal.onActivityResult(fragment, Activity.RESULT_OK, intent);
+
+        verify(fragment).sendAnalyticsEvent("paypal-single-payment.webswitch.canceled");
     }
 
     @Test
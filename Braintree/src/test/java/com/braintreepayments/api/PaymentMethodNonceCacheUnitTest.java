@@ -0,0 +1,119 @@
+package com.braintreepayments.api;
+
+import com.braintreepayments.api.exceptions.InvalidArgumentException;
+import com.braintreepayments.api.models.Authorization;
+import com.braintreepayments.api.models.PaymentMethodNonce;
+
+import org.json.JSONException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.braintreepayments.api.models.PaymentMethodNonce.parsePaymentMethodNonces;
+import static com.braintreepayments.testutils.FixturesHelper.stringFromFixture;
+import static com.braintreepayments.testutils.TestTokenizationKey.TOKENIZATION_KEY;
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class PaymentMethodNonceCacheUnitTest {
+
+    private Authorization mClientToken;
+    private List<PaymentMethodNonce> mPaymentMethodNonces;
+
+    @Before
+    public void setup() throws InvalidArgumentException, JSONException {
+        mClientToken = Authorization.fromString(stringFromFixture("client_token.json"));
+        mPaymentMethodNonces =
+                parsePaymentMethodNonces(stringFromFixture("payment_methods/get_payment_methods_response.json"));
+    }
+
+    @After
+    public void teardown() {
+        PaymentMethodNonceCache.clear();
+    }
+
+    @Test
+    public void get_returnsCachedPaymentMethodNonces() {
+        PaymentMethodNonceCache.put(mClientToken, false, mPaymentMethodNonces);
+
+        assertEquals(mPaymentMethodNonces, PaymentMethodNonceCache.get(mClientToken, false));
+    }
+
+    @Test
+    public void get_returnsNullForDifferentOrdering() {
+        PaymentMethodNonceCache.put(mClientToken, false, mPaymentMethodNonces);
+
+        assertNull(PaymentMethodNonceCache.get(mClientToken, true));
+    }
+
+    @Test
+    public void get_returnsNullForTokenizationKeys() throws InvalidArgumentException {
+        Authorization tokenizationKey = Authorization.fromString(TOKENIZATION_KEY);
+
+        PaymentMethodNonceCache.put(tokenizationKey, false, mPaymentMethodNonces);
+
+        assertNull(PaymentMethodNonceCache.get(tokenizationKey, false));
+    }
+
+    @Test
+    public void put_doesNotCacheLargeWallets() {
+        List<PaymentMethodNonce> paymentMethodNonces = new ArrayList<>();
+        for (int i = 0; i <= PaymentMethodNonceCache.MAX_PAYMENT_METHOD_NONCES; i++) {
+            paymentMethodNonces.add(mPaymentMethodNonces.get(0));
+        }
+
+        PaymentMethodNonceCache.put(mClientToken, false, paymentMethodNonces);
+
+        assertNull(PaymentMethodNonceCache.get(mClientToken, false));
+    }
+
+    @Test
+    public void invalidate_removesCachedPaymentMethodNonces() {
+        PaymentMethodNonceCache.put(mClientToken, false, mPaymentMethodNonces);
+
+        PaymentMethodNonceCache.invalidate(mClientToken);
+
+        assertNull(PaymentMethodNonceCache.get(mClientToken, false));
+    }
+
+    @Test
+    public void diff_returnsAddedAndRemovedPaymentMethodNonces() {
+        List<PaymentMethodNonce> previous = mPaymentMethodNonces.subList(0, 2);
+        List<PaymentMethodNonce> current = mPaymentMethodNonces.subList(1, 3);
+
+        PaymentMethodNonceCache.Changes changes = PaymentMethodNonceCache.diff(previous, current);
+
+        assertEquals(Collections.singletonList(mPaymentMethodNonces.get(2)), changes.mAdded);
+        assertEquals(Collections.singletonList(mPaymentMethodNonces.get(0)), changes.mRemoved);
+        assertTrue(changes.mUpdated.isEmpty());
+    }
+
+    @Test
+    public void diff_matchesPaymentMethodsWithNewNonces() throws JSONException {
+        List<PaymentMethodNonce> refetched =
+                parsePaymentMethodNonces(stringFromFixture("payment_methods/get_payment_methods_response.json"));
+
+        assertTrue(PaymentMethodNonceCache.diff(mPaymentMethodNonces, refetched).isEmpty());
+    }
+
+    @Test
+    public void diff_returnsPaymentMethodsWhoseDefaultChanged() throws JSONException {
+        String response = stringFromFixture("payment_methods/get_payment_methods_response.json")
+                .replace("\"default\": true", "\"default\": false");
+        List<PaymentMethodNonce> refetched = parsePaymentMethodNonces(response);
+
+        PaymentMethodNonceCache.Changes changes = PaymentMethodNonceCache.diff(mPaymentMethodNonces, refetched);
+
+        assertEquals(Collections.singletonList(refetched.get(0)), changes.mUpdated);
+        assertTrue(changes.mAdded.isEmpty());
+        assertTrue(changes.mRemoved.isEmpty());
+    }
+}
@@ -4,27 +4,37 @@ import com.braintreepayments.api.exceptions.InvalidArgumentException;
 import com.braintreepayments.api.exceptions.UnexpectedException;
 import com.braintreepayments.api.interfaces.HttpResponseCallback;
 import com.braintreepayments.api.models.AndroidPayCardNonce;
+import com.braintreepayments.api.models.Authorization;
 import com.braintreepayments.api.models.CardNonce;
 import com.braintreepayments.api.models.PaymentMethodNonce;
 import com.braintreepayments.api.models.VenmoAccountNonce;
 
+import org.junit.After;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.robolectric.RobolectricTestRunner;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static com.braintreepayments.testutils.FixturesHelper.stringFromFixture;
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertTrue;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(RobolectricTestRunner.class)
 public class PaymentMethodUnitTest {
 
+    @After
+    public void teardown() {
+        PaymentMethodNonceCache.clear();
+    }
+
     @Test
     public void getPaymentMethodNonces_returnsAnEmptyListIfEmpty() {
         BraintreeFragment fragment = new MockFragmentBuilder()
@@ -117,4 +127,49 @@ public class PaymentMethodUnitTest {
         assertTrue(requestUri.contains("default_first=true"));
         assertTrue(requestUri.contains("session_id=" + fragment.getSessionId()));
     }
+
+    @Test
+    public void getPaymentMethodNonces_returnsCachedPaymentMethodNoncesWithoutARequestWhenUsingCache()
+            throws Exception {
+        Authorization clientToken = Authorization.fromString(stringFromFixture("client_token.json"));
+        BraintreeFragment fragment = new MockFragmentBuilder()
+                .authorization(clientToken)
+                .build();
+        List<PaymentMethodNonce> cachedPaymentMethodNonces = PaymentMethodNonce.parsePaymentMethodNonces(
+                stringFromFixture("payment_methods/get_payment_methods_response.json"));
+        PaymentMethodNonceCache.put(clientToken, false, cachedPaymentMethodNonces);
+
+        PaymentMethod.getPaymentMethodNonces(fragment, false, true);
+
+        ArgumentCaptor<List<PaymentMethodNonce>> captor = ArgumentCaptor.forClass((Class) List.class);
+        verify(fragment).postCallback(captor.capture());
+        assertEquals(cachedPaymentMethodNonces, captor.getValue());
+        verify(fragment.getHttpClient(), never()).get(anyString(), any(HttpResponseCallback.class));
+    }
+
+    @Test
+    public void getPaymentMethodNonces_cachesFetchedPaymentMethodNonces() throws Exception {
+        Authorization clientToken = Authorization.fromString(stringFromFixture("client_token.json"));
+        BraintreeFragment fragment = new MockFragmentBuilder()
+                .authorization(clientToken)
+                .successResponse(stringFromFixture("payment_methods/get_payment_methods_response.json"))
+                .build();
+
+        PaymentMethod.getPaymentMethodNonces(fragment, true);
+
+        assertEquals(4, PaymentMethodNonceCache.get(clientToken, true).size());
+    }
+
+    @Test
+    public void getPaymentMethodNonces_fetchesWhenNotUsingCache() throws Exception {
+        Authorization clientToken = Authorization.fromString(stringFromFixture("client_token.json"));
+        BraintreeFragment fragment = new MockFragmentBuilder()
+                .authorization(clientToken)
+                .build();
+        PaymentMethodNonceCache.put(clientToken, false, new ArrayList<PaymentMethodNonce>());
+
+        PaymentMethod.getPaymentMethodNonces(fragment, false);
+
+        verify(fragment.getHttpClient()).get(anyString(), any(HttpResponseCallback.class));
+    }
 }
@@ -0,0 +1,69 @@
+package com.braintreepayments.api;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.File;
+import java.io.IOException;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class SavedStateStoreUnitTest {
+
+    @Rule
+    public TemporaryFolder mTemporaryFolder = new TemporaryFolder();
+
+    @Before
+    public void setup() {
+        SavedStateStore.clearMemory();
+    }
+
+    @Test
+    public void sweep_deletesFilesOlderThanMaxAge() throws IOException {
+        long now = System.currentTimeMillis();
+        File stale = createFile("stale", now - SavedStateStore.MAX_FILE_AGE_MILLIS - 1);
+        File recent = createFile("recent", now - 1000);
+
+        SavedStateStore.sweep(mTemporaryFolder.getRoot(), now);
+
+        assertFalse(stale.exists());
+        assertTrue(recent.exists());
+    }
+
+    @Test
+    public void sweep_keepsOnlyNewestFiles() throws IOException {
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < SavedStateStore.MAX_ENTRIES + 3; i++) {
+            createFile("state-" + i, now - (i + 1) * 1000);
+        }
+
+        SavedStateStore.sweep(mTemporaryFolder.getRoot(), now);
+
+        assertEquals(SavedStateStore.MAX_ENTRIES, mTemporaryFolder.getRoot().listFiles().length);
+        assertTrue(new File(mTemporaryFolder.getRoot(), "state-0").exists());
+        assertFalse(new File(mTemporaryFolder.getRoot(), "state-" + SavedStateStore.MAX_ENTRIES).exists());
+    }
+
+    @Test
+    public void sweep_deletesPartiallyWrittenFiles() throws IOException {
+        long now = System.currentTimeMillis();
+        File tempFile = createFile("state.tmp", now);
+
+        SavedStateStore.sweep(mTemporaryFolder.getRoot(), now);
+
+        assertFalse(tempFile.exists());
+    }
+
+    private File createFile(String name, long lastModified) throws IOException {
+        File file = mTemporaryFolder.newFile(name);
+        assertTrue(file.setLastModified(lastModified));
+        return file;
+    }
+}
@@ -0,0 +1,230 @@
+package com.braintreepayments.api;
+
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.ActivityInfo;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+
+import com.braintreepayments.api.exceptions.BraintreeException;
+import com.braintreepayments.api.exceptions.ErrorWithResponse;
+import com.braintreepayments.api.internal.BraintreeHttpClient;
+import com.braintreepayments.api.models.Authorization;
+import com.braintreepayments.api.models.BraintreeRequestCodes;
+import com.braintreepayments.api.models.CardBuilder;
+import com.braintreepayments.api.models.PaymentMethodNonce;
+import com.braintreepayments.api.test.StubGateway;
+import com.braintreepayments.api.threedsecure.ThreeDSecureWebViewActivity;
+import com.braintreepayments.testutils.TestConfigurationBuilder;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static com.braintreepayments.testutils.FixturesHelper.stringFromFixture;
+import static com.braintreepayments.testutils.TestTokenizationKey.TOKENIZATION_KEY;
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(RobolectricTestRunner.class)
+public class ThreeDSecureUnitTest {
+
+    private static final String NONCE = "123456-12345-12345-a-adfa";
+    private static final String TOKENIZE_PATH = "/v1/payment_methods/credit_cards";
+    private static final String LOOKUP_PATH = "/v1/payment_methods/" + NONCE + "/three_d_secure/lookup";
+
+    private StubGateway mGateway;
+    private MockFragmentBuilder mMockFragmentBuilder;
+
+    @Before
+    public void setup() throws Exception {
+        mGateway = new StubGateway();
+        mMockFragmentBuilder = new MockFragmentBuilder()
+                .context(getContext(true, 0))
+                .configuration(new TestConfigurationBuilder()
+                        .threeDSecureEnabled(true)
+                        .merchantAccountId("merchant-account-id")
+                        .build());
+    }
+
+    @After
+    public void tearDown() {
+        mGateway.stop();
+    }
+
+    @Test
+    public void performVerification_withCardBuilder_postsNonceWhenLookupDoesNotRequireAChallenge() throws Exception {
+        mGateway.respond(TOKENIZE_PATH, 201, stringFromFixture("payment_methods/visa_credit_card_response.json"), 0)
+                .respond(LOOKUP_PATH, 201, getLookupResponse(null), 0);
+        BraintreeFragment fragment = build(mMockFragmentBuilder);
+
+        ThreeDSecure.performVerification(fragment, getCardBuilder(), "10");
+
+        ArgumentCaptor<PaymentMethodNonce> captor = ArgumentCaptor.forClass(PaymentMethodNonce.class);
+        verify(fragment, timeout(5000)).postCallback(captor.capture());
+        assertEquals("lookup-nonce", captor.getValue().getNonce());
+        assertEquals(Arrays.asList("POST " + TOKENIZE_PATH, "POST " + LOOKUP_PATH), mGateway.getRequests());
+    }
+
+    @Test
+    public void performVerification_withCardBuilder_startsChallengeWhenLookupReturnsAnAcsUrl() throws Exception {
+        mGateway.respond(TOKENIZE_PATH, 201, stringFromFixture("payment_methods/visa_credit_card_response.json"), 0)
+                .respond(LOOKUP_PATH, 201, getLookupResponse("https://acs-url/"), 0);
+        BraintreeFragment fragment = build(mMockFragmentBuilder);
+
+        ThreeDSecure.performVerification(fragment, getCardBuilder(), "10");
+
+        ArgumentCaptor<Intent> captor = ArgumentCaptor.forClass(Intent.class);
+        verify(fragment, timeout(5000)).startActivityForResult(captor.capture(),
+                eq(BraintreeRequestCodes.THREE_D_SECURE));
+        assertEquals(ThreeDSecureWebViewActivity.class.getName(), captor.getValue().getComponent().getClassName());
+    }
+
+    @Test
+    public void performVerification_withCardBuilder_postsExceptionWhenNotEnabledWithoutTokenizing() throws Exception {
+        BraintreeFragment fragment = build(new MockFragmentBuilder()
+                .configuration(new TestConfigurationBuilder()
+                        .threeDSecureEnabled(false)
+                        .build()));
+
+        ThreeDSecure.performVerification(fragment, getCardBuilder(), "10");
+
+        ArgumentCaptor<Exception> captor = ArgumentCaptor.forClass(Exception.class);
+        verify(fragment).postCallback(captor.capture());
+        assertEquals("Three D Secure is not enabled in the control panel", captor.getValue().getMessage());
+        assertEquals(Collections.emptyList(), mGateway.getRequests());
+    }
+
+    @Test
+    public void performVerification_withCardBuilder_postsTokenizationErrorWithoutLookup() throws Exception {
+        mGateway.respond(TOKENIZE_PATH, 422, stringFromFixture("errors/credit_card_error_response.json"), 0);
+        BraintreeFragment fragment = build(mMockFragmentBuilder);
+
+        ThreeDSecure.performVerification(fragment, getCardBuilder(), "10");
+
+        ArgumentCaptor<Exception> captor = ArgumentCaptor.forClass(Exception.class);
+        verify(fragment, timeout(5000)).postCallback(captor.capture());
+        assertTrue(captor.getValue() instanceof ErrorWithResponse);
+        assertEquals(Collections.singletonList("POST " + TOKENIZE_PATH), mGateway.getRequests());
+    }
+
+    @Test
+    public void performVerification_withCardBuilder_postsManifestExceptionWithoutLookup() throws Exception {
+        mGateway.respond(TOKENIZE_PATH, 201, stringFromFixture("payment_methods/visa_credit_card_response.json"), 0);
+        BraintreeFragment fragment = build(mMockFragmentBuilder.context(getContext(false, 0)));
+
+        ThreeDSecure.performVerification(fragment, getCardBuilder(), "10");
+
+        ArgumentCaptor<Exception> captor = ArgumentCaptor.forClass(Exception.class);
+        verify(fragment, timeout(5000)).postCallback(captor.capture());
+        assertTrue(captor.getValue() instanceof BraintreeException);
+        assertTrue(captor.getValue().getMessage().startsWith("ThreeDSecureWebViewActivity"));
+        assertEquals(Collections.singletonList("POST " + TOKENIZE_PATH), mGateway.getRequests());
+        verify(fragment, never()).startActivityForResult(any(Intent.class), anyInt());
+    }
+
+    /**
+     * Tokenization, manifest validation and lookup each take {@code delay}. With the manifest validated while the
+     * card is tokenized and the lookup made as soon as tokenization completes, verification takes two delays
+     * rather than three.
+     */
+    @Test
+    public void performVerification_withCardBuilder_validatesManifestWhileTokenizingAgainstStubGateway()
+            throws Exception {
+        final long delay = 500;
+        mGateway.respond(TOKENIZE_PATH, 201, stringFromFixture("payment_methods/visa_credit_card_response.json"),
+                delay)
+                .respond(LOOKUP_PATH, 201, getLookupResponse(null), delay);
+        BraintreeFragment fragment = build(mMockFragmentBuilder.context(getContext(true, delay)));
+
+        long start = System.nanoTime();
+        ThreeDSecure.performVerification(fragment, getCardBuilder(), "10");
+        ArgumentCaptor<PaymentMethodNonce> captor = ArgumentCaptor.forClass(PaymentMethodNonce.class);
+        verify(fragment, timeout(5000)).postCallback(captor.capture());
+        long elapsed = (System.nanoTime() - start) / 1000000;
+
+        assertEquals("lookup-nonce", captor.getValue().getNonce());
+        assertTrue("Verification took " + elapsed + "ms", elapsed >= 2 * delay);
+        assertTrue("Verification took " + elapsed + "ms", elapsed < 3 * delay);
+    }
+
+    private BraintreeFragment build(MockFragmentBuilder mockFragmentBuilder) throws Exception {
+        BraintreeFragment fragment = mockFragmentBuilder.build();
+        BraintreeHttpClient httpClient = new BraintreeHttpClient(Authorization.fromString(TOKENIZATION_KEY));
+        httpClient.setBaseUrl(mGateway.getBaseUrl());
+        when(fragment.getHttpClient()).thenReturn(httpClient);
+        return fragment;
+    }
+
+    /**
+     * @return a {@link Context} that declares {@link ThreeDSecureWebViewActivity} in its manifest or not, and takes
+     * {@code delayMillis} to return its {@link PackageManager}.
+     */
+    private static Context getContext(boolean activityDeclared, final long delayMillis) throws Exception {
+        final PackageManager packageManager = mock(PackageManager.class);
+        if (activityDeclared) {
+            ActivityInfo activityInfo = new ActivityInfo();
+            activityInfo.name = ThreeDSecureWebViewActivity.class.getName();
+            PackageInfo packageInfo = new PackageInfo();
+            packageInfo.activities = new ActivityInfo[] { activityInfo };
+            when(packageManager.getPackageInfo(anyString(), anyInt())).thenReturn(packageInfo);
+        } else {
+            when(packageManager.getPackageInfo(anyString(), anyInt()))
+                    .thenThrow(new PackageManager.NameNotFoundException());
+        }
+
+        Context context = mock(Context.class);
+        when(context.getPackageName()).thenReturn(RuntimeEnvironment.application.getPackageName());
+        doAnswer(new Answer<PackageManager>() {
+            @Override
+            public PackageManager answer(InvocationOnMock invocation) throws Throwable {
+                Thread.sleep(delayMillis);
+                return packageManager;
+            }
+        }).when(context).getPackageManager();
+        return context;
+    }
+
+    private static CardBuilder getCardBuilder() {
+        return new CardBuilder()
+                .cardNumber("4000000000000002")
+                .expirationDate("12/20");
+    }
+
+    private static String getLookupResponse(String acsUrl) throws Exception {
+        return new JSONObject()
+                .put("lookup", new JSONObject()
+                        .put("acsUrl", acsUrl == null ? JSONObject.NULL : acsUrl)
+                        .put("md", "merchant-descriptor")
+                        .put("termUrl", "https://term-url/")
+                        .put("pareq", "pareq"))
+                .put("paymentMethod", new JSONObject()
+                        .put("type", "CreditCard")
+                        .put("nonce", "lookup-nonce")
+                        .put("description", "ending in 02")
+                        .put("details", new JSONObject()
+                                .put("cardType", "Visa")
+                                .put("lastTwo", "02")))
+                .toString();
+    }
+}
@@ -1,18 +1,46 @@
 package com.braintreepayments.api;
 
+import com.braintreepayments.api.exceptions.ErrorWithResponse;
+import com.braintreepayments.api.exceptions.UnexpectedException;
+import com.braintreepayments.api.interfaces.BatchTokenizationCallback;
+import com.braintreepayments.api.interfaces.ConfigurationListener;
 import com.braintreepayments.api.interfaces.HttpResponseCallback;
+import com.braintreepayments.api.interfaces.JsonRequestBody;
+import com.braintreepayments.api.interfaces.PaymentMethodNonceCallback;
+import com.braintreepayments.api.internal.BraintreeHttpClient;
+import com.braintreepayments.api.models.Authorization;
 import com.braintreepayments.api.models.CardBuilder;
+import com.braintreepayments.api.models.CardNonce;
+import com.braintreepayments.api.models.PaymentMethodBuilder;
+import com.braintreepayments.api.models.PaymentMethodNonce;
+import com.braintreepayments.api.test.StubGateway;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.robolectric.RobolectricTestRunner;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.braintreepayments.testutils.FixturesHelper.stringFromFixture;
+import static com.braintreepayments.testutils.TestTokenizationKey.TOKENIZATION_KEY;
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -26,9 +54,182 @@ public class TokenizationClientUnitTest {
 
         TokenizationClient.tokenize(fragment, new CardBuilder(), null);
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<PaymentMethodBuilder> captor = ArgumentCaptor.forClass(PaymentMethodBuilder.class);
         verify(fragment.getHttpClient()).post(anyString(), captor.capture(), any(HttpResponseCallback.class));
-        JSONObject data = new JSONObject(captor.getValue()).getJSONObject("_meta");
+        JSONObject data = new JSONObject(captor.getValue().build()).getJSONObject("_meta");
         assertEquals("session-id", data.getString("sessionId"));
     }
+
+    @Test
+    public void tokenize_failsWithoutRequestWhenLocalValidationFails() {
+        BraintreeFragment fragment = new MockFragmentBuilder().build();
+        PaymentMethodNonceCallback callback = mock(PaymentMethodNonceCallback.class);
+
+        TokenizationClient.tokenize(fragment, new CardBuilder().validateLocally(true), callback);
+
+        ArgumentCaptor<Exception> captor = ArgumentCaptor.forClass(Exception.class);
+        verify(callback).failure(captor.capture());
+        assertEquals("Credit card number is required",
+                ((ErrorWithResponse) captor.getValue()).errorFor("number").getMessage());
+        verify(fragment.getHttpClient(), never()).post(anyString(), any(JsonRequestBody.class), any(HttpResponseCallback.class));
+    }
+
+    @Test
+    public void tokenize_batch_waitsForConfigurationOnce() {
+        BraintreeFragment fragment = new MockFragmentBuilder()
+                .successResponse(stringFromFixture("payment_methods/visa_credit_card_response.json"))
+                .build();
+
+        TokenizationClient.tokenize(fragment, Arrays.asList(new CardBuilder(), new CardBuilder(), new CardBuilder()),
+                mock(BatchTokenizationCallback.class));
+
+        verify(fragment, times(1)).waitForConfiguration(any(ConfigurationListener.class));
+        verify(fragment.getHttpClient(), times(3)).post(anyString(), any(JsonRequestBody.class), any(HttpResponseCallback.class));
+    }
+
+    @Test
+    public void tokenize_batch_limitsConcurrentRequests() {
+        BraintreeFragment fragment = new MockFragmentBuilder().build();
+        List<CardBuilder> cardBuilders = new ArrayList<>();
+        for (int i = 0; i < TokenizationClient.MAX_CONCURRENT_BATCH_REQUESTS + 2; i++) {
+            cardBuilders.add(new CardBuilder());
+        }
+
+        TokenizationClient.tokenize(fragment, cardBuilders, mock(BatchTokenizationCallback.class));
+
+        ArgumentCaptor<HttpResponseCallback> captor = ArgumentCaptor.forClass(HttpResponseCallback.class);
+        verify(fragment.getHttpClient(), times(TokenizationClient.MAX_CONCURRENT_BATCH_REQUESTS))
+                .post(anyString(), any(JsonRequestBody.class), captor.capture());
+
+        captor.getAllValues().get(0).failure(new UnexpectedException("error"));
+
+        verify(fragment.getHttpClient(), times(TokenizationClient.MAX_CONCURRENT_BATCH_REQUESTS + 1))
+                .post(anyString(), any(JsonRequestBody.class), any(HttpResponseCallback.class));
+    }
+
+    @Test
+    public void tokenize_batch_returnsResultsInOrderWithPartialFailures() {
+        BraintreeFragment fragment = new MockFragmentBuilder().build();
+        final ErrorWithResponse error = new ErrorWithResponse(422,
+                stringFromFixture("errors/credit_card_error_response.json"));
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                String body = ((PaymentMethodBuilder) invocation.getArguments()[1]).build();
+                HttpResponseCallback callback = (HttpResponseCallback) invocation.getArguments()[2];
+                if (body.contains("4111111111111111")) {
+                    callback.success(stringFromFixture("payment_methods/visa_credit_card_response.json"));
+                } else {
+                    callback.failure(error);
+                }
+                return null;
+            }
+        }).when(fragment.getHttpClient()).post(anyString(), any(JsonRequestBody.class), any(HttpResponseCallback.class));
+        BatchTokenizationCallback callback = mock(BatchTokenizationCallback.class);
+
+        TokenizationClient.tokenize(fragment, Arrays.asList(new CardBuilder().cardNumber("4111111111111111"),
+                new CardBuilder().cardNumber("1234"), new CardBuilder().cardNumber("4111111111111111")), callback);
+
+        ArgumentCaptor<List> noncesCaptor = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List> exceptionsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(callback).onComplete(noncesCaptor.capture(), exceptionsCaptor.capture());
+        List nonces = noncesCaptor.getValue();
+        List exceptions = exceptionsCaptor.getValue();
+        assertEquals(3, nonces.size());
+        assertEquals(3, exceptions.size());
+        assertTrue(nonces.get(0) instanceof CardNonce);
+        assertNull(exceptions.get(0));
+        assertNull(nonces.get(1));
+        assertEquals(error, exceptions.get(1));
+        assertTrue(nonces.get(2) instanceof CardNonce);
+        assertNull(exceptions.get(2));
+    }
+
+    @Test
+    public void tokenize_batch_completesOnceWhenEveryRequestCompletesSynchronously() {
+        BraintreeFragment fragment = new MockFragmentBuilder()
+                .successResponse(stringFromFixture("payment_methods/visa_credit_card_response.json"))
+                .build();
+        List<CardBuilder> cardBuilders = new ArrayList<>();
+        for (int i = 0; i < TokenizationClient.MAX_CONCURRENT_BATCH_REQUESTS * 3; i++) {
+            cardBuilders.add(new CardBuilder());
+        }
+        BatchTokenizationCallback callback = mock(BatchTokenizationCallback.class);
+
+        TokenizationClient.tokenize(fragment, cardBuilders, callback);
+
+        verify(fragment.getHttpClient(), times(cardBuilders.size()))
+                .post(anyString(), any(JsonRequestBody.class), any(HttpResponseCallback.class));
+        ArgumentCaptor<List> noncesCaptor = ArgumentCaptor.forClass(List.class);
+        verify(callback, times(1)).onComplete(noncesCaptor.capture(), any(List.class));
+        assertEquals(cardBuilders.size(), noncesCaptor.getValue().size());
+    }
+
+    @Test
+    public void tokenize_batch_continuesPastCardsThatFailLocalValidation() {
+        BraintreeFragment fragment = new MockFragmentBuilder()
+                .successResponse(stringFromFixture("payment_methods/visa_credit_card_response.json"))
+                .build();
+        List<CardBuilder> cardBuilders = new ArrayList<>();
+        for (int i = 0; i < TokenizationClient.MAX_CONCURRENT_BATCH_REQUESTS + 2; i++) {
+            cardBuilders.add(new CardBuilder().validateLocally(true));
+        }
+        cardBuilders.add(new CardBuilder().cardNumber("4111111111111111"));
+        BatchTokenizationCallback callback = mock(BatchTokenizationCallback.class);
+
+        TokenizationClient.tokenize(fragment, cardBuilders, callback);
+
+        ArgumentCaptor<List> noncesCaptor = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List> exceptionsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(callback, times(1)).onComplete(noncesCaptor.capture(), exceptionsCaptor.capture());
+        List exceptions = exceptionsCaptor.getValue();
+        for (int i = 0; i < cardBuilders.size() - 1; i++) {
+            assertTrue(exceptions.get(i) instanceof ErrorWithResponse);
+        }
+        assertTrue(noncesCaptor.getValue().get(cardBuilders.size() - 1) instanceof CardNonce);
+        verify(fragment.getHttpClient(), times(1))
+                .post(anyString(), any(JsonRequestBody.class), any(HttpResponseCallback.class));
+    }
+
+    @Test
+    public void tokenize_batch_limitsConcurrentRequestsAgainstStubGateway() throws Exception {
+        StubGateway gateway = new StubGateway()
+                .respond("/v1/payment_methods/credit_cards", 201,
+                        stringFromFixture("payment_methods/visa_credit_card_response.json"), 200);
+        try {
+            BraintreeFragment fragment = new MockFragmentBuilder().build();
+            BraintreeHttpClient httpClient = new BraintreeHttpClient(Authorization.fromString(TOKENIZATION_KEY));
+            httpClient.setBaseUrl(gateway.getBaseUrl());
+            when(fragment.getHttpClient()).thenReturn(httpClient);
+            List<CardBuilder> cardBuilders = new ArrayList<>();
+            for (int i = 0; i < TokenizationClient.MAX_CONCURRENT_BATCH_REQUESTS * 2 + 1; i++) {
+                cardBuilders.add(new CardBuilder().cardNumber("4111111111111111"));
+            }
+            BatchTokenizationCallback callback = mock(BatchTokenizationCallback.class);
+
+            TokenizationClient.tokenize(fragment, cardBuilders, callback);
+
+            ArgumentCaptor<List> noncesCaptor = ArgumentCaptor.forClass(List.class);
+            verify(callback, timeout(10000)).onComplete(noncesCaptor.capture(), any(List.class));
+            for (Object nonce : noncesCaptor.getValue()) {
+                assertTrue(nonce instanceof CardNonce);
+            }
+            assertEquals(cardBuilders.size(), gateway.getRequests().size());
+            assertTrue(gateway.getMaxOpenConnections() > 1);
+            assertTrue(gateway.getMaxOpenConnections() <= TokenizationClient.MAX_CONCURRENT_BATCH_REQUESTS);
+        } finally {
+            gateway.stop();
+        }
+    }
+
+    @Test
+    public void tokenize_batch_returnsEmptyResultsForEmptyList() {
+        BraintreeFragment fragment = new MockFragmentBuilder().build();
+        BatchTokenizationCallback callback = mock(BatchTokenizationCallback.class);
+
+        TokenizationClient.tokenize(fragment, new ArrayList<CardBuilder>(), callback);
+
+        verify(callback).onComplete(Collections.<PaymentMethodNonce>emptyList(), Collections.<Exception>emptyList());
+        verify(fragment.getHttpClient(), never()).post(anyString(), any(JsonRequestBody.class), any(HttpResponseCallback.class));
+    }
 }
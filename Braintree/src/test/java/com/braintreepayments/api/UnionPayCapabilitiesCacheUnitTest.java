@@ -0,0 +1,99 @@
+package com.braintreepayments.api;
+
+import com.braintreepayments.api.models.Configuration;
+import com.braintreepayments.api.models.UnionPayCapabilities;
+
+import org.json.JSONException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static com.braintreepayments.testutils.CardNumber.UNIONPAY_CREDIT;
+import static com.braintreepayments.testutils.FixturesHelper.stringFromFixture;
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@RunWith(RobolectricTestRunner.class)
+public class UnionPayCapabilitiesCacheUnitTest {
+
+    private static final String SCOPE = "sandbox/merchant-id";
+
+    @Before
+    public void setup() {
+        UnionPayCapabilitiesCache.reset();
+    }
+
+    @Test
+    public void getKey_returnsNullForShortOrInvalidCardNumbers() {
+        assertNull(UnionPayCapabilitiesCache.getKey(SCOPE, null));
+        assertNull(UnionPayCapabilitiesCache.getKey(SCOPE, "62123"));
+        assertNull(UnionPayCapabilitiesCache.getKey(SCOPE, "6212 3456"));
+    }
+
+    @Test
+    public void getKey_usesSixDigitBinUntilEightDigitsAreEntered() {
+        assertEquals(SCOPE + "|bin:621234", UnionPayCapabilitiesCache.getKey(SCOPE, "621234"));
+        assertEquals(SCOPE + "|bin:621234", UnionPayCapabilitiesCache.getKey(SCOPE, "6212345"));
+        assertEquals(SCOPE + "|bin:62123456", UnionPayCapabilitiesCache.getKey(SCOPE, "62123456"));
+        assertEquals(SCOPE + "|bin:62123456", UnionPayCapabilitiesCache.getKey(SCOPE, "621234567890123"));
+    }
+
+    @Test
+    public void getKey_hashesCompleteCardNumbers() {
+        String key = UnionPayCapabilitiesCache.getKey(SCOPE, UNIONPAY_CREDIT);
+
+        assertTrue(key.startsWith(SCOPE + "|number:"));
+        assertFalse(key.contains(UNIONPAY_CREDIT));
+    }
+
+    @Test
+    public void addWaitingFragment_returnsTrueWhileRequestIsInFlight() {
+        BraintreeFragment fragment = mock(BraintreeFragment.class);
+        BraintreeFragment otherFragment = mock(BraintreeFragment.class);
+
+        assertFalse(UnionPayCapabilitiesCache.addWaitingFragment(SCOPE + "|bin:62123456", fragment));
+        assertTrue(UnionPayCapabilitiesCache.addWaitingFragment(SCOPE + "|bin:62123456", otherFragment));
+        assertEquals(2, UnionPayCapabilitiesCache.remove(SCOPE + "|bin:62123456").size());
+        assertFalse(UnionPayCapabilitiesCache.addWaitingFragment(SCOPE + "|bin:62123456", fragment));
+    }
+
+    @Test
+    public void put_evictsLeastRecentlyUsedEntries() {
+        UnionPayCapabilities capabilities =
+                UnionPayCapabilities.fromJson(stringFromFixture("unionpay_capabilities_success_response.json"));
+        for (int i = 0; i <= UnionPayCapabilitiesCache.MAX_ENTRIES; i++) {
+            UnionPayCapabilitiesCache.put(UnionPayCapabilitiesCache.getKey(SCOPE, String.valueOf(10000000 + i)),
+                    capabilities);
+            assertNotNull(UnionPayCapabilitiesCache.get(SCOPE, "10000000"));
+        }
+
+        assertNotNull(UnionPayCapabilitiesCache.get(SCOPE, "10000000"));
+        assertNull(UnionPayCapabilitiesCache.get(SCOPE, "10000001"));
+        assertNotNull(UnionPayCapabilitiesCache.get(SCOPE, "100000" + UnionPayCapabilitiesCache.MAX_ENTRIES));
+    }
+
+    @Test
+    public void getScope_includesEnvironmentAndMerchantId() throws JSONException {
+        Configuration configuration =
+                Configuration.fromJson(stringFromFixture("configuration_with_unionpay.json"));
+
+        assertEquals(configuration.getEnvironment() + "/" + configuration.getMerchantId(),
+                UnionPayCapabilitiesCache.getScope(configuration));
+    }
+
+    @Test
+    public void get_doesNotReturnCapabilitiesCachedForAnotherScope() {
+        UnionPayCapabilities capabilities =
+                UnionPayCapabilities.fromJson(stringFromFixture("unionpay_capabilities_success_response.json"));
+        UnionPayCapabilitiesCache.put(UnionPayCapabilitiesCache.getKey(SCOPE, "62123456"), capabilities);
+
+        assertNotNull(UnionPayCapabilitiesCache.get(SCOPE, "62123456"));
+        assertNull(UnionPayCapabilitiesCache.get("production/merchant-id", "62123456"));
+        assertNull(UnionPayCapabilitiesCache.get("sandbox/other-merchant-id", "62123456"));
+    }
+}
@@ -6,15 +6,18 @@ import com.braintreepayments.api.exceptions.BraintreeException;
 import com.braintreepayments.api.exceptions.ConfigurationException;
 import com.braintreepayments.api.exceptions.ErrorWithResponse;
 import com.braintreepayments.api.interfaces.HttpResponseCallback;
+import com.braintreepayments.api.interfaces.JsonRequestBody;
 import com.braintreepayments.api.interfaces.PaymentMethodNonceCallback;
 import com.braintreepayments.api.internal.BraintreeHttpClient;
 import com.braintreepayments.api.models.CardNonce;
 import com.braintreepayments.api.models.Configuration;
+import com.braintreepayments.api.models.PaymentMethodBuilder;
 import com.braintreepayments.api.models.UnionPayCapabilities;
 import com.braintreepayments.api.models.UnionPayCardBuilder;
 
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -25,6 +28,7 @@ import org.mockito.stubbing.Answer;
 import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.rule.PowerMockRule;
+import org.robolectric.Robolectric;
 import org.robolectric.RobolectricTestRunner;
 
 import static com.braintreepayments.testutils.CardNumber.UNIONPAY_CREDIT;
@@ -38,6 +42,8 @@ import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.powermock.api.mockito.PowerMockito.doAnswer;
 import static org.powermock.api.mockito.PowerMockito.mockStatic;
@@ -51,17 +57,25 @@ public class UnionPayUnitTest {
     @Rule
     public PowerMockRule mPowerMockRule = new PowerMockRule();
 
+    private static final String NOT_UNIONPAY_CAPABILITIES = "{\"isUnionPay\": false}";
+
     private BraintreeFragment mBraintreeFragment;
     private Configuration mConfigurationWithUnionPay;
 
     @Before
     public void setup() throws JSONException {
+        UnionPayCapabilitiesCache.reset();
         mConfigurationWithUnionPay = Configuration.fromJson(stringFromFixture("configuration_with_unionpay.json"));
         mBraintreeFragment = new MockFragmentBuilder()
                 .configuration(mConfigurationWithUnionPay)
                 .build();
     }
 
+    @After
+    public void tearDown() {
+        UnionPay.setCapabilitiesDebounce(0);
+    }
+
     @Test
     public void tokenize_sendsAnalyticsEventOnTokenizeResult() {
         mockSuccessCallback();
@@ -102,14 +116,14 @@ public class UnionPayUnitTest {
         BraintreeHttpClient httpClient = mock(BraintreeHttpClient.class);
         doNothing().when(httpClient).get(anyString(), any(HttpResponseCallback.class));
         when(mBraintreeFragment.getHttpClient()).thenReturn(httpClient);
-        ArgumentCaptor<String> argumentCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<PaymentMethodBuilder> argumentCaptor = ArgumentCaptor.forClass(PaymentMethodBuilder.class);
 
         UnionPay.tokenize(mBraintreeFragment, unionPayCardBuilder);
 
         verify(httpClient).post(eq("/v1/payment_methods/credit_cards"), argumentCaptor.capture(),
                 any(HttpResponseCallback.class));
 
-        JSONObject tokenizePayload = new JSONObject(argumentCaptor.getValue());
+        JSONObject tokenizePayload = new JSONObject(argumentCaptor.getValue().build());
         JSONObject creditCardPayload = tokenizePayload.getJSONObject("creditCard");
         JSONObject optionsPayload = creditCardPayload.getJSONObject("options");
         JSONObject unionPayEnrollmentPayload = optionsPayload.getJSONObject("unionPayEnrollment");
@@ -137,14 +151,14 @@ public class UnionPayUnitTest {
         BraintreeHttpClient httpClient = mock(BraintreeHttpClient.class);
         doNothing().when(httpClient).get(anyString(), any(HttpResponseCallback.class));
         when(mBraintreeFragment.getHttpClient()).thenReturn(httpClient);
-        ArgumentCaptor<String> argumentCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<PaymentMethodBuilder> argumentCaptor = ArgumentCaptor.forClass(PaymentMethodBuilder.class);
 
         UnionPay.tokenize(mBraintreeFragment, unionPayCardBuilder);
 
         verify(httpClient).post(eq("/v1/payment_methods/credit_cards"), argumentCaptor.capture(),
                 any(HttpResponseCallback.class));
 
-        JSONObject tokenizePayload = new JSONObject(argumentCaptor.getValue());
+        JSONObject tokenizePayload = new JSONObject(argumentCaptor.getValue().build());
         JSONObject creditCardPayload = tokenizePayload.getJSONObject("creditCard");
         JSONObject optionsPayload = creditCardPayload.getJSONObject("options");
         JSONObject unionPayEnrollmentPayload = optionsPayload.getJSONObject("unionPayEnrollment");
@@ -236,14 +250,14 @@ public class UnionPayUnitTest {
         BraintreeHttpClient httpClient = mock(BraintreeHttpClient.class);
         doNothing().when(httpClient).get(anyString(), any(HttpResponseCallback.class));
         when(mBraintreeFragment.getHttpClient()).thenReturn(httpClient);
-        ArgumentCaptor<String> argumentCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<JsonRequestBody> argumentCaptor = ArgumentCaptor.forClass(JsonRequestBody.class);
 
         UnionPay.enroll(mBraintreeFragment, unionPayCardBuilder);
 
         verify(httpClient).post(eq("/v1/union_pay_enrollments"), argumentCaptor.capture(),
                 any(HttpResponseCallback.class));
 
-        JSONObject enrollmentPayload = new JSONObject(argumentCaptor.getValue());
+        JSONObject enrollmentPayload = new JSONObject(argumentCaptor.getValue().toString());
         JSONObject unionPayEnrollmentPayload = enrollmentPayload.getJSONObject("unionPayEnrollment");
 
         assertFalse(unionPayEnrollmentPayload.has("cvv"));
@@ -261,14 +275,14 @@ public class UnionPayUnitTest {
         BraintreeHttpClient httpClient = mock(BraintreeHttpClient.class);
         doNothing().when(httpClient).get(anyString(), any(HttpResponseCallback.class));
         when(mBraintreeFragment.getHttpClient()).thenReturn(httpClient);
-        ArgumentCaptor<String> argumentCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<JsonRequestBody> argumentCaptor = ArgumentCaptor.forClass(JsonRequestBody.class);
 
         UnionPay.enroll(mBraintreeFragment, unionPayCardBuilder);
 
         verify(httpClient).post(eq("/v1/union_pay_enrollments"), argumentCaptor.capture(),
                 any(HttpResponseCallback.class));
 
-        JSONObject enrollPayload = new JSONObject(argumentCaptor.getValue());
+        JSONObject enrollPayload = new JSONObject(argumentCaptor.getValue().toString());
         JSONObject unionPayEnrollment = enrollPayload.getJSONObject("unionPayEnrollment");
         assertEquals("someCardNumber", unionPayEnrollment.getString("number"));
         assertEquals("expirationMonth", unionPayEnrollment.getString("expirationMonth"));
@@ -370,6 +384,150 @@ public class UnionPayUnitTest {
     }
 
     /* helpers */
+    @Test
+    public void fetchCapabilities_fetchesOncePerBinForIncompleteCardNumbers() {
+        BraintreeFragment fragment = new MockFragmentBuilder()
+                .configuration(mConfigurationWithUnionPay)
+                .successResponse(stringFromFixture("unionpay_capabilities_success_response.json"))
+                .build();
+
+        UnionPay.fetchCapabilities(fragment, "62123456");
+        UnionPay.fetchCapabilities(fragment, "621234567");
+        UnionPay.fetchCapabilities(fragment, "6212345678");
+
+        verify(fragment.getHttpClient(), times(1)).get(anyString(), any(HttpResponseCallback.class));
+        verify(fragment, times(3)).postCallback(any(UnionPayCapabilities.class));
+    }
+
+    @Test
+    public void fetchCapabilities_fetchesAgainForADifferentBin() {
+        BraintreeFragment fragment = new MockFragmentBuilder()
+                .configuration(mConfigurationWithUnionPay)
+                .successResponse(stringFromFixture("unionpay_capabilities_success_response.json"))
+                .build();
+
+        UnionPay.fetchCapabilities(fragment, "62123456");
+        UnionPay.fetchCapabilities(fragment, "62123457");
+
+        verify(fragment.getHttpClient(), times(2)).get(anyString(), any(HttpResponseCallback.class));
+    }
+
+    @Test
+    public void fetchCapabilities_fetchesCompleteUnionPayCardNumberEvenWhenBinIsCached() {
+        BraintreeFragment fragment = new MockFragmentBuilder()
+                .configuration(mConfigurationWithUnionPay)
+                .successResponse(stringFromFixture("unionpay_capabilities_success_response.json"))
+                .build();
+
+        UnionPay.fetchCapabilities(fragment, UNIONPAY_CREDIT.substring(0, 10));
+        UnionPay.fetchCapabilities(fragment, UNIONPAY_CREDIT);
+        UnionPay.fetchCapabilities(fragment, UNIONPAY_CREDIT);
+
+        verify(fragment.getHttpClient()).get(eq(getCapabilitiesUrl(UNIONPAY_CREDIT.substring(0, 10))),
+                any(HttpResponseCallback.class));
+        verify(fragment.getHttpClient()).get(eq(getCapabilitiesUrl(UNIONPAY_CREDIT)),
+                any(HttpResponseCallback.class));
+        verify(fragment.getHttpClient(), times(2)).get(anyString(), any(HttpResponseCallback.class));
+    }
+
+    @Test
+    public void fetchCapabilities_usesBinForCompleteCardNumberWhenBinIsNotUnionPay() {
+        BraintreeFragment fragment = new MockFragmentBuilder()
+                .configuration(mConfigurationWithUnionPay)
+                .successResponse(NOT_UNIONPAY_CAPABILITIES)
+                .build();
+
+        UnionPay.fetchCapabilities(fragment, "4111111111");
+        UnionPay.fetchCapabilities(fragment, "4111111111111111");
+
+        verify(fragment.getHttpClient(), times(1)).get(anyString(), any(HttpResponseCallback.class));
+        ArgumentCaptor<UnionPayCapabilities> captor = ArgumentCaptor.forClass(UnionPayCapabilities.class);
+        verify(fragment, times(2)).postCallback(captor.capture());
+        assertFalse(captor.getValue().isUnionPay());
+    }
+
+    @Test
+    public void fetchCapabilities_sharesRequestThatIsInFlight() {
+        BraintreeFragment fragment = new MockFragmentBuilder()
+                .configuration(mConfigurationWithUnionPay)
+                .build();
+        BraintreeFragment otherFragment = new MockFragmentBuilder()
+                .configuration(mConfigurationWithUnionPay)
+                .build();
+        when(otherFragment.getHttpClient()).thenReturn(fragment.getHttpClient());
+
+        UnionPay.fetchCapabilities(fragment, "62123456");
+        UnionPay.fetchCapabilities(otherFragment, "621234567");
+
+        ArgumentCaptor<HttpResponseCallback> captor = ArgumentCaptor.forClass(HttpResponseCallback.class);
+        verify(fragment.getHttpClient()).get(anyString(), captor.capture());
+        verify(fragment, never()).postCallback(any(UnionPayCapabilities.class));
+
+        captor.getValue().success(stringFromFixture("unionpay_capabilities_success_response.json"));
+
+        verify(fragment).postCallback(any(UnionPayCapabilities.class));
+        verify(otherFragment).postCallback(any(UnionPayCapabilities.class));
+        verify(otherFragment).sendAnalyticsEvent("union-pay.capabilities-received");
+    }
+
+    @Test
+    public void fetchCapabilities_doesNotCacheFailures() {
+        RuntimeException expected = new RuntimeException("expected runtime exception");
+        BraintreeFragment fragment = new MockFragmentBuilder()
+                .configuration(mConfigurationWithUnionPay)
+                .errorResponse(expected)
+                .build();
+
+        UnionPay.fetchCapabilities(fragment, "62123456");
+        UnionPay.fetchCapabilities(fragment, "62123456");
+
+        verify(fragment.getHttpClient(), times(2)).get(anyString(), any(HttpResponseCallback.class));
+        verify(fragment, times(2)).postCallback(expected);
+    }
+
+    @Test
+    public void fetchCapabilities_fetchesAgainOnceCachedCapabilitiesExpire() {
+        BraintreeFragment fragment = new MockFragmentBuilder()
+                .configuration(mConfigurationWithUnionPay)
+                .successResponse(stringFromFixture("unionpay_capabilities_success_response.json"))
+                .build();
+
+        UnionPay.fetchCapabilities(fragment, "62123456");
+        Robolectric.getForegroundThreadScheduler().advanceBy(UnionPayCapabilitiesCache.TTL_MILLIS);
+        UnionPay.fetchCapabilities(fragment, "62123456");
+
+        verify(fragment.getHttpClient(), times(2)).get(anyString(), any(HttpResponseCallback.class));
+    }
+
+    @Test
+    public void fetchCapabilities_onlyFetchesLastCardNumberWithDebounce() {
+        UnionPay.setCapabilitiesDebounce(300);
+        BraintreeFragment fragment = new MockFragmentBuilder()
+                .configuration(mConfigurationWithUnionPay)
+                .successResponse(stringFromFixture("unionpay_capabilities_success_response.json"))
+                .build();
+
+        UnionPay.fetchCapabilities(fragment, "62123");
+        UnionPay.fetchCapabilities(fragment, "621234");
+        UnionPay.fetchCapabilities(fragment, "6212345");
+
+        verify(fragment.getHttpClient(), never()).get(anyString(), any(HttpResponseCallback.class));
+
+        Robolectric.getForegroundThreadScheduler().advanceBy(300);
+
+        verify(fragment.getHttpClient()).get(eq(getCapabilitiesUrl("6212345")), any(HttpResponseCallback.class));
+        verify(fragment.getHttpClient(), times(1)).get(anyString(), any(HttpResponseCallback.class));
+        verify(fragment, times(1)).postCallback(any(UnionPayCapabilities.class));
+    }
+
+    private static String getCapabilitiesUrl(String cardNumber) {
+        return Uri.parse("/v1/payment_methods/credit_cards/capabilities")
+                .buildUpon()
+                .appendQueryParameter("creditCard[number]", cardNumber)
+                .build()
+                .toString();
+    }
+
     private void mockSuccessCallback() {
         mockStatic(TokenizationClient.class);
         doAnswer(new Answer<Void>() {
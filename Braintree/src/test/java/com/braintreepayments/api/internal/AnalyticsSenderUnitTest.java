@@ -8,6 +8,7 @@ import com.braintreepayments.api.Venmo;
 import com.braintreepayments.api.exceptions.InvalidArgumentException;
 import com.braintreepayments.api.exceptions.ServerException;
 import com.braintreepayments.api.interfaces.HttpResponseCallback;
+import com.braintreepayments.api.interfaces.JsonRequestBody;
 import com.braintreepayments.api.models.Authorization;
 import com.paypal.android.sdk.onetouch.core.PayPalOneTouchCore;
 
@@ -71,10 +72,10 @@ public class AnalyticsSenderUnitTest {
 
         AnalyticsSender.send(RuntimeEnvironment.application, mAuthorization, mHttpClient, "", true);
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<JsonRequestBody> captor = ArgumentCaptor.forClass(JsonRequestBody.class);
         verify(mHttpClient).post(anyString(), captor.capture());
 
-        JSONObject object = new JSONObject(captor.getValue());
+        JSONObject object = new JSONObject(captor.getValue().toString());
         JSONObject meta = object.getJSONObject("_meta");
 
         assertEquals("Android", meta.getString("platform"));
@@ -108,10 +109,10 @@ public class AnalyticsSenderUnitTest {
 
         AnalyticsSender.send(RuntimeEnvironment.application, mAuthorization, mHttpClient, "", true);
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<JsonRequestBody> captor = ArgumentCaptor.forClass(JsonRequestBody.class);
         verify(mHttpClient).post(anyString(), captor.capture());
 
-        JSONObject analyticsJson = new JSONObject(captor.getValue());
+        JSONObject analyticsJson = new JSONObject(captor.getValue().toString());
         JSONArray array = analyticsJson.getJSONArray("analytics");
         assertEquals(2, array.length());
         JSONObject eventOne = array.getJSONObject(0);
@@ -131,20 +132,20 @@ public class AnalyticsSenderUnitTest {
 
         AnalyticsSender.send(RuntimeEnvironment.application, mAuthorization, mHttpClient, "", true);
 
-        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<JsonRequestBody> captor = ArgumentCaptor.forClass(JsonRequestBody.class);
         verify(mHttpClient, times(2)).post(anyString(), captor.capture());
 
-        List<String> values = captor.getAllValues();
+        List<JsonRequestBody> values = captor.getAllValues();
         assertEquals(2, values.size());
 
-        JSONObject requestJson = new JSONObject(values.get(0));
+        JSONObject requestJson = new JSONObject(values.get(0).toString());
         assertEquals(1, requestJson.getJSONArray("analytics").length());
         JSONObject analyticsEvent = requestJson.getJSONArray("analytics").getJSONObject(0);
         JSONObject meta = requestJson.getJSONObject("_meta");
         assertEquals("android.custom.started", analyticsEvent.getString("kind"));
         assertEquals("sessionId", meta.getString("sessionId"));
 
-        requestJson = new JSONObject(values.get(1));
+        requestJson = new JSONObject(values.get(1).toString());
         assertEquals(1, requestJson.getJSONArray("analytics").length());
         analyticsEvent = requestJson.getJSONArray("analytics").getJSONObject(0);
         meta = requestJson.getJSONObject("_meta");
@@ -160,7 +161,7 @@ public class AnalyticsSenderUnitTest {
         database.addEvent(one);
         database.addEvent(two);
 
-        when(mHttpClient.post(anyString(), anyString())).thenReturn("");
+        when(mHttpClient.post(anyString(), any(JsonRequestBody.class))).thenReturn("");
 
         AnalyticsSender.send(RuntimeEnvironment.application, mAuthorization, mHttpClient, "", true);
 
@@ -182,7 +183,7 @@ public class AnalyticsSenderUnitTest {
                 ((HttpResponseCallback) invocation.getArguments()[2]).success("");
                 return null;
             }
-        }).when(mHttpClient).post(anyString(), anyString(), any(HttpResponseCallback.class));
+        }).when(mHttpClient).post(anyString(), any(JsonRequestBody.class), any(HttpResponseCallback.class));
 
         AnalyticsSender.send(RuntimeEnvironment.application, mAuthorization, mHttpClient, "", false);
 
@@ -198,7 +199,7 @@ public class AnalyticsSenderUnitTest {
         database.addEvent(one);
         database.addEvent(two);
 
-        when(mHttpClient.post(anyString(), anyString())).thenThrow(ServerException.class);
+        when(mHttpClient.post(anyString(), any(JsonRequestBody.class))).thenThrow(ServerException.class);
 
         AnalyticsSender.send(RuntimeEnvironment.application, mAuthorization, mHttpClient, "", true);
 
@@ -220,7 +221,7 @@ public class AnalyticsSenderUnitTest {
                 ((HttpResponseCallback) invocation.getArguments()[2]).failure(new ServerException(""));
                 return null;
             }
-        }).when(mHttpClient).post(anyString(), anyString(), any(HttpResponseCallback.class));
+        }).when(mHttpClient).post(anyString(), any(JsonRequestBody.class), any(HttpResponseCallback.class));
 
         AnalyticsSender.send(RuntimeEnvironment.application, mAuthorization, mHttpClient, "", false);
 
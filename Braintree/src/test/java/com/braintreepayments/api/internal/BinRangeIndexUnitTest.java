@@ -0,0 +1,134 @@
+package com.braintreepayments.api.internal;
+
+import com.braintreepayments.api.models.CardType;
+
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static com.braintreepayments.testutils.CardNumber.AMEX;
+import static com.braintreepayments.testutils.CardNumber.INVALID_VISA;
+import static com.braintreepayments.testutils.CardNumber.UNIONPAY_CREDIT;
+import static com.braintreepayments.testutils.CardNumber.UNIONPAY_INTEGRATION_CREDIT;
+import static com.braintreepayments.testutils.CardNumber.VISA;
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class BinRangeIndexUnitTest {
+
+    @Test
+    public void getCardType_detectsCardTypes() {
+        assertEquals(CardType.VISA, BinRangeIndex.getCardType(VISA));
+        assertEquals(CardType.MASTERCARD, BinRangeIndex.getCardType("5555555555554444"));
+        assertEquals(CardType.MASTERCARD, BinRangeIndex.getCardType("2221000000000009"));
+        assertEquals(CardType.MASTERCARD, BinRangeIndex.getCardType("2720990000000000"));
+        assertEquals(CardType.AMEX, BinRangeIndex.getCardType(AMEX));
+        assertEquals(CardType.DISCOVER, BinRangeIndex.getCardType("6011111111111117"));
+        assertEquals(CardType.DISCOVER, BinRangeIndex.getCardType("6445644564456445"));
+        assertEquals(CardType.JCB, BinRangeIndex.getCardType("3530111333300000"));
+        assertEquals(CardType.DINERS_CLUB, BinRangeIndex.getCardType("30569309025904"));
+        assertEquals(CardType.DINERS_CLUB, BinRangeIndex.getCardType("38520000023237"));
+        assertEquals(CardType.MAESTRO, BinRangeIndex.getCardType("6304000000000000"));
+        assertEquals(CardType.MAESTRO, BinRangeIndex.getCardType("6759649826438453"));
+        assertEquals(CardType.UNIONPAY, BinRangeIndex.getCardType(UNIONPAY_CREDIT));
+        assertEquals(CardType.UNIONPAY, BinRangeIndex.getCardType(UNIONPAY_INTEGRATION_CREDIT));
+    }
+
+    @Test
+    public void getCardType_detectsCardTypeFromPartialCardNumbers() {
+        assertEquals(CardType.UNKNOWN, BinRangeIndex.getCardType(""));
+        assertEquals(CardType.VISA, BinRangeIndex.getCardType("4"));
+        assertEquals(CardType.UNKNOWN, BinRangeIndex.getCardType("2"));
+        assertEquals(CardType.UNKNOWN, BinRangeIndex.getCardType("222"));
+        assertEquals(CardType.MASTERCARD, BinRangeIndex.getCardType("2221"));
+        assertEquals(CardType.UNKNOWN, BinRangeIndex.getCardType("2220"));
+        assertEquals(CardType.MASTERCARD, BinRangeIndex.getCardType("2720"));
+        assertEquals(CardType.UNKNOWN, BinRangeIndex.getCardType("2721"));
+        assertEquals(CardType.UNKNOWN, BinRangeIndex.getCardType("35"));
+        assertEquals(CardType.JCB, BinRangeIndex.getCardType("3528"));
+        assertEquals(CardType.UNKNOWN, BinRangeIndex.getCardType("3590"));
+    }
+
+    @Test
+    public void getCardType_ignoresSpacesAndDashes() {
+        assertEquals(CardType.AMEX, BinRangeIndex.getCardType("3782 822463 10005"));
+        assertEquals(CardType.VISA, BinRangeIndex.getCardType("4111-1111-1111-1111"));
+    }
+
+    @Test
+    public void getCardType_returnsUnknownForInvalidCharactersAndNull() {
+        assertEquals(CardType.UNKNOWN, BinRangeIndex.getCardType(null));
+        assertEquals(CardType.UNKNOWN, BinRangeIndex.getCardType("4a"));
+        assertEquals(CardType.UNKNOWN, BinRangeIndex.getCardType("0000"));
+    }
+
+    @Test
+    public void getDigitCount_countsDigits() {
+        assertEquals(0, BinRangeIndex.getDigitCount(null));
+        assertEquals(16, BinRangeIndex.getDigitCount("4111 1111 1111 1111"));
+        assertEquals(-1, BinRangeIndex.getDigitCount("4111.1111"));
+    }
+
+    @Test
+    public void isLuhnValid_checksDigits() {
+        assertTrue(BinRangeIndex.isLuhnValid(VISA));
+        assertTrue(BinRangeIndex.isLuhnValid("4111 1111 1111 1111"));
+        assertFalse(BinRangeIndex.isLuhnValid(INVALID_VISA));
+        assertFalse(BinRangeIndex.isLuhnValid(""));
+        assertFalse(BinRangeIndex.isLuhnValid(null));
+        assertFalse(BinRangeIndex.isLuhnValid("41111111111111x1"));
+    }
+
+    @Test
+    public void isValid_checksLengthForCardTypeAndLuhn() {
+        assertTrue(BinRangeIndex.isValid(VISA));
+        assertTrue(BinRangeIndex.isValid(AMEX));
+        assertFalse(BinRangeIndex.isValid(INVALID_VISA));
+        assertFalse(BinRangeIndex.isValid("411111111111"));
+        assertFalse(BinRangeIndex.isValid("3782822463100050"));
+        assertFalse(BinRangeIndex.isValid(null));
+    }
+
+    @Test
+    public void isValid_doesNotRequireLuhnForUnionPay() {
+        assertTrue(BinRangeIndex.isValid("6212345678901231"));
+        assertFalse(BinRangeIndex.isValid("621234567890123"));
+    }
+
+    /**
+     * Card numbers are checked on every keystroke, so lookups must not allocate.
+     */
+    @Test
+    public void lookups_doNotAllocate() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocationMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        long threadId = Thread.currentThread().getId();
+        String[] cardNumbers = { "4", "41", "4111 1111", VISA, AMEX, UNIONPAY_CREDIT, "2720990000000000" };
+
+        int valid = lookUp(cardNumbers, 10000);
+        long allocatedBefore = allocationMXBean.getThreadAllocatedBytes(threadId);
+        valid += lookUp(cardNumbers, 100000);
+        long allocated = allocationMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        assertTrue(valid > 0);
+        assertTrue("Allocated " + allocated + " bytes", allocated < 4096);
+    }
+
+    private static int lookUp(String[] cardNumbers, int iterations) {
+        int valid = 0;
+        for (int i = 0; i < iterations; i++) {
+            String cardNumber = cardNumbers[i % cardNumbers.length];
+            if (BinRangeIndex.getCardType(cardNumber) != CardType.UNKNOWN && BinRangeIndex.isValid(cardNumber)) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+}
@@ -0,0 +1,15 @@
+package com.braintreepayments.api.internal;
+
+public class BraintreeFileCacheTestUtils {
+
+    public static void waitForWrites() {
+        try {
+            BraintreeFileCache.sExecutor.submit(new Runnable() {
+                @Override
+                public void run() {}
+            }).get();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
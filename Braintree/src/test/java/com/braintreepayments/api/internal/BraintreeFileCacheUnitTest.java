@@ -0,0 +1,220 @@
+package com.braintreepayments.api.internal;
+
+import android.content.SharedPreferences;
+import android.util.Base64;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static com.braintreepayments.testutils.SharedPreferencesHelper.clearSharedPreferences;
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+public class BraintreeFileCacheUnitTest {
+
+    private SharedPreferences mPrefs;
+
+    @Before
+    public void setup() {
+        clearSharedPreferences(RuntimeEnvironment.application);
+        mPrefs = BraintreeSharedPreferences.getSharedPreferences(RuntimeEnvironment.application);
+    }
+
+    @Test
+    public void get_returnsNullWhenThereIsNoEntry() {
+        assertNull(BraintreeFileCache.get(RuntimeEnvironment.application, "key"));
+    }
+
+    @Test
+    public void get_returnsValueAndTimestampOfPut() throws Exception {
+        long before = System.currentTimeMillis();
+        BraintreeFileCache.put(RuntimeEnvironment.application, "key", "value \u00e9");
+        waitForWrites();
+
+        BraintreeFileCache.Entry entry = BraintreeFileCache.get(RuntimeEnvironment.application, "key");
+
+        assertEquals("value \u00e9", entry.getValue());
+        assertTrue(entry.getTimestamp() >= before);
+        assertTrue(entry.getTimestamp() <= System.currentTimeMillis());
+    }
+
+    @Test
+    public void put_replacesExistingEntry() throws Exception {
+        BraintreeFileCache.put(RuntimeEnvironment.application, "key", "first");
+        BraintreeFileCache.put(RuntimeEnvironment.application, "key", "second");
+        waitForWrites();
+
+        assertEquals("second", BraintreeFileCache.get(RuntimeEnvironment.application, "key").getValue());
+    }
+
+    @Test
+    public void put_keepsEntriesForDifferentKeysSeparate() throws Exception {
+        BraintreeFileCache.put(RuntimeEnvironment.application, "https://example.com/config?a", "a");
+        BraintreeFileCache.put(RuntimeEnvironment.application, "https://example.com/config?b", "b");
+        waitForWrites();
+
+        assertEquals("a", BraintreeFileCache.get(RuntimeEnvironment.application, "https://example.com/config?a")
+                .getValue());
+        assertEquals("b", BraintreeFileCache.get(RuntimeEnvironment.application, "https://example.com/config?b")
+                .getValue());
+    }
+
+    @Test
+    public void put_doesNotWriteToSharedPreferences() throws Exception {
+        BraintreeFileCache.put(RuntimeEnvironment.application, "key", getLargeValue(100 * 1024));
+        waitForWrites();
+
+        assertTrue(getSize(mPrefs) < 256);
+    }
+
+    @Test
+    public void get_migratesCachedValuesOutOfSharedPreferences() throws Exception {
+        String encodedKey = Base64.encodeToString("key".getBytes(), 0);
+        mPrefs.edit()
+                .putString(encodedKey, "value")
+                .putLong(encodedKey + "_timestamp", 1000)
+                .putString("braintreeUUID", "uuid")
+                .putBoolean("com.braintreepayments.api.Venmo.VAULT_VENMO_KEY", true)
+                .putString("com.braintreepayments.api.PayPal.REQUEST_KEY", "request")
+                .putString("com.braintreepayments.api.PayPal.REQUEST_TYPE_KEY", "CheckoutRequest")
+                .putString("com.braintreepayments.api.PayPal.PAYPAL_REQUEST_KEY", "paypal-request")
+                .commit();
+
+        BraintreeFileCache.get(RuntimeEnvironment.application, "other-key");
+        waitForWrites();
+
+        BraintreeFileCache.Entry entry = BraintreeFileCache.get(RuntimeEnvironment.application, "key");
+        assertEquals("value", entry.getValue());
+        assertEquals(1000, entry.getTimestamp());
+        assertFalse(mPrefs.contains(encodedKey));
+        assertFalse(mPrefs.contains(encodedKey + "_timestamp"));
+        assertFalse(mPrefs.contains("com.braintreepayments.api.PayPal.REQUEST_KEY"));
+        assertFalse(mPrefs.contains("com.braintreepayments.api.PayPal.REQUEST_TYPE_KEY"));
+        assertFalse(mPrefs.contains("com.braintreepayments.api.PayPal.PAYPAL_REQUEST_KEY"));
+        assertEquals("uuid", mPrefs.getString("braintreeUUID", null));
+        assertTrue(mPrefs.getBoolean("com.braintreepayments.api.Venmo.VAULT_VENMO_KEY", false));
+    }
+
+    @Test
+    public void get_returnsMigratedValueBeforeItIsWritten() throws Exception {
+        String encodedKey = Base64.encodeToString("key".getBytes(), 0);
+        mPrefs.edit()
+                .putString(encodedKey, "value")
+                .putLong(encodedKey + "_timestamp", 1000)
+                .commit();
+        CountDownLatch writesBlocked = blockWrites();
+
+        try {
+            BraintreeFileCache.Entry entry = BraintreeFileCache.get(RuntimeEnvironment.application, "key");
+
+            assertEquals("value", entry.getValue());
+            assertEquals(1000, entry.getTimestamp());
+        } finally {
+            writesBlocked.countDown();
+        }
+        waitForWrites();
+
+        assertEquals("value", BraintreeFileCache.get(RuntimeEnvironment.application, "key").getValue());
+    }
+
+    @Test
+    public void get_returnsPutValueBeforeItIsWritten() throws Exception {
+        CountDownLatch writesBlocked = blockWrites();
+
+        try {
+            BraintreeFileCache.put(RuntimeEnvironment.application, "key", "value");
+
+            assertEquals("value", BraintreeFileCache.get(RuntimeEnvironment.application, "key").getValue());
+        } finally {
+            writesBlocked.countDown();
+        }
+    }
+
+    @Test
+    public void get_doesNotReplaceNewerEntryWhenMigrating() throws Exception {
+        BraintreeFileCache.put(RuntimeEnvironment.application, "key", "new-value");
+        waitForWrites();
+        String encodedKey = Base64.encodeToString("key".getBytes(), 0);
+        mPrefs.edit()
+                .clear()
+                .putString(encodedKey, "old-value")
+                .putLong(encodedKey + "_timestamp", 1000)
+                .commit();
+
+        BraintreeFileCache.get(RuntimeEnvironment.application, "other-key");
+        waitForWrites();
+
+        assertEquals("new-value", BraintreeFileCache.get(RuntimeEnvironment.application, "key").getValue());
+    }
+
+    /**
+     * SharedPreferences are loaded in full on first access, so their size is the cost of the first read of any
+     * small value such as the persistent UUID.
+     */
+    @Test
+    public void firstRead_onlyLoadsSmallValuesFromSharedPreferences() throws Exception {
+        for (int size : new int[] { 1024, 10 * 1024, 100 * 1024 }) {
+            String legacyKey = Base64.encodeToString(("config-" + size).getBytes(), 0);
+            mPrefs.edit()
+                    .putString(legacyKey, getLargeValue(size))
+                    .putLong(legacyKey + "_timestamp", System.currentTimeMillis())
+                    .commit();
+        }
+        UUIDHelper.getPersistentUUID(RuntimeEnvironment.application);
+        int legacySize = getSize(mPrefs);
+
+        BraintreeFileCache.get(RuntimeEnvironment.application, "config-1024");
+        BraintreeFileCache.put(RuntimeEnvironment.application, "config-1024", getLargeValue(1024));
+        waitForWrites();
+        int size = getSize(mPrefs);
+
+        assertTrue(legacySize > 100 * 1024);
+        assertTrue(size < 256);
+        assertEquals(getLargeValue(100 * 1024),
+                BraintreeFileCache.get(RuntimeEnvironment.application, "config-" + (100 * 1024)).getValue());
+    }
+
+    private static int getSize(SharedPreferences prefs) {
+        int size = 0;
+        for (Map.Entry<String, ?> entry : prefs.getAll().entrySet()) {
+            size += entry.getKey().length() + String.valueOf(entry.getValue()).length();
+        }
+        return size;
+    }
+
+    private static String getLargeValue(int size) {
+        char[] value = new char[size];
+        Arrays.fill(value, 'a');
+        return new String(value);
+    }
+
+    private static CountDownLatch blockWrites() {
+        final CountDownLatch latch = new CountDownLatch(1);
+        BraintreeFileCache.sExecutor.submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    latch.await();
+                } catch (InterruptedException ignored) {}
+            }
+        });
+        return latch;
+    }
+
+    private static void waitForWrites() throws Exception {
+        BraintreeFileCache.sExecutor.submit(new Runnable() {
+            @Override
+            public void run() {}
+        }).get();
+    }
+}
@@ -0,0 +1,89 @@
+package com.braintreepayments.api.internal;
+
+import android.util.JsonWriter;
+
+import com.braintreepayments.api.interfaces.JsonRequestBody;
+import com.braintreepayments.api.models.Authorization;
+import com.braintreepayments.api.models.CardBuilder;
+import com.braintreepayments.api.models.ClientToken;
+import com.braintreepayments.api.test.StubGateway;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.io.IOException;
+
+import static com.braintreepayments.testutils.CardNumber.VISA;
+import static com.braintreepayments.testutils.FixturesHelper.stringFromFixture;
+import static com.braintreepayments.testutils.TestTokenizationKey.TOKENIZATION_KEY;
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+
+@RunWith(RobolectricTestRunner.class)
+public class BraintreeHttpClientUnitTest {
+
+    private StubGateway mGateway;
+
+    @Before
+    public void setup() throws IOException {
+        mGateway = new StubGateway()
+                .respond("/v1/test", 200, "{}", 0);
+    }
+
+    @After
+    public void tearDown() {
+        mGateway.stop();
+    }
+
+    @Test
+    public void post_writesJsonRequestBodyWithAuthorizationFingerprint() throws Exception {
+        ClientToken clientToken = (ClientToken) Authorization.fromString(stringFromFixture("client_token.json"));
+        BraintreeHttpClient httpClient = getHttpClient(clientToken);
+
+        httpClient.post("/v1/test", new JsonRequestBody() {
+            @Override
+            public void writeMembers(JsonWriter writer) throws IOException {
+                writer.name("key").value("value");
+            }
+        });
+
+        JSONObject body = new JSONObject(mGateway.getRequestBodies().get(0));
+        assertEquals(2, body.length());
+        assertEquals("value", body.getString("key"));
+        assertEquals(clientToken.getAuthorizationFingerprint(), body.getString("authorizationFingerprint"));
+    }
+
+    @Test
+    public void post_doesNotWriteAuthorizationFingerprintForTokenizationKey() throws Exception {
+        BraintreeHttpClient httpClient = getHttpClient(Authorization.fromString(TOKENIZATION_KEY));
+
+        httpClient.post("/v1/test", new CardBuilder().cardNumber(VISA));
+
+        assertFalse(new JSONObject(mGateway.getRequestBodies().get(0)).has("authorizationFingerprint"));
+    }
+
+    @Test
+    public void post_writesPaymentMethodBuilderAsBuilt() throws Exception {
+        CardBuilder cardBuilder = new CardBuilder()
+                .cardNumber(VISA)
+                .expirationDate("12/20")
+                .postalCode("12345")
+                .validate(true);
+        BraintreeHttpClient httpClient = getHttpClient(Authorization.fromString(TOKENIZATION_KEY));
+
+        httpClient.post("/v1/test", cardBuilder);
+
+        assertEquals(new JSONObject(cardBuilder.build()).toString(),
+                new JSONObject(mGateway.getRequestBodies().get(0)).toString());
+    }
+
+    private BraintreeHttpClient getHttpClient(Authorization authorization) {
+        BraintreeHttpClient httpClient = new BraintreeHttpClient(authorization);
+        httpClient.setBaseUrl(mGateway.getBaseUrl());
+        return httpClient;
+    }
+}
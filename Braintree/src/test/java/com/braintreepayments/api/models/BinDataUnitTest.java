@@ -49,6 +49,15 @@ public class BinDataUnitTest {
         assertEquals("", binData.getProductId());
     }
 
+    @Test
+    public void parsesCorrectly_ifJsonIsNull() {
+        BinData binData = BinData.fromJson(null);
+
+        assertEquals(UNKNOWN, binData.getPrepaid());
+        assertEquals(UNKNOWN, binData.getDebit());
+        assertEquals("", binData.getIssuingBank());
+    }
+
     @Test
     public void isParcelable() throws JSONException {
         BinData binData = BinData.fromJson(new JSONObject(stringFromFixture("bin_data.json")));
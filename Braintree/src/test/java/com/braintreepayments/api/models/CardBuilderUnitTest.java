@@ -1,14 +1,27 @@
 package com.braintreepayments.api.models;
 
+import android.os.Parcel;
+
+import com.braintreepayments.api.exceptions.ErrorWithResponse;
+import com.braintreepayments.testutils.TestConfigurationBuilder;
+
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
+import org.skyscreamer.jsonassert.JSONAssert;
+import org.skyscreamer.jsonassert.JSONCompareMode;
 
+import java.util.Calendar;
+
+import static com.braintreepayments.testutils.CardNumber.AMEX;
+import static com.braintreepayments.testutils.CardNumber.INVALID_VISA;
 import static com.braintreepayments.testutils.CardNumber.VISA;
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
 
 @RunWith(RobolectricTestRunner.class)
 public class CardBuilderUnitTest {
@@ -173,4 +186,127 @@ public class CardBuilderUnitTest {
         assertFalse(new JSONObject(cardBuilder.build()).getJSONObject(CREDIT_CARD_KEY).keys().hasNext());
         assertFalse(new JSONObject(cardBuilder.build()).has(BILLING_ADDRESS_KEY));
     }
+
+    @Test
+    public void build_writesSameJsonAsJsonObjectBuild() throws JSONException {
+        CardBuilder cardBuilder = new CardBuilder()
+                .cardNumber(VISA)
+                .expirationMonth("01")
+                .expirationYear("2015")
+                .cvv("123")
+                .cardholderName("Joe Smith")
+                .postalCode("12345")
+                .countryName("Some Country")
+                .validate(true);
+        JSONObject json = new JSONObject();
+        JSONObject paymentMethodNonceJson = new JSONObject()
+                .put("options", new JSONObject().put("validate", true));
+
+        cardBuilder.build(json, paymentMethodNonceJson);
+
+        JSONAssert.assertEquals(json.getJSONObject(CREDIT_CARD_KEY),
+                new JSONObject(cardBuilder.build()).getJSONObject(CREDIT_CARD_KEY), JSONCompareMode.STRICT);
+    }
+
+    @Test
+    public void getValidationErrors_returnsNullForValidCard() {
+        CardBuilder cardBuilder = new CardBuilder()
+                .cardNumber(VISA)
+                .expirationDate("06/2018")
+                .cvv("123");
+
+        assertNull(cardBuilder.getValidationErrors(null, getCalendar(2018, Calendar.JUNE)));
+    }
+
+    @Test
+    public void getValidationErrors_returnsErrorsInGatewayFormat() throws JSONException {
+        CardBuilder cardBuilder = new CardBuilder()
+                .cardNumber(INVALID_VISA)
+                .expirationDate("05/18")
+                .cvv("1234");
+
+        ErrorWithResponse error = cardBuilder.getValidationErrors(null, getCalendar(2018, Calendar.JUNE));
+
+        assertEquals(422, error.getStatusCode());
+        assertEquals("Credit card is invalid", error.getMessage());
+        assertEquals(3, error.errorFor(CREDIT_CARD_KEY).getFieldErrors().size());
+        assertEquals("Credit card number is invalid", error.errorFor("number").getMessage());
+        assertEquals("Expiration date is invalid", error.errorFor("expirationDate").getMessage());
+        assertEquals("CVV must be 4 digits for American Express and 3 digits for other card types",
+                error.errorFor("cvv").getMessage());
+        assertEquals("Credit card number is invalid", ErrorWithResponse.fromJson(error.getErrorResponse())
+                .errorFor("number").getMessage());
+    }
+
+    @Test
+    public void getValidationErrors_requiresNumberAndExpirationDate() {
+        ErrorWithResponse error = new CardBuilder().getValidationErrors(null, getCalendar(2018, Calendar.JUNE));
+
+        assertEquals("Credit card number is required", error.errorFor("number").getMessage());
+        assertEquals("Expiration date is required", error.errorFor("expirationDate").getMessage());
+        assertNull(error.errorFor("cvv"));
+    }
+
+    @Test
+    public void getValidationErrors_checksExpirationMonthAndYear() {
+        Calendar now = getCalendar(2018, Calendar.JUNE);
+        CardBuilder cardBuilder = new CardBuilder().cardNumber(VISA);
+
+        assertNull(cardBuilder.expirationMonth("6").expirationYear("2018").getValidationErrors(null, now));
+        assertNull(cardBuilder.expirationMonth("01").expirationYear("19").getValidationErrors(null, now));
+        assertEquals("Expiration month is invalid", cardBuilder.expirationMonth("05").expirationYear("2018")
+                .getValidationErrors(null, now).errorFor("expirationMonth").getMessage());
+        assertEquals("Expiration month is invalid", cardBuilder.expirationMonth("13").expirationYear("2019")
+                .getValidationErrors(null, now).errorFor("expirationMonth").getMessage());
+        assertEquals("Expiration year is invalid", cardBuilder.expirationMonth("12").expirationYear("2017")
+                .getValidationErrors(null, now).errorFor("expirationYear").getMessage());
+        assertEquals("Expiration year is invalid", cardBuilder.expirationMonth("12").expirationYear("201")
+                .getValidationErrors(null, now).errorFor("expirationYear").getMessage());
+    }
+
+    @Test
+    public void getValidationErrors_checksCvvLengthForCardType() {
+        Calendar now = getCalendar(2018, Calendar.JUNE);
+        CardBuilder cardBuilder = new CardBuilder().expirationDate("12/20");
+
+        assertNull(cardBuilder.cardNumber(AMEX).cvv("1234").getValidationErrors(null, now));
+        assertTrue(cardBuilder.cardNumber(AMEX).cvv("123").getValidationErrors(null, now).errorFor("cvv") != null);
+        assertTrue(cardBuilder.cardNumber(VISA).cvv("12a").getValidationErrors(null, now).errorFor("cvv") != null);
+    }
+
+    @Test
+    public void getValidationErrors_requiresCvvAndPostalCodeWhenChallengesArePresent() {
+        Calendar now = getCalendar(2018, Calendar.JUNE);
+        Configuration configuration = new TestConfigurationBuilder()
+                .challenges("cvv", "postal_code")
+                .buildConfiguration();
+        CardBuilder cardBuilder = new CardBuilder()
+                .cardNumber(VISA)
+                .expirationDate("12/20");
+
+        ErrorWithResponse error = cardBuilder.getValidationErrors(configuration, now);
+
+        assertEquals("CVV is required", error.errorFor("cvv").getMessage());
+        assertEquals("Postal code is required",
+                error.errorFor("billingAddress").errorFor("postalCode").getMessage());
+        assertNull(cardBuilder.cvv("123").postalCode("12345").getValidationErrors(configuration, now));
+    }
+
+    @Test
+    public void validateLocally_isParceled() {
+        CardBuilder cardBuilder = new CardBuilder().validateLocally(true);
+
+        Parcel parcel = Parcel.obtain();
+        cardBuilder.writeToParcel(parcel, 0);
+        parcel.setDataPosition(0);
+
+        assertTrue(CardBuilder.CREATOR.createFromParcel(parcel).isValidatedLocally());
+        assertFalse(new CardBuilder().isValidatedLocally());
+    }
+
+    private static Calendar getCalendar(int year, int month) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(year, month, 15);
+        return calendar;
+    }
 }
@@ -3,6 +3,7 @@ package com.braintreepayments.api.models;
 import android.os.Parcel;
 
 import org.json.JSONException;
+import org.json.JSONObject;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
@@ -40,6 +41,21 @@ public class CardNonceUnitTest {
         assertEquals("123", cardNonce.getBinData().getProductId());
     }
 
+    @Test
+    public void fromJsonObject_parsesResponsesAndSingleCards() throws JSONException {
+        JSONObject response = new JSONObject(stringFromFixture("payment_methods/visa_credit_card_response.json"));
+        JSONObject card = new JSONObject(stringFromFixture("payment_methods/visa_credit_card.json"));
+
+        CardNonce responseCardNonce = CardNonce.fromJsonObject(response);
+        CardNonce cardNonce = CardNonce.fromJsonObject(card);
+
+        assertEquals("123456-12345-12345-a-adfa", responseCardNonce.getNonce());
+        assertEquals("11", responseCardNonce.getLastTwo());
+        assertEquals("Something", responseCardNonce.getBinData().getCountryOfIssuance());
+        assertEquals("11", cardNonce.getLastTwo());
+        assertNotNull(cardNonce.getThreeDSecureInfo());
+    }
+
     @Test
     public void parcelsCorrectly() throws JSONException {
         CardNonce cardNonce = CardNonce.fromJson(stringFromFixture("payment_methods/visa_credit_card_response.json"));
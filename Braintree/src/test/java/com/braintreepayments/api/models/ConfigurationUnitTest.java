@@ -7,11 +7,14 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 import static com.braintreepayments.testutils.FixturesHelper.stringFromFixture;
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertNotNull;
 import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
 import static junit.framework.Assert.assertTrue;
 
 @RunWith(RobolectricTestRunner.class)
@@ -189,4 +192,37 @@ public class ConfigurationUnitTest {
 
         assertFalse(configuration.getVisaCheckout().isEnabled());
     }
+
+    @Test
+    public void featureConfigurations_areOnlyCreatedOnce() throws JSONException {
+        Configuration configuration = Configuration.fromJson(stringFromFixture("configuration.json"));
+
+        assertSame(configuration.getAnalytics(), configuration.getAnalytics());
+        assertSame(configuration.getCardConfiguration(), configuration.getCardConfiguration());
+        assertSame(configuration.getPayPal(), configuration.getPayPal());
+        assertSame(configuration.getAndroidPay(), configuration.getAndroidPay());
+        assertSame(configuration.getPayWithVenmo(), configuration.getPayWithVenmo());
+        assertSame(configuration.getKount(), configuration.getKount());
+        assertSame(configuration.getUnionPay(), configuration.getUnionPay());
+        assertSame(configuration.getVisaCheckout(), configuration.getVisaCheckout());
+    }
+
+    @Test
+    public void featureConfigurations_areCreatedOnFirstAccessFromAnotherThread() throws Exception {
+        final Configuration configuration = Configuration.fromJson(
+                stringFromFixture("configuration_with_analytics.json"));
+        final AtomicReference<AnalyticsConfiguration> analyticsConfiguration = new AtomicReference<>();
+
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                analyticsConfiguration.set(configuration.getAnalytics());
+            }
+        });
+        thread.start();
+        thread.join();
+
+        assertTrue(analyticsConfiguration.get().isEnabled());
+        assertSame(analyticsConfiguration.get(), configuration.getAnalytics());
+    }
 }
@@ -1,11 +1,15 @@
 package com.braintreepayments.api.models;
 
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.junit.Assume;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.List;
 
 import static com.braintreepayments.api.models.PaymentMethodNonce.parsePaymentMethodNonces;
@@ -125,4 +129,85 @@ public class PaymentMethodNonceUnitTest {
         assertTrue(paymentMethodNonce instanceof AndroidPayCardNonce);
         assertEquals("11", ((AndroidPayCardNonce) paymentMethodNonce).getLastTwo());
     }
+
+    @Test
+    public void parsePaymentMethods_parsesFiveHundredPaymentMethods() throws JSONException {
+        JSONArray fixture = new JSONObject(stringFromFixture("payment_methods/get_payment_methods_response.json"))
+                .getJSONArray("paymentMethods");
+        JSONArray paymentMethods = new JSONArray();
+        for (int i = 0; i < 500; i++) {
+            paymentMethods.put(fixture.getJSONObject(i % fixture.length()));
+        }
+        String response = new JSONObject()
+                .put("paymentMethods", paymentMethods)
+                .toString();
+
+        List<PaymentMethodNonce> paymentMethodNonces = parsePaymentMethodNonces(response);
+
+        assertEquals(500, paymentMethodNonces.size());
+        assertTrue(paymentMethodNonces.get(496) instanceof CardNonce);
+        assertTrue(paymentMethodNonces.get(497) instanceof PayPalAccountNonce);
+        assertTrue(paymentMethodNonces.get(498) instanceof AndroidPayCardNonce);
+        assertTrue(paymentMethodNonces.get(499) instanceof VenmoAccountNonce);
+        assertEquals("happy-venmo-joe", ((VenmoAccountNonce) paymentMethodNonces.get(499)).getUsername());
+    }
+
+    @Test
+    public void parsePaymentMethods_skipsUnknownKeys() throws JSONException {
+        JSONObject response = new JSONObject(stringFromFixture("payment_methods/get_payment_methods_response.json"));
+        String json = "{\"unknown\": {\"nested\": [1, 2.5, null, true]}, \"paymentMethods\": "
+                + response.getJSONArray("paymentMethods").toString() + "}";
+
+        List<PaymentMethodNonce> paymentMethodNonces = parsePaymentMethodNonces(json);
+
+        assertEquals(4, paymentMethodNonces.size());
+    }
+
+    @Test(expected = JSONException.class)
+    public void parsePaymentMethods_throwsWhenPaymentMethodsAreMissing() throws JSONException {
+        parsePaymentMethodNonces("{}");
+    }
+
+    @Test(expected = JSONException.class)
+    public void parsePaymentMethods_throwsForMalformedJson() throws JSONException {
+        parsePaymentMethodNonces("{\"paymentMethods\": [");
+    }
+
+    /**
+     * Tokenization responses are already parsed when they reach the nonce, so only the nonce and its details should
+     * be allocated, not a second copy of the response.
+     */
+    @Test
+    public void parsePaymentMethod_allocatesLessThanReparsingTokenizeResponses() throws JSONException {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocationMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        long threadId = Thread.currentThread().getId();
+        JSONObject response = new JSONObject(stringFromFixture("payment_methods/visa_credit_card_response.json"));
+        int iterations = 10000;
+
+        parse(response, iterations, false);
+        parse(response, iterations, true);
+
+        long allocatedBefore = allocationMXBean.getThreadAllocatedBytes(threadId);
+        parse(response, iterations, false);
+        long parsedAllocated = allocationMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        allocatedBefore = allocationMXBean.getThreadAllocatedBytes(threadId);
+        parse(response, iterations, true);
+        long reparsedAllocated = allocationMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        assertTrue("Allocated " + (parsedAllocated / iterations) + " bytes per response, "
+                        + (reparsedAllocated / iterations) + " bytes when re-parsing",
+                parsedAllocated * 2 < reparsedAllocated);
+    }
+
+    private static void parse(JSONObject response, int iterations, boolean reparse) throws JSONException {
+        for (int i = 0; i < iterations; i++) {
+            PaymentMethodNonce paymentMethodNonce = reparse ?
+                    parsePaymentMethodNonces(response.toString(), CardNonce.TYPE) :
+                    parsePaymentMethodNonces(response, CardNonce.TYPE);
+            assertEquals("11", ((CardNonce) paymentMethodNonce).getLastTwo());
+        }
+    }
 }
@@ -5,6 +5,8 @@ import org.json.JSONObject;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
+import org.skyscreamer.jsonassert.JSONAssert;
+import org.skyscreamer.jsonassert.JSONCompareMode;
 
 import static com.braintreepayments.api.models.BaseCardBuilder.BILLING_ADDRESS_KEY;
 import static com.braintreepayments.api.models.BaseCardBuilder.CREDIT_CARD_KEY;
@@ -181,6 +183,27 @@ public class UnionPayCardBuilderUnitTest {
         assertEquals("sms-code", unionPayEnrollment.getString("smsCode"));
     }
 
+    @Test
+    public void build_writesSameJsonAsJsonObjectBuild() throws JSONException {
+        UnionPayCardBuilder unionPayCardBuilder = new UnionPayCardBuilder()
+                .cardNumber("card-number")
+                .expirationMonth("expiration-month")
+                .expirationYear("expiration-year")
+                .cvv("123")
+                .postalCode("12345")
+                .mobileCountryCode("mobile-country-code")
+                .mobilePhoneNumber("mobile-phone-number")
+                .enrollmentId("enrollment-id")
+                .smsCode("sms-code")
+                .validate(true);
+        JSONObject json = new JSONObject();
+
+        unionPayCardBuilder.build(json, new JSONObject());
+
+        JSONAssert.assertEquals(json.getJSONObject(CREDIT_CARD_KEY),
+                new JSONObject(unionPayCardBuilder.build()).getJSONObject(CREDIT_CARD_KEY), JSONCompareMode.STRICT);
+    }
+
     @Test
     public void build_doesNotIncludeValidate() throws JSONException {
         UnionPayCardBuilder unionPayCardBuilderValidateTrue = new UnionPayCardBuilder()
@@ -0,0 +1,43 @@
+package com.braintreepayments.api.shadows;
+
+import android.webkit.WebView;
+
+import org.robolectric.annotation.Implementation;
+import org.robolectric.annotation.Implements;
+import org.robolectric.shadows.ShadowWebView;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps a back stack of the urls loaded into a {@link WebView}, so that {@link WebView#canGoBack()} reflects
+ * {@link WebView#loadUrl(String)}, {@link WebView#postUrl(String, byte[])} and {@link WebView#clearHistory()}.
+ */
+@Implements(WebView.class)
+public class BraintreeShadowWebView extends ShadowWebView {
+
+    private final List<String> mHistory = new ArrayList<>();
+
+    @Implementation
+    public void loadUrl(String url) {
+        super.loadUrl(url);
+        mHistory.add(url);
+    }
+
+    @Implementation
+    public void postUrl(String url, byte[] postData) {
+        mHistory.add(url);
+    }
+
+    @Implementation
+    public void clearHistory() {
+        if (mHistory.size() > 1) {
+            mHistory.subList(0, mHistory.size() - 1).clear();
+        }
+    }
+
+    @Implementation
+    public boolean canGoBack() {
+        return mHistory.size() > 1;
+    }
+}
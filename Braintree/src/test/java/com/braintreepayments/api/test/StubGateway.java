@@ -0,0 +1,183 @@
+package com.braintreepayments.api.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A minimal HTTP server on localhost that answers requests with canned responses after a delay, to test requests
+ * end to end with a real {@link java.net.HttpURLConnection}. Each connection is handled on its own thread and
+ * closed after one response.
+ */
+public class StubGateway {
+
+    private final ServerSocket mServerSocket;
+    private final Map<String, Response> mResponses = Collections.synchronizedMap(new LinkedHashMap<String, Response>());
+    private final List<String> mRequests = Collections.synchronizedList(new ArrayList<String>());
+    private final List<String> mRequestBodies = Collections.synchronizedList(new ArrayList<String>());
+    private final AtomicInteger mOpenConnections = new AtomicInteger();
+    private final AtomicInteger mMaxOpenConnections = new AtomicInteger();
+
+    public StubGateway() throws IOException {
+        mServerSocket = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1"));
+
+        Thread acceptThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (!mServerSocket.isClosed()) {
+                    try {
+                        final Socket socket = mServerSocket.accept();
+                        new Thread(new Runnable() {
+                            @Override
+                            public void run() {
+                                handle(socket);
+                            }
+                        }).start();
+                    } catch (IOException ignored) {}
+                }
+            }
+        });
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + mServerSocket.getLocalPort();
+    }
+
+    /**
+     * Answers requests whose path ends with the suffix with the status code and body, after waiting for the delay.
+     * Requests that do not match any suffix are answered with a 404.
+     */
+    public StubGateway respond(String pathSuffix, int statusCode, String body, long delayMillis) {
+        mResponses.put(pathSuffix, new Response(statusCode, body, delayMillis));
+        return this;
+    }
+
+    /**
+     * @return the method and path of every request received so far, e.g. {@code POST /v1/payment_methods}, in the
+     * order they were received.
+     */
+    public List<String> getRequests() {
+        synchronized (mRequests) {
+            return new ArrayList<>(mRequests);
+        }
+    }
+
+    /**
+     * @return the body of every request received so far, in the order they were received.
+     */
+    public List<String> getRequestBodies() {
+        synchronized (mRequestBodies) {
+            return new ArrayList<>(mRequestBodies);
+        }
+    }
+
+    /**
+     * @return the largest number of connections that were open at the same time so far.
+     */
+    public int getMaxOpenConnections() {
+        return mMaxOpenConnections.get();
+    }
+
+    public void stop() {
+        try {
+            mServerSocket.close();
+        } catch (IOException ignored) {}
+    }
+
+    private void handle(Socket socket) {
+        int openConnections = mOpenConnections.incrementAndGet();
+        for (int max = mMaxOpenConnections.get(); openConnections > max; max = mMaxOpenConnections.get()) {
+            if (mMaxOpenConnections.compareAndSet(max, openConnections)) {
+                break;
+            }
+        }
+
+        try {
+            InputStream in = socket.getInputStream();
+            String[] requestLine = readLine(in).split(" ");
+            int contentLength = 0;
+            for (String header = readLine(in); !header.isEmpty(); header = readLine(in)) {
+                if (header.toLowerCase().startsWith("content-length:")) {
+                    contentLength = Integer.parseInt(header.substring("content-length:".length()).trim());
+                }
+            }
+            ByteArrayOutputStream requestBody = new ByteArrayOutputStream();
+            for (int i = 0, b; i < contentLength && (b = in.read()) != -1; i++) {
+                requestBody.write(b);
+            }
+
+            String path = requestLine[1].split("\\?")[0];
+            synchronized (mRequests) {
+                mRequests.add(requestLine[0] + " " + path);
+                mRequestBodies.add(requestBody.toString("UTF-8"));
+            }
+
+            Response response = getResponse(path);
+            if (response.mDelayMillis > 0) {
+                Thread.sleep(response.mDelayMillis);
+            }
+
+            byte[] body = response.mBody.getBytes("UTF-8");
+            OutputStream out = socket.getOutputStream();
+            out.write(("HTTP/1.1 " + response.mStatusCode + " Stub\r\n" +
+                    "Content-Type: application/json\r\n" +
+                    "Content-Length: " + body.length + "\r\n" +
+                    "Connection: close\r\n\r\n").getBytes("UTF-8"));
+            out.write(body);
+            out.flush();
+        } catch (IOException | InterruptedException | RuntimeException ignored) {
+        } finally {
+            try {
+                socket.close();
+            } catch (IOException ignored) {}
+            mOpenConnections.decrementAndGet();
+        }
+    }
+
+    private Response getResponse(String path) {
+        synchronized (mResponses) {
+            for (Map.Entry<String, Response> response : mResponses.entrySet()) {
+                if (path.endsWith(response.getKey())) {
+                    return response.getValue();
+                }
+            }
+        }
+
+        return new Response(404, "{}", 0);
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        for (int b = in.read(); b != -1 && b != '\n'; b = in.read()) {
+            if (b != '\r') {
+                line.write(b);
+            }
+        }
+        return line.toString("UTF-8");
+    }
+
+    private static class Response {
+
+        final int mStatusCode;
+        final String mBody;
+        final long mDelayMillis;
+
+        Response(int statusCode, String body, long delayMillis) {
+            mStatusCode = statusCode;
+            mBody = body;
+            mDelayMillis = delayMillis;
+        }
+    }
+}
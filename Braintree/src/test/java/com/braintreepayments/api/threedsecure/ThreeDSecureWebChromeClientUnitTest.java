@@ -9,6 +9,7 @@ import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.RuntimeEnvironment;
 
+import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
@@ -42,6 +43,22 @@ public class ThreeDSecureWebChromeClientUnitTest {
         verify(message).sendToTarget();
     }
 
+    @Test
+    public void onCreateWindow_doesNotUsePooledWebView() {
+        ThreeDSecureWebViewPool.setEnabled(RuntimeEnvironment.application, true);
+        try {
+            ThreeDSecureWebViewPool.prime();
+            Message message = mock(Message.class);
+            message.obj = mock(WebView.WebViewTransport.class);
+
+            mThreeDSecureWebChromeClient.onCreateWindow(null, false, false, message);
+
+            assertEquals(1, ThreeDSecureWebViewPool.getIdleWebViewCount());
+        } finally {
+            ThreeDSecureWebViewPool.setEnabled(RuntimeEnvironment.application, false);
+        }
+    }
+
     @Test
     public void onCloseWindow_popsCurrentWebView() {
         mThreeDSecureWebChromeClient.onCloseWindow(null);
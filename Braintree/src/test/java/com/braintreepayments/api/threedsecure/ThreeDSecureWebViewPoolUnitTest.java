@@ -0,0 +1,202 @@
+package com.braintreepayments.api.threedsecure;
+
+import android.app.Activity;
+import android.content.ComponentCallbacks2;
+import android.content.Intent;
+import android.content.MutableContextWrapper;
+import android.webkit.WebViewClient;
+
+import com.braintreepayments.api.models.ThreeDSecureLookup;
+import com.braintreepayments.api.shadows.BraintreeShadowCookieManager;
+import com.braintreepayments.api.shadows.BraintreeShadowWebView;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.Config;
+
+import static com.braintreepayments.testutils.FixturesHelper.stringFromFixture;
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNotSame;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.robolectric.Shadows.shadowOf;
+
+@Config(sdk = 21, shadows = { BraintreeShadowCookieManager.class, BraintreeShadowWebView.class })
+@RunWith(RobolectricTestRunner.class)
+public class ThreeDSecureWebViewPoolUnitTest {
+
+    private Activity mActivity;
+
+    @Before
+    public void setup() {
+        mActivity = Robolectric.setupActivity(Activity.class);
+        ThreeDSecureWebViewPool.setEnabled(RuntimeEnvironment.application, true);
+    }
+
+    @After
+    public void tearDown() {
+        ThreeDSecureWebViewPool.setEnabled(RuntimeEnvironment.application, false);
+    }
+
+    @Test
+    public void prime_doesNothingWhenDisabled() {
+        ThreeDSecureWebViewPool.setEnabled(RuntimeEnvironment.application, false);
+
+        ThreeDSecureWebViewPool.prime();
+
+        assertFalse(ThreeDSecureWebViewPool.isEnabled());
+        assertEquals(0, ThreeDSecureWebViewPool.getIdleWebViewCount());
+    }
+
+    @Test
+    public void prime_keepsOneIdleWebView() {
+        ThreeDSecureWebViewPool.prime();
+        ThreeDSecureWebViewPool.prime();
+
+        assertEquals(1, ThreeDSecureWebViewPool.getIdleWebViewCount());
+    }
+
+    @Test
+    public void acquire_returnsPrimedWebViewAttachedToContext() {
+        ThreeDSecureWebViewPool.prime();
+
+        ThreeDSecureWebView webView = ThreeDSecureWebViewPool.acquire(mActivity);
+
+        assertTrue(webView.getContext() instanceof MutableContextWrapper);
+        assertSame(mActivity, ((MutableContextWrapper) webView.getContext()).getBaseContext());
+        assertEquals(0, ThreeDSecureWebViewPool.getIdleWebViewCount());
+    }
+
+    @Test
+    public void acquire_createsWebViewWhenNoneIsIdle() {
+        ThreeDSecureWebView webView = ThreeDSecureWebViewPool.acquire(mActivity);
+
+        assertSame(mActivity, webView.getContext());
+    }
+
+    @Test
+    public void release_returnsPooledWebViewToPool() {
+        ThreeDSecureWebViewPool.prime();
+        ThreeDSecureWebView webView = ThreeDSecureWebViewPool.acquire(mActivity);
+        webView.init(mock(ThreeDSecureWebViewActivity.class));
+
+        ThreeDSecureWebViewPool.release(webView);
+
+        assertEquals(1, ThreeDSecureWebViewPool.getIdleWebViewCount());
+        assertSame(RuntimeEnvironment.application, ((MutableContextWrapper) webView.getContext()).getBaseContext());
+        assertEquals("about:blank", shadowOf(webView).getLastLoadedUrl());
+        assertNull(shadowOf(webView).getWebChromeClient());
+        assertFalse(shadowOf(webView).wasDestroyCalled());
+        assertSame(webView, ThreeDSecureWebViewPool.acquire(mActivity));
+    }
+
+    @Test
+    public void acquire_clearsHistoryOfRecycledWebViewOnceFirstChallengePageHasFinished() {
+        ThreeDSecureWebViewPool.prime();
+        ThreeDSecureWebView webView = ThreeDSecureWebViewPool.acquire(mActivity);
+        webView.init(mock(ThreeDSecureWebViewActivity.class));
+        webView.postUrl("https://acs.example.com/previous-challenge", new byte[0]);
+        ThreeDSecureWebViewPool.release(webView);
+
+        assertSame(webView, ThreeDSecureWebViewPool.acquire(mActivity));
+        webView.init(mock(ThreeDSecureWebViewActivity.class));
+        WebViewClient webViewClient = shadowOf(webView).getWebViewClient();
+        webViewClient.onPageFinished(webView, "about:blank");
+        webView.postUrl("https://acs.example.com/challenge", new byte[0]);
+        assertTrue(webView.canGoBack());
+
+        webViewClient.onPageFinished(webView, "https://acs.example.com/challenge");
+
+        assertFalse(webView.canGoBack());
+    }
+
+    @Test
+    public void release_destroysWebViewThatWasNotPooled() {
+        ThreeDSecureWebView webView = ThreeDSecureWebViewPool.acquire(mActivity);
+
+        ThreeDSecureWebViewPool.release(webView);
+
+        assertTrue(shadowOf(webView).wasDestroyCalled());
+        assertEquals(0, ThreeDSecureWebViewPool.getIdleWebViewCount());
+    }
+
+    @Test
+    public void release_destroysWebViewWhenPoolIsFull() {
+        ThreeDSecureWebView[] webViews = new ThreeDSecureWebView[ThreeDSecureWebViewPool.MAX_IDLE_WEB_VIEWS + 1];
+        for (int i = 0; i < webViews.length; i++) {
+            ThreeDSecureWebViewPool.prime();
+            webViews[i] = ThreeDSecureWebViewPool.acquire(mActivity);
+        }
+
+        for (ThreeDSecureWebView webView : webViews) {
+            ThreeDSecureWebViewPool.release(webView);
+        }
+
+        assertEquals(ThreeDSecureWebViewPool.MAX_IDLE_WEB_VIEWS, ThreeDSecureWebViewPool.getIdleWebViewCount());
+        assertTrue(shadowOf(webViews[webViews.length - 1]).wasDestroyCalled());
+    }
+
+    @Test
+    public void onTrimMemory_destroysIdleWebViews() {
+        ThreeDSecureWebViewPool.prime();
+        ThreeDSecureWebView webView = ThreeDSecureWebViewPool.acquire(mActivity);
+        ThreeDSecureWebViewPool.release(webView);
+
+        RuntimeEnvironment.application.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW);
+
+        assertEquals(0, ThreeDSecureWebViewPool.getIdleWebViewCount());
+        assertTrue(shadowOf(webView).wasDestroyCalled());
+    }
+
+    @Test
+    public void onTrimMemory_keepsIdleWebViewsWhenMemoryIsModeratelyLow() {
+        ThreeDSecureWebViewPool.prime();
+
+        RuntimeEnvironment.application.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE);
+
+        assertEquals(1, ThreeDSecureWebViewPool.getIdleWebViewCount());
+    }
+
+    @Test
+    public void setEnabled_destroysIdleWebViewsWhenDisabled() {
+        ThreeDSecureWebViewPool.prime();
+        ThreeDSecureWebView webView = ThreeDSecureWebViewPool.acquire(mActivity);
+        ThreeDSecureWebViewPool.release(webView);
+
+        ThreeDSecureWebViewPool.setEnabled(RuntimeEnvironment.application, false);
+
+        assertEquals(0, ThreeDSecureWebViewPool.getIdleWebViewCount());
+        assertTrue(shadowOf(webView).wasDestroyCalled());
+    }
+
+    @Test
+    public void threeDSecureWebViewActivity_usesPrimedWebViewAndReturnsItToPoolWhenFinished() throws Exception {
+        ThreeDSecureWebViewPool.prime();
+        ThreeDSecureLookup threeDSecureLookup =
+                ThreeDSecureLookup.fromJson(stringFromFixture("three_d_secure/lookup_response.json"));
+        Intent intent = new Intent(RuntimeEnvironment.application, ThreeDSecureWebViewActivity.class)
+                .putExtra(ThreeDSecureWebViewActivity.EXTRA_THREE_D_SECURE_LOOKUP, threeDSecureLookup);
+        ActivityController<ThreeDSecureWebViewActivity> controller =
+                Robolectric.buildActivity(ThreeDSecureWebViewActivity.class, intent).create();
+        ThreeDSecureWebView webView = (ThreeDSecureWebView) controller.get().findViewById(android.R.id.widget_frame);
+
+        assertEquals(0, ThreeDSecureWebViewPool.getIdleWebViewCount());
+        assertSame(controller.get(), ((MutableContextWrapper) webView.getContext()).getBaseContext());
+
+        controller.get().finishWithResult(null);
+        controller.destroy();
+
+        assertEquals(1, ThreeDSecureWebViewPool.getIdleWebViewCount());
+        assertNotSame(controller.get(), ((MutableContextWrapper) webView.getContext()).getBaseContext());
+        assertNull(webView.getParent());
+    }
+}
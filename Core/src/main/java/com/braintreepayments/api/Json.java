@@ -1,7 +1,13 @@
 package com.braintreepayments.api;
 
+import android.util.JsonWriter;
+
+import org.json.JSONArray;
 import org.json.JSONObject;
 
+import java.io.IOException;
+import java.util.Iterator;
+
 public class Json {
 
     /**
@@ -22,4 +28,50 @@ public class Json {
             return json.optString(name, fallback);
         }
     }
+
+    /**
+     * Writes a value from a {@link JSONObject} or {@link JSONArray}, including nested objects and arrays, to a
+     * {@link JsonWriter}.
+     *
+     * @param writer
+     * @param value a {@link JSONObject}, {@link JSONArray}, {@link String}, {@link Boolean}, {@link Number},
+     *        {@link JSONObject#NULL} or {@code null}.
+     */
+    public static void write(JsonWriter writer, Object value) throws IOException {
+        if (value == null || value == JSONObject.NULL) {
+            writer.nullValue();
+        } else if (value instanceof JSONObject) {
+            writer.beginObject();
+            writeMembers(writer, (JSONObject) value);
+            writer.endObject();
+        } else if (value instanceof JSONArray) {
+            JSONArray array = (JSONArray) value;
+            writer.beginArray();
+            for (int i = 0; i < array.length(); i++) {
+                write(writer, array.opt(i));
+            }
+            writer.endArray();
+        } else if (value instanceof Boolean) {
+            writer.value((Boolean) value);
+        } else if (value instanceof Number) {
+            writer.value((Number) value);
+        } else {
+            writer.value(value.toString());
+        }
+    }
+
+    /**
+     * Writes every member of a {@link JSONObject} to a {@link JsonWriter} that is inside an object.
+     *
+     * @param writer
+     * @param json
+     */
+    public static void writeMembers(JsonWriter writer, JSONObject json) throws IOException {
+        Iterator<String> keys = json.keys();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            writer.name(key);
+            write(writer, json.opt(key));
+        }
+    }
 }
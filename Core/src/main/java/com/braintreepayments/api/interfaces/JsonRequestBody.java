@@ -0,0 +1,20 @@
+package com.braintreepayments.api.interfaces;
+
+import android.util.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * A JSON object request body that {@link com.braintreepayments.api.internal.HttpClient} writes directly to the
+ * connection, without building the body as a {@link String} first.
+ */
+public interface JsonRequestBody {
+
+    /**
+     * Writes the members of the request body's object. The object has already been begun and is ended after this
+     * returns, so the {@link com.braintreepayments.api.internal.HttpClient} can add members of its own.
+     *
+     * @param writer the {@link JsonWriter} to write the members to.
+     */
+    void writeMembers(JsonWriter writer) throws IOException;
+}
@@ -0,0 +1,250 @@
+package com.braintreepayments.api.internal;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.support.annotation.Nullable;
+import android.support.annotation.VisibleForTesting;
+import android.util.Base64;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Caches large values, such as configurations, with one file per entry in the app's cache directory.
+ * Small values that are read often belong in {@link BraintreeSharedPreferences}, which is loaded in full on first
+ * access and rewritten in full on every change.
+ * <p/>
+ * Entries are written in the background through a temporary file that is renamed over the entry, so a partially
+ * written entry is never read. Each file holds a format version, the time the entry was written and the value.
+ * Entries that are still waiting to be written are read from memory.
+ */
+public class BraintreeFileCache {
+
+    private static final String DIRECTORY = "braintree-cache";
+    private static final int VERSION = 1;
+
+    private static final String MIGRATION_VERSION_KEY = "com.braintreepayments.api.internal.BraintreeFileCache.VERSION";
+    private static final String TIMESTAMP_SUFFIX = "_timestamp";
+    private static final String[] LEGACY_KEYS = {
+            "com.braintreepayments.api.PayPal.REQUEST_KEY",
+            "com.braintreepayments.api.PayPal.REQUEST_TYPE_KEY",
+            "com.braintreepayments.api.PayPal.PAYPAL_REQUEST_KEY"
+    };
+
+    private static final Map<File, PendingWrite> sPendingWrites = new HashMap<>();
+
+    @VisibleForTesting
+    static ExecutorService sExecutor = Executors.newSingleThreadExecutor();
+
+    private BraintreeFileCache() {}
+
+    /**
+     * @return the entry for the key, or {@code null} if there is no entry or it can not be read.
+     */
+    @Nullable
+    public static Entry get(Context context, String key) {
+        migrateSharedPreferences(context);
+
+        File file = getFile(context, key);
+        PendingWrite pendingWrite;
+        synchronized (sPendingWrites) {
+            pendingWrite = sPendingWrites.get(file);
+        }
+
+        if (pendingWrite != null && (pendingWrite.mReplace || !file.exists())) {
+            return pendingWrite.mEntry;
+        }
+
+        if (!file.exists()) {
+            return null;
+        }
+
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new FileInputStream(file));
+            if (in.readInt() != VERSION) {
+                return null;
+            }
+
+            long timestamp = in.readLong();
+            ByteArrayOutputStream value = new ByteArrayOutputStream((int) file.length());
+            byte[] buffer = new byte[4096];
+            for (int count; (count = in.read(buffer)) != -1; ) {
+                value.write(buffer, 0, count);
+            }
+
+            return new Entry(value.toString("UTF-8"), timestamp);
+        } catch (IOException e) {
+            return null;
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException ignored) {}
+            }
+        }
+    }
+
+    /**
+     * Writes the value for the key in the background, with the current time as its timestamp.
+     */
+    public static void put(Context context, String key, String value) {
+        migrateSharedPreferences(context);
+        put(getFile(context, key), value, System.currentTimeMillis(), true);
+    }
+
+    private static void put(final File file, final String value, final long timestamp, final boolean replace) {
+        final PendingWrite pendingWrite = new PendingWrite(new Entry(value, timestamp), replace);
+        synchronized (sPendingWrites) {
+            PendingWrite previous = sPendingWrites.get(file);
+            if (replace || previous == null) {
+                sPendingWrites.put(file, pendingWrite);
+            }
+        }
+
+        sExecutor.submit(new Runnable() {
+            @Override
+            public void run() {
+                if (replace || !file.exists()) {
+                    write(file, value, timestamp);
+                }
+
+                synchronized (sPendingWrites) {
+                    if (sPendingWrites.get(file) == pendingWrite) {
+                        sPendingWrites.remove(file);
+                    }
+                }
+            }
+        });
+    }
+
+    private static void write(File file, String value, long timestamp) {
+        File directory = file.getParentFile();
+        if (!directory.exists() && !directory.mkdirs()) {
+            return;
+        }
+
+        File tempFile = new File(directory, file.getName() + ".tmp");
+        DataOutputStream out = null;
+        try {
+            out = new DataOutputStream(new FileOutputStream(tempFile));
+            out.writeInt(VERSION);
+            out.writeLong(timestamp);
+            out.write(value.getBytes("UTF-8"));
+            out.close();
+            out = null;
+
+            if (!tempFile.renameTo(file)) {
+                tempFile.delete();
+            }
+        } catch (IOException ignored) {
+        } finally {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException ignored) {}
+            }
+        }
+    }
+
+    /**
+     * Moves cached values out of {@link BraintreeSharedPreferences}, where they were stored under Base64 encoded
+     * keys next to a {@code _timestamp} entry, and removes other large values that are no longer stored there.
+     */
+    private static void migrateSharedPreferences(Context context) {
+        SharedPreferences prefs = BraintreeSharedPreferences.getSharedPreferences(context);
+        if (prefs.getInt(MIGRATION_VERSION_KEY, 0) >= VERSION) {
+            return;
+        }
+
+        SharedPreferences.Editor editor = prefs.edit();
+        Map<String, ?> entries = prefs.getAll();
+        for (Map.Entry<String, ?> entry : entries.entrySet()) {
+            String timestampKey = entry.getKey();
+            if (!timestampKey.endsWith(TIMESTAMP_SUFFIX) || !(entry.getValue() instanceof Long)) {
+                continue;
+            }
+
+            String encodedKey = timestampKey.substring(0, timestampKey.length() - TIMESTAMP_SUFFIX.length());
+            Object value = entries.get(encodedKey);
+            if (value instanceof String) {
+                try {
+                    String key = new String(Base64.decode(encodedKey, 0), "UTF-8");
+                    put(getFile(context, key), (String) value, (Long) entry.getValue(), false);
+                } catch (IllegalArgumentException | UnsupportedEncodingException ignored) {}
+
+                editor.remove(encodedKey)
+                        .remove(timestampKey);
+            }
+        }
+
+        for (String key : LEGACY_KEYS) {
+            editor.remove(key);
+        }
+
+        editor.putInt(MIGRATION_VERSION_KEY, VERSION)
+                .apply();
+    }
+
+    private static File getFile(Context context, String key) {
+        return new File(new File(context.getCacheDir(), DIRECTORY), getFileName(key));
+    }
+
+    private static String getFileName(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes("UTF-8"));
+            StringBuilder fileName = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                fileName.append(String.format("%02x", b));
+            }
+            return fileName.toString();
+        } catch (NoSuchAlgorithmException | UnsupportedEncodingException e) {
+            return Base64.encodeToString(key.getBytes(), Base64.URL_SAFE | Base64.NO_WRAP | Base64.NO_PADDING);
+        }
+    }
+
+    private static class PendingWrite {
+
+        final Entry mEntry;
+        final boolean mReplace;
+
+        PendingWrite(Entry entry, boolean replace) {
+            mEntry = entry;
+            mReplace = replace;
+        }
+    }
+
+    public static class Entry {
+
+        private final String mValue;
+        private final long mTimestamp;
+
+        Entry(String value, long timestamp) {
+            mValue = value;
+            mTimestamp = timestamp;
+        }
+
+        public String getValue() {
+            return mValue;
+        }
+
+        /**
+         * @return the time the entry was written in milliseconds since the epoch.
+         */
+        public long getTimestamp() {
+            return mTimestamp;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import android.os.Handler;
 import android.os.Looper;
 import android.support.annotation.Nullable;
 import android.support.annotation.VisibleForTesting;
+import android.util.JsonWriter;
 
 import com.braintreepayments.api.core.BuildConfig;
 import com.braintreepayments.api.exceptions.AuthenticationException;
@@ -15,6 +16,7 @@ import com.braintreepayments.api.exceptions.UnexpectedException;
 import com.braintreepayments.api.exceptions.UnprocessableEntityException;
 import com.braintreepayments.api.exceptions.UpgradeRequiredException;
 import com.braintreepayments.api.interfaces.HttpResponseCallback;
+import com.braintreepayments.api.interfaces.JsonRequestBody;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -203,17 +205,58 @@ public class HttpClient<T extends HttpClient> {
     public String post(String path, String data) throws Exception {
         HttpURLConnection connection = null;
         try {
-            if (path.startsWith("http")) {
-                connection = init(path);
-            } else {
-                connection = init(mBaseUrl + path);
+            connection = initPost(path);
+            writeOutputStream(connection.getOutputStream(), data);
+
+            return parseResponse(connection);
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
             }
+        }
+    }
 
-            connection.setRequestProperty("Content-Type", "application/json");
-            connection.setRequestMethod(METHOD_POST);
-            connection.setDoOutput(true);
+    /**
+     * Make a HTTP POST request using the base url and path provided, writing the body directly to the connection.
+     * If the path is a full url, it will be used instead of the previously provided url.
+     *
+     * @param path The path or url to request from the server via HTTP POST
+     * @param body The body of the POST request
+     * @param callback The {@link HttpResponseCallback} to receive the response or error.
+     */
+    public void post(final String path, final JsonRequestBody body, final HttpResponseCallback callback) {
+        if (path == null) {
+            postCallbackOnMainThread(callback, new IllegalArgumentException("Path cannot be null"));
+            return;
+        }
 
-            writeOutputStream(connection.getOutputStream(), data);
+        mThreadPool.submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    postCallbackOnMainThread(callback, post(path, body));
+                } catch (Exception e) {
+                    postCallbackOnMainThread(callback, e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Performs a synchronous post request, writing the body directly to the connection.
+     *
+     * @param path the path or url to request from the server via HTTP POST
+     * @param body the body of the post request
+     * @return The HTTP body the of the response
+     *
+     * @see HttpClient#post(String, JsonRequestBody, HttpResponseCallback)
+     * @throws Exception
+     */
+    public String post(String path, JsonRequestBody body) throws Exception {
+        HttpURLConnection connection = null;
+        try {
+            connection = initPost(path);
+            writeOutputStream(connection.getOutputStream(), body);
 
             return parseResponse(connection);
         } finally {
@@ -223,6 +266,21 @@ public class HttpClient<T extends HttpClient> {
         }
     }
 
+    private HttpURLConnection initPost(String path) throws IOException {
+        HttpURLConnection connection;
+        if (path.startsWith("http")) {
+            connection = init(path);
+        } else {
+            connection = init(mBaseUrl + path);
+        }
+
+        connection.setRequestProperty("Content-Type", "application/json");
+        connection.setRequestMethod(METHOD_POST);
+        connection.setDoOutput(true);
+
+        return connection;
+    }
+
     protected HttpURLConnection init(String url) throws IOException {
         HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
 
@@ -250,6 +308,23 @@ public class HttpClient<T extends HttpClient> {
         out.close();
     }
 
+    protected void writeOutputStream(OutputStream outputStream, JsonRequestBody body) throws IOException {
+        JsonWriter writer = new JsonWriter(new OutputStreamWriter(outputStream, UTF_8));
+        writer.beginObject();
+        body.writeMembers(writer);
+        writeAdditionalMembers(writer);
+        writer.endObject();
+        writer.close();
+    }
+
+    /**
+     * Called after the members of a {@link JsonRequestBody} have been written, to add members sent with every
+     * request.
+     *
+     * @param writer the {@link JsonWriter} the request body is being written to.
+     */
+    protected void writeAdditionalMembers(JsonWriter writer) throws IOException {}
+
     protected String parseResponse(HttpURLConnection connection) throws Exception {
         int responseCode = connection.getResponseCode();
         boolean gzip = "gzip".equals(connection.getContentEncoding());
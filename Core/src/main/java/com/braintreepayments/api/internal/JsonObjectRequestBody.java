@@ -0,0 +1,41 @@
+package com.braintreepayments.api.internal;
+
+import android.util.JsonWriter;
+
+import com.braintreepayments.api.Json;
+import com.braintreepayments.api.interfaces.JsonRequestBody;
+
+import org.json.JSONObject;
+
+import java.io.IOException;
+
+/**
+ * A {@link JsonRequestBody} for a request body that has already been built as a {@link JSONObject}. The object is
+ * written directly to the connection and the {@link HttpClient} adds its own members while writing it, so the body
+ * is never serialised to a {@link String} and parsed again.
+ */
+public class JsonObjectRequestBody implements JsonRequestBody {
+
+    private final JSONObject mJson;
+
+    public JsonObjectRequestBody(JSONObject json) {
+        mJson = json;
+    }
+
+    /**
+     * @return the {@link JSONObject} the request body is written from.
+     */
+    public JSONObject getJson() {
+        return mJson;
+    }
+
+    @Override
+    public void writeMembers(JsonWriter writer) throws IOException {
+        Json.writeMembers(writer, mJson);
+    }
+
+    @Override
+    public String toString() {
+        return mJson.toString();
+    }
+}
@@ -6,9 +6,14 @@ import android.text.TextUtils;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import java.util.concurrent.Future;
+
 import static android.support.test.InstrumentationRegistry.getTargetContext;
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNotSame;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
 
 @RunWith(AndroidJUnit4.class)
 public class PayPalDataCollectorTest {
@@ -26,4 +31,45 @@ public class PayPalDataCollectorTest {
 
         assertEquals("pairing-id", clientMetadataId);
     }
+
+    @Test
+    public void initialize_completesWithoutClientMetadataId() throws Exception {
+        Future<?> initialization = PayPalDataCollector.initialize(getTargetContext());
+
+        assertNull(initialization.get());
+        assertFalse(TextUtils.isEmpty(PayPalDataCollector.getClientMetadataId(getTargetContext())));
+    }
+
+    @Test
+    public void getClientMetadataIdAsync_returnsPairingId() throws Exception {
+        Future<String> clientMetadataId = PayPalDataCollector.getClientMetadataIdAsync(getTargetContext(),
+                "async-pairing-id");
+
+        assertEquals("async-pairing-id", clientMetadataId.get());
+    }
+
+    @Test
+    public void getClientMetadataIdAsync_returnsSameFutureForSamePairingId() {
+        Future<String> clientMetadataId = PayPalDataCollector.getClientMetadataIdAsync(getTargetContext(),
+                "memoised-pairing-id");
+
+        assertSame(clientMetadataId, PayPalDataCollector.getClientMetadataIdAsync(getTargetContext(),
+                "memoised-pairing-id"));
+    }
+
+    @Test
+    public void getClientMetadataIdAsync_returnsNewFutureWithoutPairingId() {
+        Future<String> clientMetadataId = PayPalDataCollector.getClientMetadataIdAsync(getTargetContext());
+
+        assertNotSame(clientMetadataId, PayPalDataCollector.getClientMetadataIdAsync(getTargetContext()));
+    }
+
+    @Test
+    public void getClientMetadataId_returnsResultOfAsyncCallForSamePairingId() throws Exception {
+        Future<String> clientMetadataId = PayPalDataCollector.getClientMetadataIdAsync(getTargetContext(),
+                "shared-pairing-id");
+
+        assertEquals(clientMetadataId.get(),
+                PayPalDataCollector.getClientMetadataId(getTargetContext(), "shared-pairing-id"));
+    }
 }
@@ -1,18 +1,42 @@
 package com.paypal.android.sdk.data.collector;
 
 import android.content.Context;
-import android.support.annotation.MainThread;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
 
 import com.paypal.android.sdk.onetouch.core.metadata.MetadataIdProvider;
 import com.paypal.android.sdk.onetouch.core.metadata.MetadataIdProviderImpl;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 public class PayPalDataCollector {
 
+    private static final int MAX_CLIENT_METADATA_IDS = 16;
+
+    /**
+     * Client Metadata IDs by explicit pairing id. Calls without a pairing id always generate a new Client Metadata
+     * ID, so they are not remembered.
+     */
+    private static final Map<String, Future<String>> sClientMetadataIds =
+            new LinkedHashMap<String, Future<String>>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Future<String>> eldest) {
+                    return size() > MAX_CLIENT_METADATA_IDS;
+                }
+            };
+    private static final ExecutorService sFlushExecutor = Executors.newSingleThreadExecutor();
+
+    private static Handler sHandler;
     private static MetadataIdProvider sMetadataIdProvider;
 
     /**
@@ -22,11 +46,13 @@ public class PayPalDataCollector {
      * decrease declines. This method MUST be called prior to initiating a pre-consented payment (a
      * "future payment") from a mobile device. Pass the result to your server, to include in the
      * payment request sent to PayPal. Do not otherwise cache or store this value.
+     * <p/>
+     * Blocks until the Client Metadata ID has been generated on the data collector thread, use
+     * {@link #getClientMetadataIdAsync(Context, String)} to avoid blocking the main thread.
      *
      * @param context
      * @return clientMetadataId Your server will send this to PayPal
      */
-    @MainThread
     public static String getClientMetadataId(Context context) {
         return getClientMetadataId(context, null);
     }
@@ -38,25 +64,134 @@ public class PayPalDataCollector {
      * decrease declines. This method MUST be called prior to initiating a pre-consented payment (a
      * "future payment") from a mobile device. Pass the result to your server, to include in the
      * payment request sent to PayPal. Do not otherwise cache or store this value.
+     * <p/>
+     * Blocks until the Client Metadata ID has been generated on the data collector thread, use
+     * {@link #getClientMetadataIdAsync(Context, String)} to avoid blocking the main thread.
      *
      * @param context
      * @param pairingId The desired pairing id
      * @return clientMetadataId Your server will send this to PayPal
      */
-    @MainThread
     public static String getClientMetadataId(Context context, String pairingId) {
-        return getClientMetadataId(context, InstallationIdentifier.getInstallationGUID(context), pairingId);
+        return getClientMetadataId(context, null, pairingId);
+    }
+
+    /**
+     * Gets a Client Metadata ID in the background. See {@link #getClientMetadataId(Context)}. The data collector is
+     * initialized on a shared background thread, so this can be called at app start to prefetch the Client Metadata
+     * ID and have the data collector ready for later calls.
+     *
+     * @param context
+     * @return a {@link Future} of the Client Metadata ID.
+     */
+    public static Future<String> getClientMetadataIdAsync(Context context) {
+        return getClientMetadataIdAsync(context, null);
+    }
+
+    /**
+     * Gets a Client Metadata ID for the pairing id in the background. See
+     * {@link #getClientMetadataId(Context, String)}. The data collector is initialized on a shared background
+     * thread and Client Metadata IDs are remembered per pairing id, so requesting the same non-null pairing id again
+     * does not generate a new one.
+     *
+     * @param context
+     * @param pairingId The desired pairing id
+     * @return a {@link Future} of the Client Metadata ID.
+     */
+    public static Future<String> getClientMetadataIdAsync(Context context, String pairingId) {
+        return getClientMetadataIdAsync(context, null, pairingId);
+    }
+
+    /**
+     * Initializes the data collector on its shared background thread without generating a Client Metadata ID, so
+     * that a later call to {@link #getClientMetadataId(Context, String)} does not have to wait for it. Does nothing
+     * if the data collector is already initialized.
+     *
+     * @param context
+     * @return a {@link Future} that completes once the data collector is initialized.
+     */
+    public static Future<?> initialize(final Context context) {
+        FutureTask<Void> task = new FutureTask<>(new Runnable() {
+            @Override
+            public void run() {
+                if (sMetadataIdProvider == null) {
+                    initMetadataIdProvider(context, null, Collections.<String, Object>emptyMap());
+                }
+            }
+        }, null);
+        runOnDataCollectorThread(task);
+
+        return task;
     }
 
-    @MainThread
     static String getClientMetadataId(Context context, String applicationGuid, String pairingId) {
+        Future<String> clientMetadataId = getClientMetadataIdAsync(context, applicationGuid, pairingId);
+        try {
+            return clientMetadataId.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "";
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            return "";
+        }
+    }
+
+    private static synchronized Future<String> getClientMetadataIdAsync(final Context context,
+            final String applicationGuid, final String pairingId) {
+        if (pairingId != null) {
+            Future<String> clientMetadataId = sClientMetadataIds.get(pairingId);
+            if (clientMetadataId != null) {
+                return clientMetadataId;
+            }
+        }
+
+        FutureTask<String> task = new FutureTask<>(new Callable<String>() {
+            @Override
+            public String call() {
+                try {
+                    return generateClientMetadataId(context, applicationGuid, pairingId);
+                } catch (RuntimeException e) {
+                    if (pairingId != null) {
+                        synchronized (PayPalDataCollector.class) {
+                            sClientMetadataIds.remove(pairingId);
+                        }
+                    }
+                    throw e;
+                }
+            }
+        });
+        if (context != null && pairingId != null) {
+            sClientMetadataIds.put(pairingId, task);
+        }
+
+        runOnDataCollectorThread(task);
+
+        return task;
+    }
+
+    /**
+     * Runs the task directly if this is the data collector thread or its looper is quitting.
+     */
+    private static void runOnDataCollectorThread(Runnable task) {
+        Handler handler = getHandler();
+        if (Looper.myLooper() == handler.getLooper() || !handler.post(task)) {
+            task.run();
+        }
+    }
+
+    /**
+     * Must be called on the data collector thread, the {@link MetadataIdProvider} registers for location updates
+     * and creates a {@link Handler} on the thread it is initialized on.
+     */
+    private static String generateClientMetadataId(Context context, String applicationGuid, String pairingId) {
         if (sMetadataIdProvider == null) {
             if (context == null) {
                 return "";
             }
 
-            sMetadataIdProvider = new MetadataIdProviderImpl();
-
             Map<String, Object> params;
             if (pairingId != null) {
                 params = new HashMap<>();
@@ -65,18 +200,41 @@ public class PayPalDataCollector {
                 params = Collections.emptyMap();
             }
 
-            String clientMetadataId = sMetadataIdProvider.init(context.getApplicationContext(), applicationGuid, params);
-
-            Executors.newSingleThreadExecutor().submit(new Runnable() {
-                @Override
-                public void run() {
-                    sMetadataIdProvider.flush();
-                }
-            });
-
-            return clientMetadataId;
+            return initMetadataIdProvider(context, applicationGuid, params);
         } else {
             return sMetadataIdProvider.generatePairingId(pairingId);
         }
     }
+
+    /**
+     * Must be called on the data collector thread, see {@link #generateClientMetadataId(Context, String, String)}.
+     */
+    private static String initMetadataIdProvider(Context context, String applicationGuid,
+            Map<String, Object> params) {
+        if (applicationGuid == null) {
+            applicationGuid = InstallationIdentifier.getInstallationGUID(context);
+        }
+
+        sMetadataIdProvider = new MetadataIdProviderImpl();
+        String clientMetadataId = sMetadataIdProvider.init(context.getApplicationContext(), applicationGuid, params);
+
+        sFlushExecutor.submit(new Runnable() {
+            @Override
+            public void run() {
+                sMetadataIdProvider.flush();
+            }
+        });
+
+        return clientMetadataId;
+    }
+
+    private static synchronized Handler getHandler() {
+        if (sHandler == null || !sHandler.getLooper().getThread().isAlive()) {
+            HandlerThread thread = new HandlerThread("PayPalDataCollector");
+            thread.start();
+            sHandler = new Handler(thread.getLooper());
+        }
+
+        return sHandler;
+    }
 }
@@ -30,6 +30,9 @@ import com.paypal.android.sdk.onetouch.core.network.EnvironmentManager;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.security.InvalidAlgorithmParameterException;
@@ -137,6 +140,20 @@ public class AuthorizationRequest extends Request<AuthorizationRequest> implemen
                 + "&x-cancel=" + getCancelUrl();
     }
 
+    /**
+     * @return the url of the browser switch endpoint without its query, which is enough to check whether a browser
+     * can open the browser switch url, or {@code null} if there is no browser recipe for the scopes.
+     */
+    private String getBrowserSwitchEndpointUrl(OtcConfiguration config) {
+        OAuth2Recipe recipe = config.getBrowserOauth2Config(getScopes());
+        if (recipe == null) {
+            return null;
+        }
+
+        ConfigEndpoint configEndpoint = recipe.getEndpoint(getEnvironment());
+        return configEndpoint == null ? null : configEndpoint.url;
+    }
+
     @Override
     public Recipe getBrowserSwitchRecipe(OtcConfiguration config) {
         return config.getBrowserOauth2Config(getScopes());
@@ -269,14 +286,11 @@ public class AuthorizationRequest extends Request<AuthorizationRequest> implemen
                         return recipe;
                     }
                 } else if (RequestTarget.browser == recipe.getTarget()) {
-                    try {
-                        String browserSwitchUrl = getBrowserSwitchUrl(context, config);
-                        if (recipe.isValidBrowserTarget(context, browserSwitchUrl)) {
-                            return recipe;
-                        }
-                    } catch (CertificateException | UnsupportedEncodingException | NoSuchPaddingException
-                            | NoSuchAlgorithmException | IllegalBlockSizeException | JSONException | BadPaddingException
-                            | InvalidEncryptionDataException | InvalidKeyException ignored) {}
+                    // the encrypted browser switch url is only built once the recipe has been chosen
+                    String endpointUrl = getBrowserSwitchEndpointUrl(config);
+                    if (endpointUrl != null && recipe.isValidBrowserTarget(context, endpointUrl)) {
+                        return recipe;
+                    }
                 }
             }
         }
@@ -325,6 +339,46 @@ public class AuthorizationRequest extends Request<AuthorizationRequest> implemen
         source.readByteArray(mEncryptionKey);
     }
 
+    @Override
+    void writeFields(DataOutput out) throws IOException {
+        super.writeFields(out);
+
+        RequestSerializer.writeString(out, mPrivacyUrl);
+        RequestSerializer.writeString(out, mUserAgreementUrl);
+        out.writeInt(mScopes.size());
+        for (String scope : mScopes) {
+            out.writeUTF(scope);
+        }
+        out.writeInt(mAdditionalPayloadAttributes.size());
+        for (Entry<String, String> attribute : mAdditionalPayloadAttributes.entrySet()) {
+            out.writeUTF(attribute.getKey());
+            RequestSerializer.writeString(out, attribute.getValue());
+        }
+        out.writeUTF(mMsgGuid);
+        out.writeInt(mEncryptionKey.length);
+        out.write(mEncryptionKey);
+    }
+
+    AuthorizationRequest(DataInput in) throws IOException {
+        super(in);
+
+        mPrivacyUrl = RequestSerializer.readString(in);
+        mUserAgreementUrl = RequestSerializer.readString(in);
+        int scopeCount = in.readInt();
+        mScopes = new HashSet<>(scopeCount);
+        for (int i = 0; i < scopeCount; i++) {
+            mScopes.add(in.readUTF());
+        }
+        int attributeCount = in.readInt();
+        mAdditionalPayloadAttributes = new HashMap<>(attributeCount);
+        for (int i = 0; i < attributeCount; i++) {
+            mAdditionalPayloadAttributes.put(in.readUTF(), RequestSerializer.readString(in));
+        }
+        mMsgGuid = in.readUTF();
+        mEncryptionKey = new byte[in.readInt()];
+        in.readFully(mEncryptionKey);
+    }
+
     public static final Parcelable.Creator<AuthorizationRequest> CREATOR = new Creator<AuthorizationRequest>() {
         @Override
         public AuthorizationRequest[] newArray(int size) {
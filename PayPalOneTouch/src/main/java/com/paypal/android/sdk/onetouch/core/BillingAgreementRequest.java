@@ -8,6 +8,9 @@ import com.paypal.android.sdk.onetouch.core.config.OtcConfiguration;
 import com.paypal.android.sdk.onetouch.core.config.Recipe;
 import com.paypal.android.sdk.onetouch.core.enums.RequestTarget;
 
+import java.io.DataInput;
+import java.io.IOException;
+
 public class BillingAgreementRequest extends CheckoutRequest {
 
     private static final String TOKEN_QUERY_PARAM_KEY_BA_TOKEN = "ba_token";
@@ -57,6 +60,10 @@ public class BillingAgreementRequest extends CheckoutRequest {
         super(source);
     }
 
+    BillingAgreementRequest(DataInput in) throws IOException {
+        super(in);
+    }
+
     public static final Creator<BillingAgreementRequest> CREATOR = new Creator<BillingAgreementRequest>() {
         @Override
         public BillingAgreementRequest[] newArray(int size) {
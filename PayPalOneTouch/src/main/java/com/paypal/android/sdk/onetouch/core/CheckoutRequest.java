@@ -21,6 +21,9 @@ import com.paypal.android.sdk.onetouch.core.fpti.TrackingPoint;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -160,6 +163,23 @@ public class CheckoutRequest extends Request<CheckoutRequest> implements Parcela
         mPairingId = source.readString();
     }
 
+    @Override
+    void writeFields(DataOutput out) throws IOException {
+        super.writeFields(out);
+
+        RequestSerializer.writeString(out, mApprovalUrl);
+        RequestSerializer.writeString(out, mTokenQueryParamKey);
+        RequestSerializer.writeString(out, mPairingId);
+    }
+
+    CheckoutRequest(DataInput in) throws IOException {
+        super(in);
+
+        mApprovalUrl = RequestSerializer.readString(in);
+        mTokenQueryParamKey = RequestSerializer.readString(in);
+        mPairingId = RequestSerializer.readString(in);
+    }
+
     public static final Creator<CheckoutRequest> CREATOR = new Creator<CheckoutRequest>() {
         @Override
         public CheckoutRequest[] newArray(int size) {
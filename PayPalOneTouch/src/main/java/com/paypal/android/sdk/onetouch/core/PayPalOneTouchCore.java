@@ -8,6 +8,7 @@ import com.paypal.android.sdk.data.collector.PayPalDataCollector;
 import com.paypal.android.sdk.onetouch.core.base.ContextInspector;
 import com.paypal.android.sdk.onetouch.core.config.ConfigManager;
 import com.paypal.android.sdk.onetouch.core.config.OAuth2Recipe;
+import com.paypal.android.sdk.onetouch.core.config.OtcConfiguration;
 import com.paypal.android.sdk.onetouch.core.config.Recipe;
 import com.paypal.android.sdk.onetouch.core.enums.RequestTarget;
 import com.paypal.android.sdk.onetouch.core.fpti.FptiManager;
@@ -18,13 +19,20 @@ import com.paypal.android.sdk.onetouch.core.sdk.AppSwitchHelper;
 import com.paypal.android.sdk.onetouch.core.sdk.BrowserSwitchHelper;
 import com.paypal.android.sdk.onetouch.core.sdk.PendingRequest;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
 /**
  * Central class for One Touch functionality.
  */
 public class PayPalOneTouchCore {
 
+    /**
+     * Browser targets are resolved per url scheme, checkout and billing agreement approval urls are https.
+     */
+    private static final String WARM_UP_BROWSER_SWITCH_URL = "https://www.paypal.com/checkoutnow";
+
     private static ContextInspector sContextInspector;
     private static ConfigManager sConfigManager;
     private static FptiManager sFptiManager;
@@ -51,6 +59,30 @@ public class PayPalOneTouchCore {
         return false;
     }
 
+    /**
+     * Loads the configuration and resolves the wallet and browser targets of its checkout and billing agreement
+     * recipes, so that a following {@link #getStartIntent(Context, Request)} can use the cached results. Does not
+     * send any FPTI data and can be called from any thread.
+     *
+     * @param context
+     */
+    public static void warmUp(Context context) {
+        initService(context);
+
+        OtcConfiguration config = sConfigManager.getConfig();
+        List<Recipe<?>> recipes = new ArrayList<>();
+        recipes.addAll(config.getCheckoutRecipes());
+        recipes.addAll(config.getBillingAgreementRecipes());
+
+        for (Recipe<?> recipe : recipes) {
+            if (RequestTarget.wallet == recipe.getTarget()) {
+                recipe.isValidAppTarget(context);
+            } else if (RequestTarget.browser == recipe.getTarget()) {
+                recipe.isValidBrowserTarget(context, WARM_UP_BROWSER_SWITCH_URL);
+            }
+        }
+    }
+
     /**
      * Get a {@link PendingRequest} containing an {@link Intent} used to start a PayPal
      * authentication request using the best possible authentication mechanism: wallet or browser.
@@ -154,7 +186,7 @@ public class PayPalOneTouchCore {
         return sFptiManager;
     }
 
-    private static void initService(Context context) {
+    private static synchronized void initService(Context context) {
         if (sConfigManager == null || sFptiManager == null) {
             PayPalHttpClient httpClient = new PayPalHttpClient()
                     .setBaseUrl(EnvironmentManager.LIVE_API_M_ENDPOINT);
@@ -166,7 +198,7 @@ public class PayPalOneTouchCore {
         sConfigManager.refreshConfiguration();
     }
 
-    private static ContextInspector getContextInspector(Context context) {
+    private static synchronized ContextInspector getContextInspector(Context context) {
         if (null == sContextInspector) {
             sContextInspector = new ContextInspector(context);
         }
@@ -15,6 +15,9 @@ import com.paypal.android.sdk.onetouch.core.fpti.TrackingPoint;
 
 import org.json.JSONException;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
@@ -131,4 +134,24 @@ public abstract class Request<T extends Request<T>> implements Parcelable {
         mCancelUrl = source.readString();
         mSuccessUrl = source.readString();
     }
+
+    /**
+     * Writes the fields of the request for {@link RequestSerializer}. Subclasses must write their own fields after
+     * calling through to this method and read them in the same order in a {@link DataInput} constructor.
+     */
+    void writeFields(DataOutput out) throws IOException {
+        RequestSerializer.writeString(out, mEnvironment);
+        RequestSerializer.writeString(out, mClientId);
+        RequestSerializer.writeString(out, mClientMetadataId);
+        RequestSerializer.writeString(out, mCancelUrl);
+        RequestSerializer.writeString(out, mSuccessUrl);
+    }
+
+    Request(DataInput in) throws IOException {
+        mEnvironment = RequestSerializer.readString(in);
+        mClientId = RequestSerializer.readString(in);
+        mClientMetadataId = RequestSerializer.readString(in);
+        mCancelUrl = RequestSerializer.readString(in);
+        mSuccessUrl = RequestSerializer.readString(in);
+    }
 }
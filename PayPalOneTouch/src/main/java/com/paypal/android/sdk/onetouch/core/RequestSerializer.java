@@ -0,0 +1,60 @@
+package com.paypal.android.sdk.onetouch.core;
+
+import android.support.annotation.Nullable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Writes and reads {@link Request}s in a binary format that, unlike {@link android.os.Parcel}, is stable across
+ * OS versions and can be persisted.
+ */
+public class RequestSerializer {
+
+    private static final int AUTHORIZATION_REQUEST = 1;
+    private static final int CHECKOUT_REQUEST = 2;
+    private static final int BILLING_AGREEMENT_REQUEST = 3;
+
+    private RequestSerializer() {}
+
+    public static void write(DataOutput out, Request request) throws IOException {
+        if (request instanceof AuthorizationRequest) {
+            out.writeInt(AUTHORIZATION_REQUEST);
+        } else if (request instanceof BillingAgreementRequest) {
+            out.writeInt(BILLING_AGREEMENT_REQUEST);
+        } else if (request instanceof CheckoutRequest) {
+            out.writeInt(CHECKOUT_REQUEST);
+        } else {
+            throw new IOException("Unsupported request type " + request.getClass().getName());
+        }
+
+        request.writeFields(out);
+    }
+
+    public static Request read(DataInput in) throws IOException {
+        int type = in.readInt();
+        switch (type) {
+            case AUTHORIZATION_REQUEST:
+                return new AuthorizationRequest(in);
+            case CHECKOUT_REQUEST:
+                return new CheckoutRequest(in);
+            case BILLING_AGREEMENT_REQUEST:
+                return new BillingAgreementRequest(in);
+            default:
+                throw new IOException("Unknown request type " + type);
+        }
+    }
+
+    static void writeString(DataOutput out, @Nullable String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    @Nullable
+    static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -1,15 +1,20 @@
 package com.paypal.android.sdk.onetouch.core.config;
 
-import com.braintreepayments.api.interfaces.HttpResponseCallback;
+import android.support.annotation.VisibleForTesting;
+import android.text.TextUtils;
+
 import com.paypal.android.sdk.onetouch.core.BuildConfig;
 import com.paypal.android.sdk.onetouch.core.base.ContextInspector;
+import com.paypal.android.sdk.onetouch.core.network.ConditionalGetResponse;
 import com.paypal.android.sdk.onetouch.core.network.PayPalHttpClient;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.util.Calendar;
-import java.util.Date;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class ConfigManager {
 
@@ -18,60 +23,142 @@ public class ConfigManager {
     private static final String PREFERENCES_CONFIG_FILE = "com.paypal.otc.config.file";
     private static final String PREFERENCES_LAST_UPDATED = "com.paypal.otc.config.lastUpdated.timestamp";
     private static final String PREFERENCES_CONFIG_IS_DEFAULT = "com.paypal.otc.config.isDefault";
-    private static final int MINIMUM_TIME_BETWEEN_REFRESH = -4;
-    private static final int MINIMUM_TIME_BETWEEN_CONSECUTIVE_REQUESTS = -5;
+    private static final String PREFERENCES_ETAG = "com.paypal.otc.config.etag";
+    private static final String PREFERENCES_LAST_MODIFIED = "com.paypal.otc.config.lastModified";
+
+    @VisibleForTesting
+    static final long MINIMUM_TIME_BETWEEN_REFRESH = TimeUnit.HOURS.toMillis(4);
+    @VisibleForTesting
+    static final long MINIMUM_TIME_BETWEEN_FAILED_REQUESTS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final long REFRESH_TIME_UNKNOWN = -1;
 
-    private boolean mUseHardcodedConfig = false;
+    /**
+     * Refreshes of every {@link ConfigManager} run one at a time on a single shared thread.
+     */
+    private static final Executor sExecutor = Executors.newSingleThreadExecutor();
+
+    private volatile boolean mUseHardcodedConfig = false;
 
     private final ContextInspector mContextInspector;
     private final PayPalHttpClient mHttpClient;
-    private Date mLastInitiatedUpdate;
+    private final Executor mExecutor;
+    private final Clock mClock;
+    private final AtomicBoolean mRefreshInProgress = new AtomicBoolean(false);
+    private volatile long mNextRefreshTime = REFRESH_TIME_UNKNOWN;
+    private volatile OtcConfiguration mConfiguration;
 
     public ConfigManager(ContextInspector contextInspector, PayPalHttpClient httpClient) {
+        this(contextInspector, httpClient, sExecutor, new Clock());
+    }
+
+    @VisibleForTesting
+    ConfigManager(ContextInspector contextInspector, PayPalHttpClient httpClient, Executor executor, Clock clock) {
         mContextInspector = contextInspector;
         mHttpClient = httpClient;
+        mExecutor = executor;
+        mClock = clock;
     }
 
     public void useHardcodedConfig(boolean useHardcodedConfig) {
         mUseHardcodedConfig = useHardcodedConfig;
+        mConfiguration = null;
         refreshConfiguration();
     }
 
+    /**
+     * Starts a background refresh of the configuration if it is due and no refresh is running. Once the first
+     * refresh time has been read from preferences this only compares the current time against it, so it is cheap
+     * to call from every entry point.
+     * <p/>
+     * Refreshes are conditional requests using the validators of the stored configuration. A downloaded
+     * configuration only replaces the stored one if it parses.
+     */
     public void refreshConfiguration() {
-        if (!mUseHardcodedConfig && requiresUpdate()) {
-            mLastInitiatedUpdate = new Date();
-            mHttpClient.get(CONFIGURATION_URL, new HttpResponseCallback() {
+        if (mUseHardcodedConfig || mClock.currentTimeMillis() < getNextRefreshTime()) {
+            return;
+        }
+
+        if (mRefreshInProgress.compareAndSet(false, true)) {
+            mExecutor.execute(new Runnable() {
                 @Override
-                public void success(String responseBody) {
+                public void run() {
                     try {
-                        JSONObject json = new JSONObject(responseBody);
-                        setConfig(json.toString(), false);
-                    } catch (JSONException ignored) {}
+                        fetchConfig();
+                    } finally {
+                        mRefreshInProgress.set(false);
+                    }
                 }
-
-                @Override
-                public void failure(Exception exception) {}
             });
         }
     }
 
-    private boolean requiresUpdate() {
-        Calendar lastUpdatedCalendar = Calendar.getInstance();
-        lastUpdatedCalendar.add(Calendar.HOUR_OF_DAY, MINIMUM_TIME_BETWEEN_REFRESH);
-        long lastUpdated = mContextInspector.getLongPreference(PREFERENCES_LAST_UPDATED, 0);
-        boolean isOutdated = new Date(lastUpdated).before(lastUpdatedCalendar.getTime());
+    private long getNextRefreshTime() {
+        long nextRefreshTime = mNextRefreshTime;
+        if (nextRefreshTime == REFRESH_TIME_UNKNOWN) {
+            if (mContextInspector.getBooleanPreference(PREFERENCES_CONFIG_IS_DEFAULT, true)) {
+                nextRefreshTime = 0;
+            } else {
+                nextRefreshTime = mContextInspector.getLongPreference(PREFERENCES_LAST_UPDATED, 0) +
+                        MINIMUM_TIME_BETWEEN_REFRESH;
+            }
 
-        Calendar recentlyUpdatedCalendar = Calendar.getInstance();
-        recentlyUpdatedCalendar.add(Calendar.SECOND, MINIMUM_TIME_BETWEEN_CONSECUTIVE_REQUESTS);
-        boolean recentlyUpdated = !(mLastInitiatedUpdate == null ||
-                mLastInitiatedUpdate.before(recentlyUpdatedCalendar.getTime()));
+            mNextRefreshTime = nextRefreshTime;
+        }
+
+        return nextRefreshTime;
+    }
+
+    private void fetchConfig() {
+        String eTag = null;
+        String lastModified = null;
+        if (!mContextInspector.getBooleanPreference(PREFERENCES_CONFIG_IS_DEFAULT, true)) {
+            eTag = mContextInspector.getStringPreference(PREFERENCES_ETAG);
+            lastModified = mContextInspector.getStringPreference(PREFERENCES_LAST_MODIFIED);
+        }
 
-        boolean isDefaultConfig = mContextInspector.getBooleanPreference(PREFERENCES_CONFIG_IS_DEFAULT, true);
-        return ((isOutdated || isDefaultConfig) && !recentlyUpdated);
+        try {
+            ConditionalGetResponse response = mHttpClient.conditionalGet(CONFIGURATION_URL, eTag, lastModified);
+            if (response.isNotModified()) {
+                mContextInspector.setPreference(PREFERENCES_LAST_UPDATED, mClock.currentTimeMillis());
+            } else {
+                JSONObject json = new JSONObject(response.getBody());
+                OtcConfiguration configuration = new ConfigFileParser().getParsedConfig(json);
+                storeConfig(json.toString(), configuration, response);
+            }
+
+            mNextRefreshTime = mClock.currentTimeMillis() + MINIMUM_TIME_BETWEEN_REFRESH;
+        } catch (Exception e) {
+            mNextRefreshTime = mClock.currentTimeMillis() + MINIMUM_TIME_BETWEEN_FAILED_REQUESTS;
+        }
     }
 
+    /**
+     * Returns the current {@link OtcConfiguration}. The configuration is parsed once and reused until a refresh
+     * with a different file timestamp completes, so repeated calls do not read preferences or parse JSON. The
+     * returned instance must not be modified.
+     */
     public OtcConfiguration getConfig() {
         refreshConfiguration();
+
+        OtcConfiguration configuration = mConfiguration;
+        if (configuration == null) {
+            synchronized (this) {
+                OtcConfiguration loadedConfiguration = loadConfig();
+
+                // a refresh may have completed while loading
+                configuration = mConfiguration;
+                if (configuration == null) {
+                    configuration = loadedConfiguration;
+                    mConfiguration = configuration;
+                }
+            }
+        }
+
+        return configuration;
+    }
+
+    private OtcConfiguration loadConfig() {
         boolean useDefault = false;
 
         String jsonConfig = mContextInspector.getStringPreference(PREFERENCES_CONFIG_FILE);
@@ -80,6 +167,7 @@ public class ConfigManager {
             useDefault = true;
         }
 
+        boolean storedConfigInvalid = false;
         OtcConfiguration config;
         try {
             config = getOtcConfiguration(jsonConfig);
@@ -87,9 +175,8 @@ public class ConfigManager {
             try {
                 jsonConfig = BuildConfig.CONFIGURATION;
                 useDefault = true;
+                storedConfigInvalid = true;
                 config = getOtcConfiguration(jsonConfig);
-
-                refreshConfiguration();
             } catch (JSONException e1) {
                 throw new RuntimeException("could not parse default file");
             }
@@ -97,20 +184,48 @@ public class ConfigManager {
 
         if (useDefault) {
             setConfig(jsonConfig, true);
-            // may need to update again if there was an error with stored prefs
+        }
+
+        if (storedConfigInvalid) {
+            // need to update again since there was an error with stored prefs
+            mNextRefreshTime = 0;
             refreshConfiguration();
         }
 
         return config;
     }
 
+    private synchronized void storeConfig(String jsonConfig, OtcConfiguration configuration,
+            ConditionalGetResponse response) {
+        setConfig(jsonConfig, false);
+        mContextInspector.setPreference(PREFERENCES_ETAG, response.getETag());
+        mContextInspector.setPreference(PREFERENCES_LAST_MODIFIED, response.getLastModified());
+
+        if (mUseHardcodedConfig) {
+            return;
+        }
+
+        OtcConfiguration current = mConfiguration;
+        if (current == null || !TextUtils.equals(current.getFileTimestamp(), configuration.getFileTimestamp())) {
+            mConfiguration = configuration;
+        }
+    }
+
     private OtcConfiguration getOtcConfiguration(String jsonConfig) throws JSONException {
         return new ConfigFileParser().getParsedConfig(new JSONObject(jsonConfig));
     }
 
     private void setConfig(String serverReply, boolean isDefault) {
         mContextInspector.setPreference(PREFERENCES_CONFIG_FILE, serverReply);
-        mContextInspector.setPreference(PREFERENCES_LAST_UPDATED, System.currentTimeMillis());
+        mContextInspector.setPreference(PREFERENCES_LAST_UPDATED, mClock.currentTimeMillis());
         mContextInspector.setPreference(PREFERENCES_CONFIG_IS_DEFAULT, isDefault);
     }
+
+    @VisibleForTesting
+    static class Clock {
+
+        long currentTimeMillis() {
+            return System.currentTimeMillis();
+        }
+    }
 }
@@ -3,14 +3,22 @@ package com.paypal.android.sdk.onetouch.core.config;
 import com.paypal.android.sdk.onetouch.core.enums.RequestTarget;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The configuration loaded from default or stored in preferences.
+ * <p/>
+ * Browser recipe lookups are indexed the first time they are made and the indexes are reset when a recipe is
+ * added, so lookups on a parsed configuration do not scan the recipe lists.
  */
 public class OtcConfiguration {
 
+    private static final Object NO_RECIPE = new Object();
+
     private final ArrayList<OAuth2Recipe> mOauth2RecipesInDecreasingPriorityOrder =
             new ArrayList<>();
     private final ArrayList<CheckoutRecipe> mCheckoutRecipesInDecreasingPriorityOrder =
@@ -19,8 +27,13 @@ public class OtcConfiguration {
             mBillingAgreementRecipesInDecreasingPriorityOrder = new ArrayList<>();
     private String mFileTimestamp;
 
+    private final Map<Set<String>, Object> mBrowserOauth2RecipesByScopes = new ConcurrentHashMap<>();
+    private volatile Object mBrowserCheckoutRecipe;
+    private volatile Object mBrowserBillingAgreementRecipe;
+
     public OtcConfiguration withOauth2Recipe(OAuth2Recipe recipe) {
         mOauth2RecipesInDecreasingPriorityOrder.add(recipe);
+        mBrowserOauth2RecipesByScopes.clear();
         return this;
     }
 
@@ -40,14 +53,13 @@ public class OtcConfiguration {
      * @return
      */
     public OAuth2Recipe getBrowserOauth2Config(Set<String> scopes) {
-        for (OAuth2Recipe recipe : mOauth2RecipesInDecreasingPriorityOrder) {
-            if (recipe.getTarget() == RequestTarget.browser
-                    && recipe.isValidForScopes(scopes)) {
-                return recipe;
-            }
+        Object recipe = mBrowserOauth2RecipesByScopes.get(scopes);
+        if (recipe == null) {
+            recipe = findBrowserOauth2Recipe(scopes);
+            mBrowserOauth2RecipesByScopes.put(new HashSet<>(scopes), recipe);
         }
 
-        return null;
+        return recipe == NO_RECIPE ? null : (OAuth2Recipe) recipe;
     }
 
     /**
@@ -56,13 +68,13 @@ public class OtcConfiguration {
      * @return
      */
     public CheckoutRecipe getBrowserCheckoutConfig() {
-        for (CheckoutRecipe recipe : mCheckoutRecipesInDecreasingPriorityOrder) {
-            if (recipe.getTarget() == RequestTarget.browser) {
-                return recipe;
-            }
+        Object recipe = mBrowserCheckoutRecipe;
+        if (recipe == null) {
+            recipe = findBrowserRecipe(mCheckoutRecipesInDecreasingPriorityOrder);
+            mBrowserCheckoutRecipe = recipe;
         }
 
-        return null;
+        return recipe == NO_RECIPE ? null : (CheckoutRecipe) recipe;
     }
 
     /**
@@ -71,13 +83,34 @@ public class OtcConfiguration {
      * @return
      */
     public BillingAgreementRecipe getBrowserBillingAgreementConfig() {
-        for (BillingAgreementRecipe recipe : mBillingAgreementRecipesInDecreasingPriorityOrder) {
+        Object recipe = mBrowserBillingAgreementRecipe;
+        if (recipe == null) {
+            recipe = findBrowserRecipe(mBillingAgreementRecipesInDecreasingPriorityOrder);
+            mBrowserBillingAgreementRecipe = recipe;
+        }
+
+        return recipe == NO_RECIPE ? null : (BillingAgreementRecipe) recipe;
+    }
+
+    private Object findBrowserOauth2Recipe(Set<String> scopes) {
+        for (OAuth2Recipe recipe : mOauth2RecipesInDecreasingPriorityOrder) {
+            if (recipe.getTarget() == RequestTarget.browser
+                    && recipe.isValidForScopes(scopes)) {
+                return recipe;
+            }
+        }
+
+        return NO_RECIPE;
+    }
+
+    private static Object findBrowserRecipe(List<? extends Recipe<?>> recipes) {
+        for (Recipe<?> recipe : recipes) {
             if (recipe.getTarget() == RequestTarget.browser) {
                 return recipe;
             }
         }
 
-        return null;
+        return NO_RECIPE;
     }
 
     public List<OAuth2Recipe> getOauth2Recipes() {
@@ -86,6 +119,7 @@ public class OtcConfiguration {
 
     public void withCheckoutRecipe(CheckoutRecipe recipe) {
         mCheckoutRecipesInDecreasingPriorityOrder.add(recipe);
+        mBrowserCheckoutRecipe = null;
     }
 
     public List<CheckoutRecipe> getCheckoutRecipes() {
@@ -94,6 +128,7 @@ public class OtcConfiguration {
 
     public void withBillingAgreementRecipe(BillingAgreementRecipe recipe) {
         mBillingAgreementRecipesInDecreasingPriorityOrder.add(recipe);
+        mBrowserBillingAgreementRecipe = null;
     }
 
     public List<BillingAgreementRecipe> getBillingAgreementRecipes() {
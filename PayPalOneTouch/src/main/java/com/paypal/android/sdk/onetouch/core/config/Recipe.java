@@ -4,11 +4,9 @@ import android.content.Context;
 import android.content.Intent;
 import android.net.Uri;
 
-import com.braintreepayments.api.internal.AppHelper;
 import com.braintreepayments.browserswitch.ChromeCustomTabs;
 import com.paypal.android.sdk.onetouch.core.enums.Protocol;
 import com.paypal.android.sdk.onetouch.core.enums.RequestTarget;
-import com.paypal.android.sdk.onetouch.core.sdk.AppSwitchHelper;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -69,18 +67,15 @@ public abstract class Recipe<T extends Recipe<T>> {
     protected abstract T getThis();
 
     public boolean isValidAppTarget(Context context) {
-        for (String allowedWalletTarget : getTargetPackagesInReversePriorityOrder()) {
-            boolean isIntentAvailable = AppHelper.isIntentAvailable(context,
-                    AppSwitchHelper.createBaseIntent(getTargetIntentAction(), allowedWalletTarget));
-
-            String locale = Locale.getDefault().toString();
-            // if no locales are specified, then presumed to be allowed for all
-            boolean isLocaleAllowed =
-                    mSupportedLocales.isEmpty() || mSupportedLocales.contains(locale);
-
-            boolean isSignatureValid = AppSwitchHelper.isSignatureValid(context, allowedWalletTarget);
+        String locale = Locale.getDefault().toString();
+        // if no locales are specified, then presumed to be allowed for all
+        boolean isLocaleAllowed = mSupportedLocales.isEmpty() || mSupportedLocales.contains(locale);
+        if (!isLocaleAllowed) {
+            return false;
+        }
 
-            if (isIntentAvailable && isLocaleAllowed && isSignatureValid) {
+        for (String allowedWalletTarget : mTargetPackagesInReversePriorityOrder) {
+            if (TargetResolutionCache.isValidAppTarget(context, getTargetIntentAction(), allowedWalletTarget)) {
                 return true;
             }
         }
@@ -89,7 +84,7 @@ public abstract class Recipe<T extends Recipe<T>> {
     }
 
     public boolean isValidBrowserTarget(Context context, String browserSwitchUrl) {
-        for (String allowedBrowserPackage : getTargetPackagesInReversePriorityOrder()) {
+        for (String allowedBrowserPackage : mTargetPackagesInReversePriorityOrder) {
             boolean canBeResolved =
                     isValidBrowserTarget(context, browserSwitchUrl, allowedBrowserPackage);
             if (canBeResolved) {
@@ -101,8 +96,7 @@ public abstract class Recipe<T extends Recipe<T>> {
     }
 
     public static boolean isValidBrowserTarget(Context context, String browserSwitchUrl, String allowedBrowserPackage) {
-        Intent intent = getBrowserIntent(context, browserSwitchUrl, allowedBrowserPackage);
-        return (intent.resolveActivity(context.getPackageManager()) != null);
+        return TargetResolutionCache.isValidBrowserTarget(context, browserSwitchUrl, allowedBrowserPackage);
     }
 
     public static Intent getBrowserIntent(Context context, String browserSwitchUrl, String allowedBrowserPackage) {
@@ -0,0 +1,117 @@
+package com.paypal.android.sdk.onetouch.core.config;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.net.Uri;
+import android.support.annotation.VisibleForTesting;
+
+import com.braintreepayments.api.internal.AppHelper;
+import com.paypal.android.sdk.onetouch.core.sdk.AppSwitchHelper;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches whether wallet and browser targets can be resolved, so that {@link Recipe}s do not query the
+ * {@link android.content.pm.PackageManager} and verify package signatures every time a recipe is chosen.
+ * <p/>
+ * Results only depend on the packages installed on the device, so the cache is cleared whenever a package is
+ * added, removed or replaced.
+ */
+class TargetResolutionCache {
+
+    private static final Map<String, Boolean> sResults = new ConcurrentHashMap<>();
+    private static volatile int sGeneration = 0;
+    private static BroadcastReceiver sPackageChangedReceiver;
+
+    private TargetResolutionCache() {}
+
+    /**
+     * @return {@code true} if an activity in the package handles the intent action and the package is signed by
+     * PayPal.
+     */
+    static boolean isValidAppTarget(Context context, String intentAction, String packageName) {
+        String key = "app:" + packageName + ":" + intentAction;
+        Boolean result = sResults.get(key);
+        if (result != null) {
+            return result;
+        }
+
+        int generation = sGeneration;
+        result = AppHelper.isIntentAvailable(context, AppSwitchHelper.createBaseIntent(intentAction, packageName)) &&
+                AppSwitchHelper.isSignatureValid(context, packageName);
+        put(context, generation, key, result);
+
+        return result;
+    }
+
+    /**
+     * @return {@code true} if the browser package, or any browser if the package is {@code *}, can open the url.
+     */
+    static boolean isValidBrowserTarget(Context context, String browserSwitchUrl, String packageName) {
+        String key = "browser:" + packageName + ":" + Uri.parse(browserSwitchUrl).getScheme();
+        Boolean result = sResults.get(key);
+        if (result != null) {
+            return result;
+        }
+
+        int generation = sGeneration;
+        result = Recipe.getBrowserIntent(context, browserSwitchUrl, packageName)
+                .resolveActivity(context.getPackageManager()) != null;
+        put(context, generation, key, result);
+
+        return result;
+    }
+
+    @VisibleForTesting
+    static synchronized void reset() {
+        clear();
+        sPackageChangedReceiver = null;
+    }
+
+    private static synchronized void clear() {
+        sGeneration++;
+        sResults.clear();
+    }
+
+    private static synchronized void put(Context context, int generation, String key, boolean result) {
+        // results are only cached once package changes can be observed
+        if (!registerPackageChangedReceiver(context)) {
+            return;
+        }
+
+        // the result is stale if a package changed while it was computed
+        if (generation == sGeneration) {
+            sResults.put(key, result);
+        }
+    }
+
+    private static synchronized boolean registerPackageChangedReceiver(Context context) {
+        if (sPackageChangedReceiver != null) {
+            return true;
+        }
+
+        IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_PACKAGE_ADDED);
+        filter.addAction(Intent.ACTION_PACKAGE_REMOVED);
+        filter.addAction(Intent.ACTION_PACKAGE_REPLACED);
+        filter.addDataScheme("package");
+
+        BroadcastReceiver receiver = new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                clear();
+            }
+        };
+
+        try {
+            context.getApplicationContext().registerReceiver(receiver, filter);
+            sPackageChangedReceiver = receiver;
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+}
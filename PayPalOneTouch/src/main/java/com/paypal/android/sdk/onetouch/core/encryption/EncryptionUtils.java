@@ -7,6 +7,8 @@ import java.security.SecureRandom;
 import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Very basic string manipulation methods useful for encryption.
@@ -14,6 +16,16 @@ import java.security.cert.X509Certificate;
 public class EncryptionUtils {
 
     private static final SecureRandom RANDOM;
+    private static final int MAX_CACHED_CERTIFICATES = 4;
+
+    private static final ThreadLocal<CertificateFactory> sCertificateFactory = new ThreadLocal<>();
+    private static final Map<String, X509Certificate> sCertificates =
+            new LinkedHashMap<String, X509Certificate>(MAX_CACHED_CERTIFICATES, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, X509Certificate> eldest) {
+                    return size() > MAX_CACHED_CERTIFICATES;
+                }
+            };
 
     static {
         PRNGFixes.apply();
@@ -26,14 +38,35 @@ public class EncryptionUtils {
         return output;
     }
 
+    /**
+     * Parses a Base64 encoded X.509 certificate. Certificates are cached by their encoded value since the same
+     * endpoint certificate is used for every browser switch.
+     */
     public static X509Certificate getX509CertificateFromBase64String(String certificateBase64)
             throws CertificateException {
+        synchronized (sCertificates) {
+            X509Certificate cachedCertificate = sCertificates.get(certificateBase64);
+            if (cachedCertificate != null) {
+                return cachedCertificate;
+            }
+        }
 
         byte[] certificate = Base64.decode(certificateBase64, Base64.DEFAULT);
 
-        CertificateFactory certFactory = CertificateFactory.getInstance("X.509");
-        return (X509Certificate) certFactory
+        CertificateFactory certFactory = sCertificateFactory.get();
+        if (certFactory == null) {
+            certFactory = CertificateFactory.getInstance("X.509");
+            sCertificateFactory.set(certFactory);
+        }
+
+        X509Certificate x509Certificate = (X509Certificate) certFactory
                 .generateCertificate(new ByteArrayInputStream(certificate));
+
+        synchronized (sCertificates) {
+            sCertificates.put(certificateBase64, x509Certificate);
+        }
+
+        return x509Certificate;
     }
 
     /**
@@ -27,14 +27,36 @@ public class OtcCrypto {
     private static final int DIGEST_SIZE = 32;
     private static final int MAX_RSA_ENCRYPTABLE_BYTES = 214;
 
+    // Mac and Cipher instances are not thread safe and are expensive to look up, so each thread keeps its own.
+    // They are re-initialized before every use.
+    private static final ThreadLocal<Mac> sHmacSha256 = new ThreadLocal<>();
+    private static final ThreadLocal<Cipher> sRsaCipher = new ThreadLocal<>();
+    private static final ThreadLocal<Cipher> sAesCtrCipher = new ThreadLocal<>();
+
     private byte[] dataDigest(byte[] data, byte[] key)
             throws NoSuchAlgorithmException, InvalidKeyException {
-        Mac sha256HMAC = Mac.getInstance(HMAC_SHA256);
+        Mac sha256HMAC = sHmacSha256.get();
+        if (sha256HMAC == null) {
+            sha256HMAC = Mac.getInstance(HMAC_SHA256);
+            sHmacSha256.set(sha256HMAC);
+        }
+
         SecretKeySpec digestKey = new SecretKeySpec(key, HMAC_SHA256);
         sha256HMAC.init(digestKey);
         return sha256HMAC.doFinal(data);
     }
 
+    private static Cipher getCipher(ThreadLocal<Cipher> cache, String transformation)
+            throws NoSuchAlgorithmException, NoSuchPaddingException {
+        Cipher cipher = cache.get();
+        if (cipher == null) {
+            cipher = Cipher.getInstance(transformation);
+            cache.set(cipher);
+        }
+
+        return cipher;
+    }
+
     public byte[] generateRandom256BitKey() {
         return EncryptionUtils.generateRandomData(ENCRYPTION_KEY_SIZE);
     }
@@ -49,7 +71,7 @@ public class OtcCrypto {
 
         PublicKey publicKey = certificate.getPublicKey();
 
-        Cipher rsaCipher = Cipher.getInstance(RSA_ALGO);
+        Cipher rsaCipher = getCipher(sRsaCipher, RSA_ALGO);
         rsaCipher.init(Cipher.ENCRYPT_MODE, publicKey);
         return rsaCipher.doFinal(plainData);
     }
@@ -88,7 +110,7 @@ public class OtcCrypto {
         IvParameterSpec nonceSpec = new IvParameterSpec(nonceData);
         SecretKeySpec keySpec = new SecretKeySpec(encryptionKey, "AES");
 
-        Cipher cipher = Cipher.getInstance(AES_CTR_ALGO);
+        Cipher cipher = getCipher(sAesCtrCipher, AES_CTR_ALGO);
         cipher.init(Cipher.DECRYPT_MODE, keySpec, nonceSpec);
         return cipher.doFinal(signedData, NONCE_SIZE, signedData.length - NONCE_SIZE);
     }
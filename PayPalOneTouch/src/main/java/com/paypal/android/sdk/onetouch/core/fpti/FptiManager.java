@@ -1,7 +1,5 @@
 package com.paypal.android.sdk.onetouch.core.fpti;
 
-import android.os.Handler;
-import android.os.Looper;
 import android.support.annotation.VisibleForTesting;
 
 import com.paypal.android.sdk.data.collector.InstallationIdentifier;
@@ -16,31 +14,58 @@ import com.paypal.android.sdk.onetouch.core.network.PayPalHttpClient;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.File;
 import java.util.GregorianCalendar;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Random;
+import java.util.Set;
 
 public class FptiManager {
 
+    private static final String QUEUE_FILE = "paypal_fpti_events";
+
     private final ContextInspector mContextInspector;
-    private final PayPalHttpClient mHttpClient;
+    private final FptiQueue mQueue;
+    private final Set<String> mTrackedWalletChecks = new HashSet<>();
     private FptiToken mToken;
 
     public FptiManager(ContextInspector contextInspector, PayPalHttpClient httpClient) {
+        this(contextInspector, new FptiQueue(
+                new File(contextInspector.getContext().getFilesDir(), QUEUE_FILE), httpClient));
+    }
+
+    @VisibleForTesting
+    FptiManager(ContextInspector contextInspector, FptiQueue queue) {
         mContextInspector = contextInspector;
-        mHttpClient = httpClient;
+        mQueue = queue;
     }
 
+    /**
+     * Queues an FPTI event. Events are persisted and sent together in the background.
+     * {@link TrackingPoint#WalletIsPresent} and {@link TrackingPoint#WalletIsAbsent} are only tracked once per
+     * protocol and environment for each tracking session.
+     */
     public void trackFpti(TrackingPoint point, String environmentName,
             Map<String, String> fptiDataBundle, Protocol protocol) {
         if (EnvironmentManager.isMock(environmentName)) {
             return;
         }
 
-        if (mToken == null || !mToken.isValid()) {
-            mToken = new FptiToken();
+        FptiToken token;
+        synchronized (this) {
+            if (mToken == null || !mToken.isValid()) {
+                mToken = new FptiToken();
+                mTrackedWalletChecks.clear();
+            }
+
+            if ((point == TrackingPoint.WalletIsPresent || point == TrackingPoint.WalletIsAbsent) &&
+                    !mTrackedWalletChecks.add(point.name() + ":" + protocol + ":" + environmentName)) {
+                return;
+            }
+
+            token = mToken;
         }
 
         long currentTimeInMillis = System.currentTimeMillis();
@@ -70,20 +95,20 @@ public class FptiManager {
         params.put("sv", "mobile");
         params.put("t", Long.toString(currentTimeInMillis - getGMTOffset())); // client time in millis since epoch
         params.put("vers", "Android:" + environmentName + ":");
-        params.put("vid", mToken.mToken);
+        params.put("vid", token.mToken);
 
         try {
             JSONObject actor = new JSONObject();
             actor.accumulate("tracking_visitor_id", deviceId);
-            actor.accumulate("tracking_visit_id", mToken.mToken);
+            actor.accumulate("tracking_visit_id", token.mToken);
 
-            JSONObject events = new JSONObject();
-            events.accumulate("actor", actor);
-            events.accumulate("channel", "mobile");
-            events.accumulate("tracking_event", Long.toString(currentTimeInMillis));
-            events.accumulate("event_params", getEventParams(params));
+            JSONObject event = new JSONObject();
+            event.accumulate("actor", actor);
+            event.accumulate("channel", "mobile");
+            event.accumulate("tracking_event", Long.toString(currentTimeInMillis));
+            event.accumulate("event_params", getEventParams(params));
 
-            sendRequest(new JSONObject().accumulate("events", events).toString());
+            sendRequest(event.toString());
         } catch (JSONException ignored) {}
     }
 
@@ -96,13 +121,8 @@ public class FptiManager {
     }
 
     @VisibleForTesting
-    void sendRequest(final String data) {
-        new Handler(Looper.getMainLooper()).postDelayed(new Runnable() {
-            @Override
-            public void run() {
-                mHttpClient.post("tracking/events", data, null);
-            }
-        }, (10 + new Random().nextInt(190)) * 1000);
+    void sendRequest(String event) {
+        mQueue.add(event);
     }
 
     private int getGMTOffset() {
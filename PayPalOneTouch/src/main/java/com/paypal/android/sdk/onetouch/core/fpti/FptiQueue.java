@@ -0,0 +1,228 @@
+package com.paypal.android.sdk.onetouch.core.fpti;
+
+import android.support.annotation.VisibleForTesting;
+import android.util.Log;
+
+import com.braintreepayments.api.exceptions.DownForMaintenanceException;
+import com.braintreepayments.api.exceptions.RateLimitException;
+import com.braintreepayments.api.exceptions.ServerException;
+import com.paypal.android.sdk.onetouch.core.network.PayPalHttpClient;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queues FPTI events on disk and posts them from a background thread, so that events survive process death and a
+ * burst of events is sent together on one scheduled flush. Each event is posted in its own request, in the
+ * {@code {"events": {...}}} format the tracking endpoint accepts.
+ * <p/>
+ * All reads and writes of the queue happen on the {@link Scheduler} thread. Each event is one line of the queue
+ * file, and the file is rewritten through a temporary file so it is never left partially written.
+ */
+class FptiQueue {
+
+    @VisibleForTesting
+    static final int MAX_EVENTS = 100;
+    @VisibleForTesting
+    static final long MIN_FLUSH_DELAY = TimeUnit.SECONDS.toMillis(10);
+    @VisibleForTesting
+    static final long MAX_FLUSH_DELAY = TimeUnit.SECONDS.toMillis(200);
+
+    private static final String TAG = FptiQueue.class.getSimpleName();
+    private static final String TRACKING_EVENTS_PATH = "tracking/events";
+    private static final String VERSION = "1";
+
+    private final File mFile;
+    private final PayPalHttpClient mHttpClient;
+    private final Scheduler mScheduler;
+    private final Random mRandom;
+
+    // only accessed on the scheduler thread
+    private List<String> mEvents;
+    private boolean mFlushScheduled;
+
+    FptiQueue(File file, PayPalHttpClient httpClient) {
+        this(file, httpClient, new Scheduler(), new Random());
+    }
+
+    @VisibleForTesting
+    FptiQueue(File file, PayPalHttpClient httpClient, Scheduler scheduler, Random random) {
+        mFile = file;
+        mHttpClient = httpClient;
+        mScheduler = scheduler;
+        mRandom = random;
+
+        // send events left over from a previous process
+        mScheduler.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (!getEvents().isEmpty()) {
+                    scheduleFlush();
+                }
+            }
+        });
+    }
+
+    /**
+     * Adds a serialized FPTI event to the queue and schedules a flush if none is pending.
+     */
+    void add(final String event) {
+        mScheduler.execute(new Runnable() {
+            @Override
+            public void run() {
+                List<String> events = getEvents();
+                events.add(event);
+                while (events.size() > MAX_EVENTS) {
+                    events.remove(0);
+                }
+
+                persist();
+                scheduleFlush();
+            }
+        });
+    }
+
+    private void scheduleFlush() {
+        if (mFlushScheduled) {
+            return;
+        }
+
+        mFlushScheduled = true;
+        long delay = MIN_FLUSH_DELAY + (long) (mRandom.nextDouble() * (MAX_FLUSH_DELAY - MIN_FLUSH_DELAY));
+        mScheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                mFlushScheduled = false;
+                flush();
+            }
+        }, delay);
+    }
+
+    private void flush() {
+        List<String> events = getEvents();
+        while (!events.isEmpty()) {
+            try {
+                mHttpClient.post(TRACKING_EVENTS_PATH, getRequestBody(events.get(0)));
+            } catch (IOException | ServerException | DownForMaintenanceException | RateLimitException e) {
+                // keep the events and try again later
+                scheduleFlush();
+                return;
+            } catch (Exception e) {
+                // the event was rejected and would be rejected again, so it is not retried
+                Log.w(TAG, "FPTI event rejected, dropping it", e);
+            }
+
+            events.remove(0);
+            persist();
+        }
+    }
+
+    @VisibleForTesting
+    static String getRequestBody(String event) {
+        return "{\"events\":" + event + "}";
+    }
+
+    private List<String> getEvents() {
+        if (mEvents == null) {
+            mEvents = read();
+        }
+        return mEvents;
+    }
+
+    private List<String> read() {
+        List<String> events = new LinkedList<>();
+        if (!mFile.exists()) {
+            return events;
+        }
+
+        Reader reader = null;
+        try {
+            reader = new InputStreamReader(new FileInputStream(mFile), "UTF-8");
+            BufferedReader bufferedReader = new BufferedReader(reader);
+            if (!VERSION.equals(bufferedReader.readLine())) {
+                return events;
+            }
+
+            for (String line; (line = bufferedReader.readLine()) != null; ) {
+                if (line.length() > 0) {
+                    events.add(line);
+                }
+            }
+        } catch (IOException ignored) {
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException ignored) {}
+            }
+        }
+
+        return events;
+    }
+
+    private void persist() {
+        if (mEvents.isEmpty()) {
+            mFile.delete();
+            return;
+        }
+
+        File directory = mFile.getParentFile();
+        if (!directory.exists() && !directory.mkdirs()) {
+            return;
+        }
+
+        File tempFile = new File(directory, mFile.getName() + ".tmp");
+        Writer writer = null;
+        try {
+            writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tempFile), "UTF-8"));
+            writer.write(VERSION);
+            writer.write('\n');
+            for (String event : mEvents) {
+                // serialized JSON escapes line breaks, so every event is a single line
+                writer.write(event);
+                writer.write('\n');
+            }
+            writer.close();
+            writer = null;
+
+            if (!tempFile.renameTo(mFile)) {
+                tempFile.delete();
+            }
+        } catch (IOException ignored) {
+        } finally {
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (IOException ignored) {}
+            }
+        }
+    }
+
+    @VisibleForTesting
+    static class Scheduler {
+
+        private final ScheduledExecutorService mExecutor = Executors.newSingleThreadScheduledExecutor();
+
+        void execute(Runnable runnable) {
+            mExecutor.execute(runnable);
+        }
+
+        void schedule(Runnable runnable, long delayMillis) {
+            mExecutor.schedule(runnable, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+}
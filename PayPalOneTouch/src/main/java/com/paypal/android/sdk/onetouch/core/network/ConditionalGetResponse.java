@@ -0,0 +1,60 @@
+package com.paypal.android.sdk.onetouch.core.network;
+
+import android.support.annotation.Nullable;
+
+/**
+ * The result of {@link PayPalHttpClient#conditionalGet(String, String, String)}.
+ */
+public class ConditionalGetResponse {
+
+    private final boolean mNotModified;
+    private final String mBody;
+    private final String mETag;
+    private final String mLastModified;
+
+    static ConditionalGetResponse notModified() {
+        return new ConditionalGetResponse(true, null, null, null);
+    }
+
+    static ConditionalGetResponse modified(String body, @Nullable String eTag, @Nullable String lastModified) {
+        return new ConditionalGetResponse(false, body, eTag, lastModified);
+    }
+
+    private ConditionalGetResponse(boolean notModified, String body, String eTag, String lastModified) {
+        mNotModified = notModified;
+        mBody = body;
+        mETag = eTag;
+        mLastModified = lastModified;
+    }
+
+    /**
+     * @return {@code true} if the server responded with 304 Not Modified and there is no body.
+     */
+    public boolean isNotModified() {
+        return mNotModified;
+    }
+
+    /**
+     * @return the response body, or {@code null} if the resource was not modified.
+     */
+    @Nullable
+    public String getBody() {
+        return mBody;
+    }
+
+    /**
+     * @return the ETag header of the response, if present.
+     */
+    @Nullable
+    public String getETag() {
+        return mETag;
+    }
+
+    /**
+     * @return the Last-Modified header of the response, if present.
+     */
+    @Nullable
+    public String getLastModified() {
+        return mLastModified;
+    }
+}
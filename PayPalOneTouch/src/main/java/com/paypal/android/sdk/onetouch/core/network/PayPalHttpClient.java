@@ -1,5 +1,6 @@
 package com.paypal.android.sdk.onetouch.core.network;
 
+import android.support.annotation.Nullable;
 import android.support.annotation.VisibleForTesting;
 
 import com.braintreepayments.api.internal.HttpClient;
@@ -27,6 +28,46 @@ public class PayPalHttpClient extends HttpClient<PayPalHttpClient> {
         }
     }
 
+    /**
+     * Performs a synchronous GET request that only returns a body if the resource has changed since the response
+     * the validators were taken from.
+     *
+     * @param url the url to request.
+     * @param eTag the ETag of the previous response, or {@code null}.
+     * @param lastModified the Last-Modified header of the previous response, or {@code null}.
+     * @return the {@link ConditionalGetResponse}.
+     * @throws Exception if the request failed or the server responded with an error.
+     */
+    public ConditionalGetResponse conditionalGet(String url, @Nullable String eTag, @Nullable String lastModified)
+            throws Exception {
+        HttpURLConnection connection = null;
+        try {
+            connection = init(url);
+            connection.setRequestMethod("GET");
+            connection.setUseCaches(false);
+
+            if (eTag != null) {
+                connection.setRequestProperty("If-None-Match", eTag);
+            }
+
+            if (lastModified != null) {
+                connection.setRequestProperty("If-Modified-Since", lastModified);
+            }
+
+            if (connection.getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                return ConditionalGetResponse.notModified();
+            }
+
+            String body = parseResponse(connection);
+            return ConditionalGetResponse.modified(body, connection.getHeaderField("ETag"),
+                    connection.getHeaderField("Last-Modified"));
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+
     @VisibleForTesting
     @Override
     protected HttpURLConnection init(String url) throws IOException {
@@ -1,13 +1,19 @@
 package com.paypal.android.sdk.onetouch.core;
 
+import android.content.pm.PackageManager.NameNotFoundException;
 import android.net.Uri;
 import android.os.Parcel;
 
 import com.paypal.android.sdk.onetouch.core.base.ContextInspector;
+import com.paypal.android.sdk.onetouch.core.config.ConfigEndpoint;
+import com.paypal.android.sdk.onetouch.core.config.OAuth2Recipe;
+import com.paypal.android.sdk.onetouch.core.config.OtcConfiguration;
 import com.paypal.android.sdk.onetouch.core.encryption.EncryptionUtils;
+import com.paypal.android.sdk.onetouch.core.enums.RequestTarget;
 import com.paypal.android.sdk.onetouch.core.enums.ResultType;
 import com.paypal.android.sdk.onetouch.core.exception.BrowserSwitchException;
 import com.paypal.android.sdk.onetouch.core.exception.ResponseParsingException;
+import com.paypal.android.sdk.onetouch.core.network.EnvironmentManager;
 
 import org.json.JSONException;
 import org.junit.Before;
@@ -19,9 +25,19 @@ import org.robolectric.annotation.Config;
 import org.skyscreamer.jsonassert.JSONAssert;
 import org.skyscreamer.jsonassert.JSONCompareMode;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.Arrays;
+
+import static com.braintreepayments.testutils.ReflectionHelper.getField;
 import static com.braintreepayments.testutils.ReflectionHelper.setField;
+import static com.paypal.android.sdk.onetouch.core.test.TestSetupHelper.getMockContextInspector;
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
 import static junit.framework.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -214,6 +230,20 @@ public class AuthorizationRequestUnitTest {
         assertEquals("Response uri invalid", result.getError().getMessage());
     }
 
+    @Test
+    public void getRecipeToExecute_choosesBrowserRecipeWithoutEncryptingPayload() throws NameNotFoundException {
+        OAuth2Recipe recipe = new OAuth2Recipe()
+                .target(RequestTarget.browser)
+                .targetPackage("*");
+        recipe.validForAllScopes();
+        recipe.withEndpoint(EnvironmentManager.LIVE,
+                new ConfigEndpoint(EnvironmentManager.LIVE, "https://www.paypal.com/signin/authorize", "invalid"));
+        OtcConfiguration configuration = new OtcConfiguration().withOauth2Recipe(recipe);
+        mRequest.environment(EnvironmentManager.LIVE);
+
+        assertSame(recipe, mRequest.getRecipeToExecute(getMockContextInspector().getContext(), configuration));
+    }
+
     @Test
     public void parcels() {
         AuthorizationRequest request = new AuthorizationRequest(RuntimeEnvironment.application);
@@ -243,4 +273,37 @@ public class AuthorizationRequestUnitTest {
         assertEquals("{payload-key=payload-value}", parceledRequest.getAdditionalPayloadAttributes().toString());
         assertEquals("address email", parceledRequest.getScopeString());
     }
+
+    @Test
+    public void serializes() throws Exception {
+        AuthorizationRequest request = new AuthorizationRequest(RuntimeEnvironment.application);
+        request.environment("test");
+        request.clientId("client-id");
+        request.clientMetadataId("client-metadata-id");
+        request.cancelUrl("com.braintreepayments.demo.braintree.cancel", "cancel");
+        request.successUrl("com.braintreepayments.demo.braintree.success", "success");
+        request.privacyUrl("privacy-url");
+        request.withAdditionalPayloadAttribute("payload-key", "payload-value");
+        request.withScopeValue("email");
+        request.withScopeValue("address");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        RequestSerializer.write(new DataOutputStream(bytes), request);
+        AuthorizationRequest serializedRequest = (AuthorizationRequest) RequestSerializer.read(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals("test", serializedRequest.getEnvironment());
+        assertEquals("client-id", serializedRequest.getClientId());
+        assertEquals("client-metadata-id", serializedRequest.getClientMetadataId());
+        assertEquals("com.braintreepayments.demo.braintree.cancel://onetouch/v1/cancel", serializedRequest.getCancelUrl());
+        assertEquals("com.braintreepayments.demo.braintree.success://onetouch/v1/success", serializedRequest.getSuccessUrl());
+        assertEquals("privacy-url", serializedRequest.getPrivacyUrl());
+        assertNull(serializedRequest.getUserAgreementUrl());
+        assertEquals("{payload-key=payload-value}", serializedRequest.getAdditionalPayloadAttributes().toString());
+        assertEquals("address email", serializedRequest.getScopeString());
+        assertEquals(getField(AuthorizationRequest.class, "mMsgGuid", request),
+                getField(AuthorizationRequest.class, "mMsgGuid", serializedRequest));
+        assertTrue(Arrays.equals((byte[]) getField(AuthorizationRequest.class, "mEncryptionKey", request),
+                (byte[]) getField(AuthorizationRequest.class, "mEncryptionKey", serializedRequest)));
+    }
 }
@@ -7,6 +7,12 @@ import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.RuntimeEnvironment;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
 import static junit.framework.Assert.assertEquals;
 
 @RunWith(RobolectricTestRunner.class)
@@ -45,4 +51,28 @@ public class BillingAgreementRequestUnitTest {
         assertEquals("com.braintreepayments.demo.braintree.approval-url://?ba_token=TOKEN", parceledRequest.mApprovalUrl);
         assertEquals("ba_token", parceledRequest.mTokenQueryParamKey);
     }
+
+    @Test
+    public void serializes() throws IOException {
+        BillingAgreementRequest request = new BillingAgreementRequest();
+        request.environment("test");
+        request.clientId("client-id");
+        request.pairingId(RuntimeEnvironment.application, "pairing-id");
+        request.clientMetadataId("client-metadata-id");
+        request.cancelUrl("com.braintreepayments.demo.braintree.cancel", "cancel");
+        request.successUrl("com.braintreepayments.demo.braintree.success", "success");
+        request.approvalURL("com.braintreepayments.demo.braintree.approval-url://?ba_token=TOKEN");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        RequestSerializer.write(new DataOutputStream(bytes), request);
+        Request serializedRequest = RequestSerializer.read(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(BillingAgreementRequest.class, serializedRequest.getClass());
+        BillingAgreementRequest billingAgreementRequest = (BillingAgreementRequest) serializedRequest;
+        assertEquals("pairing-id", billingAgreementRequest.getPairingId());
+        assertEquals("com.braintreepayments.demo.braintree.approval-url://?ba_token=TOKEN",
+                billingAgreementRequest.mApprovalUrl);
+        assertEquals("ba_token", billingAgreementRequest.mTokenQueryParamKey);
+    }
 }
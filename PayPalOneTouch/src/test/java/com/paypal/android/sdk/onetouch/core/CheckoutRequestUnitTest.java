@@ -7,6 +7,12 @@ import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.RuntimeEnvironment;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
 import static junit.framework.Assert.assertEquals;
 
 @RunWith(RobolectricTestRunner.class)
@@ -45,4 +51,31 @@ public class CheckoutRequestUnitTest {
         assertEquals("com.braintreepayments.demo.braintree.approval-url", parceledRequest.mApprovalUrl);
         assertEquals("token", parceledRequest.mTokenQueryParamKey);
     }
+
+    @Test
+    public void serializes() throws IOException {
+        CheckoutRequest request = new CheckoutRequest()
+                .environment("test")
+                .clientId("client-id")
+                .pairingId(RuntimeEnvironment.application, "pairing-id")
+                .clientMetadataId("client-metadata-id")
+                .cancelUrl("com.braintreepayments.demo.braintree.cancel", "cancel")
+                .successUrl("com.braintreepayments.demo.braintree.success", "success")
+                .approvalURL("com.braintreepayments.demo.braintree.approval-url");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        RequestSerializer.write(new DataOutputStream(bytes), request);
+        CheckoutRequest serializedRequest = (CheckoutRequest) RequestSerializer.read(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(CheckoutRequest.class, serializedRequest.getClass());
+        assertEquals("test", serializedRequest.getEnvironment());
+        assertEquals("client-id", serializedRequest.getClientId());
+        assertEquals("client-metadata-id", serializedRequest.getClientMetadataId());
+        assertEquals("pairing-id", serializedRequest.getPairingId());
+        assertEquals("com.braintreepayments.demo.braintree.cancel://onetouch/v1/cancel", serializedRequest.getCancelUrl());
+        assertEquals("com.braintreepayments.demo.braintree.success://onetouch/v1/success", serializedRequest.getSuccessUrl());
+        assertEquals("com.braintreepayments.demo.braintree.approval-url", serializedRequest.mApprovalUrl);
+        assertEquals("token", serializedRequest.mTokenQueryParamKey);
+    }
 }
@@ -1,8 +1,9 @@
 package com.paypal.android.sdk.onetouch.core.config;
 
-import com.braintreepayments.api.interfaces.HttpResponseCallback;
+import com.paypal.android.sdk.onetouch.core.BuildConfig;
 import com.paypal.android.sdk.onetouch.core.base.ContextInspector;
 import com.paypal.android.sdk.onetouch.core.enums.RequestTarget;
+import com.paypal.android.sdk.onetouch.core.network.ConditionalGetResponse;
 import com.paypal.android.sdk.onetouch.core.network.PayPalHttpClient;
 
 import org.junit.Before;
@@ -10,36 +11,61 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNotSame;
+import static junit.framework.Assert.assertSame;
 import static org.junit.Assert.assertNotNull;
-import static org.mockito.Matchers.any;
+import static org.mockito.ArgumentMatchers.nullable;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.isNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
 
 @RunWith(RobolectricTestRunner.class)
 public class ConfigManagerUnitTest {
 
     private static final String CONFIGURATION_URL = "https://www.paypalobjects.com/webstatic/otc/otc-config.android.json";
+    private static final String PREFERENCES_CONFIG_FILE = "com.paypal.otc.config.file";
+    private static final String PREFERENCES_LAST_UPDATED = "com.paypal.otc.config.lastUpdated.timestamp";
+    private static final String PREFERENCES_CONFIG_IS_DEFAULT = "com.paypal.otc.config.isDefault";
+    private static final String PREFERENCES_ETAG = "com.paypal.otc.config.etag";
+    private static final String PREFERENCES_LAST_MODIFIED = "com.paypal.otc.config.lastModified";
 
     private ContextInspector mContextInspector;
     private PayPalHttpClient mHttpClient;
+    private FakeClock mClock;
     private ConfigManager mConfigManager;
 
     @Before
-    public void setup() {
+    public void setup() throws Exception {
         mContextInspector = mock(ContextInspector.class);
         mHttpClient = mock(PayPalHttpClient.class);
-        mConfigManager = new ConfigManager(mContextInspector, mHttpClient);
+        when(mHttpClient.conditionalGet(anyString(), nullable(String.class), nullable(String.class)))
+                .thenThrow(new IOException());
+        mClock = new FakeClock();
+        mConfigManager = new ConfigManager(mContextInspector, mHttpClient, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        }, mClock);
     }
 
     @Test
-    public void refreshConfiguration_makesGetRequestForConfiguration() {
+    public void refreshConfiguration_makesGetRequestForConfiguration() throws Exception {
         mConfigManager.refreshConfiguration();
 
-        verify(mHttpClient).get(eq(CONFIGURATION_URL), any(HttpResponseCallback.class));
+        verify(mHttpClient).conditionalGet(eq(CONFIGURATION_URL), (String) isNull(), (String) isNull());
     }
 
     @Test
@@ -51,19 +77,135 @@ public class ConfigManagerUnitTest {
     }
 
     @Test
-    public void refreshConfiguration_makesOneRequestWhenCalledRepeatedly() {
+    public void refreshConfiguration_makesOneRequestWhenCalledRepeatedly() throws Exception {
         for (int i = 0; i < 10; i++) {
             mConfigManager.refreshConfiguration();
         }
 
-        verify(mHttpClient, times(1)).get(eq(CONFIGURATION_URL), any(HttpResponseCallback.class));
+        verify(mHttpClient, times(1)).conditionalGet(eq(CONFIGURATION_URL), (String) isNull(), (String) isNull());
+    }
+
+    @Test
+    public void refreshConfiguration_doesNotStartASecondRequestWhileOneIsInProgress() throws Exception {
+        final List<Runnable> pending = new ArrayList<>();
+        mConfigManager = new ConfigManager(mContextInspector, mHttpClient, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                pending.add(command);
+            }
+        }, mClock);
+
+        for (int i = 0; i < 10; i++) {
+            mConfigManager.refreshConfiguration();
+        }
+
+        assertEquals(1, pending.size());
+    }
+
+    @Test
+    public void refreshConfiguration_doesNotRequestConfigurationWhenStoredConfigurationIsFresh() {
+        when(mContextInspector.getBooleanPreference(PREFERENCES_CONFIG_IS_DEFAULT, true)).thenReturn(false);
+        when(mContextInspector.getLongPreference(PREFERENCES_LAST_UPDATED, 0))
+                .thenReturn(mClock.mTime - ConfigManager.MINIMUM_TIME_BETWEEN_REFRESH + 1);
+
+        mConfigManager.refreshConfiguration();
+
+        verifyZeroInteractions(mHttpClient);
+    }
+
+    @Test
+    public void refreshConfiguration_sendsValidatorsOfStoredConfiguration() throws Exception {
+        when(mContextInspector.getBooleanPreference(PREFERENCES_CONFIG_IS_DEFAULT, true)).thenReturn(false);
+        when(mContextInspector.getStringPreference(PREFERENCES_ETAG)).thenReturn("etag");
+        when(mContextInspector.getStringPreference(PREFERENCES_LAST_MODIFIED))
+                .thenReturn("Thu, 10 Mar 2016 21:15:00 GMT");
+
+        mConfigManager.refreshConfiguration();
+
+        verify(mHttpClient).conditionalGet(CONFIGURATION_URL, "etag", "Thu, 10 Mar 2016 21:15:00 GMT");
+    }
+
+    @Test
+    public void refreshConfiguration_doesNotSendValidatorsForDefaultConfiguration() throws Exception {
+        when(mContextInspector.getBooleanPreference(PREFERENCES_CONFIG_IS_DEFAULT, true)).thenReturn(true);
+        when(mContextInspector.getStringPreference(PREFERENCES_ETAG)).thenReturn("etag");
+
+        mConfigManager.refreshConfiguration();
+
+        verify(mHttpClient).conditionalGet(eq(CONFIGURATION_URL), (String) isNull(), (String) isNull());
     }
 
     @Test
-    public void getConfig_callsRefreshConfiguration() {
+    public void refreshConfiguration_storesConfigurationAndValidators() throws Exception {
+        stubResponse(modifiedResponse(BuildConfig.CONFIGURATION, "etag", "Thu, 10 Mar 2016 21:15:00 GMT"));
+
+        mConfigManager.refreshConfiguration();
+
+        verify(mContextInspector).setPreference(eq(PREFERENCES_CONFIG_FILE), anyString());
+        verify(mContextInspector).setPreference(PREFERENCES_LAST_UPDATED, mClock.mTime);
+        verify(mContextInspector).setPreference(PREFERENCES_CONFIG_IS_DEFAULT, false);
+        verify(mContextInspector).setPreference(PREFERENCES_ETAG, "etag");
+        verify(mContextInspector).setPreference(PREFERENCES_LAST_MODIFIED, "Thu, 10 Mar 2016 21:15:00 GMT");
+    }
+
+    @Test
+    public void refreshConfiguration_whenNotModified_onlyUpdatesLastUpdated() throws Exception {
+        ConditionalGetResponse response = mock(ConditionalGetResponse.class);
+        when(response.isNotModified()).thenReturn(true);
+        stubResponse(response);
+
+        mConfigManager.refreshConfiguration();
+
+        verify(mContextInspector).setPreference(PREFERENCES_LAST_UPDATED, mClock.mTime);
+        verify(mContextInspector, never()).setPreference(eq(PREFERENCES_CONFIG_FILE), anyString());
+    }
+
+    @Test
+    public void refreshConfiguration_doesNotStoreConfigurationThatFailsToParse() throws Exception {
+        stubResponse(modifiedResponse("{\"file_timestamp\": \"2017-01-01T00:00:00Z\"}", "etag", null));
+
+        mConfigManager.refreshConfiguration();
+
+        verify(mContextInspector, never()).setPreference(eq(PREFERENCES_CONFIG_FILE), anyString());
+        verify(mContextInspector, never()).setPreference(eq(PREFERENCES_ETAG), anyString());
+    }
+
+    @Test
+    public void refreshConfiguration_isNotDueAgainUntilRefreshIntervalHasPassed() throws Exception {
+        stubResponse(modifiedResponse(BuildConfig.CONFIGURATION, null, null));
+        mConfigManager.refreshConfiguration();
+
+        mClock.mTime += ConfigManager.MINIMUM_TIME_BETWEEN_REFRESH - 1;
+        mConfigManager.refreshConfiguration();
+        verify(mHttpClient, times(1))
+                .conditionalGet(eq(CONFIGURATION_URL), nullable(String.class), nullable(String.class));
+
+        mClock.mTime += 1;
+        mConfigManager.refreshConfiguration();
+        verify(mHttpClient, times(2))
+                .conditionalGet(eq(CONFIGURATION_URL), nullable(String.class), nullable(String.class));
+    }
+
+    @Test
+    public void refreshConfiguration_retriesFailedRequestAfterInterval() throws Exception {
+        mConfigManager.refreshConfiguration();
+
+        mClock.mTime += ConfigManager.MINIMUM_TIME_BETWEEN_FAILED_REQUESTS - 1;
+        mConfigManager.refreshConfiguration();
+        verify(mHttpClient, times(1))
+                .conditionalGet(eq(CONFIGURATION_URL), nullable(String.class), nullable(String.class));
+
+        mClock.mTime += 1;
+        mConfigManager.refreshConfiguration();
+        verify(mHttpClient, times(2))
+                .conditionalGet(eq(CONFIGURATION_URL), nullable(String.class), nullable(String.class));
+    }
+
+    @Test
+    public void getConfig_callsRefreshConfiguration() throws Exception {
         mConfigManager.getConfig();
 
-        verify(mHttpClient).get(eq(CONFIGURATION_URL), any(HttpResponseCallback.class));
+        verify(mHttpClient).conditionalGet(eq(CONFIGURATION_URL), (String) isNull(), (String) isNull());
     }
 
     @Test
@@ -83,4 +225,74 @@ public class ConfigManagerUnitTest {
         assertNotNull(configuration.getBrowserCheckoutConfig());
         assertNotNull(configuration.getOauth2Recipes());
     }
+
+    @Test
+    public void getConfig_parsesConfigurationOnceWhenCalledRepeatedly() {
+        OtcConfiguration configuration = mConfigManager.getConfig();
+
+        for (int i = 0; i < 1000; i++) {
+            assertSame(configuration, mConfigManager.getConfig());
+        }
+
+        verify(mContextInspector, times(1)).getStringPreference(PREFERENCES_CONFIG_FILE);
+    }
+
+    @Test
+    public void getConfig_returnsNewConfigurationAfterRefreshWithNewFileTimestamp() throws Exception {
+        OtcConfiguration configuration = mConfigManager.getConfig();
+        stubResponse(modifiedResponse(
+                BuildConfig.CONFIGURATION.replace("2016-03-10T21:15:00Z", "2017-01-01T00:00:00Z"), null, null));
+
+        mClock.mTime += ConfigManager.MINIMUM_TIME_BETWEEN_FAILED_REQUESTS;
+        mConfigManager.refreshConfiguration();
+
+        assertNotSame(configuration, mConfigManager.getConfig());
+        assertEquals("2017-01-01T00:00:00Z", mConfigManager.getConfig().getFileTimestamp());
+    }
+
+    @Test
+    public void getConfig_keepsConfigurationAfterRefreshWithSameFileTimestamp() throws Exception {
+        OtcConfiguration configuration = mConfigManager.getConfig();
+        stubResponse(modifiedResponse(BuildConfig.CONFIGURATION, null, null));
+
+        mClock.mTime += ConfigManager.MINIMUM_TIME_BETWEEN_FAILED_REQUESTS;
+        mConfigManager.refreshConfiguration();
+
+        assertSame(configuration, mConfigManager.getConfig());
+    }
+
+    @Test
+    public void getConfig_keepsConfigurationAfterRefreshWithInvalidConfiguration() throws Exception {
+        OtcConfiguration configuration = mConfigManager.getConfig();
+        stubResponse(modifiedResponse("{}", null, null));
+
+        mClock.mTime += ConfigManager.MINIMUM_TIME_BETWEEN_FAILED_REQUESTS;
+        mConfigManager.refreshConfiguration();
+
+        assertSame(configuration, mConfigManager.getConfig());
+        verify(mContextInspector, never()).setPreference(eq(PREFERENCES_CONFIG_FILE), eq("{}"));
+    }
+
+    private void stubResponse(ConditionalGetResponse response) throws Exception {
+        when(mHttpClient.conditionalGet(anyString(), nullable(String.class), nullable(String.class)))
+                .thenReturn(response);
+    }
+
+    private ConditionalGetResponse modifiedResponse(String body, String eTag, String lastModified) {
+        ConditionalGetResponse response = mock(ConditionalGetResponse.class);
+        when(response.getBody()).thenReturn(body);
+        when(response.getETag()).thenReturn(eTag);
+        when(response.getLastModified()).thenReturn(lastModified);
+        return response;
+    }
+
+    private static class FakeClock extends ConfigManager.Clock {
+
+        long mTime = 1500000000000L;
+
+        @Override
+        long currentTimeMillis() {
+            return mTime;
+        }
+    }
 }
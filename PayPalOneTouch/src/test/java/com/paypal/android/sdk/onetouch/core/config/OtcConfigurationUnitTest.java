@@ -0,0 +1,107 @@
+package com.paypal.android.sdk.onetouch.core.config;
+
+import com.paypal.android.sdk.onetouch.core.BuildConfig;
+import com.paypal.android.sdk.onetouch.core.enums.RequestTarget;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
+
+@RunWith(RobolectricTestRunner.class)
+public class OtcConfigurationUnitTest {
+
+    private OtcConfiguration mConfiguration;
+
+    @Before
+    public void setup() throws JSONException {
+        mConfiguration = new ConfigFileParser().getParsedConfig(new JSONObject(BuildConfig.CONFIGURATION));
+    }
+
+    @Test
+    public void getBrowserOauth2Config_returnsFirstBrowserRecipe() {
+        OAuth2Recipe recipe = mConfiguration.getBrowserOauth2Config(new HashSet<>(Arrays.asList("email")));
+
+        assertEquals(RequestTarget.browser, recipe.getTarget());
+        assertSame(mConfiguration.getOauth2Recipes().get(4), recipe);
+    }
+
+    @Test
+    public void getBrowserOauth2Config_returnsSameRecipeForEqualScopes() {
+        Set<String> scopes = new HashSet<>(Arrays.asList("email", "address"));
+        OAuth2Recipe recipe = mConfiguration.getBrowserOauth2Config(scopes);
+
+        scopes.add("phone");
+
+        assertSame(recipe, mConfiguration.getBrowserOauth2Config(new HashSet<>(Arrays.asList("address", "email"))));
+        assertSame(recipe, mConfiguration.getBrowserOauth2Config(scopes));
+    }
+
+    @Test
+    public void getBrowserOauth2Config_returnsNullWhenThereIsNoBrowserRecipe() {
+        OtcConfiguration configuration = new OtcConfiguration()
+                .withOauth2Recipe(new OAuth2Recipe().target(RequestTarget.wallet));
+
+        assertNull(configuration.getBrowserOauth2Config(new HashSet<>(Arrays.asList("email"))));
+    }
+
+    @Test
+    public void getBrowserOauth2Config_includesRecipesAddedAfterLookup() {
+        OtcConfiguration configuration = new OtcConfiguration();
+        assertNull(configuration.getBrowserOauth2Config(new HashSet<>(Arrays.asList("email"))));
+
+        OAuth2Recipe recipe = new OAuth2Recipe().target(RequestTarget.browser);
+        recipe.validForAllScopes();
+        configuration.withOauth2Recipe(recipe);
+
+        assertSame(recipe, configuration.getBrowserOauth2Config(new HashSet<>(Arrays.asList("email"))));
+    }
+
+    @Test
+    public void getBrowserCheckoutConfig_returnsFirstBrowserRecipe() {
+        CheckoutRecipe recipe = mConfiguration.getBrowserCheckoutConfig();
+
+        assertSame(mConfiguration.getCheckoutRecipes().get(3), recipe);
+        assertSame(recipe, mConfiguration.getBrowserCheckoutConfig());
+    }
+
+    @Test
+    public void getBrowserCheckoutConfig_includesRecipesAddedAfterLookup() {
+        OtcConfiguration configuration = new OtcConfiguration();
+        assertNull(configuration.getBrowserCheckoutConfig());
+
+        CheckoutRecipe recipe = new CheckoutRecipe().target(RequestTarget.browser);
+        configuration.withCheckoutRecipe(recipe);
+
+        assertSame(recipe, configuration.getBrowserCheckoutConfig());
+    }
+
+    @Test
+    public void getBrowserBillingAgreementConfig_returnsFirstBrowserRecipe() {
+        BillingAgreementRecipe recipe = mConfiguration.getBrowserBillingAgreementConfig();
+
+        assertSame(mConfiguration.getBillingAgreementRecipes().get(1), recipe);
+        assertSame(recipe, mConfiguration.getBrowserBillingAgreementConfig());
+    }
+
+    @Test
+    public void getBrowserBillingAgreementConfig_includesRecipesAddedAfterLookup() {
+        OtcConfiguration configuration = new OtcConfiguration();
+        assertNull(configuration.getBrowserBillingAgreementConfig());
+
+        BillingAgreementRecipe recipe = new BillingAgreementRecipe().target(RequestTarget.browser);
+        configuration.withBillingAgreementRecipe(recipe);
+
+        assertSame(recipe, configuration.getBrowserBillingAgreementConfig());
+    }
+}
@@ -0,0 +1,116 @@
+package com.paypal.android.sdk.onetouch.core.config;
+
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.PackageManager;
+import android.content.pm.ResolveInfo;
+import android.net.Uri;
+
+import com.braintreepayments.api.internal.SignatureVerificationOverrides;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.Collections;
+
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(RobolectricTestRunner.class)
+public class TargetResolutionCacheUnitTest {
+
+    private PackageManager mPackageManager;
+    private Context mContext;
+
+    @Before
+    public void setup() {
+        TargetResolutionCache.reset();
+        SignatureVerificationOverrides.disableSignatureVerification(true);
+
+        mPackageManager = mock(PackageManager.class);
+        when(mPackageManager.queryIntentActivities(any(Intent.class), anyInt()))
+                .thenReturn(Collections.singletonList(new ResolveInfo()));
+        when(mPackageManager.resolveActivity(any(Intent.class), anyInt())).thenReturn(new ResolveInfo());
+        mContext = spy(RuntimeEnvironment.application);
+        when(mContext.getPackageManager()).thenReturn(mPackageManager);
+    }
+
+    @After
+    public void tearDown() {
+        SignatureVerificationOverrides.disableSignatureVerification(false);
+        TargetResolutionCache.reset();
+    }
+
+    @Test
+    public void isValidAppTarget_queriesPackageManagerOnce() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(TargetResolutionCache.isValidAppTarget(mContext, "action", "com.paypal.android.p2pmobile"));
+        }
+
+        verify(mPackageManager, times(1)).queryIntentActivities(any(Intent.class), anyInt());
+    }
+
+    @Test
+    public void isValidAppTarget_cachesFailedResolution() {
+        when(mPackageManager.queryIntentActivities(any(Intent.class), anyInt()))
+                .thenReturn(Collections.<ResolveInfo>emptyList());
+
+        assertFalse(TargetResolutionCache.isValidAppTarget(mContext, "action", "com.paypal.android.p2pmobile"));
+        assertFalse(TargetResolutionCache.isValidAppTarget(mContext, "action", "com.paypal.android.p2pmobile"));
+
+        verify(mPackageManager, times(1)).queryIntentActivities(any(Intent.class), anyInt());
+    }
+
+    @Test
+    public void isValidAppTarget_cachesEachIntentActionSeparately() {
+        TargetResolutionCache.isValidAppTarget(mContext, "action", "com.paypal.android.p2pmobile");
+        TargetResolutionCache.isValidAppTarget(mContext, "other-action", "com.paypal.android.p2pmobile");
+
+        verify(mPackageManager, times(2)).queryIntentActivities(any(Intent.class), anyInt());
+    }
+
+    @Test
+    public void isValidAppTarget_isResolvedAgainAfterPackageIsAdded() {
+        TargetResolutionCache.isValidAppTarget(mContext, "action", "com.paypal.android.p2pmobile");
+
+        RuntimeEnvironment.application.sendBroadcast(new Intent(Intent.ACTION_PACKAGE_ADDED,
+                Uri.parse("package:com.paypal.android.p2pmobile")));
+        Robolectric.flushForegroundThreadScheduler();
+        TargetResolutionCache.isValidAppTarget(mContext, "action", "com.paypal.android.p2pmobile");
+
+        verify(mPackageManager, times(2)).queryIntentActivities(any(Intent.class), anyInt());
+    }
+
+    @Test
+    public void isValidBrowserTarget_resolvesActivityOncePerScheme() {
+        TargetResolutionCache.isValidBrowserTarget(mContext, "https://www.paypal.com/checkout?token=1", "*");
+        TargetResolutionCache.isValidBrowserTarget(mContext, "https://www.paypal.com/checkout?token=2", "*");
+        TargetResolutionCache.isValidBrowserTarget(mContext, "http://www.paypal.com/checkout?token=3", "*");
+
+        verify(mPackageManager, times(2)).resolveActivity(any(Intent.class), anyInt());
+    }
+
+    @Test
+    public void isValidBrowserTarget_isResolvedAgainAfterPackageIsRemoved() {
+        TargetResolutionCache.isValidBrowserTarget(mContext, "https://www.paypal.com/checkout", "com.android.chrome");
+
+        RuntimeEnvironment.application.sendBroadcast(new Intent(Intent.ACTION_PACKAGE_REMOVED,
+                Uri.parse("package:com.android.chrome")));
+        Robolectric.flushForegroundThreadScheduler();
+        TargetResolutionCache.isValidBrowserTarget(mContext, "https://www.paypal.com/checkout", "com.android.chrome");
+
+        verify(mPackageManager, times(2)).resolveActivity(any(Intent.class), anyInt());
+    }
+}
@@ -0,0 +1,64 @@
+package com.paypal.android.sdk.onetouch.core.encryption;
+
+import com.paypal.android.sdk.onetouch.core.BuildConfig;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+
+import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.fail;
+
+@RunWith(RobolectricTestRunner.class)
+public class EncryptionUtilsUnitTest {
+
+    private String mCertificate;
+
+    @Before
+    public void setup() throws JSONException {
+        mCertificate = getEndpointCertificate();
+    }
+
+    @Test
+    public void getX509CertificateFromBase64String_parsesCertificate() throws CertificateException {
+        X509Certificate certificate = EncryptionUtils.getX509CertificateFromBase64String(mCertificate);
+
+        assertNotNull(certificate.getPublicKey());
+    }
+
+    @Test
+    public void getX509CertificateFromBase64String_returnsCachedCertificate() throws CertificateException {
+        X509Certificate certificate = EncryptionUtils.getX509CertificateFromBase64String(mCertificate);
+
+        for (int i = 0; i < 100; i++) {
+            assertSame(certificate, EncryptionUtils.getX509CertificateFromBase64String(mCertificate));
+        }
+    }
+
+    @Test
+    public void getX509CertificateFromBase64String_throwsForInvalidCertificate() {
+        for (int i = 0; i < 2; i++) {
+            try {
+                EncryptionUtils.getX509CertificateFromBase64String("aW52YWxpZA==");
+                fail("Expected a CertificateException");
+            } catch (CertificateException ignored) {}
+        }
+    }
+
+    static String getEndpointCertificate() throws JSONException {
+        return new JSONObject(BuildConfig.CONFIGURATION)
+                .getJSONObject("1.0")
+                .getJSONArray("oauth2_recipes_in_decreasing_priority_order")
+                .getJSONObject(4)
+                .getJSONObject("endpoints")
+                .getJSONObject("live")
+                .getString("certificate");
+    }
+}
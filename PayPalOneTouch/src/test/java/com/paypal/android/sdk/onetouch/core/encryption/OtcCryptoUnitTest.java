@@ -0,0 +1,120 @@
+package com.paypal.android.sdk.onetouch.core.encryption;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+import static junit.framework.Assert.fail;
+
+@RunWith(RobolectricTestRunner.class)
+public class OtcCryptoUnitTest {
+
+    private final OtcCrypto mOtcCrypto = new OtcCrypto();
+
+    @Test
+    public void decryptAESCTRData_decryptsRepeatedlyWithDifferentKeys() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            byte[] key = mOtcCrypto.generateRandom256BitKey();
+            byte[] plainData = ("payload " + i).getBytes("UTF-8");
+
+            byte[] decrypted = mOtcCrypto.decryptAESCTRData(encrypt(plainData, key), key);
+
+            assertTrue(Arrays.equals(plainData, decrypted));
+        }
+    }
+
+    @Test
+    public void decryptAESCTRData_decryptsAfterSignatureMismatch() throws Exception {
+        byte[] key = mOtcCrypto.generateRandom256BitKey();
+        byte[] cipherData = encrypt("payload".getBytes("UTF-8"), key);
+        byte[] tamperedData = cipherData.clone();
+        tamperedData[tamperedData.length - 1] ^= 1;
+
+        try {
+            mOtcCrypto.decryptAESCTRData(tamperedData, key);
+            fail("Expected an IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Signature mismatch", e.getMessage());
+        }
+
+        assertEquals("payload", new String(mOtcCrypto.decryptAESCTRData(cipherData, key), "UTF-8"));
+    }
+
+    @Test
+    public void decryptAESCTRData_decryptsOnMultipleThreads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] futures = new Future[16];
+            for (int i = 0; i < futures.length; i++) {
+                final byte[] plainData = ("payload " + i).getBytes("UTF-8");
+                futures[i] = executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        for (int j = 0; j < 25; j++) {
+                            byte[] key = mOtcCrypto.generateRandom256BitKey();
+                            assertTrue(Arrays.equals(plainData,
+                                    mOtcCrypto.decryptAESCTRData(encrypt(plainData, key), key)));
+                        }
+                        return null;
+                    }
+                });
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void encryptRSAData_encryptsRepeatedly() throws Exception {
+        X509Certificate certificate = EncryptionUtils.getX509CertificateFromBase64String(
+                EncryptionUtilsUnitTest.getEndpointCertificate());
+
+        byte[] first = mOtcCrypto.encryptRSAData("payload".getBytes("UTF-8"), certificate);
+        byte[] second = mOtcCrypto.encryptRSAData("payload".getBytes("UTF-8"), certificate);
+
+        assertEquals(first.length, second.length);
+        // OAEP padding is randomized
+        assertTrue(!Arrays.equals(first, second));
+    }
+
+    private static byte[] encrypt(byte[] plainData, byte[] key) throws Exception {
+        byte[] encryptionKey = Arrays.copyOfRange(key, 0, 16);
+        byte[] digestKey = Arrays.copyOfRange(key, 16, 32);
+        byte[] nonce = EncryptionUtils.generateRandomData(16);
+
+        Cipher cipher = Cipher.getInstance("AES/CTR/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(encryptionKey, "AES"), new IvParameterSpec(nonce));
+        byte[] encrypted = cipher.doFinal(plainData);
+
+        byte[] signedData = new byte[nonce.length + encrypted.length];
+        System.arraycopy(nonce, 0, signedData, 0, nonce.length);
+        System.arraycopy(encrypted, 0, signedData, nonce.length, encrypted.length);
+
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(digestKey, "HmacSHA256"));
+        byte[] signature = mac.doFinal(signedData);
+
+        byte[] cipherData = new byte[signature.length + signedData.length];
+        System.arraycopy(signature, 0, cipherData, 0, signature.length);
+        System.arraycopy(signedData, 0, cipherData, signature.length, signedData.length);
+        return cipherData;
+    }
+}
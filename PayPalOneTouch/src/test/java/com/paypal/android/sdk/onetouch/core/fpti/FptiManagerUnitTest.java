@@ -7,7 +7,6 @@ import com.paypal.android.sdk.onetouch.core.base.ContextInspector;
 import com.paypal.android.sdk.onetouch.core.base.DeviceInspector;
 import com.paypal.android.sdk.onetouch.core.enums.Protocol;
 import com.paypal.android.sdk.onetouch.core.network.EnvironmentManager;
-import com.paypal.android.sdk.onetouch.core.network.PayPalHttpClient;
 
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -28,18 +27,20 @@ import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @RunWith(RobolectricTestRunner.class)
 public class FptiManagerUnitTest {
 
+    private FptiQueue mQueue;
     private FptiManager mFptiManager;
 
     @Before
     public void setup() throws NameNotFoundException {
         ContextInspector contextInspector = getMockContextInspector();
-        PayPalHttpClient httpClient = mock(PayPalHttpClient.class);
-        mFptiManager = spy(new FptiManager(contextInspector, httpClient));
+        mQueue = mock(FptiQueue.class);
+        mFptiManager = spy(new FptiManager(contextInspector, mQueue));
     }
 
     @Test
@@ -74,15 +75,15 @@ public class FptiManagerUnitTest {
         ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
         verify(mFptiManager).sendRequest(captor.capture());
 
-        JSONObject events = new JSONObject(captor.getValue()).getJSONObject("events");
-        assertNotNull(events.getString("tracking_event"));
-        assertEquals("mobile", events.getString("channel"));
+        JSONObject event = new JSONObject(captor.getValue());
+        assertNotNull(event.getString("tracking_event"));
+        assertEquals("mobile", event.getString("channel"));
 
-        JSONObject actor = events.getJSONObject("actor");
+        JSONObject actor = event.getJSONObject("actor");
         assertEquals("installation-guid", actor.getString("tracking_visitor_id"));
         assertNotNull(actor.getString("tracking_visit_id"));
 
-        JSONObject eventParams = events.getJSONObject("event_params");
+        JSONObject eventParams = event.getJSONObject("event_params");
         assertEquals("mobile:otc:switchback:cancel:v1", eventParams.getString("pgrp"));
         assertEquals("mobile", eventParams.getString("sv"));
         assertEquals("installation-guid", eventParams.getString("dsid"));
@@ -104,4 +105,37 @@ public class FptiManagerUnitTest {
         assertEquals("mobile:otc:switchback:cancel:v1:Android:sandbox:", eventParams.getString("page"));
         assertEquals(Locale.getDefault().toString(), eventParams.getString("rsta"));
     }
+
+    @Test
+    public void sendRequest_addsEventToQueue() {
+        mFptiManager.trackFpti(TrackingPoint.Cancel, EnvironmentManager.SANDBOX,
+                new HashMap<String, String>(), Protocol.v1);
+
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(mFptiManager).sendRequest(captor.capture());
+        verify(mQueue).add(captor.getValue());
+    }
+
+    @Test
+    public void trackFpti_tracksWalletChecksOncePerProtocolAndEnvironment() {
+        for (int i = 0; i < 3; i++) {
+            mFptiManager.trackFpti(TrackingPoint.WalletIsPresent, "", new HashMap<String, String>(), Protocol.v1);
+            mFptiManager.trackFpti(TrackingPoint.WalletIsAbsent, "", new HashMap<String, String>(), Protocol.v1);
+            mFptiManager.trackFpti(TrackingPoint.WalletIsAbsent, "", new HashMap<String, String>(), Protocol.v2);
+            mFptiManager.trackFpti(TrackingPoint.WalletIsAbsent, EnvironmentManager.LIVE,
+                    new HashMap<String, String>(), Protocol.v2);
+        }
+
+        verify(mFptiManager, times(4)).sendRequest(anyString());
+    }
+
+    @Test
+    public void trackFpti_doesNotDeduplicateOtherTrackingPoints() {
+        mFptiManager.trackFpti(TrackingPoint.Cancel, EnvironmentManager.SANDBOX,
+                new HashMap<String, String>(), Protocol.v1);
+        mFptiManager.trackFpti(TrackingPoint.Cancel, EnvironmentManager.SANDBOX,
+                new HashMap<String, String>(), Protocol.v1);
+
+        verify(mFptiManager, times(2)).sendRequest(anyString());
+    }
 }
@@ -0,0 +1,195 @@
+package com.paypal.android.sdk.onetouch.core.fpti;
+
+import com.braintreepayments.api.exceptions.ServerException;
+import com.braintreepayments.api.exceptions.UnprocessableEntityException;
+import com.paypal.android.sdk.onetouch.core.network.PayPalHttpClient;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowLog;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(RobolectricTestRunner.class)
+public class FptiQueueUnitTest {
+
+    private File mFile;
+    private PayPalHttpClient mHttpClient;
+    private FakeScheduler mScheduler;
+
+    @Before
+    public void setup() {
+        mFile = new File(RuntimeEnvironment.application.getFilesDir(), "fpti_events_test");
+        mFile.delete();
+        mHttpClient = mock(PayPalHttpClient.class);
+        mScheduler = new FakeScheduler();
+    }
+
+    @Test
+    public void add_doesNotPostImmediately() throws Exception {
+        FptiQueue queue = new FptiQueue(mFile, mHttpClient, mScheduler, new Random());
+
+        queue.add("{\"event\":1}");
+
+        verify(mHttpClient, never()).post(anyString(), anyString());
+    }
+
+    @Test
+    public void add_schedulesSingleFlushWithinJitterWindow() {
+        FptiQueue queue = new FptiQueue(mFile, mHttpClient, mScheduler, new Random());
+
+        queue.add("{\"event\":1}");
+        queue.add("{\"event\":2}");
+        queue.add("{\"event\":3}");
+
+        assertEquals(1, mScheduler.mScheduled.size());
+        long delay = mScheduler.mDelays.get(0);
+        assertTrue(delay >= FptiQueue.MIN_FLUSH_DELAY);
+        assertTrue(delay <= FptiQueue.MAX_FLUSH_DELAY);
+    }
+
+    @Test
+    public void flush_postsEachQueuedEventInOrderInItsOwnRequest() throws Exception {
+        FptiQueue queue = new FptiQueue(mFile, mHttpClient, mScheduler, new Random());
+        queue.add("{\"event\":1}");
+        queue.add("{\"event\":2}");
+        queue.add("{\"event\":3}");
+
+        mScheduler.runScheduled();
+
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(mHttpClient, times(3)).post(eq("tracking/events"), captor.capture());
+        assertEquals(1, new JSONObject(captor.getAllValues().get(0)).getJSONObject("events").getInt("event"));
+        assertEquals(3, new JSONObject(captor.getAllValues().get(2)).getJSONObject("events").getInt("event"));
+        assertFalse(mFile.exists());
+    }
+
+    @Test
+    public void add_dropsOldestEventsWhenQueueIsFull() throws Exception {
+        FptiQueue queue = new FptiQueue(mFile, mHttpClient, mScheduler, new Random());
+        for (int i = 0; i < FptiQueue.MAX_EVENTS + 1; i++) {
+            queue.add("{\"event\":" + i + "}");
+        }
+
+        mScheduler.runScheduled();
+
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(mHttpClient, times(FptiQueue.MAX_EVENTS)).post(eq("tracking/events"), captor.capture());
+        assertEquals(1, new JSONObject(captor.getAllValues().get(0)).getJSONObject("events").getInt("event"));
+    }
+
+    @Test
+    public void queuedEvents_arePostedByNextInstance() throws Exception {
+        FptiQueue queue = new FptiQueue(mFile, mHttpClient, mScheduler, new Random());
+        queue.add("{\"event\":1}");
+        queue.add("{\"event\":2}");
+        assertTrue(mFile.exists());
+
+        FakeScheduler scheduler = new FakeScheduler();
+        new FptiQueue(mFile, mHttpClient, scheduler, new Random());
+        assertEquals(1, scheduler.mScheduled.size());
+        scheduler.runScheduled();
+
+        verify(mHttpClient, times(2)).post(eq("tracking/events"), anyString());
+    }
+
+    @Test
+    public void newInstance_doesNotScheduleFlushWhenQueueIsEmpty() {
+        new FptiQueue(mFile, mHttpClient, mScheduler, new Random());
+
+        assertTrue(mScheduler.mScheduled.isEmpty());
+    }
+
+    @Test
+    public void flush_keepsEventsAndReschedulesOnServerError() throws Exception {
+        doThrow(new ServerException("error")).when(mHttpClient).post(anyString(), anyString());
+        FptiQueue queue = new FptiQueue(mFile, mHttpClient, mScheduler, new Random());
+        queue.add("{\"event\":1}");
+
+        mScheduler.runScheduled();
+
+        assertEquals(1, mScheduler.mScheduled.size());
+        assertTrue(mFile.exists());
+    }
+
+    @Test
+    public void flush_dropsEventsRejectedByServerAndLogsThem() throws Exception {
+        doThrow(new UnprocessableEntityException("error")).when(mHttpClient).post(anyString(), anyString());
+        FptiQueue queue = new FptiQueue(mFile, mHttpClient, mScheduler, new Random());
+        queue.add("{\"event\":1}");
+        ShadowLog.reset();
+
+        mScheduler.runScheduled();
+
+        assertTrue(mScheduler.mScheduled.isEmpty());
+        assertFalse(mFile.exists());
+        assertEquals(1, ShadowLog.getLogsForTag(FptiQueue.class.getSimpleName()).size());
+    }
+
+    @Test
+    public void flush_postsEventsAfterRejectedEvent() throws Exception {
+        doThrow(new UnprocessableEntityException("error")).when(mHttpClient)
+                .post(anyString(), eq("{\"events\":{\"event\":1}}"));
+        FptiQueue queue = new FptiQueue(mFile, mHttpClient, mScheduler, new Random());
+        queue.add("{\"event\":1}");
+        queue.add("{\"event\":2}");
+
+        mScheduler.runScheduled();
+
+        verify(mHttpClient).post("tracking/events", "{\"events\":{\"event\":2}}");
+        assertFalse(mFile.exists());
+    }
+
+    @Test
+    public void getRequestBody_wrapsEventInEventsObject() throws JSONException {
+        String body = FptiQueue.getRequestBody("{\"a\":\"b\"}");
+
+        assertEquals("b", new JSONObject(body).getJSONObject("events").getString("a"));
+    }
+
+    private static class FakeScheduler extends FptiQueue.Scheduler {
+
+        final List<Runnable> mScheduled = new ArrayList<>();
+        final List<Long> mDelays = new ArrayList<>();
+
+        @Override
+        void execute(Runnable runnable) {
+            runnable.run();
+        }
+
+        @Override
+        void schedule(Runnable runnable, long delayMillis) {
+            mScheduled.add(runnable);
+            mDelays.add(delayMillis);
+        }
+
+        void runScheduled() {
+            List<Runnable> scheduled = new ArrayList<>(mScheduled);
+            mScheduled.clear();
+            mDelays.clear();
+            for (Runnable runnable : scheduled) {
+                runnable.run();
+            }
+        }
+    }
+}
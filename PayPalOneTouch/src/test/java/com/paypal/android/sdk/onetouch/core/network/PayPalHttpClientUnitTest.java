@@ -7,11 +7,23 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.net.HttpURLConnection;
 
 import static com.paypal.android.sdk.onetouch.core.base.DeviceInspector.getDeviceName;
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @RunWith(RobolectricTestRunner.class)
 public class PayPalHttpClientUnitTest {
@@ -35,4 +47,61 @@ public class PayPalHttpClientUnitTest {
 
         assertEquals(90000, connection.getConnectTimeout());
     }
+
+    @Test
+    public void conditionalGet_sendsValidators() throws Exception {
+        PayPalHttpClient httpClient = spy(new PayPalHttpClient());
+        HttpURLConnection connection = mockConnection(httpClient, HttpURLConnection.HTTP_NOT_MODIFIED);
+
+        httpClient.conditionalGet("http://example.com", "etag", "Thu, 10 Mar 2016 21:15:00 GMT");
+
+        verify(connection).setRequestProperty("If-None-Match", "etag");
+        verify(connection).setRequestProperty("If-Modified-Since", "Thu, 10 Mar 2016 21:15:00 GMT");
+    }
+
+    @Test
+    public void conditionalGet_doesNotSendMissingValidators() throws Exception {
+        PayPalHttpClient httpClient = spy(new PayPalHttpClient());
+        HttpURLConnection connection = mockConnection(httpClient, HttpURLConnection.HTTP_OK);
+
+        httpClient.conditionalGet("http://example.com", null, null);
+
+        verify(connection, never()).setRequestProperty(eq("If-None-Match"), anyString());
+        verify(connection, never()).setRequestProperty(eq("If-Modified-Since"), anyString());
+    }
+
+    @Test
+    public void conditionalGet_returnsNotModified() throws Exception {
+        PayPalHttpClient httpClient = spy(new PayPalHttpClient());
+        mockConnection(httpClient, HttpURLConnection.HTTP_NOT_MODIFIED);
+
+        ConditionalGetResponse response = httpClient.conditionalGet("http://example.com", "etag", null);
+
+        assertTrue(response.isNotModified());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    public void conditionalGet_returnsBodyAndValidators() throws Exception {
+        PayPalHttpClient httpClient = spy(new PayPalHttpClient());
+        HttpURLConnection connection = mockConnection(httpClient, HttpURLConnection.HTTP_OK);
+        when(connection.getInputStream()).thenReturn(new ByteArrayInputStream("{}".getBytes("UTF-8")));
+        when(connection.getHeaderField("ETag")).thenReturn("etag");
+        when(connection.getHeaderField("Last-Modified")).thenReturn("Thu, 10 Mar 2016 21:15:00 GMT");
+
+        ConditionalGetResponse response = httpClient.conditionalGet("http://example.com", null, null);
+
+        assertFalse(response.isNotModified());
+        assertEquals("{}", response.getBody());
+        assertEquals("etag", response.getETag());
+        assertEquals("Thu, 10 Mar 2016 21:15:00 GMT", response.getLastModified());
+    }
+
+    private HttpURLConnection mockConnection(PayPalHttpClient httpClient, int responseCode) throws IOException {
+        HttpURLConnection connection = mock(HttpURLConnection.class);
+        when(connection.getResponseCode()).thenReturn(responseCode);
+        when(connection.getInputStream()).thenReturn(new ByteArrayInputStream(new byte[0]));
+        doReturn(connection).when(httpClient).init(anyString());
+        return connection;
+    }
 }
@@ -3,7 +3,13 @@ package com.braintreepayments.testutils;
 import android.content.Context;
 import android.content.SharedPreferences;
 import android.net.Uri;
-import android.util.Base64;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 public class SharedPreferencesHelper {
 
@@ -13,6 +19,13 @@ public class SharedPreferencesHelper {
 
     public static void clearSharedPreferences(Context context) {
         getSharedPreferences(context).edit().clear().commit();
+
+        File[] cachedFiles = getFileCacheDirectory(context).listFiles();
+        if (cachedFiles != null) {
+            for (File file : cachedFiles) {
+                file.delete();
+            }
+        }
     }
 
     public static void writeMockConfiguration(Context context, String configUrl, String appendedAuthorization,
@@ -33,10 +46,33 @@ public class SharedPreferencesHelper {
             configUrl = configUrl.concat(appendedAuthorization);
         }
 
-        String key = Base64.encodeToString(configUrl.getBytes(), 0);
-        getSharedPreferences(context).edit()
-                .putString(key, configurationString)
-                .putLong(key + "_timestamp", timestamp)
-                .commit();
+        File directory = getFileCacheDirectory(context);
+        directory.mkdirs();
+        try {
+            DataOutputStream out = new DataOutputStream(
+                    new FileOutputStream(new File(directory, getFileCacheName(configUrl))));
+            out.writeInt(1);
+            out.writeLong(timestamp);
+            out.write(configurationString.getBytes("UTF-8"));
+            out.close();
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Mirrors the layout of {@code BraintreeFileCache}.
+     */
+    private static File getFileCacheDirectory(Context context) {
+        return new File(context.getCacheDir(), "braintree-cache");
+    }
+
+    private static String getFileCacheName(String key) throws IOException, NoSuchAlgorithmException {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes("UTF-8"));
+        StringBuilder fileName = new StringBuilder();
+        for (byte b : digest) {
+            fileName.append(String.format("%02x", b));
+        }
+        return fileName.toString();
     }
 }